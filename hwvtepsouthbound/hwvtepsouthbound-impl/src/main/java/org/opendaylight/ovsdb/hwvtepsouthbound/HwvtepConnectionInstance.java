@@ -14,15 +14,18 @@ import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.SettableFuture;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import javax.annotation.Nonnull;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
@@ -46,6 +49,7 @@ import org.opendaylight.ovsdb.lib.notation.Row;
 import org.opendaylight.ovsdb.lib.operations.Operation;
 import org.opendaylight.ovsdb.lib.operations.OperationResult;
 import org.opendaylight.ovsdb.lib.operations.TransactionBuilder;
+import org.opendaylight.ovsdb.lib.replica.DatabaseReplica;
 import org.opendaylight.ovsdb.lib.schema.DatabaseSchema;
 import org.opendaylight.ovsdb.lib.schema.GenericTableSchema;
 import org.opendaylight.ovsdb.lib.schema.TableSchema;
@@ -67,8 +71,12 @@ public class HwvtepConnectionInstance {
     private final HwvtepTableReader hwvtepTableReader;
     private InstanceIdentifier<Node> instanceIdentifier;
     private final TransactionInvoker txInvoker;
-    private Map<DatabaseSchema,TransactInvoker> transactInvokers;
-    private MonitorCallBack callback;
+    // Set once the schema is fetched, the commands issued before then wait for it
+    private volatile Map<DatabaseSchema,TransactInvoker> transactInvokers;
+    private final SettableFuture<Map<DatabaseSchema,TransactInvoker>> transactInvokersCreated =
+            SettableFuture.create();
+    private final AtomicBoolean transactInvokersRequested = new AtomicBoolean();
+    private volatile MonitorCallBack callback;
     private volatile boolean hasDeviceOwnership = false;
     private Entity connectedEntity;
     private EntityOwnershipCandidateRegistration deviceOwnershipCandidateRegistration;
@@ -123,14 +131,18 @@ public class HwvtepConnectionInstance {
         }
     }
 
-    public synchronized void transact(TransactCommand command, boolean reconcile) {
-        try {
-            for (TransactInvoker transactInvoker : transactInvokers.values()) {
-                transactInvoker.invoke(command);
-            }
-        } finally {
-            if (reconcile) {
-                reconciliationFt.set(Boolean.TRUE);
+    public void transact(TransactCommand command, boolean reconcile) {
+        // Outside of the lock, a command waiting for the schema must not hold back the others
+        Collection<TransactInvoker> invokers = getTransactInvokers();
+        synchronized (this) {
+            try {
+                for (TransactInvoker transactInvoker : invokers) {
+                    transactInvoker.invoke(command);
+                }
+            } finally {
+                if (reconcile) {
+                    reconciliationFt.set(Boolean.TRUE);
+                }
             }
         }
     }
@@ -145,34 +157,78 @@ public class HwvtepConnectionInstance {
                 this.updateConnectionAttributes();
             }
 
-            try {
-                String database = HwvtepSchemaConstants.HARDWARE_VTEP;
-                DatabaseSchema dbSchema = getSchema(database).get();
-                if (dbSchema != null) {
-                    LOG.info("Monitoring database: {}", database);
-                    callback = new HwvtepMonitorCallback(this, txInvoker);
-                    monitorAllTables(database, dbSchema);
-                } else {
-                    LOG.info("No database {} found on {}", database, connectionInfo);
+            String database = HwvtepSchemaConstants.HARDWARE_VTEP;
+            // Set right away so that the callbacks are only registered once, reset if the schema cannot be fetched
+            callback = new HwvtepMonitorCallback(this, txInvoker);
+            Futures.addCallback(getSchema(database), new FutureCallback<DatabaseSchema>() {
+                @Override
+                public void onSuccess(DatabaseSchema dbSchema) {
+                    if (dbSchema != null) {
+                        LOG.info("Monitoring database: {}", database);
+                        monitorAllTables(database, dbSchema);
+                    } else {
+                        LOG.info("No database {} found on {}", database, connectionInfo);
+                        callback = null;
+                    }
                 }
-            } catch (InterruptedException | ExecutionException e) {
-                LOG.warn("Exception attempting to registerCallbacks {}: ", connectionInfo, e);
-            }
+
+                @Override
+                public void onFailure(Throwable throwable) {
+                    LOG.warn("Exception attempting to registerCallbacks {}: ", connectionInfo, throwable);
+                    callback = null;
+                }
+            }, MoreExecutors.directExecutor());
         }
     }
 
     public void createTransactInvokers() {
-        if (transactInvokers == null) {
-            try {
-                transactInvokers = new HashMap<>();
-                DatabaseSchema dbSchema = getSchema(HwvtepSchemaConstants.HARDWARE_VTEP).get();
-                if (dbSchema != null) {
-                    transactInvokers.put(dbSchema, new TransactInvokerImpl(this,dbSchema));
+        if (transactInvokers == null && transactInvokersRequested.compareAndSet(false, true)) {
+            Futures.addCallback(getSchema(HwvtepSchemaConstants.HARDWARE_VTEP), new FutureCallback<DatabaseSchema>() {
+                @Override
+                public void onSuccess(DatabaseSchema dbSchema) {
+                    Map<DatabaseSchema,TransactInvoker> invokers = new ConcurrentHashMap<>();
+                    if (dbSchema != null) {
+                        invokers.put(dbSchema, new TransactInvokerImpl(HwvtepConnectionInstance.this, dbSchema));
+                    }
+                    transactInvokers = invokers;
+                    transactInvokersCreated.set(invokers);
                 }
-            } catch (InterruptedException | ExecutionException e) {
-                LOG.warn("Exception attempting to createTransactionInvokers {}", connectionInfo, e);
-            }
+
+                @Override
+                public void onFailure(Throwable throwable) {
+                    LOG.warn("Exception attempting to createTransactionInvokers {}", connectionInfo, throwable);
+                    transactInvokersCreated.setException(throwable);
+                }
+            }, MoreExecutors.directExecutor());
+        }
+    }
+
+    /**
+     * Returns the transact invokers once the hardware_vtep schema is fetched, waiting at most
+     * {@link HwvtepSouthboundConstants#TRANSACT_INVOKERS_TIMEOUT_SECONDS} for it; the command is dropped if the
+     * schema cannot be had.
+     */
+    private Collection<TransactInvoker> getTransactInvokers() {
+        Map<DatabaseSchema,TransactInvoker> invokers = transactInvokers;
+        if (invokers != null) {
+            return invokers.values();
+        }
+        if (!transactInvokersRequested.get()) {
+            LOG.warn("No transact invokers created for {}, dropping the command", connectionInfo);
+            return Collections.emptyList();
         }
+        try {
+            return transactInvokersCreated.get(HwvtepSouthboundConstants.TRANSACT_INVOKERS_TIMEOUT_SECONDS,
+                    TimeUnit.SECONDS).values();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOG.warn("Interrupted waiting for the transact invokers of {}, dropping the command", connectionInfo);
+        } catch (ExecutionException e) {
+            LOG.warn("No transact invokers for {}, dropping the command", connectionInfo, e);
+        } catch (TimeoutException e) {
+            LOG.warn("Timed out waiting for the schema of {}, dropping the command", connectionInfo);
+        }
+        return Collections.emptyList();
     }
 
     private void monitorAllTables(String database, DatabaseSchema dbSchema) {
@@ -193,10 +249,21 @@ public class HwvtepConnectionInstance {
 
                     monitorRequests.add(new MonitorRequestBuilder<>(tableSchema)
                             .addColumns(columns)
-                            .with(new MonitorSelect(true, true, true, true)).build());
+                            .with(new MonitorSelect(true, true, true, true))
+                            .addIndexes(HwvtepSouthboundConstants.REPLICA_INDEXES.get(tableName)).build());
                 }
             }
-            this.callback.update(monitor(dbSchema, monitorRequests, callback), dbSchema);
+            Futures.addCallback(monitorAsync(dbSchema, monitorRequests, callback), new FutureCallback<TableUpdates>() {
+                @Override
+                public void onSuccess(TableUpdates updates) {
+                    callback.update(updates, dbSchema);
+                }
+
+                @Override
+                public void onFailure(Throwable throwable) {
+                    LOG.warn("Failed to monitor {} on {}", database, connectionInfo, throwable);
+                }
+            }, MoreExecutors.directExecutor());
         } else {
             LOG.warn("No tables for schema {} for database {} for key {}",dbSchema,database,connectionInfo);
         }
@@ -225,6 +292,10 @@ public class HwvtepConnectionInstance {
         return client.getSchema(database);
     }
 
+    public DatabaseReplica getReplica(String database) {
+        return client.getReplica(database);
+    }
+
     public TransactionBuilder transactBuilder(DatabaseSchema dbSchema) {
         return client.transactBuilder(dbSchema);
     }
@@ -239,10 +310,19 @@ public class HwvtepConnectionInstance {
         return null;
     }
 
+    public ListenableFuture<TableUpdates> monitorAsync(DatabaseSchema schema,
+            List<MonitorRequest> monitorRequests, MonitorCallBack monitorCallBack) {
+        return client.monitorAsync(schema, monitorRequests, monitorCallBack);
+    }
+
     public void cancelMonitor(MonitorHandle handler) {
         client.cancelMonitor(handler);
     }
 
+    public ListenableFuture<Void> cancelMonitorAsync(MonitorHandle handler) {
+        return client.cancelMonitorAsync(handler);
+    }
+
     public void lock(String lockId, LockAquisitionCallback lockedCallBack, LockStolenCallback stolenCallback) {
         client.lock(lockId, lockedCallBack, stolenCallback);
     }
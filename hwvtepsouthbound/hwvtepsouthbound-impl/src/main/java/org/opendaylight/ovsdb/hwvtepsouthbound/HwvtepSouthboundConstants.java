@@ -9,9 +9,11 @@
 package org.opendaylight.ovsdb.hwvtepsouthbound;
 
 import com.google.common.collect.ImmutableBiMap;
+import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ImmutableMap;
 import java.util.Arrays;
 import java.util.List;
+import org.opendaylight.ovsdb.lib.schema.TableIndex;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Uri;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.yang.types.rev130715.MacAddress;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.ovsdb.hwvtep.rev150901.EncapsulationTypeBase;
@@ -39,6 +41,19 @@ public interface HwvtepSouthboundConstants {
     String VERSION_COLUMN = "_version";
     ImmutableMap<String, List<String>> SKIP_COLUMN_FROM_HWVTEP_TABLE = new ImmutableMap.Builder<String, List<String>>()
             .put("Manager", Arrays.asList(VERSION_COLUMN, "status")).build();
+    // Secondary indexes of the replicated tables, serving the lookups of HwvtepTableReader
+    String NAME_INDEX = "name";
+    String LOGICAL_SWITCH_MAC_INDEX = "logical-switch-mac";
+    String DST_IP_INDEX = "dst-ip";
+    ImmutableListMultimap<String, TableIndex> REPLICA_INDEXES
+            = new ImmutableListMultimap.Builder<String, TableIndex>()
+            .put("Logical_Switch", TableIndex.unique(NAME_INDEX, "name"))
+            .put("Ucast_Macs_Remote", TableIndex.multiValued(LOGICAL_SWITCH_MAC_INDEX, "logical_switch", "MAC"))
+            .put("Mcast_Macs_Remote", TableIndex.multiValued(LOGICAL_SWITCH_MAC_INDEX, "logical_switch", "MAC"))
+            .put("Ucast_Macs_Local", TableIndex.multiValued(LOGICAL_SWITCH_MAC_INDEX, "logical_switch", "MAC"))
+            .put("Mcast_Macs_Local", TableIndex.multiValued(LOGICAL_SWITCH_MAC_INDEX, "logical_switch", "MAC"))
+            .put("Physical_Locator", TableIndex.multiValued(DST_IP_INDEX, "dst_ip"))
+            .build();
     int WAITING_QUEUE_CAPACITY = Integer.getInteger("hwvtep.wait.queue.capacity", 1000);
     long WAITING_JOB_EXPIRY_TIME_MILLIS = Integer.getInteger(
             "hwvtep.wait.job.expiry.time.millis", 90000);
@@ -48,4 +63,7 @@ public interface HwvtepSouthboundConstants {
             "hwvtep.intransit.job.check.period.millis", 30000);
     long CONFIG_NODE_UPDATE_MAX_DELAY_MS = Integer.getInteger(
             "config.node.update.max.delay.ms", 10000);
+    int MAX_INFLIGHT_TRANSACTIONS = Integer.getInteger("hwvtep.max.inflight.transactions", 16);
+    long TRANSACT_INVOKERS_TIMEOUT_SECONDS = Integer.getInteger(
+            "hwvtep.transact.invokers.timeout.seconds", 30);
 }
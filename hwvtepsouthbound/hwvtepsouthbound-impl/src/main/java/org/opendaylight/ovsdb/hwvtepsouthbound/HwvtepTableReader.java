@@ -28,6 +28,8 @@ import org.opendaylight.ovsdb.lib.notation.UUID;
 import org.opendaylight.ovsdb.lib.operations.Operation;
 import org.opendaylight.ovsdb.lib.operations.OperationResult;
 import org.opendaylight.ovsdb.lib.operations.Select;
+import org.opendaylight.ovsdb.lib.operations.Where;
+import org.opendaylight.ovsdb.lib.replica.DatabaseReplica;
 import org.opendaylight.ovsdb.lib.schema.DatabaseSchema;
 import org.opendaylight.ovsdb.lib.schema.GenericTableSchema;
 import org.opendaylight.ovsdb.lib.schema.typed.TypedBaseTable;
@@ -196,25 +198,15 @@ public class HwvtepTableReader {
             if (dbSchema != null) {
                 GenericTableSchema hwvtepSchema = TyperUtils.getTableSchema(dbSchema, tableClass);
 
-                List<String> hwvtepTableColumn = new ArrayList<>();
-                hwvtepTableColumn.addAll(hwvtepSchema.getColumns());
-                Select<GenericTableSchema> selectOperation = op.select(hwvtepSchema);
-                selectOperation.setColumns(hwvtepTableColumn);
-
+                List<Condition> conditions;
                 if (existingUUID != null) {
                     TypedBaseTable table = tables.get(tableClass);
                     LOG.info("Setting uuid condition {} ", existingUUID);
-                    selectOperation.where(table.getUuidColumn().getSchema().opEqual(existingUUID));
+                    conditions = Collections.singletonList(table.getUuidColumn().getSchema().opEqual(existingUUID));
                 } else {
                     if (whereClauseGetterMap.get(cls) != null) {
-                        List<Condition> conditions = whereClauseGetterMap.get(cls).apply(iid);
-                        if (conditions != null) {
-                            if (conditions.size() == 2) {
-                                selectOperation.where(conditions.get(0)).and(conditions.get(1));
-                            } else {
-                                selectOperation.where(conditions.get(0));
-                            }
-                        } else {
+                        conditions = whereClauseGetterMap.get(cls).apply(iid);
+                        if (conditions == null) {
                             LOG.error("Could not get where conditions for cls {} key {}", cls, iid);
                             return Optional.empty();
                         }
@@ -223,20 +215,16 @@ public class HwvtepTableReader {
                         return Optional.empty();
                     }
                 }
-                ArrayList<Operation> operations = new ArrayList<>();
-                operations.add(selectOperation);
-                try {
-                    List<OperationResult> results = connectionInstance.transact(dbSchema, operations).get();
-                    if (results != null && !results.isEmpty()) {
-                        OperationResult selectResult = results.get(0);
-                        if (selectResult.getRows() != null && !selectResult.getRows().isEmpty()) {
-                            globalRow = TyperUtils.getTypedRowWrapper(
-                                    dbSchema, tableClass, selectResult.getRows().get(0));
-                        }
+
+                // Monitored tables are read from the replica kept by the library, without a round trip
+                DatabaseReplica replica = connectionInstance.getReplica(HwvtepSchemaConstants.HARDWARE_VTEP);
+                if (replica != null && replica.hasTable(hwvtepSchema.getName())) {
+                    List<Row<GenericTableSchema>> rows = replica.select(hwvtepSchema, conditions);
+                    if (!rows.isEmpty()) {
+                        globalRow = TyperUtils.getTypedRowWrapper(dbSchema, tableClass, rows.get(0));
                     }
-                } catch (InterruptedException | ExecutionException e) {
-                    LOG.warn("Not able to fetch hardware_vtep table row from device {}",
-                            connectionInstance.getConnectionInfo(), e);
+                } else {
+                    globalRow = selectHwvtepTableEntry(dbSchema, hwvtepSchema, tableClass, conditions);
                 }
             }
             LOG.trace("Fetched {} from hardware_vtep schema", globalRow);
@@ -250,6 +238,34 @@ public class HwvtepTableReader {
         }
     }
 
+    private TypedBaseTable selectHwvtepTableEntry(DatabaseSchema dbSchema, GenericTableSchema hwvtepSchema,
+                                                  Class<TypedBaseTable> tableClass, List<Condition> conditions) {
+        List<String> hwvtepTableColumn = new ArrayList<>();
+        hwvtepTableColumn.addAll(hwvtepSchema.getColumns());
+        Select<GenericTableSchema> selectOperation = op.select(hwvtepSchema);
+        selectOperation.setColumns(hwvtepTableColumn);
+        Where where = selectOperation.where(conditions.get(0));
+        for (Condition condition : conditions.subList(1, conditions.size())) {
+            where.and(condition);
+        }
+
+        ArrayList<Operation> operations = new ArrayList<>();
+        operations.add(selectOperation);
+        try {
+            List<OperationResult> results = connectionInstance.transact(dbSchema, operations).get();
+            if (results != null && !results.isEmpty()) {
+                OperationResult selectResult = results.get(0);
+                if (selectResult.getRows() != null && !selectResult.getRows().isEmpty()) {
+                    return TyperUtils.getTypedRowWrapper(dbSchema, tableClass, selectResult.getRows().get(0));
+                }
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            LOG.warn("Not able to fetch hardware_vtep table row from device {}",
+                    connectionInstance.getConnectionInfo(), e);
+        }
+        return null;
+    }
+
     @SuppressWarnings("checkstyle:IllegalCatch")
     public List<TypedBaseTable> getHwvtepTableEntries(Class<? extends Identifiable> cls) {
         try {
@@ -267,6 +283,14 @@ public class HwvtepTableReader {
             if (dbSchema != null) {
                 GenericTableSchema hwvtepSchema = TyperUtils.getTableSchema(dbSchema, tableClass);
 
+                DatabaseReplica replica = connectionInstance.getReplica(HwvtepSchemaConstants.HARDWARE_VTEP);
+                if (replica != null && replica.hasTable(hwvtepSchema.getName())) {
+                    for (Row<GenericTableSchema> row : replica.getRows(hwvtepSchema)) {
+                        tableRows.add(TyperUtils.getTypedRowWrapper(dbSchema, tableClass, row));
+                    }
+                    return tableRows;
+                }
+
                 List<String> hwvtepTableColumn = new ArrayList<>();
                 hwvtepTableColumn.addAll(hwvtepSchema.getColumns());
                 Select<GenericTableSchema> selectOperation = op.select(hwvtepSchema);
@@ -9,12 +9,16 @@
 package org.opendaylight.ovsdb.hwvtepsouthbound.transact;
 
 import com.google.common.base.Strings;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
 import org.opendaylight.ovsdb.hwvtepsouthbound.HwvtepConnectionInstance;
+import org.opendaylight.ovsdb.hwvtepsouthbound.HwvtepSouthboundConstants;
 import org.opendaylight.ovsdb.lib.operations.Delete;
 import org.opendaylight.ovsdb.lib.operations.Insert;
 import org.opendaylight.ovsdb.lib.operations.Operation;
@@ -25,10 +29,16 @@ import org.opendaylight.ovsdb.lib.schema.DatabaseSchema;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Sends the transactions of a device without waiting for their results, up to
+ * {@link HwvtepSouthboundConstants#MAX_INFLIGHT_TRANSACTIONS} in flight: beyond it the caller waits for the device
+ * to catch up. The commands are notified of the outcome of their transaction on the response path.
+ */
 public class TransactInvokerImpl implements TransactInvoker {
     private static final Logger LOG = LoggerFactory.getLogger(TransactInvokerImpl.class);
     private final HwvtepConnectionInstance connectionInstance;
     private final DatabaseSchema dbSchema;
+    private final Semaphore inFlight = new Semaphore(HwvtepSouthboundConstants.MAX_INFLIGHT_TRANSACTIONS);
 
     public TransactInvokerImpl(HwvtepConnectionInstance connectionInstance, DatabaseSchema dbSchema) {
         this.connectionInstance = connectionInstance;
@@ -39,11 +49,24 @@ public class TransactInvokerImpl implements TransactInvoker {
     public void invoke(TransactCommand command) {
         TransactionBuilder tb = new TransactionBuilder(connectionInstance.getOvsdbClient(), dbSchema);
         command.execute(tb);
-        ListenableFuture<List<OperationResult>> result = tb.execute();
+        if (tb.getOperations().isEmpty()) {
+            tb.execute();
+            LOG.debug("invoke: command: {}, tb: {}", command, tb);
+            return;
+        }
+        inFlight.acquireUninterruptibly();
+        ListenableFuture<List<OperationResult>> result;
+        try {
+            result = tb.execute();
+        } catch (RuntimeException e) {
+            inFlight.release();
+            throw e;
+        }
         LOG.debug("invoke: command: {}, tb: {}", command, tb);
-        if (tb.getOperations().size() > 0) {
-            try {
-                List<OperationResult> got = result.get();
+        Futures.addCallback(result, new FutureCallback<List<OperationResult>>() {
+            @Override
+            public void onSuccess(List<OperationResult> got) {
+                inFlight.release();
                 LOG.debug("HWVTEP transaction result: {}", got);
                 boolean errorOccured = false;
                 if (got != null && got.size() > 0) {
@@ -61,11 +84,16 @@ public class TransactInvokerImpl implements TransactInvoker {
                 } else {
                     command.onSuccess(tb);
                 }
-            } catch (InterruptedException | ExecutionException e) {
-                LOG.warn("Transact execution exception: ", e);
+                LOG.trace("invoke exit command: {}, tb: {}", command, tb);
             }
-            LOG.trace("invoke exit command: {}, tb: {}", command, tb);
-        }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+                inFlight.release();
+                LOG.warn("Transact execution exception: ", throwable);
+                LOG.trace("invoke exit command: {}, tb: {}", command, tb);
+            }
+        }, MoreExecutors.directExecutor());
     }
 
     void printError(TransactionBuilder tb) {
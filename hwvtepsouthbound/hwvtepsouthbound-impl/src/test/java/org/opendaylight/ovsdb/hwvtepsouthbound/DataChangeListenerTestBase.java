@@ -19,6 +19,7 @@ import static org.powermock.api.support.membermodification.MemberModifier.suppre
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
 import java.io.IOException;
@@ -27,7 +28,6 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.net.InetAddress;
 import java.util.List;
-import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import org.apache.commons.lang3.reflect.FieldUtils;
 import org.junit.After;
@@ -156,9 +156,8 @@ public class DataChangeListenerTestBase extends AbstractDataBrokerTest {
             JsonNode jsonNode = mapper.readTree(resourceAsStream);
             dbSchema = DatabaseSchema.fromJson(HwvtepSchemaConstants.HARDWARE_VTEP,
                     jsonNode.get("result"));
-            listenableDbSchema = mock(ListenableFuture.class);
-            doReturn(dbSchema).when(listenableDbSchema).get();
-        } catch (IOException | ExecutionException | InterruptedException e) {
+            listenableDbSchema = Futures.immediateFuture(dbSchema);
+        } catch (IOException e) {
             LOG.error("Failed to load schema", e);
         }
     }
@@ -239,7 +238,7 @@ public class DataChangeListenerTestBase extends AbstractDataBrokerTest {
             throw new AssertionError("Set of Operations.op field failed", e);
         }
 
-        ListenableFuture<List<OperationResult>> ft = mock(ListenableFuture.class);
+        ListenableFuture<List<OperationResult>> ft = Futures.immediateFuture(null);
         transactCaptor = ArgumentCaptor.forClass(List.class);
         doReturn(ft).when(ovsdbClient).transact(any(DatabaseSchema.class), transactCaptor.capture());
     }
@@ -16,6 +16,7 @@ import org.opendaylight.ovsdb.lib.notation.Row;
 import org.opendaylight.ovsdb.lib.operations.Operation;
 import org.opendaylight.ovsdb.lib.operations.OperationResult;
 import org.opendaylight.ovsdb.lib.operations.TransactionBuilder;
+import org.opendaylight.ovsdb.lib.replica.DatabaseReplica;
 import org.opendaylight.ovsdb.lib.schema.DatabaseSchema;
 import org.opendaylight.ovsdb.lib.schema.GenericTableSchema;
 import org.opendaylight.ovsdb.lib.schema.TableSchema;
@@ -34,7 +35,8 @@ public interface OvsdbClient {
     ListenableFuture<List<String>> getDatabases();
 
     /**
-     * Asynchronously returns the schema object for a specific database.
+     * Asynchronously returns the schema object for a specific database. Concurrent calls for a database whose
+     * schema is not known yet share a single get_schema request.
      * @param database name of the database schema
      * @return DatabaseSchema future
      */
@@ -103,6 +105,31 @@ public interface OvsdbClient {
                                                     MonitorCallBack callback,
                                                     int timeout);
 
+    /**
+     * Asynchronous ovsdb <a href="http://tools.ietf.org/html/draft-pfaff-ovsdb-proto-04#section-4.1.5">monitor</a>
+     * operation, see {@link #monitor(DatabaseSchema, List, MonitorCallBack)}.
+     * @param monitorRequests represents what needs to be monitored
+     * @param callback receives the monitor response
+     * @return the initial rows future, failing if the monitor fails
+     */
+    ListenableFuture<TableUpdates> monitorAsync(DatabaseSchema schema,
+                                                List<MonitorRequest> monitorRequests,
+                                                MonitorCallBack callback);
+
+    /**
+     * Asynchronous ovsdb <a href="http://tools.ietf.org/html/draft-pfaff-ovsdb-proto-04#section-4.1.5">monitor</a>
+     * operation, see {@link #monitor(DatabaseSchema, List, MonitorHandle, MonitorCallBack)}.
+     * @param monitorRequests represents what needs to be monitored
+     * @param monitorHandle  A client specified monitor handle. This handle is used to later cancel
+     *                       ({@link #cancelMonitorAsync(MonitorHandle)}) the monitor.
+     * @param callback receives the monitor response
+     * @return the initial rows future, failing if the monitor fails
+     */
+    ListenableFuture<TableUpdates> monitorAsync(DatabaseSchema schema,
+                                                List<MonitorRequest> monitorRequests,
+                                                MonitorHandle monitorHandle,
+                                                MonitorCallBack callback);
+
     /**
      * Cancels an existing monitor method.
      * @param handler Handle identifying a specific monitor request that is being cancelled.
@@ -118,8 +145,29 @@ public interface OvsdbClient {
      */
     void cancelMonitor(MonitorHandle handler, int timeout);
 
+    /**
+     * Asynchronously cancels an existing monitor method.
+     * @param handler Handle identifying a specific monitor request that is being cancelled.
+     * @return a future failing with an {@link IllegalStateException} if the server rejects the cancellation
+     */
+    ListenableFuture<Void> cancelMonitorAsync(MonitorHandle handler);
+
+    /**
+     * Changes the conditions of an existing monitor_cond, through the monitor_cond_change operation. The
+     * rows no longer matching are then reported to the monitor callback as deleted, the newly matching ones
+     * as inserted.
+     * @param handler Handle identifying the monitor to change.
+     * @param monitorRequests the new conditions of the tables to change; a request without conditions
+     *                        monitors all the rows of its table
+     * @return a future failing if the monitor is not a monitor_cond or the server rejects the change
+     */
+    ListenableFuture<Void> changeMonitorConditions(MonitorHandle handler, List<MonitorRequest> monitorRequests);
+
     /**
      * ovsdb <a href="http://tools.ietf.org/html/draft-pfaff-ovsdb-proto-04#section-4.1.8">lock</a> operation.
+     * The lock is acquired right away if it is available, or waited for until its owner releases it; the
+     * callbacks are notified on each acquisition and theft. The writes depending on the ownership of the lock
+     * should be guarded by an {@link org.opendaylight.ovsdb.lib.operations.Assert} of the lock.
      * @param lockId a client specified id for the lock; this can be used for unlocking ({@link #unLock(String)})
      * @param lockedCallBack Callback to nofify when the lock is acquired
      * @param stolenCallback Callback to notify when an acquired lock is stolen by another client
@@ -127,14 +175,17 @@ public interface OvsdbClient {
     void lock(String lockId, LockAquisitionCallback lockedCallBack, LockStolenCallback stolenCallback);
 
     /**
-     * ovsdb steal operation.
-     * See {@link #lock(String, LockAquisitionCallback, LockStolenCallback)}
+     * ovsdb steal operation: takes a lock over from its owner, which is notified that it was stolen.
+     * A lock requested with {@link #lock(String, LockAquisitionCallback, LockStolenCallback)} keeps its
+     * callbacks.
+     * @return a future telling whether the lock is owned, failing if the server rejects the request
      */
     ListenableFuture<Boolean> steal(String lockId);
 
     /**
-     * ovsdb unlock operation.
-     * See {@link #unLock(String)}
+     * ovsdb unlock operation: releases a lock, owned or waited for.
+     * See {@link #lock(String, LockAquisitionCallback, LockStolenCallback)}
+     * @return a future telling whether the server released the lock
      */
     ListenableFuture<Boolean> unLock(String lockId);
 
@@ -163,6 +214,29 @@ public interface OvsdbClient {
 
     DatabaseSchema getDatabaseSchema(String dbName);
 
+    /**
+     * Returns the in-memory replica of the monitored tables of a database, kept current from the monitor
+     * updates before the monitor callbacks are notified, so that rows can be looked up without a transaction.
+     * @param dbName name of the database
+     * @return the replica, or null if replication is disabled or the database has not been monitored
+     */
+    DatabaseReplica getReplica(String dbName);
+
+    /**
+     * Looks up the replicated rows of a table through one of the secondary indexes declared by its monitor, see
+     * {@link org.opendaylight.ovsdb.lib.message.MonitorRequestBuilder#addIndex}; the lookup takes constant time and
+     * does not involve the switch.
+     * @param dbSchema the database of the table
+     * @param tableSchema the table to look up
+     * @param indexName the name of the index
+     * @param values the value of each indexed column, or the value of the key of a map-key index
+     * @return the rows indexed under the values, at most one for a unique index, or null if the table is not
+     *     replicated, in which case the rows must be selected from the switch
+     * @throws IllegalArgumentException if the index is not declared, or the values do not fit it
+     */
+    <E extends TableSchema<E>> List<Row<E>> lookup(DatabaseSchema dbSchema, TableSchema<E> tableSchema,
+                                                   String indexName, Object... values);
+
     /**
      * User friendly convenient methods that make use of TyperUtils.getTypedRowWrapper to create a Typed Row Proxy
      * given the Typed Table Class.
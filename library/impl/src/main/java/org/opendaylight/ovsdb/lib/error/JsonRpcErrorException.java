@@ -0,0 +1,40 @@
+/*
+ * Copyright © 2018 Red Hat, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.ovsdb.lib.error;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * This exception fails a request the server answered with a JSON-RPC error, for the methods which report their
+ * errors, see {@link org.opendaylight.ovsdb.lib.message.OvsdbRPC#ERROR_REPORTING_METHODS}.
+ */
+public class JsonRpcErrorException extends RuntimeException {
+
+    // ovsdb-server answers the methods it does not implement with this error
+    private static final String UNKNOWN_METHOD = "unknown method";
+
+    private final transient JsonNode error;
+
+    public JsonRpcErrorException(String method, JsonNode error) {
+        super(method + " failed: " + error);
+        this.error = error;
+    }
+
+    public JsonNode getError() {
+        return error;
+    }
+
+    /**
+     * Returns whether the server does not implement the requested method.
+     */
+    public boolean isUnknownMethod() {
+        JsonNode text = error.isObject() ? error.get("error") : error;
+        return text != null && UNKNOWN_METHOD.equals(text.asText());
+    }
+}
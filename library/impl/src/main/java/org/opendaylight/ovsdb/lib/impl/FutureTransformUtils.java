@@ -11,22 +11,26 @@ package org.opendaylight.ovsdb.lib.impl;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import org.opendaylight.ovsdb.lib.operations.Operation;
 import org.opendaylight.ovsdb.lib.operations.OperationResult;
 
 public final class FutureTransformUtils {
-    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final ObjectReader OPERATION_RESULT_READER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+            .readerFor(OperationResult.class);
 
     private FutureTransformUtils() {
     }
 
     public static ListenableFuture<List<OperationResult>> transformTransactResponse(
             ListenableFuture<List<JsonNode>> transactResponseFuture, final List<Operation> operations) {
-        OBJECT_MAPPER.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
         return Futures.transform(transactResponseFuture, jsonNodes -> {
             final List<OperationResult> operationResults = new ArrayList<>();
             for (int index = 0; index < jsonNodes.size(); index++) {
@@ -55,12 +59,12 @@ public final class FutureTransformUtils {
                                 break;
 
                             default:
-                                or = OBJECT_MAPPER.convertValue(jsonNode, OperationResult.class);
+                                or = readOperationResult(jsonNode);
 
                                 break;
                         }
                     } else {
-                        or = OBJECT_MAPPER.convertValue(jsonNode, OperationResult.class);
+                        or = readOperationResult(jsonNode);
                     }
                 } else {
                     or = new OperationResult();
@@ -69,6 +73,14 @@ public final class FutureTransformUtils {
             }
 
             return operationResults;
-        });
+        }, MoreExecutors.directExecutor());
+    }
+
+    private static OperationResult readOperationResult(JsonNode jsonNode) {
+        try {
+            return OPERATION_RESULT_READER.readValue(jsonNode);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Unable to read operation result " + jsonNode, e);
+        }
     }
 }
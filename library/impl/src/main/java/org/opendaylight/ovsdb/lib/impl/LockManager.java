@@ -0,0 +1,190 @@
+/*
+ * Copyright © 2018 Red Hat, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.ovsdb.lib.impl;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.opendaylight.ovsdb.lib.LockAquisitionCallback;
+import org.opendaylight.ovsdb.lib.LockStolenCallback;
+import org.opendaylight.ovsdb.lib.message.OvsdbRPC;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tracks the OVSDB locks requested on a connection, see RFC 7047 sections 4.1.8 to 4.1.11.
+ *
+ * <p>A requested lock is either owned or waited for. The lock and steal requests are answered right away; the
+ * server then sends a "locked" notification when a waited for lock is acquired, and a "stolen" notification
+ * when another client steals an owned lock, which is then waited for again until the thief releases it. The
+ * callbacks of the lock are invoked on these transitions, on the thread delivering the reply or notification.
+ */
+final class LockManager {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LockManager.class);
+
+    private static final class Lock {
+        // null for a lock which was stolen without being requested first
+        final LockAquisitionCallback lockedCallBack;
+        final LockStolenCallback stolenCallback;
+        // Guarded by this
+        boolean owned;
+
+        Lock(LockAquisitionCallback lockedCallBack, LockStolenCallback stolenCallback) {
+            this.lockedCallBack = lockedCallBack;
+            this.stolenCallback = stolenCallback;
+        }
+
+        synchronized boolean setOwned(boolean newOwned) {
+            boolean changed = owned != newOwned;
+            owned = newOwned;
+            return changed;
+        }
+
+        synchronized boolean isOwned() {
+            return owned;
+        }
+    }
+
+    private final OvsdbRPC rpc;
+    private final Map<String, Lock> locks = new ConcurrentHashMap<>();
+
+    LockManager(OvsdbRPC rpc) {
+        this.rpc = rpc;
+    }
+
+    /**
+     * Requests a lock.
+     *
+     * @return a future telling whether the lock was acquired right away, or is waited for; failing if the lock
+     *     is already requested on the connection or the server rejects the request
+     */
+    ListenableFuture<Boolean> lock(String lockId, LockAquisitionCallback lockedCallBack,
+                                   LockStolenCallback stolenCallback) {
+        Lock lock = new Lock(lockedCallBack, stolenCallback);
+        if (locks.putIfAbsent(lockId, lock) != null) {
+            return Futures.immediateFailedFuture(new IllegalStateException("Lock " + lockId + " already requested"));
+        }
+        return request("lock", lockId, lock, rpc.lock(Collections.singletonList(lockId)));
+    }
+
+    /**
+     * Steals a lock, requesting it if needed. The server only accepts a single request of a lock per client,
+     * a lock waited for is thus released before being stolen; both requests go out back to back.
+     *
+     * @return a future telling whether the lock is owned, failing if the server rejects the request
+     */
+    ListenableFuture<Boolean> steal(String lockId) {
+        Lock lock = locks.computeIfAbsent(lockId, id -> new Lock(null, null));
+        if (lock.isOwned()) {
+            return Futures.immediateFuture(true);
+        }
+        if (lock.lockedCallBack != null) {
+            rpc.unlock(Collections.singletonList(lockId));
+        }
+        return request("steal", lockId, lock, rpc.steal(Collections.singletonList(lockId)));
+    }
+
+    /**
+     * Releases a lock, owned or waited for.
+     *
+     * @return a future telling whether the server released the lock
+     */
+    ListenableFuture<Boolean> unlock(String lockId) {
+        locks.remove(lockId);
+        return Futures.transform(rpc.unlock(Collections.singletonList(lockId)), result -> {
+            if (result == null) {
+                LOG.warn("unlock of {} rejected", lockId);
+            }
+            return result != null;
+        }, MoreExecutors.directExecutor());
+    }
+
+    boolean isOwned(String lockId) {
+        Lock lock = locks.get(lockId);
+        return lock != null && lock.isOwned();
+    }
+
+    /**
+     * Handles a "locked" notification.
+     */
+    void locked(List<String> lockIds) {
+        for (String lockId : lockIds) {
+            Lock lock = locks.get(lockId);
+            if (lock == null) {
+                LOG.debug("Ignoring locked notification of unknown lock {}", lockId);
+            } else {
+                acquired(lockId, lock);
+            }
+        }
+    }
+
+    /**
+     * Handles a "stolen" notification.
+     */
+    void stolen(List<String> lockIds) {
+        for (String lockId : lockIds) {
+            Lock lock = locks.get(lockId);
+            if (lock == null) {
+                LOG.debug("Ignoring stolen notification of unknown lock {}", lockId);
+            } else if (lock.setOwned(false)) {
+                LOG.info("Lock {} stolen", lockId);
+                if (lock.stolenCallback != null) {
+                    lock.stolenCallback.lockStolen();
+                }
+            }
+        }
+    }
+
+    private ListenableFuture<Boolean> request(String method, String lockId, Lock lock, ListenableFuture<Object> reply) {
+        SettableFuture<Boolean> owned = SettableFuture.create();
+        Futures.addCallback(reply, new FutureCallback<Object>() {
+            @Override
+            public void onSuccess(Object result) {
+                if (result == null) {
+                    locks.remove(lockId, lock);
+                    owned.setException(new IllegalStateException(method + " of " + lockId + " rejected"));
+                    return;
+                }
+                // The lock may also have been acquired through a locked notification processed meanwhile
+                if (isLocked(result)) {
+                    acquired(lockId, lock);
+                }
+                owned.set(lock.isOwned());
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+                locks.remove(lockId, lock);
+                owned.setException(throwable);
+            }
+        }, MoreExecutors.directExecutor());
+        return owned;
+    }
+
+    private void acquired(String lockId, Lock lock) {
+        if (lock.setOwned(true)) {
+            LOG.debug("Lock {} acquired", lockId);
+            if (lock.lockedCallBack != null) {
+                lock.lockedCallBack.lockAcquired();
+            }
+        }
+    }
+
+    // The lock and steal replies are {"locked": <boolean>}
+    private static boolean isLocked(Object result) {
+        return result instanceof Map && Boolean.TRUE.equals(((Map<?, ?>) result).get("locked"));
+    }
+}
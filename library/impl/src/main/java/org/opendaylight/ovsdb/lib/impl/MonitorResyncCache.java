@@ -0,0 +1,164 @@
+/*
+ * Copyright © 2018 Red Hat, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.ovsdb.lib.impl;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.ovsdb.lib.notation.Condition;
+import org.opendaylight.ovsdb.lib.notation.Function;
+import org.opendaylight.ovsdb.lib.notation.Row;
+import org.opendaylight.ovsdb.lib.notation.UUID;
+import org.opendaylight.ovsdb.lib.operations.Operation;
+import org.opendaylight.ovsdb.lib.operations.Select;
+import org.opendaylight.ovsdb.lib.schema.DatabaseSchema;
+import org.opendaylight.ovsdb.lib.schema.GenericTableSchema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Rows and last transaction id of the monitors of closed connections, kept for a while so that a switch
+ * reconnecting can be monitored with monitor_cond_since: the server then only sends the changes since
+ * that transaction instead of a full dump of the database.
+ *
+ * <p>The address of a switch does not identify it, switches behind a NAT or on a same host share it. States
+ * are saved under the address, the database and the monitor requests along with one of their rows, the probe
+ * row: row uuids are random, so the state left by a switch is the one whose probe row is still in its
+ * database. States are handed out once and, as they hold all the monitored rows, the cache is bounded by
+ * their total number of rows.
+ */
+final class MonitorResyncCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MonitorResyncCache.class);
+
+    static final String NO_TRANSACTION = "00000000-0000-0000-0000-000000000000";
+
+    // Total number of rows kept, the least recently saved states are evicted first
+    private static final long MAX_ROWS = 1_000_000;
+
+    static final class MonitorState {
+        final String location;
+        final String lastTransactionId;
+        final Map<String, Map<UUID, Row>> rows;
+        final String probeTable;
+        final UUID probeUuid;
+
+        MonitorState(String location, String lastTransactionId, Map<String, Map<UUID, Row>> rows,
+                     String probeTable, UUID probeUuid) {
+            this.location = location;
+            this.lastTransactionId = lastTransactionId;
+            this.rows = rows;
+            this.probeTable = probeTable;
+            this.probeUuid = probeUuid;
+        }
+
+        /**
+         * Builds the select of the probe row, which returns it if this state was left by the switch queried,
+         * null if its table is not in the given schema.
+         */
+        Operation<GenericTableSchema> probe(DatabaseSchema dbSchema) {
+            if (!dbSchema.hasTable(probeTable)) {
+                return null;
+            }
+            Select<GenericTableSchema> select = new Select<>(dbSchema.table(probeTable, GenericTableSchema.class));
+            select.setColumns(Collections.singletonList("_uuid"));
+            select.addCondition(new Condition("_uuid", Function.EQUALS, probeUuid));
+            return select;
+        }
+
+        private String key() {
+            return location + "/" + probeTable + "/" + probeUuid;
+        }
+
+        private int weight() {
+            int weight = 1;
+            for (Map<UUID, Row> tableRows : rows.values()) {
+                weight += tableRows.size();
+            }
+            return weight;
+        }
+    }
+
+    private static volatile Cache<String, MonitorState> states = newCache(300);
+
+    private MonitorResyncCache() {
+        // Prevent instantiating a utility class
+    }
+
+    /**
+     * Saves the state of a monitor, unless it has no rows to identify the switch by.
+     *
+     * @param location the address of the switch, the database and the monitor requests
+     */
+    static void put(String location, String lastTransactionId, Map<String, Map<UUID, Row>> rows) {
+        Cache<String, MonitorState> current = states;
+        if (current == null) {
+            return;
+        }
+        // The smallest table, typically the root table with its single row, as its row is the least likely
+        // to have been deleted since
+        String probeTable = null;
+        for (Map.Entry<String, Map<UUID, Row>> entry : rows.entrySet()) {
+            int size = entry.getValue().size();
+            if (size > 0 && (probeTable == null || size < rows.get(probeTable).size()
+                    || size == rows.get(probeTable).size() && entry.getKey().compareTo(probeTable) < 0)) {
+                probeTable = entry.getKey();
+            }
+        }
+        if (probeTable != null) {
+            MonitorState state = new MonitorState(location, lastTransactionId, rows, probeTable,
+                    rows.get(probeTable).keySet().iterator().next());
+            current.put(state.key(), state);
+        }
+    }
+
+    /**
+     * Returns the states saved under the given location, left by any of the switches sharing its address.
+     */
+    static List<MonitorState> candidates(String location) {
+        Cache<String, MonitorState> current = states;
+        List<MonitorState> candidates = new ArrayList<>();
+        if (current != null) {
+            for (MonitorState state : current.asMap().values()) {
+                if (state.location.equals(location)) {
+                    candidates.add(state);
+                }
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Removes the given state, returning it unless it was already handed out or evicted.
+     */
+    static MonitorState take(MonitorState state) {
+        Cache<String, MonitorState> current = states;
+        return current != null && current.asMap().remove(state.key(), state) ? state : null;
+    }
+
+    /**
+     * Sets how long, in seconds, the state of a closed connection is kept, 0 to disable resynchronization.
+     */
+    static void setRetention(int seconds) {
+        states = newCache(seconds);
+        LOG.info("OVSDB monitor resync retention set to {} seconds", seconds);
+    }
+
+    private static Cache<String, MonitorState> newCache(int retentionSeconds) {
+        return retentionSeconds > 0 ? CacheBuilder.newBuilder()
+                .expireAfterWrite(retentionSeconds, TimeUnit.SECONDS)
+                .maximumWeight(MAX_ROWS)
+                .<String, MonitorState>weigher((key, state) -> state.weight())
+                .build() : null;
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright © 2018 Red Hat, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.ovsdb.lib.impl;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Worker threads running the callbacks of the OVSDB clients.
+ *
+ * <p>All clients share one bounded pool instead of each owning a cached thread pool, so a reconnect storm
+ * no longer translates into a thread storm. Every client is handed its own serial executor on top of the
+ * pool: tasks of one connection run one at a time, in submission order, while different connections
+ * proceed in parallel. Queue depth and task latency are tracked across all clients.
+ */
+public final class OvsdbClientExecutors {
+
+    private static final Logger LOG = LoggerFactory.getLogger(OvsdbClientExecutors.class);
+    private static final long KEEP_ALIVE_SECONDS = 60;
+
+    // Guarded by the class; recreated on demand after close(), since the service may be restarted
+    private static ThreadPoolExecutor workerPool;
+    private static int workerThreads;
+
+    private static final LongAdder PENDING_TASKS = new LongAdder();
+    private static final LongAdder EXECUTED_TASKS = new LongAdder();
+    private static final LongAdder TOTAL_WAIT_NANOS = new LongAdder();
+    private static final LongAdder TOTAL_RUN_NANOS = new LongAdder();
+    private static final LongAccumulator MAX_WAIT_NANOS = new LongAccumulator(Math::max, 0);
+
+    private OvsdbClientExecutors() {
+        // Prevent instantiating a utility class
+    }
+
+    /**
+     * Returns a new executor running the submitted tasks one at a time, in order, on the shared pool.
+     */
+    static Executor newSerialExecutor() {
+        // The pool is looked up for every task, so that the executor survives a restart of the pool
+        Executor serial = MoreExecutors.newSequentialExecutor(task -> workerPool().execute(task));
+        return task -> {
+            PENDING_TASKS.increment();
+            serial.execute(new MeteredTask(task));
+        };
+    }
+
+    /**
+     * Sets the number of worker threads shared by all the clients. Threads are started on demand and
+     * released after a minute of inactivity.
+     *
+     * @param threads number of worker threads, 0 or less for twice the number of available processors
+     */
+    public static void setThreads(int threads) {
+        int size = threads > 0 ? threads : defaultThreads();
+        synchronized (OvsdbClientExecutors.class) {
+            workerThreads = size;
+            if (workerPool != null) {
+                if (size > workerPool.getMaximumPoolSize()) {
+                    workerPool.setMaximumPoolSize(size);
+                    workerPool.setCorePoolSize(size);
+                } else {
+                    workerPool.setCorePoolSize(size);
+                    workerPool.setMaximumPoolSize(size);
+                }
+            }
+        }
+        LOG.info("OVSDB client worker threads set to {}", size);
+    }
+
+    /**
+     * Returns the number of tasks submitted by the clients which have not started yet, including the ones
+     * waiting behind an earlier task of the same connection.
+     */
+    public static long getQueueDepth() {
+        return PENDING_TASKS.sum();
+    }
+
+    public static long getExecutedTasks() {
+        return EXECUTED_TASKS.sum();
+    }
+
+    public static int getActiveThreads() {
+        synchronized (OvsdbClientExecutors.class) {
+            return workerPool != null ? workerPool.getPoolSize() : 0;
+        }
+    }
+
+    /**
+     * Returns the average time, in microseconds, between the submission of a task and its start.
+     */
+    public static long getAverageWaitMicros() {
+        long executed = EXECUTED_TASKS.sum();
+        return executed == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(TOTAL_WAIT_NANOS.sum() / executed);
+    }
+
+    /**
+     * Returns the longest time, in microseconds, a task waited before it started.
+     */
+    public static long getMaxWaitMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(MAX_WAIT_NANOS.get());
+    }
+
+    /**
+     * Returns the average run time of a task, in microseconds.
+     */
+    public static long getAverageRunMicros() {
+        long executed = EXECUTED_TASKS.sum();
+        return executed == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(TOTAL_RUN_NANOS.sum() / executed);
+    }
+
+    /**
+     * Shuts the worker threads down; a new pool is started by the next task submitted.
+     */
+    static void close() {
+        LOG.info("Shutting down OVSDB client worker threads");
+        synchronized (OvsdbClientExecutors.class) {
+            if (workerPool != null) {
+                workerPool.shutdownNow();
+                workerPool = null;
+            }
+        }
+    }
+
+    private static synchronized ThreadPoolExecutor workerPool() {
+        if (workerPool == null) {
+            int threads = workerThreads > 0 ? workerThreads : defaultThreads();
+            workerPool = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(),
+                    new ThreadFactoryBuilder().setNameFormat("OVSDB-Lib-Client-%d").setDaemon(true).build());
+            workerPool.allowCoreThreadTimeOut(true);
+        }
+        return workerPool;
+    }
+
+    private static int defaultThreads() {
+        return Runtime.getRuntime().availableProcessors() * 2;
+    }
+
+    private static final class MeteredTask implements Runnable {
+        private final Runnable task;
+        private final long submitted = System.nanoTime();
+
+        MeteredTask(Runnable task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            long started = System.nanoTime();
+            PENDING_TASKS.decrement();
+            long waited = started - submitted;
+            TOTAL_WAIT_NANOS.add(waited);
+            MAX_WAIT_NANOS.accumulate(waited);
+            try {
+                task.run();
+            } finally {
+                TOTAL_RUN_NANOS.add(System.nanoTime() - started);
+                EXECUTED_TASKS.increment();
+            }
+        }
+    }
+}
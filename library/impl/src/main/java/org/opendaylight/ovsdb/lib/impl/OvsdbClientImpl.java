@@ -8,27 +8,35 @@
 
 package org.opendaylight.ovsdb.lib.impl;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.base.Function;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.SettableFuture;
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.netty.channel.Channel;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import org.opendaylight.ovsdb.lib.EchoServiceCallbackFilters;
@@ -40,18 +48,24 @@ import org.opendaylight.ovsdb.lib.OvsdbClient;
 import org.opendaylight.ovsdb.lib.OvsdbConnectionInfo;
 import org.opendaylight.ovsdb.lib.OvsdbConnectionInfo.ConnectionType;
 import org.opendaylight.ovsdb.lib.OvsdbConnectionInfo.SocketConnectionType;
+import org.opendaylight.ovsdb.lib.error.JsonRpcErrorException;
 import org.opendaylight.ovsdb.lib.error.ParsingException;
+import org.opendaylight.ovsdb.lib.error.UnexpectedResultException;
+import org.opendaylight.ovsdb.lib.impl.MonitorResyncCache.MonitorState;
 import org.opendaylight.ovsdb.lib.message.MonitorRequest;
 import org.opendaylight.ovsdb.lib.message.OvsdbRPC;
-import org.opendaylight.ovsdb.lib.message.TableUpdate;
 import org.opendaylight.ovsdb.lib.message.TableUpdates;
+import org.opendaylight.ovsdb.lib.message.TableUpdate;
 import org.opendaylight.ovsdb.lib.message.TransactBuilder;
 import org.opendaylight.ovsdb.lib.message.UpdateNotification;
 import org.opendaylight.ovsdb.lib.notation.Row;
+import org.opendaylight.ovsdb.lib.notation.json.UUIDInterningParser;
 import org.opendaylight.ovsdb.lib.operations.Operation;
 import org.opendaylight.ovsdb.lib.operations.OperationResult;
 import org.opendaylight.ovsdb.lib.operations.TransactionBuilder;
+import org.opendaylight.ovsdb.lib.replica.DatabaseReplica;
 import org.opendaylight.ovsdb.lib.schema.DatabaseSchema;
+import org.opendaylight.ovsdb.lib.schema.DatabaseSchemaRegistry;
 import org.opendaylight.ovsdb.lib.schema.GenericTableSchema;
 import org.opendaylight.ovsdb.lib.schema.TableSchema;
 import org.opendaylight.ovsdb.lib.schema.typed.TypedBaseTable;
@@ -64,60 +78,84 @@ import org.slf4j.LoggerFactory;
 public class OvsdbClientImpl implements OvsdbClient {
 
     private static final Logger LOG = LoggerFactory.getLogger(OvsdbClientImpl.class);
-    private ExecutorService executorService;
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private Executor executor;
     private OvsdbRPC rpc;
-    private Map<String, DatabaseSchema> schemas = new HashMap<>();
-    private Map<String, CallbackContext> monitorCallbacks = new HashMap<>();
+    private Map<String, DatabaseSchema> schemas = new ConcurrentHashMap<>();
+    // The get_schema requests in progress, shared by the concurrent getSchema calls
+    private final Map<String, ListenableFuture<DatabaseSchema>> pendingSchemas = new ConcurrentHashMap<>();
+    private final Map<String, CallbackContext> monitorCallbacks = new ConcurrentHashMap<>();
     private OvsdbRPC.Callback rpcCallback;
     private OvsdbConnectionInfo connectionInfo;
     private Channel channel;
     private boolean isConnectionPublished;
+    private volatile boolean conditionalMonitoring;
+    private volatile boolean monitorCondSince = true;
+    private volatile boolean replicating;
+    // Shares the UUIDs of the rows received on the connection, null unless enabled
+    private volatile Interner<org.opendaylight.ovsdb.lib.notation.UUID> uuidInterner;
+    private final Map<String, DatabaseReplica> replicas = new ConcurrentHashMap<>();
+    // Merges the transactions issued within a short window, null unless enabled
+    private volatile TransactCoalescer transactCoalescer;
+    private LockManager lockManager;
     private static final int NO_TIMEOUT = -1;
-
-    private static final ThreadFactory THREAD_FACTORY_SSL =
-        new ThreadFactoryBuilder().setNameFormat("OVSDB-PassiveConnection-SSL-%d").build();
-    private static final ThreadFactory THREAD_FACTORY_NON_SSL =
-        new ThreadFactoryBuilder().setNameFormat("OVSDB-PassiveConnection-Non-SSL-%d").build();
+    // The where clause of a monitor_cond without conditions
+    private static final List<Object> MATCH_ALL_ROWS = Collections.singletonList(true);
 
     public OvsdbClientImpl(OvsdbRPC rpc, Channel channel, ConnectionType type,
         SocketConnectionType socketConnType) {
         this.rpc = rpc;
-        ThreadFactory threadFactory =
-            getThreadFactory(type, socketConnType, channel.remoteAddress().toString());
-        this.executorService = Executors.newCachedThreadPool(threadFactory);
+        this.lockManager = new LockManager(rpc);
+        this.executor = OvsdbClientExecutors.newSerialExecutor();
         this.channel = channel;
         this.connectionInfo = new OvsdbConnectionInfo(channel, type);
+        channel.closeFuture().addListener(future -> saveMonitorStates());
+    }
+
+    OvsdbClientImpl() {
     }
 
     /**
-     * Generate the threadFactory based on ACTIVE, PASSIVE (SSL/NON-SSL) connection type.
-     * @param type ACTIVE or PASSIVE {@link ConnectionType}
-     * @param socketConnType SSL or NON-SSL {@link SocketConnectionType}
-     * @param executorNameArgs Additional args to append to thread name format
-     * @return {@link ThreadFactory}
+     * Enables monitor_cond: monitors then receive update2 notifications, carrying the diffs of the modified
+     * columns instead of full rows, and honour the conditions of the {@link MonitorRequest}s. Servers
+     * supporting monitor_cond_since are monitored with it, so that the rows can be resynchronized when the
+     * switch reconnects. Servers not supporting monitor_cond are monitored with a plain monitor.
      */
-    private ThreadFactory getThreadFactory(ConnectionType type,
-        SocketConnectionType socketConnType, String executorNameArgs) {
-        if (type == ConnectionType.PASSIVE) {
-            switch (socketConnType) {
-                case SSL:
-                    return THREAD_FACTORY_SSL;
-                case NON_SSL:
-                    return THREAD_FACTORY_NON_SSL;
-                default:
-                    return Executors.defaultThreadFactory();
-            }
-        } else if (type == ConnectionType.ACTIVE) {
-            ThreadFactory threadFactorySSL =
-                new ThreadFactoryBuilder().setNameFormat("OVSDB-ActiveConn-" + executorNameArgs + "-%d")
-                    .build();
-            return threadFactorySSL;
-        }
-        // Default case
-        return Executors.defaultThreadFactory();
+    void setConditionalMonitoring(boolean conditionalMonitoring) {
+        this.conditionalMonitoring = conditionalMonitoring;
     }
 
-    OvsdbClientImpl() {
+    /**
+     * Enables the replication of the monitored tables, see {@link #getReplica(String)}.
+     */
+    void setReplicating(boolean replicating) {
+        this.replicating = replicating;
+    }
+
+    /**
+     * Enables the interning of the UUIDs of the received rows: the rows referencing the same row, and the
+     * successive versions of a row, then share its UUID instead of holding a copy each. The UUIDs are weakly
+     * held, and go with the last row referencing them.
+     */
+    void setInterningUuids(boolean interningUuids) {
+        this.uuidInterner = interningUuids ? Interners.newWeakInterner() : null;
+    }
+
+    /**
+     * Enables the coalescing of the transactions: the transactions issued within the given window are sent
+     * as a single transact, see {@link TransactCoalescer}.
+     *
+     * @param windowMicros the window in microseconds, 0 to send each transaction right away
+     */
+    void setTransactCoalescingWindow(int windowMicros) {
+        this.transactCoalescer = windowMicros > 0
+                ? new TransactCoalescer(this::sendTransact, channel.eventLoop(), windowMicros) : null;
+    }
+
+    private JsonParser parser(JsonNode tableUpdatesJson) {
+        JsonParser parser = tableUpdatesJson.traverse(OBJECT_MAPPER);
+        Interner<org.opendaylight.ovsdb.lib.notation.UUID> interner = uuidInterner;
+        return interner != null ? new UUIDInterningParser(parser, interner) : parser;
     }
 
     void setupUpdateListener() {
@@ -135,17 +173,39 @@ public class OvsdbClientImpl implements OvsdbClient {
                     }
                     TableUpdates updates = transformingCallback(updateNotification.getUpdates(),
                             callbackContext.schema);
+                    replicate(callbackContext.schema, updates);
                     monitorCallBack.update(updates, callbackContext.schema);
                 }
 
                 @Override
-                public void locked(Object node, List<String> ids) {
+                public void update2(Object node, UpdateNotification updateNotification) {
+                    Object key = updateNotification.getContext();
+                    CallbackContext callbackContext = monitorCallbacks.get(key);
+                    MonitorCallBack monitorCallBack = callbackContext.monitorCallBack;
+                    if (monitorCallBack == null) {
+                        LOG.info("callback received with context {}, but no known handler. Ignoring!", key);
+                        return;
+                    }
+                    TableUpdates updates = transformingCallback2(updateNotification.getUpdates(), callbackContext,
+                            updateNotification.getLastTransactionId());
+                    replicate(callbackContext.schema, updates);
+                    monitorCallBack.update(updates, callbackContext.schema);
+                }
 
+                @Override
+                public void update3(Object node, UpdateNotification updateNotification) {
+                    // Same as update2, with the id of the transaction the updates bring the rows to
+                    update2(node, updateNotification);
                 }
 
                 @Override
-                public void stolen(Object node, List<String> ids) {
+                public void locked(Object node, List<String> ids) {
+                    lockManager.locked(ids);
+                }
 
+                @Override
+                public void stolen(Object node, List<String> ids) {
+                    lockManager.stolen(ids);
                 }
             };
             this.rpcCallback = temp;
@@ -157,24 +217,56 @@ public class OvsdbClientImpl implements OvsdbClient {
     protected TableUpdates transformingCallback(JsonNode tableUpdatesJson, DatabaseSchema dbSchema) {
         //todo(ashwin): we should move all the JSON parsing logic to a utility class
         if (tableUpdatesJson instanceof ObjectNode) {
-            Map<String, TableUpdate> tableUpdateMap = new HashMap<>();
-            ObjectNode updatesJson = (ObjectNode) tableUpdatesJson;
-            for (Iterator<Map.Entry<String,JsonNode>> itr = updatesJson.fields(); itr.hasNext();) {
-                Map.Entry<String, JsonNode> entry = itr.next();
-
-                DatabaseSchema databaseSchema = this.schemas.get(dbSchema.getName());
-                TableSchema table = databaseSchema.table(entry.getKey(), TableSchema.class);
-                tableUpdateMap.put(entry.getKey(), table.updatesFromJson(entry.getValue()));
-
+            DatabaseSchema databaseSchema = this.schemas.get(dbSchema.getName());
+            // The decoder has already built the tree of the whole notification; walking it with a parser binds
+            // the rows in a single pass, without the intermediate bindings of each row and column
+            try (JsonParser parser = parser(tableUpdatesJson)) {
+                parser.nextToken();
+                return databaseSchema.updatesFromJson(parser);
+            } catch (IOException e) {
+                throw new ParsingException("Failed to parse table updates for " + dbSchema.getName(), e);
             }
-            return new TableUpdates(tableUpdateMap);
         }
         return null;
     }
 
+    /**
+     * Builds the {@link TableUpdates} of a monitor_cond reply or update2 notification, applying the column
+     * diffs to the current rows of the monitor: the rows of its replica, which the caller then updates, or the
+     * rows cached for the monitor.
+     *
+     * @param lastTransactionId the transaction the updates bring the rows to, for monitor_cond_since
+     */
+    private TableUpdates transformingCallback2(JsonNode tableUpdatesJson, CallbackContext callbackContext,
+                                               String lastTransactionId) {
+        DatabaseSchema databaseSchema = this.schemas.get(callbackContext.schema.getName());
+        try (JsonParser parser = parser(tableUpdatesJson)) {
+            parser.nextToken();
+            // The reply and the notifications are normally all handled on the channel's event loop, this
+            // only guards against the reply completing before the caller has attached its transformation
+            synchronized (callbackContext) {
+                DatabaseReplica replica = callbackContext.replica;
+                TableUpdates updates = replica != null
+                        ? databaseSchema.updates2FromJson(parser, replica::getCurrentRow)
+                        : databaseSchema.updates2FromJson(parser, callbackContext.rows);
+                if (lastTransactionId != null) {
+                    callbackContext.lastTransactionId = lastTransactionId;
+                }
+                return updates;
+            }
+        } catch (IOException e) {
+            throw new ParsingException("Failed to parse table updates for " + databaseSchema.getName(), e);
+        }
+    }
+
     @Override
     public ListenableFuture<List<OperationResult>> transact(DatabaseSchema dbSchema, List<Operation> operations) {
+        TransactCoalescer coalescer = transactCoalescer;
+        return coalescer != null ? coalescer.transact(dbSchema, operations) : sendTransact(dbSchema, operations);
+    }
 
+    private ListenableFuture<List<OperationResult>> sendTransact(DatabaseSchema dbSchema,
+                                                                 List<Operation> operations) {
         //todo, we may not need transactionbuilder if we can have JSON objects
         TransactBuilder builder = new TransactBuilder(dbSchema);
         for (Operation operation : operations) {
@@ -197,26 +289,8 @@ public class OvsdbClientImpl implements OvsdbClient {
                                                             final MonitorCallBack callback,
                                                             int timeout) {
 
-        final ImmutableMap<String, MonitorRequest> reqMap = Maps.uniqueIndex(monitorRequest,
-                MonitorRequest::getTableName);
-
         final MonitorHandle monitorHandle = new MonitorHandle(UUID.randomUUID().toString());
-        registerCallback(monitorHandle, callback, dbSchema);
-
-        ListenableFuture<JsonNode> monitor = rpc.monitor(
-            () -> Arrays.asList(dbSchema.getName(), monitorHandle.getId(), reqMap));
-        JsonNode result;
-        try {
-            if (timeout == NO_TIMEOUT) {
-                result = monitor.get();
-            } else {
-                result = monitor.get(timeout, TimeUnit.SECONDS);
-            }
-        } catch (InterruptedException | ExecutionException | TimeoutException e) {
-            LOG.warn("Failed to monitor {}", dbSchema, e);
-            return null;
-        }
-        return transformingCallback(result, dbSchema);
+        return monitor(dbSchema, monitorRequest, monitorHandle, callback, timeout);
     }
 
     @Override
@@ -233,31 +307,327 @@ public class OvsdbClientImpl implements OvsdbClient {
                                                            final MonitorHandle monitorHandle,
                                                            final MonitorCallBack callback,
                                                            int timeout) {
+        return getMonitorResult(monitorAsync(dbSchema, monitorRequest, monitorHandle, callback), dbSchema, timeout);
+    }
+
+    @Override
+    public ListenableFuture<TableUpdates> monitorAsync(final DatabaseSchema dbSchema,
+                                                       List<MonitorRequest> monitorRequest,
+                                                       final MonitorCallBack callback) {
+        return monitorAsync(dbSchema, monitorRequest, new MonitorHandle(UUID.randomUUID().toString()), callback);
+    }
+
+    @Override
+    public ListenableFuture<TableUpdates> monitorAsync(final DatabaseSchema dbSchema,
+                                                       List<MonitorRequest> monitorRequest,
+                                                       final MonitorHandle monitorHandle,
+                                                       final MonitorCallBack callback) {
 
         final ImmutableMap<String, MonitorRequest> reqMap = Maps.uniqueIndex(monitorRequest,
                 MonitorRequest::getTableName);
 
-        registerCallback(monitorHandle, callback, dbSchema);
+        CallbackContext callbackContext = registerCallback(monitorHandle, callback, dbSchema);
+        if (!conditionalMonitoring) {
+            return plainMonitor(dbSchema, reqMap, monitorHandle);
+        }
+        callbackContext.requests = reqMap;
+        return Futures.transformAsync(monitorCond(dbSchema, reqMap, monitorHandle, callbackContext), updates -> {
+            if (updates != null) {
+                return Futures.immediateFuture(updates);
+            }
+            callbackContext.requests = null;
+            // Not supported by the server, use a plain monitor without the conditions
+            return plainMonitor(dbSchema,
+                    ImmutableMap.copyOf(Maps.transformValues(reqMap, OvsdbClientImpl::withoutConditions)),
+                    monitorHandle);
+        }, MoreExecutors.directExecutor());
+    }
+
+    private ListenableFuture<TableUpdates> plainMonitor(DatabaseSchema dbSchema, Map<String, MonitorRequest> reqMap,
+                                                        MonitorHandle monitorHandle) {
+        // The initial rows are replicated on the event loop, before any update notification is processed
+        return Futures.transform(
+            rpc.monitor(() -> Arrays.asList(dbSchema.getName(), monitorHandle.getId(), reqMap)),
+            result -> replicateInitial(dbSchema, reqMap, transformingCallback(result, dbSchema)),
+            MoreExecutors.directExecutor());
+    }
+
+    /**
+     * Replicates the monitored tables with their initial rows, the tables are only visible to the readers of the
+     * replica once these rows are applied.
+     */
+    private TableUpdates replicateInitial(DatabaseSchema dbSchema, Map<String, MonitorRequest> reqMap,
+                                         TableUpdates updates) {
+        if (replicating) {
+            replicas.computeIfAbsent(dbSchema.getName(), name -> new DatabaseReplica(dbSchema))
+                    .addTables(reqMap, updates);
+        }
+        return updates;
+    }
+
+    /**
+     * Replicates the monitored tables of a monitor_cond with their initial rows. Unless another monitor already
+     * replicates one of these tables, the rows of the monitor are from then on only kept by the replica, against
+     * which the update2 diffs are applied, instead of a copy for the monitor.
+     */
+    private TableUpdates replicateInitial(DatabaseSchema dbSchema, Map<String, MonitorRequest> reqMap,
+                                         TableUpdates updates, CallbackContext callbackContext) {
+        DatabaseReplica existing = replicas.get(dbSchema.getName());
+        boolean shared = existing != null && reqMap.keySet().stream().anyMatch(existing::hasTable);
+        replicateInitial(dbSchema, reqMap, updates);
+        DatabaseReplica replica = replicas.get(dbSchema.getName());
+        if (replica != null && !shared) {
+            synchronized (callbackContext) {
+                callbackContext.replica = replica;
+                callbackContext.rows = null;
+            }
+        }
+        return updates;
+    }
 
-        ListenableFuture<JsonNode> monitor = rpc.monitor(
-            () -> Arrays.asList(dbSchema.getName(), monitorHandle.getId(), reqMap));
-        JsonNode result;
+    private TableUpdates replicate(DatabaseSchema dbSchema, TableUpdates updates) {
+        DatabaseReplica replica = replicas.get(dbSchema.getName());
+        if (replica != null) {
+            replica.update(updates);
+        }
+        return updates;
+    }
+
+    /**
+     * Issues a monitor_cond_since or a monitor_cond, falling back to the next one for good if the server
+     * answers that it does not know the method. Any other error, such as a rejected condition, fails the
+     * monitor.
+     *
+     * @return the initial rows future, holding null if monitor_cond is not supported (in which case
+     *         conditionalMonitoring is cleared)
+     */
+    private ListenableFuture<TableUpdates> monitorCond(DatabaseSchema dbSchema, Map<String, MonitorRequest> reqMap,
+                                                       MonitorHandle monitorHandle,
+                                                       CallbackContext callbackContext) {
+        if (!monitorCondSince) {
+            return monitorCondOnly(dbSchema, reqMap, monitorHandle, callbackContext);
+        }
+        return Futures.transformAsync(monitorCondSince(dbSchema, reqMap, monitorHandle, callbackContext),
+            updates -> updates != null ? Futures.immediateFuture(updates)
+                    : monitorCondOnly(dbSchema, reqMap, monitorHandle, callbackContext),
+            MoreExecutors.directExecutor());
+    }
+
+    private ListenableFuture<TableUpdates> monitorCondOnly(DatabaseSchema dbSchema,
+                                                           Map<String, MonitorRequest> reqMap,
+                                                           MonitorHandle monitorHandle,
+                                                           CallbackContext callbackContext) {
+        // The initial rows are cached on the event loop, before any update2 notification is processed
+        ListenableFuture<TableUpdates> initialRows = Futures.transform(
+            rpc.monitor_cond(() -> Arrays.asList(dbSchema.getName(), monitorHandle.getId(), reqMap)),
+            result -> {
+                if (!(result instanceof ObjectNode)) {
+                    throw new UnexpectedResultException("Unexpected monitor_cond result " + result);
+                }
+                return replicateInitial(dbSchema, reqMap, transformingCallback2(result, callbackContext, null),
+                        callbackContext);
+            }, MoreExecutors.directExecutor());
+        return Futures.catching(initialRows, JsonRpcErrorException.class, e -> {
+            if (!e.isUnknownMethod()) {
+                // Such as a condition the server rejects, only this monitor fails
+                throw e;
+            }
+            LOG.info("{} does not support monitor_cond, falling back to monitor", connectionInfo);
+            conditionalMonitoring = false;
+            return null;
+        }, MoreExecutors.directExecutor());
+    }
+
+    /**
+     * Issues a monitor_cond_since. If the monitor of a previous connection to the same switch left its rows
+     * behind, only the changes since its last transaction are requested and applied to these rows; the
+     * returned updates then hold all the current rows, as after a full dump, along with the rows deleted
+     * since that transaction.
+     *
+     * @return the initial rows future, holding null if monitor_cond_since is not supported (in which case
+     *         monitorCondSince is cleared), or failing with the error the server answered otherwise
+     */
+    private ListenableFuture<TableUpdates> monitorCondSince(DatabaseSchema dbSchema,
+                                                            Map<String, MonitorRequest> reqMap,
+                                                            MonitorHandle monitorHandle,
+                                                            CallbackContext callbackContext) {
+        callbackContext.resyncKey = resyncKey(dbSchema, reqMap);
+        ListenableFuture<MonitorState> resyncState = callbackContext.resyncKey != null
+                ? findResyncState(dbSchema, MonitorResyncCache.candidates(callbackContext.resyncKey))
+                : Futures.immediateFuture(null);
+        ListenableFuture<TableUpdates> initialRows = Futures.transformAsync(resyncState, state -> {
+            String lastTransactionId = state != null ? state.lastTransactionId : MonitorResyncCache.NO_TRANSACTION;
+            return Futures.transform(
+                rpc.monitor_cond_since(
+                    () -> Arrays.asList(dbSchema.getName(), monitorHandle.getId(), reqMap, lastTransactionId)),
+                result -> {
+                    // [found, last-txn-id, table-updates2]
+                    if (result == null || !result.isArray() || result.size() != 3) {
+                        throw new UnexpectedResultException("Unexpected monitor_cond_since result " + result);
+                    }
+                    if (state == null || !result.get(0).asBoolean()) {
+                        return replicateInitial(dbSchema, reqMap,
+                                transformingCallback2(result.get(2), callbackContext, result.get(1).asText()),
+                                callbackContext);
+                    }
+                    synchronized (callbackContext) {
+                        callbackContext.rows = state.rows;
+                        TableUpdates changes = transformingCallback2(result.get(2), callbackContext,
+                                result.get(1).asText());
+                        LOG.debug("Resynchronized {} of {} since transaction {}", dbSchema.getName(),
+                                connectionInfo, lastTransactionId);
+                        return replicateInitial(dbSchema, reqMap, currentRows(callbackContext, changes),
+                                callbackContext);
+                    }
+                }, MoreExecutors.directExecutor());
+        }, MoreExecutors.directExecutor());
+        return Futures.catching(initialRows, JsonRpcErrorException.class, e -> {
+            if (!e.isUnknownMethod()) {
+                throw e;
+            }
+            LOG.info("{} does not support monitor_cond_since, falling back to monitor_cond", connectionInfo);
+            monitorCondSince = false;
+            return null;
+        }, MoreExecutors.directExecutor());
+    }
+
+    /**
+     * Finds which of the states saved for the address of this switch it left, if any, selecting the probe rows
+     * of all of them in a single transaction. No transaction is sent when there are none.
+     */
+    private ListenableFuture<MonitorState> findResyncState(DatabaseSchema dbSchema, List<MonitorState> candidates) {
+        List<MonitorState> probed = new ArrayList<>();
+        List<Operation> probes = new ArrayList<>();
+        for (MonitorState candidate : candidates) {
+            Operation probe = candidate.probe(dbSchema);
+            if (probe != null) {
+                probed.add(candidate);
+                probes.add(probe);
+            }
+        }
+        if (probes.isEmpty()) {
+            return Futures.immediateFuture(null);
+        }
+        ListenableFuture<MonitorState> found = Futures.transform(sendTransact(dbSchema, probes), results -> {
+            for (int i = 0; i < probed.size() && i < results.size(); i++) {
+                List<?> rows = results.get(i).getRows();
+                if (rows != null && !rows.isEmpty()) {
+                    return MonitorResyncCache.take(probed.get(i));
+                }
+            }
+            return null;
+        }, MoreExecutors.directExecutor());
+        return Futures.catching(found, Exception.class, e -> {
+            // A full dump is then requested
+            LOG.debug("Unable to probe the monitor states of {}", connectionInfo, e);
+            return null;
+        }, MoreExecutors.directExecutor());
+    }
+
+    private static TableUpdates getMonitorResult(ListenableFuture<TableUpdates> monitor, DatabaseSchema dbSchema,
+                                                 int timeout) {
         try {
             if (timeout == NO_TIMEOUT) {
-                result = monitor.get();
+                return monitor.get();
             } else {
-                result = monitor.get(timeout, TimeUnit.SECONDS);
+                return monitor.get(timeout, TimeUnit.SECONDS);
             }
         } catch (InterruptedException | ExecutionException | TimeoutException e) {
             LOG.warn("Failed to monitor {}", dbSchema, e);
             return null;
         }
-        return transformingCallback(result, dbSchema);
     }
 
-    private void registerCallback(MonitorHandle monitorHandle, MonitorCallBack callback, DatabaseSchema schema) {
-        this.monitorCallbacks.put(monitorHandle.getId(), new CallbackContext(callback, schema));
+    /**
+     * Builds the updates of a resynchronized monitor: the current rows are reported as inserted, as after a full
+     * dump, and the rows deleted while disconnected as deleted, with their last known values as old rows.
+     */
+    @SuppressWarnings("unchecked")
+    private static TableUpdates currentRows(CallbackContext callbackContext, TableUpdates changes) {
+        Map<String, TableUpdate> tableUpdates = new HashMap<>();
+        callbackContext.rows.forEach((table, rows) -> {
+            TableUpdate tableUpdate = new TableUpdate();
+            rows.forEach((uuid, row) -> tableUpdate.addRow(uuid, null, row));
+            tableUpdates.put(table, tableUpdate);
+        });
+        changes.getUpdates().forEach((table, changed) -> {
+            for (TableUpdate.RowUpdate rowUpdate : ((TableUpdate<?>) changed).getRows().values()) {
+                if (rowUpdate.getNew() == null) {
+                    tableUpdates.computeIfAbsent(table, name -> new TableUpdate())
+                            .addRow(rowUpdate.getUuid(), rowUpdate.getOld(), null);
+                }
+            }
+        });
+        return new TableUpdates(tableUpdates);
+    }
+
+    /**
+     * Locates the monitor of a database on a switch across connections: the rows of a monitor can only be
+     * resynchronized by a monitor of the same tables, columns and conditions. Switches sharing an address are
+     * told apart by {@link MonitorResyncCache}.
+     */
+    private String resyncKey(DatabaseSchema dbSchema, Map<String, MonitorRequest> reqMap) {
+        Map<String, Object> requests = new TreeMap<>();
+        reqMap.forEach((table, request) -> requests.put(table, Arrays.asList(
+                request.getColumns() != null ? new TreeSet<>(request.getColumns()) : null,
+                request.getSelect(), request.getWhere())));
+        // The port of a passive connection changes with every connection
+        String switchKey = connectionInfo.getType() == ConnectionType.ACTIVE
+                ? connectionInfo.getRemoteAddress() + ":" + connectionInfo.getRemotePort()
+                : String.valueOf(connectionInfo.getRemoteAddress());
+        try {
+            return switchKey + "/" + dbSchema.getName() + "/" + OBJECT_MAPPER.writeValueAsString(requests);
+        } catch (JsonProcessingException e) {
+            LOG.debug("Unable to serialize the monitor requests of {}, resynchronization disabled", dbSchema, e);
+            return null;
+        }
+    }
+
+    /**
+     * Saves the state of the monitor_cond_since monitors once the connection is closed.
+     */
+    private void saveMonitorStates() {
+        for (CallbackContext callbackContext : monitorCallbacks.values()) {
+            synchronized (callbackContext) {
+                if (callbackContext.resyncKey != null && callbackContext.lastTransactionId != null) {
+                    MonitorResyncCache.put(callbackContext.resyncKey, callbackContext.lastTransactionId,
+                            monitoredRows(callbackContext));
+                }
+            }
+        }
+    }
+
+    private static Map<String, Map<org.opendaylight.ovsdb.lib.notation.UUID, Row>> monitoredRows(
+            CallbackContext callbackContext) {
+        if (callbackContext.replica == null) {
+            return callbackContext.rows;
+        }
+        Map<String, Map<org.opendaylight.ovsdb.lib.notation.UUID, Row>> rows = new HashMap<>();
+        for (String tableName : callbackContext.requests.keySet()) {
+            Map<org.opendaylight.ovsdb.lib.notation.UUID, Row> tableRows =
+                    callbackContext.replica.copyCurrentRows(tableName);
+            if (tableRows != null) {
+                rows.put(tableName, tableRows);
+            }
+        }
+        return rows;
+    }
+
+    private static MonitorRequest withoutConditions(MonitorRequest request) {
+        if (request.getWhere() == null) {
+            return request;
+        }
+        MonitorRequest plain = new MonitorRequest(request.getTableName(), request.getColumns());
+        plain.setSelect(request.getSelect());
+        return plain;
+    }
+
+    private CallbackContext registerCallback(MonitorHandle monitorHandle, MonitorCallBack callback,
+                                             DatabaseSchema schema) {
+        CallbackContext callbackContext = new CallbackContext(callback, schema);
+        this.monitorCallbacks.put(monitorHandle.getId(), callbackContext);
         setupUpdateListener();
+        return callbackContext;
     }
 
     @Override
@@ -267,24 +637,71 @@ public class OvsdbClientImpl implements OvsdbClient {
 
     @Override
     public void cancelMonitor(final MonitorHandle handler, int timeout) {
-        ListenableFuture<JsonNode> cancelMonitor = rpc.monitor_cancel(() -> Collections.singletonList(handler.getId()));
-
-        JsonNode result = null;
+        ListenableFuture<Void> cancelMonitor = cancelMonitorAsync(handler);
         try {
             if (timeout == NO_TIMEOUT) {
-                result = cancelMonitor.get();
+                cancelMonitor.get();
             } else {
-                result = cancelMonitor.get(timeout, TimeUnit.SECONDS);
+                cancelMonitor.get(timeout, TimeUnit.SECONDS);
             }
+            LOG.debug("Successfully cancel monitoring for handler {}", handler.getId());
         } catch (InterruptedException | ExecutionException | TimeoutException e) {
-            LOG.error("Exception when canceling monitor handler {}", handler.getId(), e);
+            LOG.error("Fail to cancel monitor with handler {}", handler.getId(), e);
         }
+    }
 
-        if (result == null) {
-            LOG.error("Fail to cancel monitor with handler {}", handler.getId());
-        } else {
-            LOG.debug("Successfully cancel monitoring for handler {}", handler.getId());
+    @Override
+    public ListenableFuture<Void> cancelMonitorAsync(final MonitorHandle handler) {
+        return Futures.transform(rpc.monitor_cancel(() -> Collections.singletonList(handler.getId())),
+            result -> {
+                if (result == null) {
+                    throw new IllegalStateException("monitor_cancel of " + handler.getId() + " rejected by "
+                            + connectionInfo);
+                }
+                return null;
+            }, MoreExecutors.directExecutor());
+    }
+
+    @Override
+    public ListenableFuture<Void> changeMonitorConditions(MonitorHandle handler, List<MonitorRequest> monitorRequests) {
+        CallbackContext callbackContext = monitorCallbacks.get(handler.getId());
+        if (callbackContext == null || callbackContext.requests == null) {
+            return Futures.immediateFailedFuture(
+                    new IllegalStateException("No monitor_cond with handle " + handler.getId()));
+        }
+        Map<String, MonitorRequest> changedRequests = new HashMap<>(callbackContext.requests);
+        Map<String, List<Map<String, Object>>> changes = new HashMap<>();
+        for (MonitorRequest request : monitorRequests) {
+            MonitorRequest current = changedRequests.get(request.getTableName());
+            if (current == null) {
+                return Futures.immediateFailedFuture(new IllegalArgumentException(
+                        "Table " + request.getTableName() + " is not monitored by " + handler.getId()));
+            }
+            changes.put(request.getTableName(), Collections.singletonList(Collections.singletonMap("where",
+                    request.getWhere() != null ? request.getWhere() : MATCH_ALL_ROWS)));
+            MonitorRequest changed = new MonitorRequest(current.getTableName(), current.getColumns());
+            changed.setSelect(current.getSelect());
+            changed.setWhere(request.getWhere());
+            changedRequests.put(request.getTableName(), changed);
         }
+
+        // The monitor keeps its id, the rows entering and leaving the condition come as update2 notifications
+        return Futures.transform(
+            rpc.monitor_cond_change(() -> Arrays.asList(handler.getId(), handler.getId(), changes)),
+            result -> {
+                if (!(result instanceof ObjectNode)) {
+                    throw new IllegalStateException("monitor_cond_change of " + handler.getId()
+                            + " rejected by " + connectionInfo);
+                }
+                synchronized (callbackContext) {
+                    callbackContext.requests = changedRequests;
+                    if (callbackContext.resyncKey != null) {
+                        callbackContext.resyncKey = resyncKey(callbackContext.schema, changedRequests);
+                    }
+                }
+                LOG.debug("Changed the conditions of monitor {} on {}", handler.getId(), connectionInfo);
+                return null;
+            }, MoreExecutors.directExecutor());
     }
 
     @Override
@@ -294,17 +711,30 @@ public class OvsdbClientImpl implements OvsdbClient {
 
     @Override
     public void lock(String lockId, LockAquisitionCallback lockedCallBack, LockStolenCallback stolenCallback) {
-        throw new UnsupportedOperationException("not yet implemented");
+        // The locked and stolen notifications go through the update listener
+        setupUpdateListener();
+        Futures.addCallback(lockManager.lock(lockId, lockedCallBack, stolenCallback), new FutureCallback<Boolean>() {
+            @Override
+            public void onSuccess(Boolean owned) {
+                LOG.debug("Lock {} {} on {}", lockId, owned ? "acquired" : "waited for", connectionInfo);
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+                LOG.warn("Failed to request lock {} on {}", lockId, connectionInfo, throwable);
+            }
+        }, MoreExecutors.directExecutor());
     }
 
     @Override
     public ListenableFuture<Boolean> steal(String lockId) {
-        throw new UnsupportedOperationException("not yet implemented");
+        setupUpdateListener();
+        return lockManager.steal(lockId);
     }
 
     @Override
     public ListenableFuture<Boolean> unLock(String lockId) {
-        throw new UnsupportedOperationException("not yet implemented");
+        return lockManager.unlock(lockId);
     }
 
     @Override
@@ -345,18 +775,24 @@ public class OvsdbClientImpl implements OvsdbClient {
         DatabaseSchema databaseSchema = schemas.get(database);
 
         if (databaseSchema == null) {
-            return Futures.transform(
+            SettableFuture<DatabaseSchema> future = SettableFuture.create();
+            ListenableFuture<DatabaseSchema> pending = pendingSchemas.putIfAbsent(database, future);
+            if (pending != null) {
+                return pending;
+            }
+            future.addListener(() -> pendingSchemas.remove(database, future), MoreExecutors.directExecutor());
+            future.setFuture(Futures.transform(
                 getSchemaFromDevice(Collections.singletonList(database)),
                 (Function<Map<String, DatabaseSchema>, DatabaseSchema>) result -> {
                     if (result.containsKey(database)) {
                         DatabaseSchema dbSchema = result.get(database);
-                        dbSchema.populateInternallyGeneratedColumns();
                         OvsdbClientImpl.this.schemas.put(database, dbSchema);
                         return dbSchema;
                     } else {
                         return null;
                     }
-                }, executorService);
+                }, executor));
+            return future;
         } else {
             return Futures.immediateFuture(databaseSchema);
         }
@@ -380,7 +816,8 @@ public class OvsdbClientImpl implements OvsdbClient {
         Futures.transform(rpc.get_schema(Collections.singletonList(dbNames.get(0))),
             (Function<JsonNode, Void>) jsonNode -> {
                 try {
-                    schema.put(dbNames.get(0), DatabaseSchema.fromJson(dbNames.get(0), jsonNode));
+                    // Switches running the same schema share its parsed copy, with its internal columns
+                    schema.put(dbNames.get(0), DatabaseSchemaRegistry.fromJson(dbNames.get(0), jsonNode));
                     if (schema.size() > 1 && !sfuture.isCancelled()) {
                         populateSchema(dbNames.subList(1, dbNames.size()), schema, sfuture);
                     } else if (schema.size() == 1) {
@@ -396,11 +833,21 @@ public class OvsdbClientImpl implements OvsdbClient {
 
     public void setRpc(OvsdbRPC rpc) {
         this.rpc = rpc;
+        this.lockManager = new LockManager(rpc);
     }
 
     static class CallbackContext {
         MonitorCallBack monitorCallBack;
         DatabaseSchema schema;
+        // Current rows of a monitor_cond, against which the update2 diffs are applied, null once they are only
+        // kept by the replica
+        Map<String, Map<org.opendaylight.ovsdb.lib.notation.UUID, Row>> rows = new HashMap<>();
+        DatabaseReplica replica;
+        // monitor_cond only: the requests the monitor was set up, or last changed, with
+        Map<String, MonitorRequest> requests;
+        // monitor_cond_since only: the transaction the rows are at and the key to save them under
+        String lastTransactionId;
+        String resyncKey;
 
         CallbackContext(MonitorCallBack monitorCallBack, DatabaseSchema schema) {
             this.monitorCallBack = monitorCallBack;
@@ -413,6 +860,18 @@ public class OvsdbClientImpl implements OvsdbClient {
         return schemas.get(dbName);
     }
 
+    @Override
+    public DatabaseReplica getReplica(String dbName) {
+        return replicas.get(dbName);
+    }
+
+    @Override
+    public <E extends TableSchema<E>> List<Row<E>> lookup(DatabaseSchema dbSchema, TableSchema<E> tableSchema,
+                                                          String indexName, Object... values) {
+        DatabaseReplica replica = replicas.get(dbSchema.getName());
+        return replica != null ? replica.lookup(tableSchema, indexName, values) : null;
+    }
+
     /**
      * This method finds the DatabaseSchema that matches a given Typed Table Class.
      * With the introduction of TypedTable and TypedColumn annotations, it is possible to express
@@ -483,7 +942,6 @@ public class OvsdbClientImpl implements OvsdbClient {
     @Override
     public void disconnect() {
         channel.disconnect();
-        executorService.shutdown();
     }
 
     @Override
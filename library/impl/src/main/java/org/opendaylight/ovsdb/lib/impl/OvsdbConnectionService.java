@@ -21,20 +21,19 @@ import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.AdaptiveRecvByteBufAllocator;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.group.ChannelGroup;
+import io.netty.channel.group.DefaultChannelGroup;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
-import io.netty.channel.socket.nio.NioSocketChannel;
-import io.netty.handler.codec.string.StringEncoder;
 import io.netty.handler.logging.LogLevel;
 import io.netty.handler.logging.LoggingHandler;
 import io.netty.handler.ssl.SslHandler;
 import io.netty.handler.timeout.IdleStateHandler;
 import io.netty.handler.timeout.ReadTimeoutHandler;
-import io.netty.util.CharsetUtil;
+import io.netty.util.concurrent.GlobalEventExecutor;
 import java.net.InetAddress;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -47,12 +46,10 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import javax.annotation.Nullable;
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLEngine;
-import javax.net.ssl.SSLEngineResult.HandshakeStatus;
 import javax.net.ssl.SSLPeerUnverifiedException;
 import org.opendaylight.aaa.cert.api.ICertificateManager;
 import org.opendaylight.ovsdb.lib.OvsdbClient;
@@ -62,8 +59,11 @@ import org.opendaylight.ovsdb.lib.OvsdbConnectionInfo.SocketConnectionType;
 import org.opendaylight.ovsdb.lib.OvsdbConnectionListener;
 import org.opendaylight.ovsdb.lib.jsonrpc.ExceptionHandler;
 import org.opendaylight.ovsdb.lib.jsonrpc.JsonRpcDecoder;
+import org.opendaylight.ovsdb.lib.jsonrpc.JsonRpcEncoder;
 import org.opendaylight.ovsdb.lib.jsonrpc.JsonRpcEndpoint;
 import org.opendaylight.ovsdb.lib.jsonrpc.JsonRpcServiceBinderHandler;
+import org.opendaylight.ovsdb.lib.jsonrpc.JsonRpcStreamingDecoder;
+import org.opendaylight.ovsdb.lib.jsonrpc.JsonRpcTimeouts;
 import org.opendaylight.ovsdb.lib.message.OvsdbRPC;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -91,7 +91,6 @@ public class OvsdbConnectionService implements AutoCloseable, OvsdbConnection {
     private static final int READ_TIMEOUT = 180;
     private static final String OVSDB_RPC_TASK_TIMEOUT_PARAM = "ovsdb-rpc-task-timeout";
     private static final String USE_SSL = "use-ssl";
-    private static final int RETRY_PERIOD = 100; // retry after 100 milliseconds
 
     private static final ScheduledExecutorService EXECUTOR_SERVICE = Executors.newScheduledThreadPool(10,
             new ThreadFactoryBuilder().setNameFormat("OVSDBPassiveConnServ-%d").build());
@@ -106,12 +105,24 @@ public class OvsdbConnectionService implements AutoCloseable, OvsdbConnection {
 
     private static final Set<OvsdbConnectionListener> CONNECTION_LISTENERS = ConcurrentHashMap.newKeySet();
     private static final Map<OvsdbClient, Channel> CONNECTIONS = new ConcurrentHashMap<>();
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+            .setSerializationInclusion(Include.NON_NULL);
 
     private static volatile boolean useSSL = false;
     private static volatile ICertificateManager certManagerSrv;
 
     private static volatile int jsonRpcDecoderMaxFrameLength = 100000;
+    private static volatile boolean jsonRpcDecoderStreaming = false;
+    private static volatile boolean jsonRpcNumericIds = false;
+    private static volatile boolean monitorCond = false;
+    private static volatile boolean replica = false;
+    private static volatile boolean internUuids = false;
+    private static volatile int transactCoalescingWindow = 0;
     private static volatile Channel serverChannel;
+    private static volatile String transportType = OvsdbTransport.NIO;
+    private static volatile int eventLoopThreads = 0;
+    private static OvsdbTransport transport;
 
     private final AtomicBoolean singletonCreated = new AtomicBoolean(false);
     private volatile int listenerPort = 6640;
@@ -141,9 +152,10 @@ public class OvsdbConnectionService implements AutoCloseable, OvsdbConnection {
     public OvsdbClient connectWithSsl(final InetAddress address, final int port,
                                final ICertificateManager certificateManagerSrv) {
         try {
+            OvsdbTransport ovsdbTransport = getTransport();
             Bootstrap bootstrap = new Bootstrap();
-            bootstrap.group(new NioEventLoopGroup());
-            bootstrap.channel(NioSocketChannel.class);
+            bootstrap.group(ovsdbTransport.getWorkerGroup());
+            bootstrap.channel(ovsdbTransport.getChannelClass());
             bootstrap.option(ChannelOption.TCP_NODELAY, true);
             bootstrap.option(ChannelOption.RCVBUF_ALLOCATOR, new AdaptiveRecvByteBufAllocator(65535, 65535, 65535));
 
@@ -160,8 +172,8 @@ public class OvsdbConnectionService implements AutoCloseable, OvsdbConnection {
                     }
                     channel.pipeline().addLast(
                             //new LoggingHandler(LogLevel.INFO),
-                            new JsonRpcDecoder(jsonRpcDecoderMaxFrameLength),
-                            new StringEncoder(CharsetUtil.UTF_8),
+                            newJsonRpcDecoder(),
+                            new JsonRpcEncoder(OBJECT_MAPPER),
                             new IdleStateHandler(IDLE_READER_TIMEOUT, 0, 0),
                             new ReadTimeoutHandler(READ_TIMEOUT),
                             new ExceptionHandler());
@@ -215,17 +227,17 @@ public class OvsdbConnectionService implements AutoCloseable, OvsdbConnection {
 
     private static OvsdbClient getChannelClient(Channel channel, ConnectionType type,
         SocketConnectionType socketConnType) {
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-        objectMapper.setSerializationInclusion(Include.NON_NULL);
-
-        JsonRpcEndpoint factory = new JsonRpcEndpoint(objectMapper, channel);
+        JsonRpcEndpoint factory = new JsonRpcEndpoint(OBJECT_MAPPER, channel, jsonRpcNumericIds);
         JsonRpcServiceBinderHandler binderHandler = new JsonRpcServiceBinderHandler(factory);
         binderHandler.setContext(channel);
         channel.pipeline().addLast(binderHandler);
 
         OvsdbRPC rpc = factory.getClient(channel, OvsdbRPC.class);
         OvsdbClientImpl client = new OvsdbClientImpl(rpc, channel, type, socketConnType);
+        client.setConditionalMonitoring(monitorCond);
+        client.setReplicating(replica);
+        client.setInterningUuids(internUuids);
+        client.setTransactCoalescingWindow(transactCoalescingWindow);
         client.setConnectionPublished(true);
         CONNECTIONS.put(client, channel);
         ChannelFuture closeFuture = channel.closeFuture();
@@ -306,18 +318,22 @@ public class OvsdbConnectionService implements AutoCloseable, OvsdbConnection {
      */
     private static void ovsdbManagerWithSsl(int port, final ICertificateManager certificateManagerSrv,
                                             final String[] protocols, final String[] cipherSuites) {
-        EventLoopGroup bossGroup = new NioEventLoopGroup();
-        EventLoopGroup workerGroup = new NioEventLoopGroup();
+        OvsdbTransport ovsdbTransport = getTransport();
+        EventLoopGroup bossGroup = ovsdbTransport.newBossGroup();
+        // The worker group is shared with the other connections, track the ones accepted here so that
+        // they go away together with the listening socket
+        ChannelGroup passiveChannels = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
         try {
             ServerBootstrap serverBootstrap = new ServerBootstrap();
-            serverBootstrap.group(bossGroup, workerGroup)
-                    .channel(NioServerSocketChannel.class)
+            serverBootstrap.group(bossGroup, ovsdbTransport.getWorkerGroup())
+                    .channel(ovsdbTransport.getServerChannelClass())
                     .option(ChannelOption.SO_BACKLOG, 100)
                     .handler(new LoggingHandler(LogLevel.INFO))
                     .childHandler(new ChannelInitializer<SocketChannel>() {
                         @Override
                         public void initChannel(SocketChannel channel) throws Exception {
                             LOG.debug("New Passive channel created : {}", channel);
+                            passiveChannels.add(channel);
                             if (certificateManagerSrv != null && certificateManagerSrv.getServerContext() != null) {
                                 /* Add SSL handler first if SSL context is provided */
                                 SSLContext sslContext = certificateManagerSrv.getServerContext();
@@ -342,8 +358,8 @@ public class OvsdbConnectionService implements AutoCloseable, OvsdbConnection {
                             }
 
                             channel.pipeline().addLast(
-                                 new JsonRpcDecoder(jsonRpcDecoderMaxFrameLength),
-                                 new StringEncoder(CharsetUtil.UTF_8),
+                                 newJsonRpcDecoder(),
+                                 new JsonRpcEncoder(OBJECT_MAPPER),
                                  new IdleStateHandler(IDLE_READER_TIMEOUT, 0, 0),
                                  new ReadTimeoutHandler(READ_TIMEOUT),
                                  new ExceptionHandler());
@@ -363,10 +379,24 @@ public class OvsdbConnectionService implements AutoCloseable, OvsdbConnection {
         } catch (InterruptedException e) {
             LOG.error("Thread interrupted", e);
         } finally {
-            // Shut down all event loops to terminate all threads.
+            // Shut down the accepting event loop and the connections accepted through it.
             bossGroup.shutdownGracefully();
-            workerGroup.shutdownGracefully();
+            passiveChannels.close();
+        }
+    }
+
+    private static synchronized OvsdbTransport getTransport() {
+        if (transport == null) {
+            transport = OvsdbTransport.create(transportType, eventLoopThreads);
         }
+        return transport;
+    }
+
+    private static ChannelHandler newJsonRpcDecoder() {
+        if (jsonRpcDecoderStreaming) {
+            return new JsonRpcStreamingDecoder(jsonRpcDecoderMaxFrameLength);
+        }
+        return new JsonRpcDecoder(jsonRpcDecoderMaxFrameLength);
     }
 
     private static void handleNewPassiveConnection(OvsdbClient client) {
@@ -399,83 +429,35 @@ public class OvsdbConnectionService implements AutoCloseable, OvsdbConnection {
         }
         SslHandler sslHandler = (SslHandler) channel.pipeline().get("ssl");
         if (sslHandler != null) {
-            class HandleNewPassiveSslRunner implements Runnable {
-                private int retryTimes = 3;
-
-                private void retry() {
-                    if (retryTimes > 0) {
-                        EXECUTOR_SERVICE.schedule(this,  RETRY_PERIOD, TimeUnit.MILLISECONDS);
-                    } else {
-                        LOG.debug("channel closed {}", channel);
-                        channel.disconnect();
-                    }
-                    retryTimes--;
+            // Wait for the handshake to complete rather than polling the engine, a reconnect storm then
+            // costs a single listener per connection instead of a stream of scheduled status checks
+            sslHandler.handshakeFuture().addListener(handshake -> {
+                if (!handshake.isSuccess()) {
+                    /*
+                     * Either the peer is not trusted or it went away. The latter happens when the client
+                     * connects to the controller for the first time in a two-way handshake: after obtaining
+                     * the controller certificate it disconnects and reconnects with it, so there is nothing
+                     * to do for the first attempt.
+                     */
+                    LOG.error("Ssl handshake fail. channel {}", channel, handshake.cause());
+                    channel.disconnect();
+                    return;
                 }
-
-                @Override
-                public void run() {
-                    HandshakeStatus status = sslHandler.engine().getHandshakeStatus();
-                    LOG.debug("Handshake status {}", status);
-                    switch (status) {
-                        case FINISHED:
-                        case NOT_HANDSHAKING:
-                            if (sslHandler.engine().getSession().getCipherSuite()
-                                    .equals("SSL_NULL_WITH_NULL_NULL")) {
-                                // Not begin handshake yet. Retry later.
-                                LOG.debug("handshake not begin yet {}", status);
-                                retry();
-                            } else {
-                              //Check if peer is trusted before notifying listeners
-                                try {
-                                    sslHandler.engine().getSession().getPeerCertificates();
-                                    //Handshake done. Notify listener.
-                                    OvsdbClient client = getChannelClient(channel, ConnectionType.PASSIVE,
-                                        SocketConnectionType.SSL);
-                                    handleNewPassiveConnection(client);
-                                } catch (SSLPeerUnverifiedException e) {
-                                    //Trust manager is still checking peer certificate. Retry later
-                                    LOG.debug("Peer certifiacte is not verified yet {}", status);
-                                    retry();
-                                }
-                            }
-                            break;
-
-                        case NEED_UNWRAP:
-                        case NEED_TASK:
-                            //Handshake still ongoing. Retry later.
-                            LOG.debug("handshake not done yet {}", status);
-                            retry();
-                            break;
-
-                        case NEED_WRAP:
-                            if (sslHandler.engine().getSession().getCipherSuite()
-                                    .equals("SSL_NULL_WITH_NULL_NULL")) {
-                                /* peer not authenticated. No need to notify listener in this case. */
-                                LOG.error("Ssl handshake fail. channel {}", channel);
-                                channel.disconnect();
-                            } else {
-                                /*
-                                 * peer is authenticated. Give some time to wait for completion.
-                                 * If status is still NEED_WRAP, client might already disconnect.
-                                 * This happens when the first time client connects to controller in two-way handshake.
-                                 * After obtaining controller certificate, client will disconnect and start
-                                 * new connection with controller certificate it obtained.
-                                 * In this case no need to do anything for the first connection attempt. Just skip
-                                 * since client will reconnect later.
-                                 */
-                                LOG.debug("handshake not done yet {}", status);
-                                retry();
-                            }
-                            break;
-
-                        default:
-                            LOG.error("unknown hadshake status {}", status);
-                    }
+                //Check if peer is trusted before notifying listeners
+                try {
+                    sslHandler.engine().getSession().getPeerCertificates();
+                } catch (SSLPeerUnverifiedException e) {
+                    LOG.error("Peer certificate is not verified. channel {}", channel, e);
+                    channel.disconnect();
+                    return;
                 }
-            }
-
-            EXECUTOR_SERVICE.schedule(new HandleNewPassiveSslRunner(),
-                    RETRY_PERIOD, TimeUnit.MILLISECONDS);
+                //Handshake done. Notify listener.
+                EXECUTOR_SERVICE.execute(() -> {
+                    OvsdbClient client = getChannelClient(channel, ConnectionType.PASSIVE,
+                        SocketConnectionType.SSL);
+                    handleNewPassiveConnection(client);
+                });
+            });
         } else {
             EXECUTOR_SERVICE.execute(() -> {
                 OvsdbClient client = getChannelClient(channel, ConnectionType.PASSIVE,
@@ -505,6 +487,13 @@ public class OvsdbConnectionService implements AutoCloseable, OvsdbConnection {
     public void close() throws Exception {
         LOG.info("OvsdbConnectionService closed");
         JsonRpcEndpoint.close();
+        OvsdbClientExecutors.close();
+        synchronized (OvsdbConnectionService.class) {
+            if (transport != null) {
+                transport.close();
+                transport = null;
+            }
+        }
     }
 
     @Override
@@ -576,6 +565,131 @@ public class OvsdbConnectionService implements AutoCloseable, OvsdbConnection {
         LOG.info("Json Rpc Decoder Max Frame Length set to : {}", jsonRpcDecoderMaxFrameLength);
     }
 
+    /**
+     * Blueprint property setter method. Blueprint call this method and set the value of json rpc decoder
+     * streaming mode to the value configured for config option (json-rpc-decoder-streaming) in the
+     * configuration file. When enabled, incoming messages are tokenized by a non-blocking parser as the
+     * bytes arrive instead of being framed first and parsed afterwards. This option is only configured
+     * at the boot time of the controller. Any change at the run time will have no impact.
+     * @param streaming true to use the streaming decoder (default : false)
+     */
+    public void setJsonRpcDecoderStreaming(boolean streaming) {
+        jsonRpcDecoderStreaming = streaming;
+        LOG.info("Json Rpc Decoder streaming mode set to : {}", jsonRpcDecoderStreaming);
+    }
+
+    /**
+     * Blueprint property setter method. Blueprint call this method and set the value of json rpc numeric
+     * ids to the value configured for config option (json-rpc-numeric-ids) in the configuration file.
+     * When enabled, requests are identified by a per-connection counter sent as a JSON number instead of a
+     * random UUID string. This option is only configured at the boot time of the controller. Any change at
+     * the run time will have no impact.
+     * @param numericIds true to use numeric request ids (default : false)
+     */
+    public void setJsonRpcNumericIds(boolean numericIds) {
+        jsonRpcNumericIds = numericIds;
+        LOG.info("Json Rpc numeric request ids set to : {}", jsonRpcNumericIds);
+    }
+
+    /**
+     * Blueprint property setter method. Blueprint call this method and set the value of monitor cond to the
+     * value configured for config option (ovsdb-monitor-cond) in the configuration file. When enabled, the
+     * tables are monitored with monitor_cond, so that modified rows are received as column diffs, falling
+     * back to monitor for switches not supporting it. This option is only configured at the boot time of the
+     * controller. Any change at the run time will have no impact.
+     * @param enabled true to use monitor_cond (default : false)
+     */
+    public void setOvsdbMonitorCond(boolean enabled) {
+        monitorCond = enabled;
+        LOG.info("OVSDB monitor_cond set to : {}", monitorCond);
+    }
+
+    /**
+     * Blueprint property setter method. Blueprint call this method and set the value of replica to the value
+     * configured for config option (ovsdb-replica) in the configuration file. When enabled, each client keeps
+     * an in-memory replica of the tables it monitors, which applications query instead of issuing select
+     * transactions. This option is only configured at the boot time of the controller. Any change at the run
+     * time will have no impact.
+     * @param enabled true to replicate the monitored tables (default : false)
+     */
+    public void setOvsdbReplica(boolean enabled) {
+        replica = enabled;
+        LOG.info("OVSDB replica set to : {}", replica);
+    }
+
+    /**
+     * Blueprint property setter method. Blueprint call this method and set the value of intern uuids to the
+     * value configured for config option (ovsdb-intern-uuids) in the configuration file. When enabled, the rows
+     * received on a connection share a single instance of each UUID they hold, which saves memory on large
+     * tables referencing the same rows. This option is only configured at the boot time of the controller. Any
+     * change at the run time will have no impact.
+     * @param enabled true to intern the UUIDs of the received rows (default : false)
+     */
+    public void setOvsdbInternUuids(boolean enabled) {
+        internUuids = enabled;
+        LOG.info("OVSDB intern uuids set to : {}", internUuids);
+    }
+
+    /**
+     * Blueprint property setter method. Blueprint call this method and set the transaction coalescing window
+     * to the value configured for config option (ovsdb-transact-coalescing-window) in the configuration file.
+     * The transactions issued on a connection within that window are sent as a single transact, each caller
+     * still getting the results of its own operations. This option is only configured at the boot time of
+     * the controller. Any change at the run time will have no impact.
+     * @param windowMicros window in microseconds, 0 to disable (default : 0)
+     */
+    public void setOvsdbTransactCoalescingWindow(int windowMicros) {
+        transactCoalescingWindow = windowMicros;
+        LOG.info("OVSDB transact coalescing window set to : {} us", transactCoalescingWindow);
+    }
+
+    /**
+     * Blueprint property setter method. Blueprint call this method and set how long the monitored rows of a
+     * closed connection are kept to the value configured for config option (ovsdb-monitor-resync-retention)
+     * in the configuration file. A switch reconnecting within that time and supporting monitor_cond_since
+     * only sends the changes since the last transaction seen on the previous connection. This option is only
+     * configured at the boot time of the controller. Any change at the run time will have no impact.
+     * @param seconds retention in seconds, 0 to disable (default : 300)
+     */
+    public void setOvsdbMonitorResyncRetention(int seconds) {
+        MonitorResyncCache.setRetention(seconds);
+    }
+
+    /**
+     * Blueprint property setter method. Blueprint call this method and set the transport used by the OVSDB
+     * connections to the value configured for config option (ovsdb-transport) in the configuration file:
+     * nio, epoll (Linux native transport, falls back to nio when not available) or auto (epoll where
+     * available). This option is only configured at the boot time of the controller. Any change at the run
+     * time will have no impact.
+     * @param type transport type (default : nio)
+     */
+    public void setOvsdbTransport(String type) {
+        transportType = type;
+        LOG.info("OVSDB transport set to : {}", transportType);
+    }
+
+    /**
+     * Blueprint property setter method. Blueprint call this method and set the number of I/O threads shared
+     * by all the OVSDB connections to the value configured for config option (ovsdb-event-loop-threads) in the
+     * configuration file. This option is only configured at the boot time of the controller. Any change at the
+     * run time will have no impact.
+     * @param threads number of I/O threads, 0 for twice the number of cores (default : 0)
+     */
+    public void setOvsdbEventLoopThreads(int threads) {
+        eventLoopThreads = threads;
+        LOG.info("OVSDB I/O threads set to : {}", eventLoopThreads);
+    }
+
+    /**
+     * Blueprint property setter method. Blueprint call this method and set the number of worker threads
+     * shared by all the OVSDB clients to the value configured for config option (ovsdb-client-worker-threads)
+     * in the configuration file. Tasks of a single client still run one at a time, in order.
+     * @param threads number of worker threads, 0 for twice the number of cores (default : 0)
+     */
+    public void setOvsdbClientWorkerThreads(int threads) {
+        OvsdbClientExecutors.setThreads(threads);
+    }
+
     public void setOvsdbListenerPort(int portNumber) {
         LOG.info("OVSDB port for listening connection is set to : {}", portNumber);
         listenerPort = portNumber;
@@ -587,6 +701,10 @@ public class OvsdbConnectionService implements AutoCloseable, OvsdbConnection {
             for (Map.Entry<String, Object> paramEntry : configParameters.entrySet()) {
                 if (paramEntry.getKey().equalsIgnoreCase(OVSDB_RPC_TASK_TIMEOUT_PARAM)) {
                     setOvsdbRpcTaskTimeout(Integer.parseInt((String)paramEntry.getValue()));
+                } else if (paramEntry.getKey().startsWith(OVSDB_RPC_TASK_TIMEOUT_PARAM + ".")) {
+                    JsonRpcTimeouts.setMethodTimeout(
+                            paramEntry.getKey().substring(OVSDB_RPC_TASK_TIMEOUT_PARAM.length() + 1),
+                            Integer.parseInt(paramEntry.getValue().toString()));
                 } else if (paramEntry.getKey().equalsIgnoreCase(USE_SSL)) {
                     useSSL = Boolean.parseBoolean(paramEntry.getValue().toString());
                 }
@@ -0,0 +1,131 @@
+/*
+ * Copyright © 2018 Red Hat, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.ovsdb.lib.impl;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.ServerSocketChannel;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import java.util.Locale;
+import java.util.concurrent.ThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Netty transport used for the OVSDB connections.
+ *
+ * <p>Either the portable NIO transport or, on Linux, the native epoll transport, which saves a
+ * selector wake-up and a copy per read and scales better with thousands of sockets. A single worker
+ * event loop group is shared by all active and passive connections, so the number of I/O threads is
+ * bounded regardless of how many switches connect.
+ */
+final class OvsdbTransport {
+
+    static final String NIO = "nio";
+    static final String EPOLL = "epoll";
+    static final String AUTO = "auto";
+
+    private static final Logger LOG = LoggerFactory.getLogger(OvsdbTransport.class);
+
+    private final boolean epoll;
+    private final EventLoopGroup workerGroup;
+
+    private OvsdbTransport(boolean epoll, int workerThreads) {
+        this.epoll = epoll;
+        this.workerGroup = newEventLoopGroup(workerThreads, "OVSDB-Lib-IO-%d");
+    }
+
+    /**
+     * Creates the transport.
+     *
+     * @param type one of nio, epoll or auto; epoll falls back to nio where it is not available
+     * @param workerThreads the number of I/O threads shared by all connections, 0 for the Netty default
+     */
+    static OvsdbTransport create(String type, int workerThreads) {
+        boolean epoll;
+        switch (type.trim().toLowerCase(Locale.ROOT)) {
+            case EPOLL:
+                epoll = isEpollAvailable();
+                if (!epoll) {
+                    LOG.warn("Native epoll transport is not available, falling back to nio", epollUnavailability());
+                }
+                break;
+            case AUTO:
+                epoll = isEpollAvailable();
+                break;
+            case NIO:
+                epoll = false;
+                break;
+            default:
+                LOG.warn("Unknown OVSDB transport {}, using nio", type);
+                epoll = false;
+                break;
+        }
+        OvsdbTransport transport = new OvsdbTransport(epoll, workerThreads);
+        LOG.info("OVSDB connections use the {} transport with {} I/O threads", epoll ? EPOLL : NIO,
+                workerThreads > 0 ? workerThreads : "default");
+        return transport;
+    }
+
+    EventLoopGroup getWorkerGroup() {
+        return workerGroup;
+    }
+
+    /**
+     * Creates a single-threaded group accepting the connections of one listening socket.
+     */
+    EventLoopGroup newBossGroup() {
+        return newEventLoopGroup(1, "OVSDB-Lib-Accept-%d");
+    }
+
+    Class<? extends SocketChannel> getChannelClass() {
+        return epoll ? EpollSocketChannel.class : NioSocketChannel.class;
+    }
+
+    Class<? extends ServerSocketChannel> getServerChannelClass() {
+        return epoll ? EpollServerSocketChannel.class : NioServerSocketChannel.class;
+    }
+
+    String getType() {
+        return epoll ? EPOLL : NIO;
+    }
+
+    void close() {
+        workerGroup.shutdownGracefully();
+    }
+
+    private EventLoopGroup newEventLoopGroup(int threads, String nameFormat) {
+        ThreadFactory threadFactory = new ThreadFactoryBuilder().setNameFormat(nameFormat).setDaemon(true).build();
+        return epoll ? new EpollEventLoopGroup(threads, threadFactory) : new NioEventLoopGroup(threads, threadFactory);
+    }
+
+    private static boolean isEpollAvailable() {
+        try {
+            return Epoll.isAvailable();
+        } catch (NoClassDefFoundError e) {
+            // the native transport bundle is optional
+            return false;
+        }
+    }
+
+    private static Throwable epollUnavailability() {
+        try {
+            return Epoll.unavailabilityCause();
+        } catch (NoClassDefFoundError e) {
+            return e;
+        }
+    }
+}
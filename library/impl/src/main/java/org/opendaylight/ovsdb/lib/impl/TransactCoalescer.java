@@ -0,0 +1,185 @@
+/*
+ * Copyright © 2018 Red Hat, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.ovsdb.lib.impl;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import org.opendaylight.ovsdb.lib.operations.Operation;
+import org.opendaylight.ovsdb.lib.operations.OperationResult;
+import org.opendaylight.ovsdb.lib.schema.DatabaseSchema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Merges the transactions of a connection issued within a short window into a single transact, saving a
+ * round trip per transaction when many small ones are issued in a row.
+ *
+ * <p>Each caller gets the results of its own operations. As an OVSDB transaction is atomic, a merged
+ * transaction failing on an operation fails all of them: the transactions are then sent again one by one,
+ * so that only the faulty one fails. The failure of the transact request itself, e.g. on a disconnection,
+ * is reported to all the callers.
+ *
+ * <p>The transactions of a database reach the server in the order they were issued: while a merged transaction
+ * awaits its result, and may thus have to be sent again, the following windows of its database are held back.
+ */
+final class TransactCoalescer {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TransactCoalescer.class);
+
+    private static final class Transaction {
+        final List<Operation> operations;
+        final SettableFuture<List<OperationResult>> result = SettableFuture.create();
+
+        Transaction(List<Operation> operations) {
+            this.operations = operations;
+        }
+    }
+
+    private static final class DatabaseQueue {
+        // The transactions waiting for the end of the current window, null when no window is open
+        List<Transaction> window;
+        // The windows which ended while a merged transaction was awaiting its result
+        final Deque<List<Transaction>> held = new ArrayDeque<>();
+        boolean mergedInFlight;
+    }
+
+    private final BiFunction<DatabaseSchema, List<Operation>, ListenableFuture<List<OperationResult>>> sender;
+    private final ScheduledExecutorService scheduler;
+    private final long windowMicros;
+    // Guarded by itself, by database name; the transactions are sent holding the lock, so that they go out in order
+    private final Map<String, DatabaseQueue> queues = new HashMap<>();
+
+    TransactCoalescer(BiFunction<DatabaseSchema, List<Operation>, ListenableFuture<List<OperationResult>>> sender,
+                      ScheduledExecutorService scheduler, long windowMicros) {
+        this.sender = sender;
+        this.scheduler = scheduler;
+        this.windowMicros = windowMicros;
+    }
+
+    ListenableFuture<List<OperationResult>> transact(DatabaseSchema dbSchema, List<Operation> operations) {
+        if (operations.isEmpty()) {
+            return sender.apply(dbSchema, operations);
+        }
+        Transaction transaction = new Transaction(new ArrayList<>(operations));
+        synchronized (queues) {
+            DatabaseQueue queue = queues.computeIfAbsent(dbSchema.getName(), name -> new DatabaseQueue());
+            if (queue.window == null) {
+                queue.window = new ArrayList<>();
+                scheduler.schedule(() -> flush(dbSchema, queue), windowMicros, TimeUnit.MICROSECONDS);
+            }
+            queue.window.add(transaction);
+        }
+        return transaction.result;
+    }
+
+    private void flush(DatabaseSchema dbSchema, DatabaseQueue queue) {
+        synchronized (queues) {
+            queue.held.add(queue.window);
+            queue.window = null;
+            sendHeld(dbSchema, queue);
+        }
+    }
+
+    /**
+     * Sends the windows which ended, up to the first merged transaction.
+     */
+    private void sendHeld(DatabaseSchema dbSchema, DatabaseQueue queue) {
+        synchronized (queues) {
+            while (!queue.mergedInFlight && !queue.held.isEmpty()) {
+                List<Transaction> transactions = queue.held.poll();
+                if (transactions.size() == 1) {
+                    send(dbSchema, transactions.get(0));
+                } else {
+                    queue.mergedInFlight = true;
+                    sendMerged(dbSchema, queue, transactions);
+                }
+            }
+        }
+    }
+
+    private void sendMerged(DatabaseSchema dbSchema, DatabaseQueue queue, List<Transaction> transactions) {
+        List<Operation> operations = new ArrayList<>();
+        for (Transaction transaction : transactions) {
+            operations.addAll(transaction.operations);
+        }
+        LOG.trace("Merging {} transactions of {} into one of {} operations", transactions.size(),
+                dbSchema.getName(), operations.size());
+        Futures.addCallback(sender.apply(dbSchema, operations), new FutureCallback<List<OperationResult>>() {
+            @Override
+            public void onSuccess(List<OperationResult> results) {
+                if (!succeeded(results, operations.size())) {
+                    LOG.debug("Merged transaction of {} failed, sending its {} transactions one by one",
+                            dbSchema.getName(), transactions.size());
+                    // Before the held windows, which were issued afterwards
+                    synchronized (queues) {
+                        for (Transaction transaction : transactions) {
+                            send(dbSchema, transaction);
+                        }
+                        released();
+                    }
+                    return;
+                }
+                released();
+                int start = 0;
+                for (Transaction transaction : transactions) {
+                    int end = start + transaction.operations.size();
+                    transaction.result.set(new ArrayList<>(results.subList(start, end)));
+                    start = end;
+                }
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+                released();
+                for (Transaction transaction : transactions) {
+                    transaction.result.setException(throwable);
+                }
+            }
+
+            private void released() {
+                synchronized (queues) {
+                    queue.mergedInFlight = false;
+                    sendHeld(dbSchema, queue);
+                }
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+    private void send(DatabaseSchema dbSchema, Transaction transaction) {
+        transaction.result.setFuture(sender.apply(dbSchema, transaction.operations));
+    }
+
+    /**
+     * Checks that all the operations succeeded, and that the transaction was committed: a commit failure
+     * comes as an extra error result.
+     */
+    private static boolean succeeded(List<OperationResult> results, int operationCount) {
+        if (results.size() != operationCount) {
+            return false;
+        }
+        for (OperationResult result : results) {
+            if (result.getError() != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright © 2018 Red Hat, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.ovsdb.lib.jsonrpc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import org.opendaylight.ovsdb.lib.message.OvsdbRPC;
+import org.opendaylight.ovsdb.lib.message.UpdateNotification;
+import org.opendaylight.ovsdb.lib.notation.json.Converter.UpdateNotificationConverter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Dispatch table of a registered {@link OvsdbRPC.Callback}.
+ *
+ * <p>The notification methods of the callback are looked up once, when the callback is registered: each
+ * one is bound to a {@link MethodHandle} together with a reader for its parameter type, so that an
+ * incoming update, locked or stolen notification costs a single map lookup before the callback runs.
+ */
+final class CallbackDispatcher {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CallbackDispatcher.class);
+    private static final MethodType NOTIFICATION_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final UpdateNotificationConverter UPDATE_NOTIFICATION_CONVERTER =
+            new UpdateNotificationConverter();
+
+    private static final class Handler {
+        final MethodHandle handle;
+        // null for UpdateNotification, which is bound straight from the tree
+        final ObjectReader paramsReader;
+
+        Handler(MethodHandle handle, ObjectReader paramsReader) {
+            this.handle = handle;
+            this.paramsReader = paramsReader;
+        }
+    }
+
+    private final Map<String, Handler> handlers = new HashMap<>();
+
+    CallbackDispatcher(OvsdbRPC.Callback callback, ObjectMapper objectMapper) {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        for (Method method : callback.getClass().getDeclaredMethods()) {
+            if (method.getParameterCount() != 2 || method.isBridge() || handlers.containsKey(method.getName())) {
+                continue;
+            }
+            try {
+                method.setAccessible(true);
+                MethodHandle handle = lookup.unreflect(method).bindTo(callback).asType(NOTIFICATION_TYPE);
+                ObjectReader paramsReader = method.getParameterTypes()[1] == UpdateNotification.class ? null
+                        : objectMapper.readerFor(objectMapper.getTypeFactory()
+                                .constructType(method.getGenericParameterTypes()[1]));
+                handlers.put(method.getName(), new Handler(handle, paramsReader));
+            } catch (IllegalAccessException | SecurityException e) {
+                LOG.error("Unable to access callback {}", method.getName(), e);
+            }
+        }
+    }
+
+    /**
+     * Delivers a notification to the callback.
+     *
+     * @return false if the callback does not handle the given method
+     */
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    boolean dispatch(Object context, String method, JsonNode params) {
+        Handler handler = handlers.get(method);
+        if (handler == null) {
+            return false;
+        }
+        try {
+            Object param;
+            if (params == null) {
+                param = null;
+            } else if (handler.paramsReader == null) {
+                // Update notifications are bound straight from the tree, a round trip through
+                // convertValue() would copy the (potentially huge) update only to discard it
+                param = UPDATE_NOTIFICATION_CONVERTER.convert(params);
+            } else {
+                param = handler.paramsReader.readValue(params);
+            }
+            handler.handle.invokeExact(context, param);
+        } catch (IOException e) {
+            LOG.error("Unable to read the parameters of callback {}: {}", method, params, e);
+        } catch (Throwable e) {
+            LOG.error("Unable to invoke callback {}", method, e);
+        }
+        return true;
+    }
+}
@@ -8,13 +8,18 @@
 
 package org.opendaylight.ovsdb.lib.jsonrpc;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import com.google.common.collect.Lists;
 import java.util.ArrayList;
 import java.util.List;
 
+@JsonPropertyOrder({"id", "method", "params"})
 public class JsonRpc10Request {
 
-    String id;
+    // either a String or a Long, see JsonRpcEndpoint
+    Object id;
     String method;
     List<Object> params = new ArrayList<>();
 
@@ -22,7 +27,20 @@ public class JsonRpc10Request {
         setId(id);
     }
 
+    public JsonRpc10Request(long id) {
+        this.id = id;
+    }
+
+    @JsonIgnore
     public String getId() {
+        return id == null ? null : id.toString();
+    }
+
+    /**
+     * Returns the id as it goes on the wire, i.e. a JSON string or number.
+     */
+    @JsonProperty("id")
+    public Object getIdValue() {
         return id;
     }
 
@@ -8,20 +8,37 @@
 
 package org.opendaylight.ovsdb.lib.jsonrpc;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.ByteBufUtil;
 import io.netty.channel.ChannelHandlerContext;
-import io.netty.handler.codec.MessageToMessageEncoder;
-import java.util.List;
+import io.netty.handler.codec.MessageToByteEncoder;
+import java.io.OutputStream;
 
 /**
- * Created with IntelliJ IDEA.
- * User: araveendrann
- * Date: 10/6/13
- * Time: 11:19 PM
- * To change this template use File | Settings | File Templates.
+ * JSON RPC 1.0 compatible encoder.
+ *
+ * <p>Requests and responses are serialized by Jackson straight into the (pooled) outbound buffer,
+ * so no intermediate String or byte[] is created per message. Pre-rendered {@link CharSequence}s
+ * are still accepted and written as UTF-8.
  */
-public class JsonRpcEncoder extends MessageToMessageEncoder<Object> {
-    @Override
-    protected void encode(ChannelHandlerContext ctx, Object msg, List<Object> out) throws Exception {
+public class JsonRpcEncoder extends MessageToByteEncoder<Object> {
+
+    private final ObjectMapper objectMapper;
 
+    public JsonRpcEncoder(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void encode(ChannelHandlerContext ctx, Object msg, ByteBuf out) throws Exception {
+        if (msg instanceof CharSequence) {
+            ByteBufUtil.writeUtf8(out, (CharSequence) msg);
+        } else {
+            try (OutputStream stream = new ByteBufOutputStream(out)) {
+                objectMapper.writeValue(stream, msg);
+            }
+        }
     }
 }
@@ -8,29 +8,31 @@
 
 package org.opendaylight.ovsdb.lib.jsonrpc;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.type.TypeFactory;
-import com.google.common.reflect.Invokable;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.google.common.reflect.Reflection;
 import com.google.common.reflect.TypeToken;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.netty.channel.Channel;
-import java.lang.reflect.InvocationTargetException;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.EventLoop;
+import io.netty.util.Timeout;
+import io.netty.util.collection.LongObjectHashMap;
+import io.netty.util.collection.LongObjectMap;
+import java.io.IOException;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ThreadFactory;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.opendaylight.ovsdb.lib.error.JsonRpcErrorException;
 import org.opendaylight.ovsdb.lib.error.UnexpectedResultException;
 import org.opendaylight.ovsdb.lib.error.UnsupportedArgumentException;
 import org.opendaylight.ovsdb.lib.message.OvsdbRPC;
@@ -40,19 +42,12 @@ import org.slf4j.LoggerFactory;
 public class JsonRpcEndpoint {
 
     private static final Logger LOG = LoggerFactory.getLogger(JsonRpcEndpoint.class);
-    private static final int REAPER_THREADS = 3;
-    private static final ThreadFactory FUTURE_REAPER_THREAD_FACTORY = new ThreadFactoryBuilder()
-            .setNameFormat("OVSDB-Lib-Future-Reaper-%d")
-            .setDaemon(true).build();
-    private static final ScheduledExecutorService FUTURE_REAPER_SERVICE
-            = Executors.newScheduledThreadPool(REAPER_THREADS, FUTURE_REAPER_THREAD_FACTORY);
-
-    private static int reaperInterval = 1000;
 
     public static class CallContext {
         Method method;
         JsonRpc10Request request;
         SettableFuture<Object> future;
+        volatile Timeout timeout;
 
         public CallContext(JsonRpc10Request request, Method method, SettableFuture<Object> future) {
             this.method = method;
@@ -60,6 +55,13 @@ public class JsonRpcEndpoint {
             this.future = future;
         }
 
+        void cancelTimeout() {
+            Timeout current = timeout;
+            if (current != null) {
+                current.cancel();
+            }
+        }
+
         public Method getMethod() {
             return method;
         }
@@ -76,11 +78,38 @@ public class JsonRpcEndpoint {
     ObjectMapper objectMapper;
     Channel nettyChannel;
     Map<String, CallContext> methodContext = new ConcurrentHashMap<>();
-    Map<Object, OvsdbRPC.Callback> requestCallbacks = new HashMap<>();
+    Map<Object, CallbackDispatcher> requestCallbacks = new ConcurrentHashMap<>();
+    private final Map<Method, ResultReader> resultReaders = new ConcurrentHashMap<>();
+
+    // numeric id mode: ids come from a per-connection counter and pending calls live in a primitive
+    // keyed open-addressing map, guarded by its own monitor
+    private final boolean numericIds;
+    private final AtomicLong nextRequestId = new AtomicLong();
+    private final LongObjectMap<CallContext> numericMethodContext = new LongObjectHashMap<>();
+
+    // write batching state, confined to the channel's event loop
+    private boolean flushPending;
+    private int pendingWrites;
+    private final AtomicLong writtenMessages = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong expiredRequests = new AtomicLong();
 
     public JsonRpcEndpoint(ObjectMapper objectMapper, Channel channel) {
+        this(objectMapper, channel, false);
+    }
+
+    /**
+     * Creates an endpoint.
+     *
+     * @param objectMapper the mapper used to bind requests and responses
+     * @param channel the channel to the OVSDB server
+     * @param numericIds true to identify requests with a per-connection counter, sent as a JSON number,
+     *                   rather than with a random UUID string
+     */
+    public JsonRpcEndpoint(ObjectMapper objectMapper, Channel channel, boolean numericIds) {
         this.objectMapper = objectMapper;
         this.nettyChannel = channel;
+        this.numericIds = numericIds;
     }
 
     public <T> T getClient(final Object context, Class<T> klazz) {
@@ -90,11 +119,12 @@ public class JsonRpcEndpoint {
                 if (args == null || args.length != 1 || !(args[0] instanceof OvsdbRPC.Callback)) {
                     return false;
                 }
-                requestCallbacks.put(context, (OvsdbRPC.Callback)args[0]);
+                requestCallbacks.put(context, new CallbackDispatcher((OvsdbRPC.Callback) args[0], objectMapper));
                 return true;
             }
 
-            JsonRpc10Request request = new JsonRpc10Request(UUID.randomUUID().toString());
+            JsonRpc10Request request = numericIds ? new JsonRpc10Request(nextRequestId.incrementAndGet())
+                    : new JsonRpc10Request(UUID.randomUUID().toString());
             request.setMethod(method.getName());
 
             if (args != null && args.length != 0) {
@@ -114,22 +144,23 @@ public class JsonRpcEndpoint {
                 }
             }
 
-            String requestString = objectMapper.writeValueAsString(request);
-            LOG.trace("getClient Request : {}", requestString);
+            LOG.trace("getClient Request : {}", request);
 
             SettableFuture<Object> sf = SettableFuture.create();
-            methodContext.put(request.getId(), new CallContext(request, method, sf));
-            FUTURE_REAPER_SERVICE.schedule(() -> {
-                CallContext cc = methodContext.remove(request.getId());
-                if (cc != null) {
-                    if (cc.getFuture().isDone() || cc.getFuture().isCancelled()) {
-                        return;
+            CallContext callContext = new CallContext(request, method, sf);
+            Object requestId = request.getIdValue();
+            putCallContext(requestId, callContext);
+            callContext.timeout = JsonRpcTimeouts.schedule(method.getName(), () -> expire(requestId));
+
+            write(request).addListener(future -> {
+                if (!future.isSuccess()) {
+                    CallContext cc = removeCallContext(requestId);
+                    if (cc != null) {
+                        cc.cancelTimeout();
                     }
-                    cc.getFuture().cancel(false);
+                    sf.setException(future.cause());
                 }
-            }, reaperInterval, TimeUnit.MILLISECONDS);
-
-            nettyChannel.writeAndFlush(requestString);
+            });
 
             return sf;
         }
@@ -138,26 +169,37 @@ public class JsonRpcEndpoint {
 
     public void processResult(JsonNode response) throws NoSuchMethodException {
 
-        LOG.trace("Response : {}", response.toString());
-        CallContext returnCtxt = methodContext.remove(response.get("id").asText());
+        LOG.trace("Response : {}", response);
+        JsonNode id = response.get("id");
+        CallContext returnCtxt = numericIds && id.canConvertToLong() ? removeCallContext(id.longValue())
+                : methodContext.remove(id.asText());
         if (returnCtxt == null) {
             return;
         }
+        returnCtxt.cancelTimeout();
 
         if (ListenableFuture.class == returnCtxt.getMethod().getReturnType()) {
-            TypeToken<?> retType = TypeToken.of(
-                    returnCtxt.getMethod().getGenericReturnType())
-                    .resolveType(ListenableFuture.class.getMethod("get").getGenericReturnType());
-            JavaType javaType =  TypeFactory.defaultInstance().constructType(retType.getType());
-
-            JsonNode result = response.get("result");
-            Object result1 = objectMapper.convertValue(result, javaType);
             JsonNode error = response.get("error");
             if (error != null && !error.isNull()) {
-                LOG.error("Error : {}", error.toString());
+                String method = returnCtxt.getMethod().getName();
+                if (OvsdbRPC.ERROR_REPORTING_METHODS.contains(method)) {
+                    LOG.debug("Error : {}", error);
+                    returnCtxt.getFuture().setException(new JsonRpcErrorException(method, error));
+                    return;
+                }
+                LOG.error("Error : {}", error);
             }
 
-            returnCtxt.getFuture().set(result1);
+            Object result;
+            try {
+                result = resultReaders.computeIfAbsent(returnCtxt.getMethod(), this::newResultReader)
+                        .read(response.get("result"));
+            } catch (IOException e) {
+                LOG.error("Unable to read the result of {}", returnCtxt.getRequest(), e);
+                returnCtxt.getFuture().setException(e);
+                return;
+            }
+            returnCtxt.getFuture().set(result);
 
         } else {
             throw new UnexpectedResultException("Don't know how to handle this");
@@ -169,24 +211,9 @@ public class JsonRpcEndpoint {
         request.setMethod(requestJson.get("method").asText());
         LOG.trace("Request : {} {} {}", requestJson.get("id"), requestJson.get("method"),
                 requestJson.get("params"));
-        OvsdbRPC.Callback callback = requestCallbacks.get(context);
-        if (callback != null) {
-            Method[] methods = callback.getClass().getDeclaredMethods();
-            for (Method method : methods) {
-                if (method.getName().equals(request.getMethod())) {
-                    Class<?>[] parameters = method.getParameterTypes();
-                    JsonNode params = requestJson.get("params");
-                    Object param = objectMapper.convertValue(params, parameters[1]);
-                    try {
-                        Invokable from = Invokable.from(method);
-                        from.setAccessible(true);
-                        from.invoke(callback, context, param);
-                    } catch (IllegalAccessException | InvocationTargetException e) {
-                        LOG.error("Unable to invoke callback {}", method.getName(), e);
-                    }
-                    return;
-                }
-            }
+        CallbackDispatcher callback = requestCallbacks.get(context);
+        if (callback != null && callback.dispatch(context, request.getMethod(), requestJson.get("params"))) {
+            return;
         }
 
         // Echo dont need any special processing. hence handling it internally.
@@ -194,12 +221,11 @@ public class JsonRpcEndpoint {
         if (request.getMethod().equals("echo")) {
             JsonRpc10Response response = new JsonRpc10Response(request.getId());
             response.setError(null);
-            try {
-                String jsonString = objectMapper.writeValueAsString(response);
-                nettyChannel.writeAndFlush(jsonString);
-            } catch (JsonProcessingException e) {
-                LOG.error("Exception while processing JSON response {}", response, e);
-            }
+            write(response).addListener(future -> {
+                if (!future.isSuccess()) {
+                    LOG.error("Exception while processing JSON response {}", response, future.cause());
+                }
+            });
             return;
         }
 
@@ -207,29 +233,177 @@ public class JsonRpcEndpoint {
         if (request.getMethod().equals("list_dbs")) {
             JsonRpc10Response response = new JsonRpc10Response(request.getId());
             response.setError(null);
-            try {
-                String jsonString = objectMapper.writeValueAsString(response);
-                nettyChannel.writeAndFlush(jsonString);
-            } catch (JsonProcessingException e) {
-                LOG.error("Exception while processing JSON response {}", response, e);
-            }
+            write(response).addListener(future -> {
+                if (!future.isSuccess()) {
+                    LOG.error("Exception while processing JSON response {}", response, future.cause());
+                }
+            });
             return;
         }
 
         LOG.error("No handler for Request : {} on {}", requestJson.toString(), context);
     }
 
+    private ResultReader newResultReader(Method method) {
+        TypeToken<?> returnType = TypeToken.of(method.getGenericReturnType())
+                .resolveType(ListenableFuture.class.getTypeParameters()[0]);
+        return new ResultReader(objectMapper, objectMapper.getTypeFactory().constructType(returnType.getType()));
+    }
+
+    /**
+     * Binds the result of a response to the type returned by an RPC method, which is resolved only once per
+     * method. JsonNode results, as returned by get_schema and transact, are handed out without any binding.
+     */
+    private static final class ResultReader {
+        // null when the result is a JsonNode
+        private final ObjectReader reader;
+        private final boolean jsonNodeList;
+
+        ResultReader(ObjectMapper objectMapper, JavaType type) {
+            this.reader = JsonNode.class.equals(type.getRawClass()) ? null : objectMapper.readerFor(type);
+            this.jsonNodeList = type.isCollectionLikeType()
+                    && JsonNode.class.equals(type.getContentType().getRawClass())
+                    && type.getRawClass().isAssignableFrom(ArrayList.class);
+        }
+
+        Object read(JsonNode result) throws IOException {
+            if (reader == null) {
+                return result;
+            }
+            if (result == null || result.isNull()) {
+                return null;
+            }
+            if (jsonNodeList && result.isArray()) {
+                List<JsonNode> list = new ArrayList<>(result.size());
+                result.forEach(list::add);
+                return list;
+            }
+            return reader.readValue(result);
+        }
+    }
+
+    /**
+     * Queues a message on the channel and makes sure it is flushed at the end of the current
+     * event loop iteration. All messages written before that flush runs share a single flush,
+     * which lets bursts of requests from many threads go out in as few syscalls as possible.
+     */
+    private ChannelFuture write(Object message) {
+        ChannelPromise promise = nettyChannel.newPromise();
+        EventLoop eventLoop = nettyChannel.eventLoop();
+        if (eventLoop.inEventLoop()) {
+            writeAndScheduleFlush(message, promise);
+        } else {
+            eventLoop.execute(() -> writeAndScheduleFlush(message, promise));
+        }
+        return promise;
+    }
+
+    // Only ever invoked on the channel's event loop, hence no synchronization on flushPending
+    private void writeAndScheduleFlush(Object message, ChannelPromise promise) {
+        nettyChannel.write(message, promise);
+        pendingWrites++;
+        if (!flushPending) {
+            flushPending = true;
+            nettyChannel.eventLoop().execute(this::flush);
+        }
+    }
+
+    private void flush() {
+        flushPending = false;
+        LOG.trace("Flushing {} messages on {}", pendingWrites, nettyChannel);
+        writtenMessages.addAndGet(pendingWrites);
+        pendingWrites = 0;
+        flushes.incrementAndGet();
+        nettyChannel.flush();
+    }
+
+    /**
+     * Returns the number of JSON-RPC messages written to the channel.
+     */
+    public long getWrittenMessages() {
+        return writtenMessages.get();
+    }
+
+    /**
+     * Returns the number of flushes issued on the channel.
+     */
+    public long getFlushes() {
+        return flushes.get();
+    }
+
+    /**
+     * Returns the average number of JSON-RPC messages sent per flush.
+     */
+    public double getMessagesPerFlush() {
+        long flushCount = flushes.get();
+        return flushCount == 0 ? 0 : (double) writtenMessages.get() / flushCount;
+    }
+
+    private void putCallContext(Object requestId, CallContext callContext) {
+        if (requestId instanceof Long) {
+            synchronized (numericMethodContext) {
+                numericMethodContext.put((long) requestId, callContext);
+            }
+        } else {
+            methodContext.put((String) requestId, callContext);
+        }
+    }
+
+    private CallContext removeCallContext(Object requestId) {
+        if (requestId instanceof Long) {
+            return removeCallContext((long) requestId);
+        }
+        return methodContext.remove(requestId);
+    }
+
+    private CallContext removeCallContext(long requestId) {
+        synchronized (numericMethodContext) {
+            return numericMethodContext.remove(requestId);
+        }
+    }
+
+    private void expire(Object requestId) {
+        CallContext cc = removeCallContext(requestId);
+        if (cc == null || cc.getFuture().isDone()) {
+            return;
+        }
+        // account for the expiry before cancelling, so that it is visible to whoever is waiting on the future
+        String method = cc.getMethod().getName();
+        long expired = expiredRequests.incrementAndGet();
+        JsonRpcTimeouts.recordExpiry(method);
+        LOG.debug("Request {} for {} on {} timed out after {} ms ({} expired on this connection)",
+                requestId, method, nettyChannel, JsonRpcTimeouts.getTimeout(method), expired);
+        cc.getFuture().cancel(false);
+    }
+
+    /**
+     * Returns the number of requests on this connection that expired without a response.
+     */
+    public long getExpiredRequests() {
+        return expiredRequests.get();
+    }
+
+    /**
+     * Returns the calls awaiting a response, keyed by request id. In numeric id mode this is a snapshot.
+     */
     public Map<String, CallContext> getMethodContext() {
-        return methodContext;
+        if (!numericIds) {
+            return methodContext;
+        }
+        Map<String, CallContext> snapshot = new HashMap<>();
+        synchronized (numericMethodContext) {
+            for (LongObjectMap.PrimitiveEntry<CallContext> entry : numericMethodContext.entries()) {
+                snapshot.put(Long.toString(entry.key()), entry.value());
+            }
+        }
+        return snapshot;
     }
 
     public static void setReaperInterval(int interval) {
-        reaperInterval = interval;
-        LOG.info("Ovsdb Rpc Task interval is set to {} millisecond", reaperInterval);
+        JsonRpcTimeouts.setDefaultTimeout(interval);
     }
 
     public static void close() {
-        LOG.info("Shutting down reaper executor service");
-        FUTURE_REAPER_SERVICE.shutdownNow();
+        JsonRpcTimeouts.close();
     }
 }
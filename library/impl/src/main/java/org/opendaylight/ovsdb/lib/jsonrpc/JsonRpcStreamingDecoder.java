@@ -0,0 +1,224 @@
+/*
+ * Copyright © 2018 Red Hat, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.ovsdb.lib.jsonrpc;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.core.io.IOContext;
+import com.fasterxml.jackson.core.json.ByteSourceJsonBootstrapper;
+import com.fasterxml.jackson.core.util.BufferRecycler;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ContainerNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.ByteToMessageDecoder;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import org.opendaylight.ovsdb.lib.error.InvalidEncodingException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * JSON RPC 1.0 compatible decoder built on top of the Jackson non-blocking parser.
+ *
+ * <p>Unlike {@link JsonRpcDecoder}, which first frames a message by counting curly braces and then
+ * hands the complete frame to a blocking parser, this decoder feeds every received buffer straight
+ * into the tokenizer and assembles the {@link JsonNode} tree while the tokens arrive. Each byte is
+ * therefore examined exactly once and nothing needs to be retained in the cumulation buffer between
+ * reads, which keeps large monitor replies from being scanned twice on the event loop.
+ */
+public class JsonRpcStreamingDecoder extends ByteToMessageDecoder {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JsonRpcStreamingDecoder.class);
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final JsonNodeFactory NODE_FACTORY = JsonNodeFactory.instance;
+    // Used to copy out of direct buffers, which cannot be fed to the parser in-place
+    private static final int CHUNK_SIZE = 8192;
+
+    private final int maxFrameLength;
+    //Indicates if the frame limit warning was issued
+    private boolean maxFrameLimitWasReached = false;
+
+    private final IOContext jacksonIOContext = new IOContext(new BufferRecycler(), null, false);
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+    private byte[] chunk;
+
+    // context for the record being assembled
+    private final Deque<ContainerNode<?>> containers = new ArrayDeque<>();
+    private String fieldName;
+    private long recordStartOffset;
+    private boolean encodingChecked = false;
+
+    private int recordsRead;
+
+    public JsonRpcStreamingDecoder(int maxFrameLength) {
+        this.maxFrameLength = maxFrameLength;
+        try {
+            this.parser = JSON_FACTORY.createNonBlockingByteArrayParser();
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to create non-blocking JSON parser", e);
+        }
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+    }
+
+    @Override
+    protected void decode(ChannelHandlerContext ctx, ByteBuf buf, List<Object> out) throws Exception {
+
+        LOG.trace("readable bytes {}, records read {}, incomplete record depth {}",
+                buf.readableBytes(), recordsRead, containers.size());
+
+        if (!encodingChecked) {
+            skipSpaces(buf);
+            if (buf.readableBytes() < 4) {
+                return; //wait for more data
+            }
+
+            byte[] buff = new byte[4];
+            buf.getBytes(buf.readerIndex(), buff);
+            ByteSourceJsonBootstrapper strapper = new ByteSourceJsonBootstrapper(jacksonIOContext, buff, 0, 4);
+            JsonEncoding jsonEncoding = strapper.detectEncoding();
+            if (!JsonEncoding.UTF8.equals(jsonEncoding)) {
+                throw new InvalidEncodingException(jsonEncoding.getJavaName(), "currently only UTF-8 is supported");
+            }
+            encodingChecked = true;
+        }
+
+        while (buf.isReadable()) {
+            final int length;
+            if (buf.hasArray()) {
+                // Heap buffers are tokenized in-place, the parser is fully drained before we return
+                length = buf.readableBytes();
+                int start = buf.arrayOffset() + buf.readerIndex();
+                feeder.feedInput(buf.array(), start, start + length);
+            } else {
+                if (chunk == null) {
+                    chunk = new byte[CHUNK_SIZE];
+                }
+                length = Math.min(buf.readableBytes(), CHUNK_SIZE);
+                buf.getBytes(buf.readerIndex(), chunk, 0, length);
+                feeder.feedInput(chunk, 0, length);
+            }
+            buf.skipBytes(length);
+            drainTokens(out);
+        }
+
+        //We do not want to issue a log message on every extent of the buffer
+        //hence logging only once
+        if (!containers.isEmpty() && !maxFrameLimitWasReached
+                && parser.getCurrentLocation().getByteOffset() - recordStartOffset >= maxFrameLength) {
+            maxFrameLimitWasReached = true;
+            LOG.warn("***** OVSDB Frame limit of {} bytes has been reached! *****", this.maxFrameLength);
+        }
+    }
+
+    @Override
+    protected void handlerRemoved0(ChannelHandlerContext ctx) throws Exception {
+        parser.close();
+    }
+
+    public int getRecordsRead() {
+        return recordsRead;
+    }
+
+    private void drainTokens(List<Object> out) throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.NOT_AVAILABLE && token != null) {
+            switch (token) {
+                case START_OBJECT:
+                    startContainer(NODE_FACTORY.objectNode());
+                    break;
+                case START_ARRAY:
+                    startContainer(NODE_FACTORY.arrayNode());
+                    break;
+                case END_OBJECT:
+                case END_ARRAY:
+                    ContainerNode<?> completed = containers.pop();
+                    if (containers.isEmpty()) {
+                        out.add(completed);
+                        recordsRead++;
+                    }
+                    break;
+                case FIELD_NAME:
+                    fieldName = parser.getCurrentName();
+                    break;
+                case VALUE_STRING:
+                    addValue(NODE_FACTORY.textNode(parser.getText()));
+                    break;
+                case VALUE_NUMBER_INT:
+                    addValue(intNode());
+                    break;
+                case VALUE_NUMBER_FLOAT:
+                    addValue(NODE_FACTORY.numberNode(parser.getDoubleValue()));
+                    break;
+                case VALUE_TRUE:
+                    addValue(NODE_FACTORY.booleanNode(true));
+                    break;
+                case VALUE_FALSE:
+                    addValue(NODE_FACTORY.booleanNode(false));
+                    break;
+                case VALUE_NULL:
+                    addValue(NODE_FACTORY.nullNode());
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private JsonNode intNode() throws IOException {
+        switch (parser.getNumberType()) {
+            case INT:
+                return NODE_FACTORY.numberNode(parser.getIntValue());
+            case LONG:
+                return NODE_FACTORY.numberNode(parser.getLongValue());
+            default:
+                return NODE_FACTORY.numberNode(parser.getBigIntegerValue());
+        }
+    }
+
+    private void startContainer(ContainerNode<?> container) {
+        if (containers.isEmpty()) {
+            recordStartOffset = parser.getTokenLocation().getByteOffset();
+        } else {
+            addValue(container);
+        }
+        containers.push(container);
+    }
+
+    private void addValue(JsonNode value) {
+        ContainerNode<?> parent = containers.peek();
+        if (parent == null) {
+            LOG.debug("Ignoring top-level JSON value {} outside of an object", value);
+        } else if (parent.isObject()) {
+            ((ObjectNode) parent).set(fieldName, value);
+        } else {
+            ((ArrayNode) parent).add(value);
+        }
+    }
+
+    private static void skipSpaces(ByteBuf byteBuf) {
+        while (byteBuf.isReadable()) {
+            int ch = byteBuf.getByte(byteBuf.readerIndex()) & 0xFF;
+            if (!(ch == ' ' || ch == '\r' || ch == '\n' || ch == '\t')) {
+                return;
+            } else {
+                byteBuf.readByte(); //move the read index
+            }
+        }
+    }
+}
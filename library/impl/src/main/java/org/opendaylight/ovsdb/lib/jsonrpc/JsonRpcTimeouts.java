@@ -0,0 +1,115 @@
+/*
+ * Copyright © 2018 Red Hat, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.ovsdb.lib.jsonrpc;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Deadline tracking for outstanding JSON-RPC requests.
+ *
+ * <p>All endpoints share a single {@link HashedWheelTimer}, so arming and cancelling the deadline of a
+ * request is O(1) no matter how many requests are in flight. Deadlines default to the
+ * ovsdb-rpc-task-timeout and can be overridden per RPC method. Expired requests are counted per method
+ * here and per connection by {@link JsonRpcEndpoint}.
+ */
+public final class JsonRpcTimeouts {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JsonRpcTimeouts.class);
+    private static final long TICK_DURATION_MILLIS = 10;
+    private static final int REAPER_THREADS = 3;
+    // Created on first use, and again after close() so that a restarted library keeps tracking deadlines
+    private static HashedWheelTimer timer;
+    // Expired futures are cancelled off the timer thread, as their listeners may run arbitrary code
+    private static ExecutorService futureReaperService;
+
+    private static final Map<String, Integer> METHOD_TIMEOUTS = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder> METHOD_EXPIRIES = new ConcurrentHashMap<>();
+    private static volatile int defaultTimeout = 1000;
+
+    private JsonRpcTimeouts() {
+        // Prevent instantiating a utility class
+    }
+
+    static synchronized Timeout schedule(String method, Runnable expiry) {
+        if (timer == null) {
+            timer = new HashedWheelTimer(new ThreadFactoryBuilder()
+                    .setNameFormat("OVSDB-Lib-Rpc-Timer-%d")
+                    .setDaemon(true).build(), TICK_DURATION_MILLIS, TimeUnit.MILLISECONDS);
+            futureReaperService = Executors.newFixedThreadPool(REAPER_THREADS, new ThreadFactoryBuilder()
+                    .setNameFormat("OVSDB-Lib-Future-Reaper-%d").setDaemon(true).build());
+        }
+        ExecutorService reaper = futureReaperService;
+        return timer.newTimeout(timeout -> reaper.execute(expiry), getTimeout(method), TimeUnit.MILLISECONDS);
+    }
+
+    static void recordExpiry(String method) {
+        METHOD_EXPIRIES.computeIfAbsent(method, key -> new LongAdder()).increment();
+    }
+
+    /**
+     * Returns the deadline, in milliseconds, applied to requests of the given RPC method.
+     */
+    public static int getTimeout(String method) {
+        return METHOD_TIMEOUTS.getOrDefault(method, defaultTimeout);
+    }
+
+    public static void setDefaultTimeout(int timeout) {
+        defaultTimeout = timeout;
+        LOG.info("Ovsdb Rpc Task interval is set to {} millisecond", timeout);
+    }
+
+    /**
+     * Overrides the deadline of a single RPC method, e.g. to allow more time for transact than for echo.
+     *
+     * @param method the RPC method name
+     * @param timeout the deadline in milliseconds; zero or less reverts to the default timeout
+     */
+    public static void setMethodTimeout(String method, int timeout) {
+        if (timeout > 0) {
+            METHOD_TIMEOUTS.put(method, timeout);
+            LOG.info("Ovsdb Rpc Task interval for {} is set to {} millisecond", method, timeout);
+        } else {
+            METHOD_TIMEOUTS.remove(method);
+            LOG.info("Ovsdb Rpc Task interval for {} reverted to the default", method);
+        }
+    }
+
+    /**
+     * Returns the number of requests that expired without a response, keyed by RPC method.
+     */
+    public static Map<String, Long> getExpiredRequests() {
+        ImmutableMap.Builder<String, Long> builder = ImmutableMap.builder();
+        METHOD_EXPIRIES.forEach((method, count) -> builder.put(method, count.sum()));
+        return builder.build();
+    }
+
+    /**
+     * Stops the timer and the reaper threads; new ones are started by the next request.
+     */
+    static synchronized void close() {
+        LOG.info("Shutting down rpc timer and reaper executor service");
+        if (timer != null) {
+            timer.stop();
+            futureReaperService.shutdownNow();
+            timer = null;
+            futureReaperService = null;
+        }
+    }
+}
@@ -9,7 +9,10 @@ package org.opendaylight.ovsdb.lib.message;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
 import java.util.Set;
+import org.opendaylight.ovsdb.lib.notation.Condition;
+import org.opendaylight.ovsdb.lib.schema.TableIndex;
 
 /**
  * MonitorRequest.
@@ -22,6 +25,10 @@ public class MonitorRequest {
     @JsonIgnore String tableName;
     Set<String> columns;
     MonitorSelect select;
+    // Only sent with monitor_cond, the rows matching any of the conditions are monitored
+    List<Condition> where;
+    // Not sent, the secondary indexes the replica of the client maintains on the monitored rows
+    @JsonIgnore List<TableIndex> indexes;
 
     public MonitorRequest() {
     }
@@ -51,6 +58,22 @@ public class MonitorRequest {
         this.select = select;
     }
 
+    public List<Condition> getWhere() {
+        return where;
+    }
+
+    public void setWhere(List<Condition> where) {
+        this.where = where;
+    }
+
+    public List<TableIndex> getIndexes() {
+        return indexes;
+    }
+
+    public void setIndexes(List<TableIndex> indexes) {
+        this.indexes = indexes;
+    }
+
     public Set<String> getColumns() {
         return columns;
     }
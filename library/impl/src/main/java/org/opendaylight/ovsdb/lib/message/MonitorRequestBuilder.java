@@ -8,10 +8,13 @@
 
 package org.opendaylight.ovsdb.lib.message;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
+import org.opendaylight.ovsdb.lib.notation.Condition;
 import org.opendaylight.ovsdb.lib.schema.ColumnSchema;
+import org.opendaylight.ovsdb.lib.schema.TableIndex;
 import org.opendaylight.ovsdb.lib.schema.TableSchema;
 
 public class MonitorRequestBuilder<E extends TableSchema<E>> {
@@ -19,6 +22,8 @@ public class MonitorRequestBuilder<E extends TableSchema<E>> {
     private final E tableSchema;
     private final Collection<String> columns = new HashSet<>();
     private MonitorSelect select;
+    private List<Condition> conditions;
+    private List<TableIndex> indexes;
 
     public MonitorRequestBuilder(E tableSchema) {
         this.tableSchema = tableSchema;
@@ -55,9 +60,62 @@ public class MonitorRequestBuilder<E extends TableSchema<E>> {
         return this;
     }
 
+    /**
+     * Only monitors the rows matching the given condition, or any other condition added. Conditions are
+     * evaluated by the server and only honoured by a monitor_cond; they are ignored by a plain monitor.
+     */
+    public MonitorRequestBuilder<E> addCondition(Condition condition) {
+        if (this.conditions == null) {
+            this.conditions = new ArrayList<>();
+        }
+        this.conditions.add(condition);
+        return this;
+    }
+
+    public MonitorRequestBuilder<E> addConditions(Collection<Condition> extraConditions) {
+        for (Condition condition : extraConditions) {
+            this.addCondition(condition);
+        }
+        return this;
+    }
+
+    /**
+     * Declares a secondary index on the monitored rows, maintained by the replica of the client, see
+     * {@link org.opendaylight.ovsdb.lib.OvsdbClient#lookup}. The index is local to the connection; it is not sent
+     * to the server.
+     *
+     * @throws IllegalArgumentException if an indexed column is not a column of the table
+     */
+    public MonitorRequestBuilder<E> addIndex(TableIndex index) {
+        for (String column : index.getColumns()) {
+            if (!tableSchema.hasColumn(column)) {
+                throw new IllegalArgumentException("Index " + index.getName() + " on unknown column " + column
+                        + " of table " + tableSchema.getName());
+            }
+        }
+        if (this.indexes == null) {
+            this.indexes = new ArrayList<>();
+        }
+        this.indexes.add(index);
+        return this;
+    }
+
+    public MonitorRequestBuilder<E> addIndexes(Collection<TableIndex> extraIndexes) {
+        for (TableIndex index : extraIndexes) {
+            this.addIndex(index);
+        }
+        return this;
+    }
+
     public MonitorRequest build() {
         MonitorRequest request = new MonitorRequest(tableSchema.getName(), new HashSet<>(this.columns));
         request.setSelect(select == null ? new MonitorSelect() : select);
+        if (conditions != null) {
+            request.setWhere(new ArrayList<>(conditions));
+        }
+        if (indexes != null) {
+            request.setIndexes(new ArrayList<>(indexes));
+        }
         return request;
     }
 }
@@ -9,14 +9,20 @@
 package org.opendaylight.ovsdb.lib.message;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.util.concurrent.ListenableFuture;
 import java.util.List;
+import java.util.Set;
 import org.opendaylight.ovsdb.lib.jsonrpc.Params;
 
 public interface OvsdbRPC {
 
     String REGISTER_CALLBACK_METHOD = "registerCallback";
 
+    // The methods whose JSON-RPC errors fail the returned future with a JsonRpcErrorException, so that callers
+    // can tell an unsupported method from a rejected request; the other methods yield a null result on error
+    Set<String> ERROR_REPORTING_METHODS = ImmutableSet.of("monitor_cond", "monitor_cond_since");
+
     //public ListenableFuture<DatabaseSchema> get_schema(List<String> db_names);
     ListenableFuture<JsonNode> get_schema(List<String> dbNames);
 
@@ -24,6 +30,12 @@ public interface OvsdbRPC {
 
     ListenableFuture<JsonNode> monitor(Params equest);
 
+    ListenableFuture<JsonNode> monitor_cond(Params request);
+
+    ListenableFuture<JsonNode> monitor_cond_since(Params request);
+
+    ListenableFuture<JsonNode> monitor_cond_change(Params request);
+
     ListenableFuture<List<String>> list_dbs();
 
     ListenableFuture<List<JsonNode>> transact(TransactBuilder transact);
@@ -44,6 +56,19 @@ public interface OvsdbRPC {
     interface Callback {
         void update(Object context, UpdateNotification upadateNotification);
 
+        /**
+         * Receives the update2 notifications of a monitor_cond, whose updates carry column diffs.
+         */
+        default void update2(Object context, UpdateNotification updateNotification) {
+        }
+
+        /**
+         * Receives the update3 notifications of a monitor_cond_since, which also carry the id of the last
+         * transaction.
+         */
+        default void update3(Object context, UpdateNotification updateNotification) {
+        }
+
         void locked(Object context, List<String> ids);
 
         void stolen(Object context, List<String> ids);
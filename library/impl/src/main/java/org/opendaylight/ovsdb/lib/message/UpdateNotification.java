@@ -22,8 +22,8 @@ public class UpdateNotification {
 
     private Object context;
     private DatabaseSchema databaseSchema;
-    private TableUpdates update;
     private JsonNode updatesJson;
+    private String lastTransactionId;
 
     public Object getContext() {
         return context;
@@ -33,14 +33,6 @@ public class UpdateNotification {
         this.context = context;
     }
 
-    public TableUpdates getUpdate() {
-        return update;
-    }
-
-    public void setUpdate(TableUpdates update) {
-        this.update = update;
-    }
-
     @JsonAnySetter
     public void setValue(String key, JsonNode val) {
         LOG.error("setValue: Unexpected JSON property caught by @JsonAnySetter: key = {}, value = {} ", key, val);
@@ -54,6 +46,17 @@ public class UpdateNotification {
         return updatesJson;
     }
 
+    /**
+     * Returns the id of the last transaction reflected by an update3 notification, null for other updates.
+     */
+    public String getLastTransactionId() {
+        return lastTransactionId;
+    }
+
+    public void setLastTransactionId(String lastTransactionId) {
+        this.lastTransactionId = lastTransactionId;
+    }
+
     public DatabaseSchema getDatabaseSchema() {
         return databaseSchema;
     }
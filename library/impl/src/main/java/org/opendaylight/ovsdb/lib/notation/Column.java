@@ -48,6 +48,13 @@ public class Column<E extends TableSchema<E>, D> {
 
     @Override
     public int hashCode() {
+        return hashCode(schema, data);
+    }
+
+    /**
+     * Returns the hash code of a column of the given schema holding the given data.
+     */
+    static int hashCode(ColumnSchema<?, ?> schema, Object data) {
         final int prime = 31;
         int result = 1;
         result = prime * result + ((data == null) ? 0 : data.hashCode());
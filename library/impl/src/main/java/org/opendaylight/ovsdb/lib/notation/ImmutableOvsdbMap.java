@@ -0,0 +1,271 @@
+/*
+ * Copyright © 2018 Red Hat, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.ovsdb.lib.notation;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.UnmodifiableIterator;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The immutable {@link OvsdbMap}s built by {@link OvsdbMap#immutableCopyOf(Map)}, which hold their pairs themselves
+ * rather than in a delegate {@link HashMap}, see {@link ImmutableOvsdbSet}. They are equal to any map holding the
+ * same pairs.
+ */
+abstract class ImmutableOvsdbMap<K, V> extends OvsdbMap<K, V> {
+
+    private static final ImmutableOvsdbMap<Object, Object> EMPTY = new Empty();
+
+    ImmutableOvsdbMap() {
+        super((Void) null);
+    }
+
+    @SuppressWarnings("unchecked")
+    static <K, V> OvsdbMap<K, V> copyOf(Map<? extends K, ? extends V> pairs) {
+        if (pairs.isEmpty()) {
+            return (OvsdbMap<K, V>) EMPTY;
+        }
+        if (pairs.size() == 1) {
+            Map.Entry<? extends K, ? extends V> pair = pairs.entrySet().iterator().next();
+            return new Singleton<>(pair.getKey(), pair.getValue());
+        }
+        if (pairs.size() > ImmutableOvsdbSet.SMALL_SIZE) {
+            return new Hash<>(new HashMap<>(pairs));
+        }
+        Object[] keysAndValues = new Object[pairs.size() * 2];
+        int index = 0;
+        for (Map.Entry<? extends K, ? extends V> pair : pairs.entrySet()) {
+            keysAndValues[index++] = pair.getKey();
+            keysAndValues[index++] = pair.getValue();
+        }
+        return new Small<>(keysAndValues);
+    }
+
+    @Override
+    public abstract int size();
+
+    @Override
+    public abstract boolean containsKey(Object key);
+
+    @Override
+    public abstract V get(Object key);
+
+    @Override
+    public abstract Set<Map.Entry<K, V>> entrySet();
+
+    @Override
+    public Map<K, V> delegate() {
+        return Collections.unmodifiableMap(this);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        return standardContainsValue(value);
+    }
+
+    @Override
+    public Set<K> keySet() {
+        return new StandardKeySet();
+    }
+
+    @Override
+    public Collection<V> values() {
+        return new StandardValues();
+    }
+
+    @Override
+    public V put(K key, V value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> map) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public V remove(Object key) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        return standardEquals(object);
+    }
+
+    @Override
+    public int hashCode() {
+        return standardHashCode();
+    }
+
+    @Override
+    public String toString() {
+        return standardToString();
+    }
+
+    private static final class Empty extends ImmutableOvsdbMap<Object, Object> {
+        @Override
+        public int size() {
+            return 0;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return false;
+        }
+
+        @Override
+        public Object get(Object key) {
+            return null;
+        }
+
+        @Override
+        public Set<Map.Entry<Object, Object>> entrySet() {
+            return Collections.emptySet();
+        }
+    }
+
+    private static final class Singleton<K, V> extends ImmutableOvsdbMap<K, V> {
+        private final K key;
+        private final V value;
+
+        Singleton(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public int size() {
+            return 1;
+        }
+
+        @Override
+        public boolean containsKey(Object object) {
+            return Objects.equals(key, object);
+        }
+
+        @Override
+        public V get(Object object) {
+            return Objects.equals(key, object) ? value : null;
+        }
+
+        @Override
+        public Set<Map.Entry<K, V>> entrySet() {
+            return Collections.singleton(Maps.immutableEntry(key, value));
+        }
+    }
+
+    private static final class Small<K, V> extends ImmutableOvsdbMap<K, V> {
+        // The keys at the even indexes, each followed by its value
+        private final Object[] keysAndValues;
+
+        Small(Object[] keysAndValues) {
+            this.keysAndValues = keysAndValues;
+        }
+
+        @Override
+        public int size() {
+            return keysAndValues.length / 2;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return indexOf(key) >= 0;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V get(Object key) {
+            int index = indexOf(key);
+            return index >= 0 ? (V) keysAndValues[index + 1] : null;
+        }
+
+        private int indexOf(Object key) {
+            for (int i = 0; i < keysAndValues.length; i += 2) {
+                if (Objects.equals(keysAndValues[i], key)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public Set<Map.Entry<K, V>> entrySet() {
+            return new StandardEntrySet() {
+                @Override
+                public Iterator<Map.Entry<K, V>> iterator() {
+                    return new UnmodifiableIterator<Map.Entry<K, V>>() {
+                        private int index;
+
+                        @Override
+                        public boolean hasNext() {
+                            return index < keysAndValues.length;
+                        }
+
+                        @Override
+                        @SuppressWarnings("unchecked")
+                        public Map.Entry<K, V> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            Map.Entry<K, V> pair = Maps.immutableEntry((K) keysAndValues[index],
+                                    (V) keysAndValues[index + 1]);
+                            index += 2;
+                            return pair;
+                        }
+                    };
+                }
+            };
+        }
+    }
+
+    private static final class Hash<K, V> extends ImmutableOvsdbMap<K, V> {
+        private final Map<K, V> pairs;
+
+        Hash(Map<K, V> pairs) {
+            this.pairs = Collections.unmodifiableMap(pairs);
+        }
+
+        @Override
+        public int size() {
+            return pairs.size();
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return pairs.containsKey(key);
+        }
+
+        @Override
+        public V get(Object key) {
+            return pairs.get(key);
+        }
+
+        @Override
+        public Set<Map.Entry<K, V>> entrySet() {
+            return pairs.entrySet();
+        }
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright © 2018 Red Hat, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.ovsdb.lib.notation;
+
+import com.google.common.collect.Iterators;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The immutable {@link OvsdbSet}s built by {@link OvsdbSet#immutableCopyOf(Collection)}. They hold their elements
+ * themselves rather than in a delegate {@link HashSet}: most set columns hold no or a single element, for which a
+ * hash set costs several objects and a hash table. They are equal to any set holding the same elements.
+ */
+abstract class ImmutableOvsdbSet<T> extends OvsdbSet<T> {
+
+    // Larger sets are hashed, smaller ones are searched linearly
+    static final int SMALL_SIZE = 8;
+
+    private static final ImmutableOvsdbSet<Object> EMPTY = new Empty();
+
+    ImmutableOvsdbSet() {
+        super((Set<T>) null);
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> OvsdbSet<T> copyOf(Collection<? extends T> elements) {
+        if (elements.isEmpty()) {
+            return (OvsdbSet<T>) EMPTY;
+        }
+        if (elements.size() == 1) {
+            return new Singleton<>(elements.iterator().next());
+        }
+        if (elements.size() > SMALL_SIZE) {
+            Set<T> hashed = new HashSet<>(elements);
+            return hashed.size() > SMALL_SIZE ? new Hash<>(hashed) : copyOf(hashed);
+        }
+        Object[] distinct = new Object[elements.size()];
+        int size = 0;
+        for (T element : elements) {
+            if (elements instanceof Set || !contains(distinct, size, element)) {
+                distinct[size++] = element;
+            }
+        }
+        if (size == 1) {
+            return new Singleton<>((T) distinct[0]);
+        }
+        return new Small<>(size == distinct.length ? distinct : Arrays.copyOf(distinct, size));
+    }
+
+    private static boolean contains(Object[] elements, int size, Object element) {
+        for (int i = 0; i < size; i++) {
+            if (Objects.equals(elements[i], element)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public abstract int size();
+
+    @Override
+    public abstract boolean contains(Object object);
+
+    @Override
+    public abstract Iterator<T> iterator();
+
+    @Override
+    public Set<T> delegate() {
+        return Collections.unmodifiableSet(this);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> collection) {
+        return standardContainsAll(collection);
+    }
+
+    @Override
+    public Object[] toArray() {
+        return standardToArray();
+    }
+
+    @Override
+    public <E> E[] toArray(E[] array) {
+        return standardToArray(array);
+    }
+
+    @Override
+    public boolean add(T element) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends T> collection) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean remove(Object object) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> collection) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> collection) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        return standardEquals(object);
+    }
+
+    @Override
+    public int hashCode() {
+        return standardHashCode();
+    }
+
+    @Override
+    public String toString() {
+        return standardToString();
+    }
+
+    private static final class Empty extends ImmutableOvsdbSet<Object> {
+        @Override
+        public int size() {
+            return 0;
+        }
+
+        @Override
+        public boolean contains(Object object) {
+            return false;
+        }
+
+        @Override
+        public Iterator<Object> iterator() {
+            return Collections.emptyIterator();
+        }
+    }
+
+    private static final class Singleton<T> extends ImmutableOvsdbSet<T> {
+        private final T element;
+
+        Singleton(T element) {
+            this.element = element;
+        }
+
+        @Override
+        public int size() {
+            return 1;
+        }
+
+        @Override
+        public boolean contains(Object object) {
+            return Objects.equals(element, object);
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return Iterators.singletonIterator(element);
+        }
+    }
+
+    private static final class Small<T> extends ImmutableOvsdbSet<T> {
+        private final Object[] elements;
+
+        Small(Object[] elements) {
+            this.elements = elements;
+        }
+
+        @Override
+        public int size() {
+            return elements.length;
+        }
+
+        @Override
+        public boolean contains(Object object) {
+            return ImmutableOvsdbSet.contains(elements, elements.length, object);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Iterator<T> iterator() {
+            return (Iterator<T>) Iterators.forArray(elements);
+        }
+    }
+
+    private static final class Hash<T> extends ImmutableOvsdbSet<T> {
+        private final Set<T> elements;
+
+        Hash(Set<T> elements) {
+            this.elements = elements;
+        }
+
+        @Override
+        public int size() {
+            return elements.size();
+        }
+
+        @Override
+        public boolean contains(Object object) {
+            return elements.contains(object);
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return Collections.unmodifiableSet(elements).iterator();
+        }
+    }
+}
@@ -20,12 +20,19 @@ import org.opendaylight.ovsdb.lib.notation.json.OvsdbMapSerializer;
 @JsonSerialize(using = OvsdbMapSerializer.class)
 public class OvsdbMap<K, V> extends ForwardingMap<K, V> {
 
-    private final Map<K, V> target = new HashMap<>();
+    private final Map<K, V> target;
 
-    public OvsdbMap() {}
+    public OvsdbMap() {
+        this.target = new HashMap<>();
+    }
 
     public OvsdbMap(Map<K, V> value) {
-        this.target.putAll(value);
+        this.target = new HashMap<>(value);
+    }
+
+    // For the immutable maps, which hold their pairs themselves
+    OvsdbMap(Void noTarget) {
+        this.target = null;
     }
 
     @Override
@@ -36,4 +43,12 @@ public class OvsdbMap<K, V> extends ForwardingMap<K, V> {
     public static <K,V> OvsdbMap<K,V> fromMap(Map<K, V> value) {
         return new OvsdbMap<>(value);
     }
+
+    /**
+     * Returns an immutable copy of the given map. Maps of a few pairs hold them directly instead of in a
+     * {@link HashMap}, the empty map is shared.
+     */
+    public static <K, V> OvsdbMap<K, V> immutableCopyOf(Map<? extends K, ? extends V> value) {
+        return ImmutableOvsdbMap.copyOf(value);
+    }
 }
@@ -11,6 +11,7 @@ package org.opendaylight.ovsdb.lib.notation;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.google.common.collect.ForwardingSet;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
 import org.opendaylight.ovsdb.lib.notation.json.Converter;
@@ -20,9 +21,11 @@ import org.opendaylight.ovsdb.lib.notation.json.OvsdbSetSerializer;
 @JsonSerialize(using = OvsdbSetSerializer.class)
 public class OvsdbSet<T> extends ForwardingSet<T> {
 
-    Set<T> target = new HashSet<>();
+    Set<T> target;
 
-    public OvsdbSet() {}
+    public OvsdbSet() {
+        this.target = new HashSet<>();
+    }
 
     public OvsdbSet(Set<T> backing) {
         this.target = backing;
@@ -36,4 +39,12 @@ public class OvsdbSet<T> extends ForwardingSet<T> {
     public static <D> OvsdbSet<D> fromSet(Set<D> value) {
         return new OvsdbSet<>(value);
     }
+
+    /**
+     * Returns an immutable set of the given elements, without their duplicates. Sets of a few elements hold them
+     * directly instead of in a {@link HashSet}, the empty set is shared.
+     */
+    public static <D> OvsdbSet<D> immutableCopyOf(Collection<? extends D> elements) {
+        return ImmutableOvsdbSet.copyOf(elements);
+    }
 }
@@ -10,6 +10,8 @@ package org.opendaylight.ovsdb.lib.notation;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
@@ -18,11 +20,24 @@ import org.opendaylight.ovsdb.lib.notation.json.RowSerializer;
 import org.opendaylight.ovsdb.lib.schema.ColumnSchema;
 import org.opendaylight.ovsdb.lib.schema.TableSchema;
 
+/**
+ * A row of a table. The data of the columns of its table schema is held in an array, at the ordinal the table
+ * schema assigned to each column (see {@link TableSchema#columnAt(int)}), rather than in {@link Column}s; those
+ * are only built when requested. Columns which are not part of the table schema, as well as all the columns of a
+ * row without a table schema, are held by name.
+ */
 @JsonSerialize(using = RowSerializer.class)
 public class Row<E extends TableSchema<E>> {
+
+    // Marks a column holding null data in the values
+    private static final Object NULL_DATA = new Object();
+
     @JsonIgnore
     private TableSchema<E> tableSchema;
-    protected Map<String, Column<E, ?>> columns = new HashMap<>();
+    // The data of the columns of the table schema by ordinal, null for the absent columns
+    private Object[] values;
+    // The other columns by name, usually null
+    private Map<String, Column<E, ?>> others;
 
     public Row() {}
 
@@ -33,20 +48,74 @@ public class Row<E extends TableSchema<E>> {
     public Row(TableSchema<E> tableSchema, List<Column<E, ?>> columns) {
         this.tableSchema = tableSchema;
         for (Column<E, ?> column : columns) {
-            this.columns.put(column.getSchema().getName(), column);
+            addColumn(column.getSchema().getName(), column);
         }
     }
 
+    /**
+     * Creates a copy of the given row, which can then be modified independently.
+     */
+    public Row(Row<E> row) {
+        this.tableSchema = row.tableSchema;
+        this.values = row.values != null ? row.values.clone() : null;
+        this.others = row.others != null ? new HashMap<>(row.others) : null;
+    }
+
+    @SuppressWarnings("unchecked")
     public <D> Column<E, D> getColumn(ColumnSchema<E, D> schema) {
-        return (Column<E, D>) columns.get(schema.getName());
+        int ordinal = ordinal(schema.getName(), schema);
+        if (ordinal < 0) {
+            return others != null ? (Column<E, D>) others.get(schema.getName()) : null;
+        }
+        Object value = values != null && ordinal < values.length ? values[ordinal] : null;
+        if (value == null) {
+            return null;
+        }
+        return new Column<>((ColumnSchema<E, D>) tableSchema.columnAt(ordinal), (D) unmask(value));
     }
 
+    /**
+     * Returns the columns of the row. The returned collection is a snapshot, which does not reflect the later
+     * changes of the row.
+     */
+    @SuppressWarnings("unchecked")
     public Collection<Column<E, ?>> getColumns() {
-        return columns.values();
+        List<Column<E, ?>> columns = new ArrayList<>();
+        if (values != null) {
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != null) {
+                    columns.add(new Column<>((ColumnSchema<E, Object>) tableSchema.columnAt(i), unmask(values[i])));
+                }
+            }
+        }
+        if (others != null) {
+            columns.addAll(others.values());
+        }
+        return columns;
     }
 
     public void addColumn(String columnName, Column<E, ?> data) {
-        this.columns.put(columnName, data);
+        int ordinal = ordinal(columnName, data.getSchema());
+        if (ordinal < 0) {
+            if (others == null) {
+                others = new HashMap<>();
+            }
+            others.put(columnName, data);
+        } else {
+            setValue(ordinal, data.getData());
+        }
+    }
+
+    /**
+     * Sets the data of a column, like {@link #addColumn(String, Column)} without allocating a {@link Column}.
+     */
+    public <D> void addColumn(ColumnSchema<E, D> schema, D data) {
+        int ordinal = ordinal(schema.getName(), schema);
+        if (ordinal < 0) {
+            addColumn(schema.getName(), new Column<>(schema, data));
+        } else {
+            setValue(ordinal, data);
+        }
     }
 
     public TableSchema<E> getTableSchema() {
@@ -54,12 +123,72 @@ public class Row<E extends TableSchema<E>> {
     }
 
     public void setTableSchema(TableSchema<E> tableSchema) {
+        if (tableSchema == this.tableSchema) {
+            return;
+        }
+        // The ordinals depend on the table schema
+        Map<String, Column<E, ?>> columns = asMap();
         this.tableSchema = tableSchema;
+        this.values = null;
+        this.others = null;
+        for (Map.Entry<String, Column<E, ?>> column : columns.entrySet()) {
+            addColumn(column.getKey(), column.getValue());
+        }
+    }
+
+    /**
+     * Returns the ordinal of the given column in the table schema, or -1 if the column is not part of it.
+     */
+    private int ordinal(String columnName, ColumnSchema<E, ?> schema) {
+        if (tableSchema == null) {
+            return -1;
+        }
+        if (schema != null && tableSchema.columnAt(schema.getOrdinal()) == schema) {
+            return schema.getOrdinal();
+        }
+        ColumnSchema<E, ?> ownSchema = tableSchema.column(columnName);
+        if (ownSchema != null && tableSchema.columnAt(ownSchema.getOrdinal()) == ownSchema) {
+            return ownSchema.getOrdinal();
+        }
+        return -1;
+    }
+
+    private void setValue(int ordinal, Object data) {
+        if (values == null) {
+            values = new Object[Math.max(ordinal + 1, tableSchema.getColumnCount())];
+        } else if (ordinal >= values.length) {
+            values = Arrays.copyOf(values, Math.max(ordinal + 1, tableSchema.getColumnCount()));
+        }
+        values[ordinal] = data != null ? data : NULL_DATA;
+    }
+
+    private static Object unmask(Object value) {
+        return value == NULL_DATA ? null : value;
+    }
+
+    /**
+     * Returns the columns of the row by name.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, Column<E, ?>> asMap() {
+        Map<String, Column<E, ?>> columns = new HashMap<>();
+        if (values != null) {
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != null) {
+                    ColumnSchema<E, Object> schema = tableSchema.columnAt(i);
+                    columns.put(schema.getName(), new Column<>(schema, unmask(values[i])));
+                }
+            }
+        }
+        if (others != null) {
+            columns.putAll(others);
+        }
+        return columns;
     }
 
     @Override
     public String toString() {
-        return "Row [columns=" + columns + "]";
+        return "Row [columns=" + asMap() + "]";
     }
 
     /**
@@ -70,10 +199,21 @@ public class Row<E extends TableSchema<E>> {
      */
     @Override
     public int hashCode() {
+        // Hashes the columns as a map of the columns by name would
+        int result = 0;
+        if (values != null) {
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != null) {
+                    ColumnSchema<E, ?> schema = tableSchema.columnAt(i);
+                    result += schema.getName().hashCode() ^ Column.hashCode(schema, unmask(values[i]));
+                }
+            }
+        }
+        if (others != null) {
+            result += others.hashCode();
+        }
         final int prime = 31;
-        int result = 1;
-        result = prime * result + ((columns == null) ? 0 : columns.hashCode());
-        return result;
+        return prime + result;
     }
 
     /**
@@ -93,14 +233,18 @@ public class Row<E extends TableSchema<E>> {
         if (getClass() != obj.getClass()) {
             return false;
         }
-        Row other = (Row) obj;
-        if (columns == null) {
-            if (other.columns != null) {
-                return false;
+        Row<?> other = (Row<?>) obj;
+        if (tableSchema == other.tableSchema && others == null && other.others == null) {
+            int length = Math.max(values != null ? values.length : 0, other.values != null ? other.values.length : 0);
+            for (int i = 0; i < length; i++) {
+                Object value = values != null && i < values.length ? values[i] : null;
+                Object otherValue = other.values != null && i < other.values.length ? other.values[i] : null;
+                if (value == null ? otherValue != null : !value.equals(otherValue)) {
+                    return false;
+                }
             }
-        } else if (!columns.equals(other.columns)) {
-            return false;
+            return true;
         }
-        return true;
+        return asMap().equals(other.asMap());
     }
 }
@@ -14,28 +14,117 @@ import org.opendaylight.ovsdb.lib.notation.json.UUIDStringConverter;
 
 /**
  * Handles both uuid and named-uuid.
+ *
+ * <p>A uuid in the canonical form OVSDB uses (36 lower case hexadecimal digits and dashes) is held as two longs;
+ * named-uuids, and uuids written in any other form, are held as their text, so that a UUID is always equal to the
+ * UUIDs built from the same text, and {@link #toString()} returns that text.
  */
 @JsonDeserialize(contentConverter = UUIDStringConverter.class)
 @JsonSerialize(using = UUIDSerializer.class)
 public class UUID {
 
-    String val;
+    private static final int LENGTH = 36;
+    private static final char[] DIGITS = "0123456789abcdef".toCharArray();
+    // The name of a UUID built from a null value
+    private static final Object NULL_VALUE = new Object();
+
+    private final long mostSigBits;
+    private final long leastSigBits;
+    // The text of a named-uuid, or of a uuid not in the canonical form, null otherwise
+    private final Object name;
 
     public UUID(String value) {
-        this.val = value;
+        if (isCanonical(value)) {
+            this.mostSigBits = bits(value, 0, 19);
+            this.leastSigBits = bits(value, 19, LENGTH);
+            this.name = null;
+        } else {
+            this.mostSigBits = 0;
+            this.leastSigBits = 0;
+            this.name = value != null ? value : NULL_VALUE;
+        }
+    }
+
+    public UUID(long mostSigBits, long leastSigBits) {
+        this.mostSigBits = mostSigBits;
+        this.leastSigBits = leastSigBits;
+        this.name = null;
+    }
+
+    /**
+     * Builds a UUID from the given characters, such as the text buffer of a JSON parser, without building a
+     * {@link String} from them when they are a uuid in the canonical form.
+     */
+    public static UUID fromChars(char[] chars, int offset, int length) {
+        if (length != LENGTH) {
+            return new UUID(new String(chars, offset, length));
+        }
+        long msb = 0;
+        long lsb = 0;
+        for (int i = 0; i < LENGTH; i++) {
+            char ch = chars[offset + i];
+            if (isDash(i)) {
+                if (ch != '-') {
+                    return new UUID(new String(chars, offset, length));
+                }
+                continue;
+            }
+            int digit = digit(ch);
+            if (digit < 0) {
+                return new UUID(new String(chars, offset, length));
+            }
+            if (i < 19) {
+                msb = msb << 4 | digit;
+            } else {
+                lsb = lsb << 4 | digit;
+            }
+        }
+        return new UUID(msb, lsb);
+    }
+
+    /**
+     * Returns true if this is a uuid in the canonical form, held as two longs.
+     */
+    public boolean isCanonical() {
+        return name == null;
+    }
+
+    /**
+     * Returns true if this is a named-uuid, i.e. a reference to a row inserted in the same transaction rather
+     * than a uuid.
+     */
+    public boolean isNamed() {
+        return name != null && name != NULL_VALUE && !isUuidText((String) name);
+    }
+
+    /**
+     * Returns the most significant 64 bits of a canonical uuid, 0 otherwise.
+     */
+    public long getMostSignificantBits() {
+        return mostSigBits;
+    }
+
+    /**
+     * Returns the least significant 64 bits of a canonical uuid, 0 otherwise.
+     */
+    public long getLeastSignificantBits() {
+        return leastSigBits;
     }
 
     @Override
     public String toString() {
-        return val;
+        if (name != null) {
+            return name != NULL_VALUE ? (String) name : null;
+        }
+        char[] chars = new char[LENGTH];
+        format(mostSigBits, chars, 0, 19);
+        format(leastSigBits, chars, 19, LENGTH);
+        return new String(chars);
     }
 
     @Override
     public int hashCode() {
-        final int prime = 31;
-        int result = 1;
-        result = prime * result + ((val == null) ? 0 : val.hashCode());
-        return result;
+        return name != null ? name.hashCode() : Long.hashCode(mostSigBits ^ leastSigBits);
     }
 
     @Override
@@ -50,13 +139,84 @@ public class UUID {
             return false;
         }
         UUID other = (UUID) obj;
-        if (val == null) {
-            if (other.val != null) {
+        if (name == null) {
+            return other.name == null && mostSigBits == other.mostSigBits && leastSigBits == other.leastSigBits;
+        }
+        return name.equals(other.name);
+    }
+
+    /**
+     * Returns true if the given text is a uuid, canonical or not: five groups of hexadecimal digits separated by
+     * dashes, as accepted by {@link java.util.UUID#fromString(String)}.
+     */
+    private static boolean isUuidText(String value) {
+        int dashes = 0;
+        boolean digits = false;
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch == '-') {
+                if (!digits) {
+                    return false;
+                }
+                dashes++;
+                digits = false;
+            } else if (Character.digit(ch, 16) >= 0) {
+                digits = true;
+            } else {
                 return false;
             }
-        } else if (!val.equals(other.val)) {
+        }
+        return dashes == 4 && digits;
+    }
+
+    private static boolean isCanonical(String value) {
+        if (value == null || value.length() != LENGTH) {
             return false;
         }
+        for (int i = 0; i < LENGTH; i++) {
+            char ch = value.charAt(i);
+            if (isDash(i) ? ch != '-' : digit(ch) < 0) {
+                return false;
+            }
+        }
         return true;
     }
+
+    private static boolean isDash(int index) {
+        return index == 8 || index == 13 || index == 18 || index == 23;
+    }
+
+    /**
+     * Returns the value of a lower case hexadecimal digit, or -1 if the character is none.
+     */
+    private static int digit(char ch) {
+        if (ch >= '0' && ch <= '9') {
+            return ch - '0';
+        }
+        if (ch >= 'a' && ch <= 'f') {
+            return ch - 'a' + 10;
+        }
+        return -1;
+    }
+
+    private static long bits(String value, int from, int to) {
+        long bits = 0;
+        for (int i = from; i < to; i++) {
+            if (!isDash(i)) {
+                bits = bits << 4 | digit(value.charAt(i));
+            }
+        }
+        return bits;
+    }
+
+    private static void format(long bits, char[] chars, int from, int to) {
+        for (int i = to - 1; i >= from; i--) {
+            if (isDash(i)) {
+                chars[i] = '-';
+            } else {
+                chars[i] = DIGITS[(int) bits & 0xf];
+                bits >>>= 4;
+            }
+        }
+    }
 }
@@ -8,11 +8,8 @@
 
 package org.opendaylight.ovsdb.lib.notation.json;
 
-import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.util.StdConverter;
-import org.opendaylight.ovsdb.lib.message.TableUpdates;
 import org.opendaylight.ovsdb.lib.message.UpdateNotification;
 import org.opendaylight.ovsdb.lib.notation.OvsdbMap;
 import org.opendaylight.ovsdb.lib.notation.OvsdbSet;
@@ -100,11 +97,15 @@ public final class Converter {
             UpdateNotification un = new UpdateNotification();
             if (node.isArray() && node.size() == 2) {
                 un.setContext(node.get(0).asText());
+                // The rows are built from the raw updates once the schema is known, see
+                // OvsdbClientImpl.transformingCallback(), so there is no point in binding them here.
                 un.setUpdates(node.get(1));
-                ObjectMapper objectMapper = new ObjectMapper();
-                objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-                TableUpdates updates = objectMapper.convertValue(node.get(1), TableUpdates.class);
-                un.setUpdate(updates);
+                return un;
+            } else if (node.isArray() && node.size() == 3) {
+                // update3: [json-value, last-txn-id, table-updates2]
+                un.setContext(node.get(0).asText());
+                un.setLastTransactionId(node.get(1).asText());
+                un.setUpdates(node.get(2));
                 return un;
             }
             return null;
@@ -0,0 +1,42 @@
+/*
+ * Copyright © 2018 Red Hat, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.ovsdb.lib.notation.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.util.JsonParserDelegate;
+import com.google.common.collect.Interner;
+import java.io.IOException;
+import org.opendaylight.ovsdb.lib.notation.UUID;
+
+/**
+ * A parser interning the {@link UUID}s read with {@link #getUUID(JsonParser)}, so that the rows of a connection
+ * referencing the same row share a single UUID instance instead of holding one each.
+ */
+public class UUIDInterningParser extends JsonParserDelegate {
+
+    private final Interner<UUID> interner;
+
+    public UUIDInterningParser(JsonParser parser, Interner<UUID> interner) {
+        super(parser);
+        this.interner = interner;
+    }
+
+    /**
+     * Returns the UUID the text of the current token (a string value or a field name) holds, interned if the parser
+     * is a {@link UUIDInterningParser}. A parser over raw JSON text has the text in its buffer, from which the UUID
+     * is read without building a String; a parser over a tree, such as the one of a notification, already holds
+     * the String.
+     */
+    public static UUID getUUID(JsonParser parser) throws IOException {
+        UUID uuid = parser.hasTextCharacters()
+                ? UUID.fromChars(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength())
+                : new UUID(parser.getText());
+        return parser instanceof UUIDInterningParser ? ((UUIDInterningParser) parser).interner.intern(uuid) : uuid;
+    }
+}
@@ -20,12 +20,7 @@ public class UUIDSerializer extends JsonSerializer<UUID> {
     public void serialize(UUID value, JsonGenerator generator,
         SerializerProvider provider) throws IOException {
         generator.writeStartArray();
-        try {
-            java.util.UUID.fromString(value.toString());
-            generator.writeString("uuid");
-        } catch (IllegalArgumentException ex) {
-            generator.writeString("named-uuid");
-        }
+        generator.writeString(value.isNamed() ? "named-uuid" : "uuid");
         generator.writeString(value.toString());
         generator.writeEndArray();
     }
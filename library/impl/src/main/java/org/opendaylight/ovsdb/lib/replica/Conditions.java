@@ -0,0 +1,121 @@
+/*
+ * Copyright © 2018 Red Hat, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.ovsdb.lib.replica;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import org.opendaylight.ovsdb.lib.notation.Function;
+
+/**
+ * Evaluates {@link org.opendaylight.ovsdb.lib.notation.Condition}s against replicated column values, following
+ * the semantics of RFC 7047 section 5.1.
+ */
+final class Conditions {
+
+    private Conditions() {
+        // Prevent instantiating a utility class
+    }
+
+    static boolean matches(Object data, Function function, Object value) {
+        switch (function) {
+            case EQUALS:
+                return Objects.equals(normalize(data), normalize(value));
+            case NOT_EQUALS:
+                return !Objects.equals(normalize(data), normalize(value));
+            case INCLUDES:
+                return includes(data, value);
+            case EXCLUDES:
+                return excludes(data, value);
+            default:
+                return compare(data, function, value);
+        }
+    }
+
+    /**
+     * Normalizes a value so that equal OVSDB values are equal Java objects: a set of one element is its element
+     * and integers are longs, as read from the wire.
+     */
+    static Object normalize(Object value) {
+        if (value instanceof Set && ((Set<?>) value).size() == 1) {
+            return normalize(((Set<?>) value).iterator().next());
+        }
+        if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).longValue();
+        }
+        return value;
+    }
+
+    private static boolean includes(Object data, Object value) {
+        if (data instanceof Map) {
+            return value instanceof Map && ((Map<?, ?>) data).entrySet().containsAll(((Map<?, ?>) value).entrySet());
+        }
+        if (data instanceof Set) {
+            Set<?> set = (Set<?>) data;
+            for (Object element : elements(value)) {
+                if (!set.contains(normalize(element))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return Objects.equals(normalize(data), normalize(value));
+    }
+
+    private static boolean excludes(Object data, Object value) {
+        if (data instanceof Map) {
+            if (!(value instanceof Map)) {
+                return true;
+            }
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                if (((Map<?, ?>) data).entrySet().contains(entry)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (data instanceof Set) {
+            Set<?> set = (Set<?>) data;
+            for (Object element : elements(value)) {
+                if (set.contains(normalize(element))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return !Objects.equals(normalize(data), normalize(value));
+    }
+
+    private static boolean compare(Object data, Function function, Object value) {
+        Object left = normalize(data);
+        Object right = normalize(value);
+        if (!(left instanceof Number) || !(right instanceof Number)) {
+            return false;
+        }
+        int comparison = Double.compare(((Number) left).doubleValue(), ((Number) right).doubleValue());
+        switch (function) {
+            case LESS_THAN:
+                return comparison < 0;
+            case LESS_THAN_OR_EQUALS:
+                return comparison <= 0;
+            case GREATER_THAN:
+                return comparison > 0;
+            case GREATER_THAN_OR_EQUALS:
+                return comparison >= 0;
+            default:
+                return false;
+        }
+    }
+
+    private static Collection<?> elements(Object value) {
+        return value instanceof Collection ? (Collection<?>) value : Collections.singleton(value);
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright © 2018 Red Hat, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.ovsdb.lib.replica;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.opendaylight.ovsdb.lib.message.MonitorRequest;
+import org.opendaylight.ovsdb.lib.message.MonitorRequestBuilder;
+import org.opendaylight.ovsdb.lib.message.TableUpdate;
+import org.opendaylight.ovsdb.lib.message.TableUpdates;
+import org.opendaylight.ovsdb.lib.notation.Condition;
+import org.opendaylight.ovsdb.lib.notation.Row;
+import org.opendaylight.ovsdb.lib.notation.UUID;
+import org.opendaylight.ovsdb.lib.schema.DatabaseSchema;
+import org.opendaylight.ovsdb.lib.schema.GenericTableSchema;
+import org.opendaylight.ovsdb.lib.schema.TableIndex;
+import org.opendaylight.ovsdb.lib.schema.TableSchema;
+
+/**
+ * In-memory replica of the monitored tables of a database, kept current by the client from the monitor
+ * updates, before the monitor callbacks are notified. Reads are served locally, without a round trip to the
+ * switch, and may run concurrently with the updates.
+ *
+ * <p>A table is replicated once it is monitored, and holds the columns of its monitor; a table should
+ * therefore not be monitored twice with different columns. Rows are returned with their _uuid column, like
+ * the rows of a select operation.
+ *
+ * <p>The {@link TableIndex}es declared by the monitor requests, see
+ * {@link MonitorRequestBuilder#addIndex(TableIndex)}, are maintained incrementally from the updates; they serve
+ * {@link #lookup(TableSchema, String, Object...)} and the selects constraining their columns. They belong to the
+ * replica, the table schemas being shared by the connections to the same schema.
+ */
+public final class DatabaseReplica {
+
+    private final DatabaseSchema dbSchema;
+    private final Map<String, TableReplica> tables = new ConcurrentHashMap<>();
+
+    public DatabaseReplica(DatabaseSchema dbSchema) {
+        this.dbSchema = dbSchema;
+    }
+
+    public DatabaseSchema getSchema() {
+        return dbSchema;
+    }
+
+    /**
+     * Starts replicating the given tables, so that they are known to the replica even while they have no rows.
+     */
+    public void addTables(Collection<String> tableNames) {
+        Map<String, MonitorRequest> requests = new LinkedHashMap<>();
+        for (String tableName : tableNames) {
+            requests.put(tableName, new MonitorRequest(tableName));
+        }
+        addTables(requests, null);
+    }
+
+    /**
+     * Starts replicating the monitored tables with their initial rows, from the reply to their monitor request,
+     * and the indexes declared by the request. A table is only visible once its initial rows are applied, so that
+     * readers never take a table still being filled for an empty one. The indexes of a table which is already
+     * replicated are kept.
+     *
+     * @param requests the monitor requests, by table name
+     * @param initialRows the initial rows of the tables, may be null
+     */
+    public void addTables(Map<String, MonitorRequest> requests, TableUpdates initialRows) {
+        for (Map.Entry<String, MonitorRequest> request : requests.entrySet()) {
+            String tableName = request.getKey();
+            if (!dbSchema.getTables().contains(tableName)) {
+                continue;
+            }
+            TableReplica table = tables.get(tableName);
+            boolean added = table == null;
+            if (added) {
+                List<TableIndex> indexes = request.getValue().getIndexes();
+                table = new TableReplica(dbSchema.table(tableName, GenericTableSchema.class),
+                        indexes != null ? indexes : Collections.emptyList());
+            }
+            TableUpdate tableUpdate = initialRows != null ? initialRows.getUpdates().get(tableName) : null;
+            if (tableUpdate != null) {
+                table.update(tableUpdate);
+            }
+            if (added) {
+                tables.put(tableName, table);
+            }
+        }
+    }
+
+    /**
+     * Returns whether the given table is replicated; lookups on other tables must go to the switch.
+     */
+    public boolean hasTable(String tableName) {
+        return tables.containsKey(tableName);
+    }
+
+    /**
+     * Applies monitor updates to the replicated tables. Updates of one monitor must be applied in order, by one
+     * thread at a time.
+     */
+    public void update(TableUpdates updates) {
+        if (updates == null) {
+            return;
+        }
+        for (Map.Entry<String, TableUpdate> entry : updates.getUpdates().entrySet()) {
+            TableReplica table = tables.get(entry.getKey());
+            if (table != null && entry.getValue() != null) {
+                table.update((TableUpdate) entry.getValue());
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public <E extends TableSchema<E>> Row<E> getRow(TableSchema<E> tableSchema, UUID uuid) {
+        TableReplica table = tables.get(tableSchema.getName());
+        return table != null ? table.getRow(uuid) : null;
+    }
+
+    /**
+     * Returns a row as last updated, without the _uuid column of {@link #getRow(TableSchema, UUID)}, or null. The
+     * client applies the diffs of update2 notifications to these rows.
+     */
+    public Row getCurrentRow(String tableName, UUID uuid) {
+        TableReplica table = tables.get(tableName);
+        return table != null ? table.getCurrentRow(uuid) : null;
+    }
+
+    /**
+     * Returns a copy of the rows of a table as last updated, by UUID and without their _uuid column, or null if
+     * the table is not replicated.
+     */
+    public Map<UUID, Row> copyCurrentRows(String tableName) {
+        TableReplica table = tables.get(tableName);
+        return table != null ? table.copyCurrentRows() : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <E extends TableSchema<E>> List<Row<E>> getRows(TableSchema<E> tableSchema) {
+        TableReplica table = tables.get(tableSchema.getName());
+        return table != null ? (List) table.getRows() : Collections.emptyList();
+    }
+
+    /**
+     * Returns the rows of a table matching all the given conditions, like a select operation.
+     */
+    @SuppressWarnings("unchecked")
+    public <E extends TableSchema<E>> List<Row<E>> select(TableSchema<E> tableSchema, List<Condition> where) {
+        TableReplica table = tables.get(tableSchema.getName());
+        return table != null ? (List) table.select(where) : Collections.emptyList();
+    }
+
+    /**
+     * Returns the rows of a table indexed under the given values by one of the indexes declared by its monitor,
+     * without scanning the table; a unique index yields at most one row.
+     *
+     * @param tableSchema the table to look up
+     * @param indexName the name of the index, see {@link MonitorRequestBuilder#addIndex(TableIndex)}
+     * @param values the value of each indexed column, or the value of the key of a map-key index
+     * @return the rows, or null if the table is not replicated
+     * @throws IllegalArgumentException if the index is not declared, or the values do not fit it
+     */
+    @SuppressWarnings("unchecked")
+    public <E extends TableSchema<E>> List<Row<E>> lookup(TableSchema<E> tableSchema, String indexName,
+                                                          Object... values) {
+        TableReplica table = tables.get(tableSchema.getName());
+        return table != null ? (List) table.lookup(indexName, values) : null;
+    }
+}
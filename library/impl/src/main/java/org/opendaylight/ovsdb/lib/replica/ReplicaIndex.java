@@ -0,0 +1,188 @@
+/*
+ * Copyright © 2018 Red Hat, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.ovsdb.lib.replica;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.opendaylight.ovsdb.lib.notation.Column;
+import org.opendaylight.ovsdb.lib.notation.Condition;
+import org.opendaylight.ovsdb.lib.notation.Function;
+import org.opendaylight.ovsdb.lib.notation.Row;
+import org.opendaylight.ovsdb.lib.notation.UUID;
+import org.opendaylight.ovsdb.lib.schema.ColumnSchema;
+import org.opendaylight.ovsdb.lib.schema.TableIndex;
+
+/**
+ * Entries of a {@link TableIndex} over the rows of a {@link TableReplica}, which maintains them as it applies
+ * the updates.
+ *
+ * <p>A unique index maps each key to a single row: a row taking a key over replaces the previous one, and a row
+ * only removes the keys it still holds, so that the rows of an update may be applied in any order.
+ */
+final class ReplicaIndex {
+
+    private final TableIndex definition;
+    // key -> UUID of the row for a unique index, set of row UUIDs otherwise
+    private final Map<Object, Object> entries = new ConcurrentHashMap<>();
+
+    ReplicaIndex(TableIndex definition) {
+        this.definition = definition;
+    }
+
+    TableIndex getDefinition() {
+        return definition;
+    }
+
+    void add(UUID uuid, Row row) {
+        for (Object key : keys(row)) {
+            if (definition.isUnique()) {
+                entries.put(key, uuid);
+            } else {
+                uuids(entries.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet())).add(uuid);
+            }
+        }
+    }
+
+    void remove(UUID uuid, Row row) {
+        for (Object key : keys(row)) {
+            if (definition.isUnique()) {
+                entries.remove(key, uuid);
+            } else {
+                entries.computeIfPresent(key, (k, value) -> {
+                    Set<UUID> uuids = uuids(value);
+                    uuids.remove(uuid);
+                    return uuids.isEmpty() ? null : uuids;
+                });
+            }
+        }
+    }
+
+    /**
+     * Returns the UUIDs of the rows indexed under the given key.
+     */
+    Collection<UUID> get(Object key) {
+        Object value = key != null ? entries.get(key) : null;
+        if (value == null) {
+            return Collections.emptySet();
+        }
+        return definition.isUnique() ? Collections.singleton((UUID) value) : uuids(value);
+    }
+
+    /**
+     * Returns the key of the rows holding the given values, one per indexed column, or the given value of the
+     * map key.
+     */
+    Object key(Object... values) {
+        if (values.length != definition.getColumns().size()) {
+            throw new IllegalArgumentException("Index " + definition.getName() + " expects "
+                    + definition.getColumns().size() + " values, got " + values.length);
+        }
+        if (values.length == 1) {
+            return Conditions.normalize(values[0]);
+        }
+        List<Object> key = new ArrayList<>(values.length);
+        for (Object value : values) {
+            key.add(Conditions.normalize(value));
+        }
+        return key;
+    }
+
+    /**
+     * Returns the key of the rows an index yields for the given conditions, a superset of the rows matching
+     * them, or null if the conditions do not constrain the indexed columns to a single key.
+     */
+    static Object key(TableIndex definition, List<Condition> where) {
+        List<String> columns = definition.getColumns();
+        List<Object> key = new ArrayList<>(columns.size());
+        for (String column : columns) {
+            Object value = null;
+            for (Condition condition : where) {
+                if (column.equals(condition.getColumn())) {
+                    value = conditionKey(definition, condition);
+                    if (value != null) {
+                        break;
+                    }
+                }
+            }
+            if (value == null) {
+                return null;
+            }
+            key.add(value);
+        }
+        return key.size() == 1 ? key.get(0) : key;
+    }
+
+    private static Object conditionKey(TableIndex definition, Condition condition) {
+        Function function = condition.getFunction();
+        if (function != Function.EQUALS && function != Function.INCLUDES) {
+            return null;
+        }
+        Object value = condition.getValue();
+        if (definition.getMapKey() != null) {
+            return value instanceof Map ? Conditions.normalize(((Map<?, ?>) value).get(definition.getMapKey()))
+                    : null;
+        }
+        value = Conditions.normalize(value);
+        if (definition.getColumns().size() == 1) {
+            // The rows are indexed under each element of their sets; "includes" is otherwise "equals"
+            return value instanceof Collection ? null : value;
+        }
+        return function == Function.EQUALS ? value : null;
+    }
+
+    private Collection<Object> keys(Row row) {
+        List<String> columns = definition.getColumns();
+        if (definition.getMapKey() != null) {
+            Object data = columnData(row, columns.get(0));
+            Object value = data instanceof Map ? ((Map<?, ?>) data).get(definition.getMapKey()) : null;
+            return value != null ? Collections.singleton(Conditions.normalize(value)) : Collections.emptySet();
+        }
+        if (columns.size() == 1) {
+            Object data = columnData(row, columns.get(0));
+            if (data instanceof Set) {
+                Set<Object> keys = new HashSet<>();
+                for (Object element : (Set<?>) data) {
+                    keys.add(Conditions.normalize(element));
+                }
+                return keys;
+            }
+            return data != null ? Collections.singleton(Conditions.normalize(data)) : Collections.emptySet();
+        }
+        List<Object> key = new ArrayList<>(columns.size());
+        for (String column : columns) {
+            Object data = columnData(row, column);
+            if (data == null) {
+                return Collections.emptySet();
+            }
+            key.add(Conditions.normalize(data));
+        }
+        return Collections.singleton(key);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Set<UUID> uuids(Object value) {
+        return (Set<UUID>) value;
+    }
+
+    @SuppressWarnings("unchecked")
+    static Object columnData(Row row, String columnName) {
+        ColumnSchema columnSchema = row.getTableSchema() != null ? row.getTableSchema().column(columnName) : null;
+        if (columnSchema == null) {
+            return null;
+        }
+        Column column = row.getColumn(columnSchema);
+        return column != null ? column.getData() : null;
+    }
+}
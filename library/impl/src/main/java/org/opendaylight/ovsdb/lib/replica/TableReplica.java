@@ -0,0 +1,188 @@
+/*
+ * Copyright © 2018 Red Hat, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.ovsdb.lib.replica;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.opendaylight.ovsdb.lib.message.TableUpdate;
+import org.opendaylight.ovsdb.lib.notation.Condition;
+import org.opendaylight.ovsdb.lib.notation.Function;
+import org.opendaylight.ovsdb.lib.notation.Row;
+import org.opendaylight.ovsdb.lib.notation.UUID;
+import org.opendaylight.ovsdb.lib.schema.ColumnSchema;
+import org.opendaylight.ovsdb.lib.schema.TableIndex;
+import org.opendaylight.ovsdb.lib.schema.TableSchema;
+
+/**
+ * Rows of one monitored table, keyed by UUID, with the secondary indexes declared by its monitor request.
+ *
+ * <p>Updates are applied by a single thread at a time; readers never block and see each row either before or
+ * after an update. An index may briefly lag behind the rows, which is why the rows it yields for a select are
+ * matched against the conditions again. Indexes are built on their first use, and maintained from then on.
+ */
+final class TableReplica {
+
+    private static final String UUID_COLUMN = "_uuid";
+
+    private final TableSchema<?> tableSchema;
+    // index name -> declaration, the first declaration of a name wins
+    private final Map<String, TableIndex> definitions = new LinkedHashMap<>();
+    private final Map<UUID, Row> rows = new ConcurrentHashMap<>();
+    // index name -> index built from its declaration
+    private final Map<String, ReplicaIndex> indexes = new ConcurrentHashMap<>();
+
+    TableReplica(TableSchema<?> tableSchema, Collection<TableIndex> definitions) {
+        this.tableSchema = tableSchema;
+        for (TableIndex definition : definitions) {
+            this.definitions.putIfAbsent(definition.getName(), definition);
+        }
+    }
+
+    synchronized <E extends TableSchema<E>> void update(TableUpdate<E> tableUpdate) {
+        for (TableUpdate<E>.RowUpdate<E> rowUpdate : tableUpdate.getRows().values()) {
+            UUID uuid = rowUpdate.getUuid();
+            Row previous = rowUpdate.getNew() == null ? rows.remove(uuid) : rows.put(uuid, rowUpdate.getNew());
+            for (ReplicaIndex index : indexes.values()) {
+                if (previous != null) {
+                    index.remove(uuid, previous);
+                }
+                if (rowUpdate.getNew() != null) {
+                    index.add(uuid, rowUpdate.getNew());
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the index declared under the given name, building it if needed, or null if there is no such
+     * declaration.
+     */
+    private ReplicaIndex index(String indexName) {
+        ReplicaIndex index = indexes.get(indexName);
+        if (index != null) {
+            return index;
+        }
+        TableIndex definition = definitions.get(indexName);
+        if (definition == null) {
+            return null;
+        }
+        synchronized (this) {
+            return indexes.computeIfAbsent(indexName, name -> {
+                ReplicaIndex newIndex = new ReplicaIndex(definition);
+                rows.forEach(newIndex::add);
+                return newIndex;
+            });
+        }
+    }
+
+    Row getCurrentRow(UUID uuid) {
+        return rows.get(uuid);
+    }
+
+    Map<UUID, Row> copyCurrentRows() {
+        return new HashMap<>(rows);
+    }
+
+    Row getRow(UUID uuid) {
+        Row row = rows.get(uuid);
+        return row != null ? withUuid(uuid, row) : null;
+    }
+
+    List<Row> getRows() {
+        List<Row> result = new ArrayList<>(rows.size());
+        rows.forEach((uuid, row) -> result.add(withUuid(uuid, row)));
+        return result;
+    }
+
+    /**
+     * Returns the rows indexed under the given values by the given index.
+     *
+     * @throws IllegalArgumentException if no such index is declared, or the values do not fit it
+     */
+    List<Row> lookup(String indexName, Object... values) {
+        ReplicaIndex index = index(indexName);
+        if (index == null) {
+            throw new IllegalArgumentException("No index " + indexName + " on table " + tableSchema.getName());
+        }
+        List<Row> result = new ArrayList<>(1);
+        for (UUID uuid : index.get(index.key(values))) {
+            Row row = rows.get(uuid);
+            if (row != null) {
+                result.add(withUuid(uuid, row));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the rows matching all the conditions, as a select operation would.
+     */
+    List<Row> select(List<Condition> where) {
+        Collection<UUID> candidates = null;
+        for (Condition condition : where) {
+            if (condition.getFunction() == Function.EQUALS && UUID_COLUMN.equals(condition.getColumn())) {
+                candidates = Collections.singleton((UUID) condition.getValue());
+                break;
+            }
+        }
+        if (candidates == null) {
+            for (TableIndex definition : definitions.values()) {
+                Object key = ReplicaIndex.key(definition, where);
+                if (key != null) {
+                    candidates = index(definition.getName()).get(key);
+                    break;
+                }
+            }
+        }
+        if (candidates == null) {
+            candidates = rows.keySet();
+        }
+
+        List<Row> result = new ArrayList<>();
+        for (UUID uuid : candidates) {
+            Row row = rows.get(uuid);
+            if (row != null && matches(uuid, row, where)) {
+                result.add(withUuid(uuid, row));
+            }
+        }
+        return result;
+    }
+
+    private static boolean matches(UUID uuid, Row row, List<Condition> where) {
+        for (Condition condition : where) {
+            Object data = UUID_COLUMN.equals(condition.getColumn()) ? uuid
+                    : ReplicaIndex.columnData(row, condition.getColumn());
+            if (!Conditions.matches(data, condition.getFunction(), condition.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a copy of the row with its _uuid column, which monitors do not send, so that the rows read from the
+     * replica look like the ones returned by a select.
+     */
+    @SuppressWarnings("unchecked")
+    private Row withUuid(UUID uuid, Row row) {
+        ColumnSchema uuidSchema = tableSchema.column(UUID_COLUMN);
+        if (uuidSchema == null) {
+            return row;
+        }
+        Row copy = new Row(row);
+        copy.addColumn(uuidSchema, uuid);
+        return copy;
+    }
+}
@@ -8,13 +8,17 @@
 
 package org.opendaylight.ovsdb.lib.schema;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
+import java.io.IOException;
 import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
 import org.opendaylight.ovsdb.lib.error.TyperException;
 import org.opendaylight.ovsdb.lib.notation.ReferencedRow;
 import org.opendaylight.ovsdb.lib.notation.UUID;
+import org.opendaylight.ovsdb.lib.notation.json.UUIDInterningParser;
 
 public abstract class BaseType<E extends BaseType<E>> {
 
@@ -80,6 +84,36 @@ public abstract class BaseType<E extends BaseType<E>> {
 
     public abstract Object toValue(JsonNode value);
 
+    /**
+     * Reads the value the parser is currently positioned at, leaving the parser on the last token of
+     * that value. The default implementation materializes the value as a tree; subclasses override it
+     * to read atoms straight from the token stream.
+     */
+    public Object toValue(JsonParser parser) throws IOException {
+        return toValue((JsonNode) parser.readValueAsTree());
+    }
+
+    /**
+     * Reads the remainder of a tagged atom, such as ["uuid", &lt;uuid&gt;], whose tag has already been
+     * consumed. The parser is left on the closing END_ARRAY of the atom.
+     */
+    Object taggedValue(String tag, JsonParser parser) throws IOException {
+        skipToEndArray(parser);
+        return null;
+    }
+
+    static boolean isAtom(JsonParser parser) {
+        JsonToken token = parser.getCurrentToken();
+        return token != null && token.isScalarValue() && token != JsonToken.VALUE_NULL;
+    }
+
+    static void skipToEndArray(JsonParser parser) throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+            parser.skipChildren();
+        }
+    }
+
     public abstract void validate(Object value);
 
     public static class IntegerBaseType extends BaseType<IntegerBaseType> {
@@ -113,6 +147,11 @@ public abstract class BaseType<E extends BaseType<E>> {
             return value.asLong();
         }
 
+        @Override
+        public Object toValue(JsonParser parser) throws IOException {
+            return isAtom(parser) ? parser.getValueAsLong() : super.toValue(parser);
+        }
+
         @Override
         public void validate(Object value) {
 
@@ -231,6 +270,11 @@ public abstract class BaseType<E extends BaseType<E>> {
             return value.asDouble();
         }
 
+        @Override
+        public Object toValue(JsonParser parser) throws IOException {
+            return isAtom(parser) ? parser.getValueAsDouble() : super.toValue(parser);
+        }
+
         @Override
         public void validate(Object value) {
 
@@ -338,6 +382,11 @@ public abstract class BaseType<E extends BaseType<E>> {
             return value.asBoolean();
         }
 
+        @Override
+        public Object toValue(JsonParser parser) throws IOException {
+            return isAtom(parser) ? parser.getValueAsBoolean() : super.toValue(parser);
+        }
+
         @Override
         public void validate(Object value) {
 
@@ -380,6 +429,11 @@ public abstract class BaseType<E extends BaseType<E>> {
             return value.asText();
         }
 
+        @Override
+        public Object toValue(JsonParser parser) throws IOException {
+            return isAtom(parser) ? parser.getValueAsString() : super.toValue(parser);
+        }
+
         @Override
         public void validate(Object value) {
 
@@ -512,6 +566,39 @@ public abstract class BaseType<E extends BaseType<E>> {
             return null;
         }
 
+        @Override
+        public Object toValue(JsonParser parser) throws IOException {
+            if (parser.getCurrentToken() != JsonToken.START_ARRAY) {
+                // expanded ReferencedRow, see above
+                return super.toValue(parser);
+            }
+            if (parser.nextToken() == JsonToken.END_ARRAY) {
+                return null;
+            }
+            String tag = parser.getValueAsString();
+            parser.skipChildren();
+            return taggedValue(tag, parser);
+        }
+
+        @Override
+        Object taggedValue(String tag, JsonParser parser) throws IOException {
+            if (!"uuid".equals(tag)) {
+                return super.taggedValue(tag, parser);
+            }
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.END_ARRAY) {
+                return null;
+            }
+            UUID value = token == JsonToken.VALUE_STRING ? UUIDInterningParser.getUUID(parser) : null;
+            parser.skipChildren();
+            if (parser.nextToken() == JsonToken.END_ARRAY) {
+                return value;
+            }
+            parser.skipChildren();
+            skipToEndArray(parser);
+            return null;
+        }
+
         @Override
         public void validate(Object value) {
 
@@ -8,7 +8,9 @@
 
 package org.opendaylight.ovsdb.lib.schema;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.JsonNode;
+import java.io.IOException;
 import java.util.Map;
 import java.util.Set;
 import org.opendaylight.ovsdb.lib.error.BadSchemaException;
@@ -21,6 +23,8 @@ import org.opendaylight.ovsdb.lib.notation.OvsdbSet;
 public class ColumnSchema<E extends TableSchema<E>, D> {
     String name;
     ColumnType type;
+    // Assigned by the table schema the column is first added to
+    int ordinal = -1;
 
     public ColumnSchema(String name, ColumnType columnType) {
         this.name = name;
@@ -43,6 +47,14 @@ public class ColumnSchema<E extends TableSchema<E>, D> {
         return type;
     }
 
+    /**
+     * Returns the position of the data of this column in the rows of its table, see
+     * {@link TableSchema#columnAt(int)}, or -1 if the column was not added to a table schema.
+     */
+    public int getOrdinal() {
+        return ordinal;
+    }
+
     // --- Operations on the column ----------//
 
     public Condition opEqual(D data) {
@@ -139,6 +151,10 @@ public class ColumnSchema<E extends TableSchema<E>, D> {
         return (D) this.getType().valueFromJson(value);
     }
 
+    public D valueFromJson(JsonParser parser) throws IOException {
+        return (D) this.getType().valueFromJson(parser);
+    }
+
     public Object getNormalizeData(D value) {
         Object untypedValue;
         if (value instanceof Set) {
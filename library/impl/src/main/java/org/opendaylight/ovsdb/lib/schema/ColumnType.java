@@ -8,7 +8,17 @@
 
 package org.opendaylight.ovsdb.lib.schema;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import org.opendaylight.ovsdb.lib.error.TyperException;
 import org.opendaylight.ovsdb.lib.jsonrpc.JsonUtils;
 import org.opendaylight.ovsdb.lib.notation.OvsdbMap;
@@ -108,6 +118,22 @@ public abstract class ColumnType {
 
     public abstract Object valueFromJson(JsonNode value);
 
+    /**
+     * Streaming counterpart of {@link #valueFromJson(JsonNode)}: reads the value the parser is
+     * positioned at and leaves the parser on the last token of that value.
+     */
+    public abstract Object valueFromJson(JsonParser parser) throws IOException;
+
+    /**
+     * Applies the diff carried by an update2 "modify" notification (see monitor_cond) to the current
+     * value of a column.
+     *
+     * @param value the current value of the column, may be null
+     * @param diff the diff, as read by {@link #valueFromJson(JsonParser)}
+     * @return the new value of the column; the current value is left untouched
+     */
+    public abstract Object applyDiff(Object value, Object diff);
+
     public abstract void validate(Object value);
 
     @Override
@@ -199,7 +225,7 @@ public abstract class ColumnType {
         @Override
         public Object valueFromJson(JsonNode value) {
             if (isMultiValued()) {
-                OvsdbSet<Object> result = new OvsdbSet<>();
+                List<Object> result = new ArrayList<>();
                 if (value.isArray()) {
                     if (value.size() == 2) {
                         if (value.get(0).isTextual() && "set".equals(value.get(0).asText())) {
@@ -213,12 +239,67 @@ public abstract class ColumnType {
                 } else {
                     result.add(getBaseType().toValue(value));
                 }
-                return result;
+                return OvsdbSet.immutableCopyOf(result);
             } else {
                 return getBaseType().toValue(value);
             }
         }
 
+        @Override
+        public Object valueFromJson(JsonParser parser) throws IOException {
+            if (!isMultiValued()) {
+                return getBaseType().toValue(parser);
+            }
+            if (parser.getCurrentToken() != JsonToken.START_ARRAY) {
+                return OvsdbSet.immutableCopyOf(Collections.singleton(getBaseType().toValue(parser)));
+            }
+            if (parser.nextToken() == JsonToken.END_ARRAY) {
+                return OvsdbSet.immutableCopyOf(Collections.emptySet());
+            }
+            List<Object> result = new ArrayList<>();
+            String tag = parser.getValueAsString();
+            parser.skipChildren();
+            if ("set".equals(tag)) {
+                if (parser.nextToken() == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        result.add(getBaseType().toValue(parser));
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+                BaseType.skipToEndArray(parser);
+            } else {
+                Object atom = getBaseType().taggedValue(tag, parser);
+                if (atom != null) {
+                    result.add(atom);
+                }
+            }
+            return OvsdbSet.immutableCopyOf(result);
+        }
+
+        /**
+         * Scalar columns are replaced by the diff, the elements of a set diff are toggled: added when
+         * missing, removed when present.
+         */
+        @Override
+        public Object applyDiff(Object value, Object diff) {
+            if (!isMultiValued()) {
+                return diff;
+            }
+            Set<Object> result = new HashSet<>();
+            if (value != null) {
+                result.addAll((Set<?>) value);
+            }
+            if (diff != null) {
+                for (Object element : (Set<?>) diff) {
+                    if (!result.remove(element)) {
+                        result.add(element);
+                    }
+                }
+            }
+            return OvsdbSet.immutableCopyOf(result);
+        }
+
         @Override
         public void validate(Object value) {
             this.baseType.validate(value);
@@ -271,7 +352,7 @@ public abstract class ColumnType {
         public Object valueFromJson(JsonNode node) {
             if (node.isArray() && node.size() == 2) {
                 if (node.get(0).isTextual() && "map".equals(node.get(0).asText())) {
-                    OvsdbMap<Object, Object> map = new OvsdbMap<>();
+                    Map<Object, Object> map = new HashMap<>();
                     for (JsonNode pairNode : node.get(1)) {
                         if (pairNode.isArray() && node.size() == 2) {
                             Object key = getKeyType().toValue(pairNode.get(0));
@@ -279,7 +360,7 @@ public abstract class ColumnType {
                             map.put(key, value);
                         }
                     }
-                    return map;
+                    return OvsdbMap.immutableCopyOf(map);
                 } else if (node.size() == 0) {
                     return null;
                 }
@@ -287,6 +368,62 @@ public abstract class ColumnType {
             return null;
         }
 
+        @Override
+        public Object valueFromJson(JsonParser parser) throws IOException {
+            if (parser.getCurrentToken() != JsonToken.START_ARRAY) {
+                parser.skipChildren();
+                return null;
+            }
+            if (parser.nextToken() == JsonToken.END_ARRAY) {
+                return null;
+            }
+            String tag = parser.getValueAsString();
+            parser.skipChildren();
+            if (!"map".equals(tag) || parser.nextToken() != JsonToken.START_ARRAY) {
+                parser.skipChildren();
+                BaseType.skipToEndArray(parser);
+                return null;
+            }
+            Map<Object, Object> map = new HashMap<>();
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == JsonToken.START_ARRAY && parser.nextToken() != JsonToken.END_ARRAY) {
+                    Object key = getKeyType().toValue(parser);
+                    if (parser.nextToken() != JsonToken.END_ARRAY) {
+                        map.put(key, getBaseType().toValue(parser));
+                        BaseType.skipToEndArray(parser);
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            BaseType.skipToEndArray(parser);
+            return OvsdbMap.immutableCopyOf(map);
+        }
+
+        /**
+         * Pairs of a map diff are added when their key is missing, removed when the key maps to the same
+         * value and replace the value otherwise.
+         */
+        @Override
+        public Object applyDiff(Object value, Object diff) {
+            Map<Object, Object> result = new HashMap<>();
+            if (value != null) {
+                result.putAll((Map<?, ?>) value);
+            }
+            if (diff != null) {
+                for (Map.Entry<?, ?> pair : ((Map<?, ?>) diff).entrySet()) {
+                    Object current = result.get(pair.getKey());
+                    if (current != null && current.equals(pair.getValue())) {
+                        result.remove(pair.getKey());
+                    } else {
+                        result.put(pair.getKey(), pair.getValue());
+                    }
+                }
+            }
+            return OvsdbMap.immutableCopyOf(result);
+        }
+
         @Override
         public void validate(Object value) {
             this.baseType.validate(value);
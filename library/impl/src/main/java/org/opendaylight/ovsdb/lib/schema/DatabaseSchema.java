@@ -8,15 +8,24 @@
 
 package org.opendaylight.ovsdb.lib.schema;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.google.common.reflect.Invokable;
+import java.io.IOException;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import org.opendaylight.ovsdb.lib.error.ParsingException;
+import org.opendaylight.ovsdb.lib.message.TableUpdate;
+import org.opendaylight.ovsdb.lib.message.TableUpdates;
+import org.opendaylight.ovsdb.lib.notation.Row;
+import org.opendaylight.ovsdb.lib.notation.UUID;
 import org.opendaylight.ovsdb.lib.notation.Version;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,6 +41,8 @@ public class DatabaseSchema {
 
     private Version version;
     private Map<String, TableSchema> tables;
+    // Shared by the connections, see DatabaseSchemaRegistry
+    private volatile boolean shared;
 
     public DatabaseSchema(Map<String, TableSchema> tables) {
         this.tables = tables;
@@ -103,11 +114,80 @@ public class DatabaseSchema {
         return new DatabaseSchema(dbName, dbVersion, tables);
     }
 
+    /**
+     * Builds the {@link TableUpdates} from the &lt;table-updates&gt; object the parser is positioned
+     * at, binding each row as its tokens are read. Tables not present in this schema are skipped.
+     */
+    public TableUpdates updatesFromJson(JsonParser parser) throws IOException {
+        Map<String, TableUpdate> tableUpdateMap = new HashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String tableName = parser.getCurrentName();
+            TableSchema table = tables.get(tableName);
+            if (parser.nextToken() != JsonToken.START_OBJECT || table == null) {
+                LOG.debug("Skipping update for unknown table {} in {}", tableName, name);
+                parser.skipChildren();
+                continue;
+            }
+            tableUpdateMap.put(tableName, table.updatesFromJson(parser));
+        }
+        return new TableUpdates(tableUpdateMap);
+    }
+
+    /**
+     * Builds the {@link TableUpdates} from the &lt;table-updates2&gt; object of a monitor_cond reply or
+     * update2 notification the parser is positioned at, see {@link TableSchema#updates2FromJson}. Tables
+     * not present in this schema are skipped.
+     *
+     * @param rows the current rows of the monitored tables, keyed by table name and kept current with
+     *             every update
+     */
+    public TableUpdates updates2FromJson(JsonParser parser, Map<String, Map<UUID, Row>> rows) throws IOException {
+        Map<String, TableUpdate> tableUpdateMap = new HashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String tableName = parser.getCurrentName();
+            TableSchema table = tables.get(tableName);
+            if (parser.nextToken() != JsonToken.START_OBJECT || table == null) {
+                LOG.debug("Skipping update for unknown table {} in {}", tableName, name);
+                parser.skipChildren();
+                continue;
+            }
+            tableUpdateMap.put(tableName,
+                    table.updates2FromJson(parser, rows.computeIfAbsent(tableName, key -> new HashMap<>())));
+        }
+        return new TableUpdates(tableUpdateMap);
+    }
+
+    /**
+     * Builds the {@link TableUpdates} from the &lt;table-updates2&gt; object of a monitor_cond reply or
+     * update2 notification the parser is positioned at, see {@link TableSchema#updates2FromJson(JsonParser,
+     * Function)}, reading the current rows from wherever the caller keeps them. Tables not present in this
+     * schema are skipped.
+     *
+     * @param currentRows the current row by table name and UUID, null for an unknown row
+     */
+    public TableUpdates updates2FromJson(JsonParser parser, BiFunction<String, UUID, Row> currentRows)
+            throws IOException {
+        Map<String, TableUpdate> tableUpdateMap = new HashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String tableName = parser.getCurrentName();
+            TableSchema table = tables.get(tableName);
+            if (parser.nextToken() != JsonToken.START_OBJECT || table == null) {
+                LOG.debug("Skipping update for unknown table {} in {}", tableName, name);
+                parser.skipChildren();
+                continue;
+            }
+            tableUpdateMap.put(tableName, table.updates2FromJson(parser,
+                    (Function<UUID, Row>) uuid -> currentRows.apply(tableName, uuid)));
+        }
+        return new TableUpdates(tableUpdateMap);
+    }
+
     public String getName() {
         return name;
     }
 
     public void setName(String name) {
+        checkNotShared();
         this.name = name;
     }
 
@@ -116,12 +196,32 @@ public class DatabaseSchema {
     }
 
     public void setVersion(Version version) {
+        checkNotShared();
         this.version = version;
     }
 
     public void populateInternallyGeneratedColumns() {
+        checkNotShared();
         for (TableSchema tableSchema : tables.values()) {
             tableSchema.populateInternallyGeneratedColumns();
         }
     }
+
+    /**
+     * Returns true if this schema is shared by the connections to the switches running the same schema, see
+     * {@link DatabaseSchemaRegistry}. A shared schema cannot be modified.
+     */
+    public boolean isShared() {
+        return shared;
+    }
+
+    void setShared() {
+        this.shared = true;
+    }
+
+    private void checkNotShared() {
+        if (shared) {
+            throw new UnsupportedOperationException("Schema " + name + " " + version + " is shared");
+        }
+    }
 }
@@ -0,0 +1,70 @@
+/*
+ * Copyright © 2018 Red Hat, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.ovsdb.lib.schema;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.util.concurrent.ExecutionException;
+import org.opendaylight.ovsdb.lib.error.ParsingException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The database schemas of all the connections, keyed by database name, schema version and schema checksum:
+ * switches running the same schema share a single {@link DatabaseSchema}, with its table and column schemas,
+ * which is only parsed for the first of them.
+ *
+ * <p>The shared schemas cannot be modified, see {@link DatabaseSchema#isShared()}. They are weakly held, and go
+ * with the last connection using them. Schemas without a checksum are not shared.
+ */
+public final class DatabaseSchemaRegistry {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DatabaseSchemaRegistry.class);
+
+    private static final Cache<String, DatabaseSchema> SCHEMAS = CacheBuilder.newBuilder().weakValues().build();
+
+    private DatabaseSchemaRegistry() {
+        // Prevent instantiating a utility class
+    }
+
+    /**
+     * Returns the schema of the given database described by the given get_schema result, with its internally
+     * generated columns populated.
+     *
+     * @throws ParsingException if the schema is not valid
+     */
+    public static DatabaseSchema fromJson(String dbName, JsonNode json) {
+        JsonNode version = json.get("version");
+        JsonNode cksum = json.get("cksum");
+        if (version == null || cksum == null) {
+            return parse(dbName, json);
+        }
+        String key = dbName + ' ' + version.asText() + ' ' + cksum.asText();
+        try {
+            return SCHEMAS.get(key, () -> {
+                LOG.debug("Registering schema {}", key);
+                DatabaseSchema dbSchema = parse(dbName, json);
+                dbSchema.setShared();
+                return dbSchema;
+            });
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new ParsingException("Failed to parse schema " + key, e.getCause());
+        }
+    }
+
+    private static DatabaseSchema parse(String dbName, JsonNode json) {
+        DatabaseSchema dbSchema = DatabaseSchema.fromJson(dbName, json);
+        dbSchema.populateInternallyGeneratedColumns();
+        return dbSchema;
+    }
+}
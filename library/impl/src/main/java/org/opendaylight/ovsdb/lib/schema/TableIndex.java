@@ -0,0 +1,84 @@
+/*
+ * Copyright © 2018 Red Hat, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.ovsdb.lib.schema;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+
+/**
+ * Declaration of a secondary index on the rows of a table, see
+ * {@link org.opendaylight.ovsdb.lib.message.MonitorRequestBuilder#addIndex(TableIndex)}. The replica kept by the
+ * client maintains the declared indexes from the monitor updates, and serves lookups on them without scanning
+ * the table.
+ *
+ * <p>A row is indexed under the values of the indexed columns; when a single column holding a set is indexed,
+ * the row is indexed under each element of the set, so that, for instance, a bridge can be looked up by any of
+ * its ports. A map-key index indexes a row under the value its map column holds for the given key, such as the
+ * {@code opendaylight-iid} of the {@code external_ids}; rows without that key are not indexed.
+ *
+ * <p>A unique index holds at most one row per key, and should only be declared on columns the database itself
+ * keeps unique; otherwise the index is multi-valued.
+ */
+public final class TableIndex {
+
+    private final String name;
+    private final List<String> columns;
+    private final String mapKey;
+    private final boolean unique;
+
+    private TableIndex(String name, List<String> columns, String mapKey, boolean unique) {
+        Preconditions.checkArgument(!columns.isEmpty(), "Index %s has no column", name);
+        this.name = name;
+        this.columns = columns;
+        this.mapKey = mapKey;
+        this.unique = unique;
+    }
+
+    public static TableIndex unique(String name, String... columns) {
+        return new TableIndex(name, ImmutableList.copyOf(columns), null, true);
+    }
+
+    public static TableIndex multiValued(String name, String... columns) {
+        return new TableIndex(name, ImmutableList.copyOf(columns), null, false);
+    }
+
+    public static TableIndex uniqueMapKey(String name, String column, String key) {
+        return new TableIndex(name, ImmutableList.of(column), Preconditions.checkNotNull(key), true);
+    }
+
+    public static TableIndex multiValuedMapKey(String name, String column, String key) {
+        return new TableIndex(name, ImmutableList.of(column), Preconditions.checkNotNull(key), false);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    /**
+     * Returns the key of the map column this index is on, or null if the index is on the column values.
+     */
+    public String getMapKey() {
+        return mapKey;
+    }
+
+    public boolean isUnique() {
+        return unique;
+    }
+
+    @Override
+    public String toString() {
+        return "TableIndex [name=" + name + ", columns=" + columns
+                + (mapKey != null ? ", mapKey=" + mapKey : "") + ", unique=" + unique + "]";
+    }
+}
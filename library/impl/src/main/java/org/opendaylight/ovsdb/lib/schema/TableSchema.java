@@ -8,29 +8,43 @@
 
 package org.opendaylight.ovsdb.lib.schema;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.function.Function;
 import org.opendaylight.ovsdb.lib.message.TableUpdate;
 import org.opendaylight.ovsdb.lib.notation.Column;
 import org.opendaylight.ovsdb.lib.notation.Row;
 import org.opendaylight.ovsdb.lib.notation.UUID;
+import org.opendaylight.ovsdb.lib.notation.json.UUIDInterningParser;
 import org.opendaylight.ovsdb.lib.operations.Insert;
 import org.opendaylight.ovsdb.lib.schema.BaseType.UuidBaseType;
 import org.opendaylight.ovsdb.lib.schema.ColumnType.AtomicColumnType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 
 public abstract class TableSchema<E extends TableSchema<E>> {
 
+    private static final Logger LOG = LoggerFactory.getLogger(TableSchema.class);
+
+    private static final ColumnSchema[] NO_COLUMNS = new ColumnSchema[0];
+
     private String name;
     private Map<String, ColumnSchema> columns;
+    // The columns by ordinal, see ColumnSchema#getOrdinal()
+    private volatile ColumnSchema[] ordinals = NO_COLUMNS;
 
     public TableSchema() {
     }
@@ -41,7 +55,7 @@ public abstract class TableSchema<E extends TableSchema<E>> {
 
     public TableSchema(String name, Map<String, ColumnSchema> columns) {
         this.name = name;
-        this.columns = columns;
+        setColumns(columns);
     }
 
     public Set<String> getColumns() {
@@ -116,6 +130,47 @@ public abstract class TableSchema<E extends TableSchema<E>> {
 
     protected void setColumns(Map<String, ColumnSchema> columns) {
         this.columns = columns;
+        this.ordinals = NO_COLUMNS;
+        if (columns != null) {
+            for (ColumnSchema column : columns.values()) {
+                addOrdinal(column);
+            }
+        }
+    }
+
+    /**
+     * Returns the column at the given ordinal, see {@link ColumnSchema#getOrdinal()}, or null if there is none.
+     * The rows hold the data of the columns of their table at their ordinal.
+     */
+    public ColumnSchema columnAt(int ordinal) {
+        ColumnSchema[] current = ordinals;
+        return ordinal >= 0 && ordinal < current.length ? current[ordinal] : null;
+    }
+
+    /**
+     * Returns the number of ordinals assigned to the columns of this table.
+     */
+    public int getColumnCount() {
+        return ordinals.length;
+    }
+
+    /**
+     * Assigns the next ordinal to a new column, or places a column which has one already, unless that ordinal is
+     * taken in this table: the column of a view of another table schema keeps the ordinal it has in that table.
+     * A column without an ordinal in this table is still part of it, but the rows hold it by name.
+     */
+    private synchronized void addOrdinal(ColumnSchema column) {
+        ColumnSchema[] current = ordinals;
+        int ordinal = column.ordinal;
+        if (ordinal < 0) {
+            ordinal = current.length;
+            column.ordinal = ordinal;
+        } else if (ordinal < current.length && current[ordinal] != null) {
+            return;
+        }
+        ColumnSchema[] updated = Arrays.copyOf(current, Math.max(current.length, ordinal + 1));
+        updated[ordinal] = column;
+        ordinals = updated;
     }
 
     public TableUpdate<E> updatesFromJson(JsonNode value) {
@@ -136,8 +191,149 @@ public abstract class TableSchema<E extends TableSchema<E>> {
         return tableUpdate;
     }
 
+    /**
+     * Streaming counterpart of {@link #updatesFromJson(JsonNode)}: builds the rows straight from the
+     * &lt;table-update&gt; object the parser is positioned at, without materializing it as a tree.
+     * The parser is left on the END_OBJECT token closing the table update.
+     */
+    public TableUpdate<E> updatesFromJson(JsonParser parser) throws IOException {
+        TableUpdate<E> tableUpdate = new TableUpdate<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            UUID uuid = UUIDInterningParser.getUUID(parser);
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            Row<E> newRow = null;
+            Row<E> oldRow = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                if (parser.nextToken() != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                } else if ("new".equals(fieldName)) {
+                    newRow = createRow(parser);
+                } else if ("old".equals(fieldName)) {
+                    oldRow = createRow(parser);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            tableUpdate.addRow(uuid, oldRow, newRow);
+        }
+        return tableUpdate;
+    }
+
+    /**
+     * Reads the &lt;table-update2&gt; object of a monitor_cond reply or update2 notification the parser
+     * is positioned at, leaving the parser on its closing END_OBJECT token, and applies it to the given rows.
+     *
+     * @param rows the current rows of the table, keyed by UUID
+     * @see #updates2FromJson(JsonParser, Function)
+     */
+    public TableUpdate<E> updates2FromJson(JsonParser parser, Map<UUID, Row<E>> rows) throws IOException {
+        TableUpdate<E> tableUpdate = updates2FromJson(parser, (Function<UUID, Row<E>>) rows::get);
+        for (TableUpdate<E>.RowUpdate<E> rowUpdate : tableUpdate.getRows().values()) {
+            if (rowUpdate.getNew() == null) {
+                rows.remove(rowUpdate.getUuid());
+            } else {
+                rows.put(rowUpdate.getUuid(), rowUpdate.getNew());
+            }
+        }
+        return tableUpdate;
+    }
+
+    /**
+     * Reads the &lt;table-update2&gt; object of a monitor_cond reply or update2 notification the parser
+     * is positioned at, leaving the parser on its closing END_OBJECT token.
+     *
+     * <p>Rows are reported the same way as by {@link #updatesFromJson(JsonParser)}: a "modify" only
+     * carries the diff of the changed columns, so it is applied to the current row to rebuild the new row.
+     * The old row of a modification only holds the previous values of the changed columns, as in an RFC 7047
+     * update notification. The caller applies the returned update to wherever it keeps the current rows.
+     *
+     * @param currentRows the current row of the table by UUID, null for an unknown row
+     */
+    public TableUpdate<E> updates2FromJson(JsonParser parser, Function<UUID, Row<E>> currentRows)
+            throws IOException {
+        TableUpdate<E> tableUpdate = new TableUpdate<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            UUID uuid = UUIDInterningParser.getUUID(parser);
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String kind = parser.getCurrentName();
+                if ("delete".equals(kind)) {
+                    // the value is null
+                    parser.nextToken();
+                    parser.skipChildren();
+                    tableUpdate.addRow(uuid, currentRows.apply(uuid), null);
+                    continue;
+                }
+                if (parser.nextToken() != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    continue;
+                }
+                switch (kind) {
+                    case "initial":
+                    case "insert":
+                        Row<E> row = createRow(parser);
+                        tableUpdate.addRow(uuid, null, row);
+                        break;
+                    case "modify":
+                        Row<E> current = currentRows.apply(uuid);
+                        if (current == null) {
+                            LOG.debug("Modification of unknown row {} in {}", uuid, name);
+                            current = new Row<>(this);
+                        }
+                        Row<E> oldRow = new Row<>(this);
+                        Row<E> newRow = new Row<>(current);
+                        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                            ColumnSchema<E, Object> schema = column(parser.getCurrentName(), Object.class);
+                            parser.nextToken();
+                            if (schema == null) {
+                                parser.skipChildren();
+                                continue;
+                            }
+                            Object diff = schema.valueFromJson(parser);
+                            Column<E, Object> column = current.getColumn(schema);
+                            Object value = column != null ? column.getData() : null;
+                            oldRow.addColumn(schema, value);
+                            newRow.addColumn(schema, schema.getType().applyDiff(value, diff));
+                        }
+                        tableUpdate.addRow(uuid, oldRow, newRow);
+                        break;
+                    default:
+                        parser.skipChildren();
+                        break;
+                }
+            }
+        }
+        return tableUpdate;
+    }
+
+    /**
+     * Builds a row from the &lt;row&gt; object the parser is positioned at, leaving the parser on the
+     * closing END_OBJECT token.
+     */
+    public Row<E> createRow(JsonParser parser) throws IOException {
+        Row<E> row = new Row<>(this);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            ColumnSchema<E, Object> schema = column(parser.getCurrentName(), Object.class);
+            parser.nextToken();
+            // See createRow(ObjectNode) on why the schema may be missing
+            if (schema != null) {
+                row.addColumn(schema, schema.valueFromJson(parser));
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return row;
+    }
+
     public Row<E> createRow(ObjectNode rowNode) {
-        List<Column<E, ?>> newColumns = new ArrayList<>();
+        Row<E> row = new Row<>(this);
         for (Iterator<Map.Entry<String, JsonNode>> iter = rowNode.fields(); iter.hasNext();) {
             Map.Entry<String, JsonNode> next = iter.next();
             ColumnSchema<E, Object> schema = column(next.getKey(), Object.class);
@@ -148,11 +344,10 @@ public abstract class TableSchema<E extends TableSchema<E>> {
              * Hence adding some safety checks around that.
              */
             if (schema != null) {
-                Object value = schema.valueFromJson(next.getValue());
-                newColumns.add(new Column<>(schema, value));
+                row.addColumn(schema, schema.valueFromJson(next.getValue()));
             }
         }
-        return new Row<>(this, newColumns);
+        return row;
     }
 
     public List<Row<E>> createRows(JsonNode rowsNode) {
@@ -175,7 +370,11 @@ public abstract class TableSchema<E extends TableSchema<E>> {
      * for better application experience using the library.
      */
     public void populateInternallyGeneratedColumns() {
-        columns.put("_uuid", new ColumnSchema("_uuid", new AtomicColumnType(new UuidBaseType())));
-        columns.put("_version", new ColumnSchema("_version", new AtomicColumnType(new UuidBaseType())));
+        ColumnSchema uuid = new ColumnSchema("_uuid", new AtomicColumnType(new UuidBaseType()));
+        columns.put(uuid.getName(), uuid);
+        addOrdinal(uuid);
+        ColumnSchema version = new ColumnSchema("_version", new AtomicColumnType(new UuidBaseType()));
+        columns.put(version.getName(), version);
+        addOrdinal(version);
     }
 }
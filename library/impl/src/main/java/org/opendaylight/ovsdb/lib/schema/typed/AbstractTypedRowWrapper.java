@@ -0,0 +1,118 @@
+/*
+ * Copyright © 2018 Red Hat, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.ovsdb.lib.schema.typed;
+
+import com.google.common.base.Objects;
+import org.opendaylight.ovsdb.lib.error.ColumnSchemaNotFoundException;
+import org.opendaylight.ovsdb.lib.error.TableSchemaNotFoundException;
+import org.opendaylight.ovsdb.lib.notation.Column;
+import org.opendaylight.ovsdb.lib.notation.Row;
+import org.opendaylight.ovsdb.lib.schema.ColumnSchema;
+import org.opendaylight.ovsdb.lib.schema.DatabaseSchema;
+import org.opendaylight.ovsdb.lib.schema.GenericTableSchema;
+
+/**
+ * Base class of the typed row wrappers generated by the library-processor TypedTableProcessor, which
+ * {@link TyperUtils#getTypedRowWrapper(DatabaseSchema, Class, Row)} returns instead of a
+ * {@link java.lang.reflect.Proxy} when they are available. The generated methods call the typed* methods of
+ * this class with the {@link TypedMethod} they were resolved to, and behave as the proxy methods do.
+ */
+public abstract class AbstractTypedRowWrapper {
+
+    /**
+     * Suffix of the name of the typed row wrapper generated for a typed table interface, in the same package.
+     */
+    public static final String SUFFIX = "TypedRow";
+
+    private final DatabaseSchema dbSchema;
+    private final Class<?> klazz;
+    private final GenericTableSchema tableSchema;
+    private final Row<GenericTableSchema> row;
+
+    protected AbstractTypedRowWrapper(DatabaseSchema dbSchema, Class<?> klazz, GenericTableSchema tableSchema,
+                                      Row<GenericTableSchema> row) {
+        this.dbSchema = dbSchema;
+        this.klazz = klazz;
+        this.tableSchema = tableSchema;
+        this.row = row;
+    }
+
+    protected final GenericTableSchema typedTableSchema() {
+        return tableSchema;
+    }
+
+    protected final Row<GenericTableSchema> typedRow() {
+        return row;
+    }
+
+    protected final Object typedData(TypedMethod method) {
+        ColumnSchema<GenericTableSchema, Object> columnSchema = columnSchema(method);
+        if (row == null) {
+            return null;
+        }
+        Column<GenericTableSchema, Object> column = row.getColumn(columnSchema);
+        return column != null ? column.getData() : null;
+    }
+
+    protected final Column<GenericTableSchema, Object> typedColumn(TypedMethod method) {
+        ColumnSchema<GenericTableSchema, Object> columnSchema = columnSchema(method);
+        // When the row is null, that might indicate that the user maybe interested
+        // only in the ColumnSchema and not on the Data.
+        if (row == null) {
+            return new Column<>(columnSchema, null);
+        }
+        return row.getColumn(columnSchema);
+    }
+
+    @SuppressWarnings("unchecked")
+    protected final void typedSetData(TypedMethod method, Object data) {
+        TyperUtils.checkVersion(dbSchema.getVersion(), method.getFromVersion(), method.getUntilVersion());
+        ColumnSchema<GenericTableSchema, Object> columnSchema = tableSchema.column(method.getColumnName());
+        row.addColumn(method.getColumnName(), new Column<>(columnSchema, data));
+    }
+
+    @SuppressWarnings("unchecked")
+    private ColumnSchema<GenericTableSchema, Object> columnSchema(TypedMethod method) {
+        TyperUtils.checkVersion(dbSchema.getVersion(), method.getFromVersion(), method.getUntilVersion());
+        if (tableSchema == null) {
+            String message = TableSchemaNotFoundException.createMessage(TyperUtils.getTableName(klazz),
+                    dbSchema.getName());
+            throw new TableSchemaNotFoundException(message);
+        }
+        ColumnSchema<GenericTableSchema, Object> columnSchema = tableSchema.column(method.getColumnName());
+        if (columnSchema == null) {
+            String message = ColumnSchemaNotFoundException.createMessage(method.getColumnName(),
+                    tableSchema.getName());
+            throw new ColumnSchemaNotFoundException(message);
+        }
+        return columnSchema;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return getClass().isInstance(obj) && Objects.equal(row, ((AbstractTypedRowWrapper) obj).row);
+    }
+
+    @Override
+    public int hashCode() {
+        if (row == null) {
+            return 0;
+        }
+        return row.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        String tableName = tableSchema != null ? tableSchema.getName() : "";
+        if (row == null) {
+            return tableName;
+        }
+        return tableName + " : " + row.toString();
+    }
+}
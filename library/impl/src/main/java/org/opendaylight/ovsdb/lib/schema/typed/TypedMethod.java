@@ -0,0 +1,60 @@
+/*
+ * Copyright © 2018 Red Hat, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.ovsdb.lib.schema.typed;
+
+import org.opendaylight.ovsdb.lib.notation.Version;
+
+/**
+ * A method of a typed table interface, as resolved by the TypedTableProcessor when generating its
+ * {@link AbstractTypedRowWrapper}: the column it accesses and the schema versions it is valid for, so that the
+ * generated wrappers do not inspect annotations or method names when they are called.
+ */
+public final class TypedMethod {
+
+    private final String name;
+    private final String columnName;
+    private final Version fromVersion;
+    private final Version untilVersion;
+
+    /**
+     * Creates a method descriptor.
+     *
+     * @param name the name of the method, for error messages
+     * @param columnName the name of the accessed column
+     * @param fromVersion the first schema version having the column, or null if any
+     * @param untilVersion the last schema version having the column, or null if any
+     */
+    public TypedMethod(String name, String columnName, String fromVersion, String untilVersion) {
+        this.name = name;
+        this.columnName = columnName;
+        this.fromVersion = fromVersion != null ? Version.fromString(fromVersion) : Version.NULL;
+        this.untilVersion = untilVersion != null ? Version.fromString(untilVersion) : Version.NULL;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getColumnName() {
+        return columnName;
+    }
+
+    public Version getFromVersion() {
+        return fromVersion;
+    }
+
+    public Version getUntilVersion() {
+        return untilVersion;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright © 2018 Red Hat, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.ovsdb.lib.schema.typed;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.lang.reflect.Method;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import org.opendaylight.ovsdb.lib.error.SchemaVersionMismatchException;
+import org.opendaylight.ovsdb.lib.notation.Version;
+import org.opendaylight.ovsdb.lib.schema.ColumnSchema;
+import org.opendaylight.ovsdb.lib.schema.DatabaseSchema;
+import org.opendaylight.ovsdb.lib.schema.GenericTableSchema;
+
+/**
+ * What {@link TyperUtils} resolves of a typed table interface against a database schema: the table schema, whether
+ * the table and its columns exist in the schema version, and the kind and column of each method of the interface.
+ * It is resolved once per database schema and interface, instead of once per typed row wrapper and per call.
+ */
+final class TypedTableMetadata {
+
+    private static final String GET_STARTS_WITH = "get";
+    private static final String SET_STARTS_WITH = "set";
+    private static final String GETCOLUMN_ENDS_WITH = "Column";
+    private static final String GETROW_ENDS_WITH = "Row";
+
+    // The database schemas are weakly referenced, and compared by identity, so that their metadata goes with them
+    private static final ClassValue<Cache<DatabaseSchema, TypedTableMetadata>> CACHE =
+        new ClassValue<Cache<DatabaseSchema, TypedTableMetadata>>() {
+            @Override
+            protected Cache<DatabaseSchema, TypedTableMetadata> computeValue(Class<?> klazz) {
+                return CacheBuilder.newBuilder().weakKeys().build();
+            }
+        };
+
+    private final Class<?> klazz;
+    private final String databaseName;
+    private final Version schemaVersion;
+    private final boolean validDatabase;
+    private final Version tableFromVersion;
+    private final Version tableUntilVersion;
+    private final boolean validTableVersion;
+    private final GenericTableSchema tableSchema;
+    private final Map<Method, MethodMetadata> methods = new ConcurrentHashMap<>();
+
+    private TypedTableMetadata(DatabaseSchema dbSchema, Class<?> klazz) {
+        this.klazz = klazz;
+        this.databaseName = dbSchema.getName();
+        this.schemaVersion = dbSchema.getVersion();
+        TypedTable typedTable = klazz.getAnnotation(TypedTable.class);
+        this.validDatabase = typedTable == null || typedTable.database().equalsIgnoreCase(databaseName);
+        this.tableFromVersion = TyperUtils.getTableFromVersion(klazz);
+        this.tableUntilVersion = TyperUtils.getTableUntilVersion(klazz);
+        this.validTableVersion = isValidVersion(tableFromVersion, tableUntilVersion);
+        String tableName = TyperUtils.getTableName(klazz);
+        this.tableSchema = dbSchema.hasTable(tableName) ? dbSchema.table(tableName, GenericTableSchema.class) : null;
+    }
+
+    /**
+     * Returns the metadata of the given interface against the given database schema, resolving it unless it was
+     * already, for the current name and version of the schema.
+     */
+    static TypedTableMetadata get(DatabaseSchema dbSchema, Class<?> klazz) {
+        Cache<DatabaseSchema, TypedTableMetadata> cache = CACHE.get(klazz);
+        TypedTableMetadata metadata = cache.getIfPresent(dbSchema);
+        if (metadata == null || !Objects.equals(metadata.databaseName, dbSchema.getName())
+                || !Objects.equals(metadata.schemaVersion, dbSchema.getVersion())) {
+            metadata = new TypedTableMetadata(dbSchema, klazz);
+            cache.put(dbSchema, metadata);
+        }
+        return metadata;
+    }
+
+    /**
+     * Checks the interface against the database schema, as {@link TyperUtils#getTypedRowWrapper} does.
+     *
+     * @return false if the interface is a table of another database
+     * @throws SchemaVersionMismatchException if the table does not exist in the version of the schema
+     */
+    boolean isValid() {
+        if (!validDatabase) {
+            return false;
+        }
+        if (!validTableVersion) {
+            throw new SchemaVersionMismatchException(schemaVersion, tableFromVersion, tableUntilVersion);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the schema of the table, or null if the database has no such table.
+     */
+    GenericTableSchema getTableSchema() {
+        return tableSchema;
+    }
+
+    String getTableName() {
+        return TyperUtils.getTableName(klazz);
+    }
+
+    MethodMetadata method(Method method) {
+        return methods.computeIfAbsent(method, MethodMetadata::new);
+    }
+
+    private boolean isValidVersion(Version fromVersion, Version untilVersion) {
+        try {
+            TyperUtils.checkVersion(schemaVersion, fromVersion, untilVersion);
+            return true;
+        } catch (SchemaVersionMismatchException e) {
+            return false;
+        }
+    }
+
+    /**
+     * What is resolved of a method of the interface.
+     */
+    final class MethodMetadata {
+
+        private final MethodType methodType;
+        private final String columnName;
+        private final Version fromVersion;
+        private final Version untilVersion;
+        private final boolean validVersion;
+        private volatile ColumnSchema<GenericTableSchema, Object> columnSchema;
+
+        private MethodMetadata(Method method) {
+            this.methodType = resolveMethodType(method);
+            this.columnName = resolveColumnName(method, methodType);
+            this.fromVersion = TyperUtils.getColumnFromVersion(method);
+            this.untilVersion = TyperUtils.getColumnUntilVersion(method);
+            this.validVersion = isValidVersion(fromVersion, untilVersion);
+        }
+
+        /**
+         * Returns the kind of the method, or null if it is none of the typed table methods.
+         */
+        MethodType getMethodType() {
+            return methodType;
+        }
+
+        /**
+         * Returns the name of the column the method accesses, or null if it accesses none.
+         */
+        String getColumnName() {
+            return columnName;
+        }
+
+        /**
+         * Checks that the column of the method exists in the version of the schema.
+         *
+         * @throws SchemaVersionMismatchException if it does not
+         */
+        void checkVersion() {
+            if (!validVersion) {
+                throw new SchemaVersionMismatchException(schemaVersion, fromVersion, untilVersion);
+            }
+        }
+
+        /**
+         * Returns the schema of the column of the method, or null if the table has no such column.
+         */
+        @SuppressWarnings("unchecked")
+        ColumnSchema<GenericTableSchema, Object> getColumnSchema() {
+            ColumnSchema<GenericTableSchema, Object> result = columnSchema;
+            if (result == null && tableSchema != null && columnName != null) {
+                result = tableSchema.column(columnName);
+                columnSchema = result;
+            }
+            return result;
+        }
+    }
+
+    private static MethodType resolveMethodType(Method method) {
+        TypedColumn typedColumn = method.getAnnotation(TypedColumn.class);
+        if (typedColumn != null) {
+            return typedColumn.method();
+        }
+        String name = method.getName();
+        if (name.startsWith(GET_STARTS_WITH) && name.endsWith(GETROW_ENDS_WITH)) {
+            return MethodType.GETROW;
+        } else if (name.startsWith(SET_STARTS_WITH)) {
+            return MethodType.SETDATA;
+        } else if (name.startsWith(GET_STARTS_WITH) && !name.endsWith(GETCOLUMN_ENDS_WITH)) {
+            return MethodType.GETDATA;
+        } else if (name.startsWith(GET_STARTS_WITH) && name.endsWith(GETCOLUMN_ENDS_WITH)) {
+            return MethodType.GETCOLUMN;
+        }
+        return null;
+    }
+
+    private static String resolveColumnName(Method method, MethodType methodType) {
+        TypedColumn typedColumn = method.getAnnotation(TypedColumn.class);
+        if (typedColumn != null) {
+            return typedColumn.name();
+        }
+
+        /*
+         * Attempting to get the column name by parsing the method name with a following convention :
+         * 1. GETDATA : get<ColumnName>
+         * 2. SETDATA : set<ColumnName>
+         * 3. GETCOLUMN : get<ColumnName>Column
+         * where <ColumnName> is the name of the column that we are interested in.
+         */
+        int index = GET_STARTS_WITH.length();
+        String name = method.getName();
+        if (methodType == MethodType.GETDATA || methodType == MethodType.SETDATA) {
+            return name.substring(index).toLowerCase(Locale.ROOT);
+        } else if (methodType == MethodType.GETCOLUMN) {
+            return name.substring(index, name.indexOf(GETCOLUMN_ENDS_WITH, index)).toLowerCase(Locale.ROOT);
+        }
+        return null;
+    }
+}
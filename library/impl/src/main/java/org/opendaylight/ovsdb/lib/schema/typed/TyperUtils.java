@@ -12,11 +12,13 @@ import com.google.common.base.Objects;
 import com.google.common.base.Preconditions;
 import com.google.common.reflect.Reflection;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.HashMap;
-import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
 import org.opendaylight.ovsdb.lib.error.ColumnSchemaNotFoundException;
 import org.opendaylight.ovsdb.lib.error.SchemaVersionMismatchException;
 import org.opendaylight.ovsdb.lib.error.TableSchemaNotFoundException;
@@ -32,22 +34,30 @@ import org.opendaylight.ovsdb.lib.schema.ColumnSchema;
 import org.opendaylight.ovsdb.lib.schema.DatabaseSchema;
 import org.opendaylight.ovsdb.lib.schema.GenericTableSchema;
 import org.opendaylight.ovsdb.lib.schema.TableSchema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Utility methods for typed OVSDB schema data.
  */
 public final class TyperUtils {
 
-    private static final String GET_STARTS_WITH = "get";
-    private static final String SET_STARTS_WITH = "set";
-    private static final String GETCOLUMN_ENDS_WITH = "Column";
-    private static final String GETROW_ENDS_WITH = "Row";
+    private static final Logger LOG = LoggerFactory.getLogger(TyperUtils.class);
+
+    // Constructors of the typed row wrappers generated by TypedTableProcessor, absent for the proxied interfaces
+    private static final ClassValue<Optional<Constructor<?>>> GENERATED_WRAPPERS =
+        new ClassValue<Optional<Constructor<?>>>() {
+            @Override
+            protected Optional<Constructor<?>> computeValue(Class<?> klazz) {
+                return findGeneratedWrapper(klazz);
+            }
+        };
 
     private TyperUtils() {
         // Prevent instantiating a utility class
     }
 
-    private static <T> String getTableName(Class<T> klazz) {
+    static <T> String getTableName(Class<T> klazz) {
         TypedTable typedTable = klazz.getAnnotation(TypedTable.class);
         if (typedTable != null) {
             return typedTable.name();
@@ -73,71 +83,6 @@ public final class TyperUtils {
         return tableSchema.column(columnName, metaClass);
     }
 
-    private static String getColumnName(Method method) {
-        TypedColumn typedColumn = method.getAnnotation(TypedColumn.class);
-        if (typedColumn != null) {
-            return typedColumn.name();
-        }
-
-        /*
-         * Attempting to get the column name by parsing the method name with a following convention :
-         * 1. GETDATA : get<ColumnName>
-         * 2. SETDATA : set<ColumnName>
-         * 3. GETCOLUMN : get<ColumnName>Column
-         * where <ColumnName> is the name of the column that we are interested in.
-         */
-        int index = GET_STARTS_WITH.length();
-        if (isGetData(method) || isSetData(method)) {
-            return method.getName().substring(index, method.getName().length()).toLowerCase(Locale.ROOT);
-        } else if (isGetColumn(method)) {
-            return method.getName().substring(index, method.getName().indexOf(GETCOLUMN_ENDS_WITH,
-                    index)).toLowerCase(Locale.ROOT);
-        }
-
-        return null;
-    }
-
-    private static boolean isGetTableSchema(Method method) {
-        TypedColumn typedColumn = method.getAnnotation(TypedColumn.class);
-        return typedColumn != null && typedColumn.method().equals(MethodType.GETTABLESCHEMA);
-    }
-
-    private static boolean isGetRow(Method method) {
-        TypedColumn typedColumn = method.getAnnotation(TypedColumn.class);
-        if (typedColumn != null) {
-            return typedColumn.method().equals(MethodType.GETROW);
-        }
-
-        return method.getName().startsWith(GET_STARTS_WITH) && method.getName().endsWith(GETROW_ENDS_WITH);
-    }
-
-    private static boolean isGetColumn(Method method) {
-        TypedColumn typedColumn = method.getAnnotation(TypedColumn.class);
-        if (typedColumn != null) {
-            return typedColumn.method().equals(MethodType.GETCOLUMN);
-        }
-
-        return method.getName().startsWith(GET_STARTS_WITH) && method.getName().endsWith(GETCOLUMN_ENDS_WITH);
-    }
-
-    private static boolean isGetData(Method method) {
-        TypedColumn typedColumn = method.getAnnotation(TypedColumn.class);
-        if (typedColumn != null) {
-            return typedColumn.method().equals(MethodType.GETDATA);
-        }
-
-        return method.getName().startsWith(GET_STARTS_WITH) && !method.getName().endsWith(GETCOLUMN_ENDS_WITH);
-    }
-
-    private static boolean isSetData(Method method) {
-        TypedColumn typedColumn = method.getAnnotation(TypedColumn.class);
-        if (typedColumn != null) {
-            return typedColumn.method().equals(MethodType.SETDATA);
-        }
-
-        return method.getName().startsWith(SET_STARTS_WITH);
-    }
-
     public static Version getColumnFromVersion(Method method) {
         TypedColumn typedColumn = method.getAnnotation(TypedColumn.class);
         if (typedColumn != null) {
@@ -170,45 +115,7 @@ public final class TyperUtils {
         return Version.NULL;
     }
 
-    /**
-     * Method that checks validity of the parameter passed to getTypedRowWrapper.
-     * This method checks for a valid Database Schema matching the expected Database for a given table
-     * and checks for the presence of the Table in Database Schema.
-     *
-     * @param dbSchema DatabaseSchema as learnt from a OVSDB connection
-     * @param klazz Typed Class that represents a Table
-     * @return true if valid, false otherwise
-     */
-    private static <T> boolean isValid(DatabaseSchema dbSchema, final Class<T> klazz) {
-        if (dbSchema == null) {
-            return false;
-        }
-
-        TypedTable typedTable = klazz.getAnnotation(TypedTable.class);
-        if (typedTable != null && !dbSchema.getName().equalsIgnoreCase(typedTable.database())) {
-            return false;
-        }
-
-        checkTableSchemaVersion(dbSchema, klazz);
-
-        return true;
-    }
-
-    private static void checkColumnSchemaVersion(DatabaseSchema dbSchema, Method method) {
-        Version fromVersion = getColumnFromVersion(method);
-        Version untilVersion = getColumnUntilVersion(method);
-        Version schemaVersion = dbSchema.getVersion();
-        checkVersion(schemaVersion, fromVersion, untilVersion);
-    }
-
-    private static <T> void checkTableSchemaVersion(DatabaseSchema dbSchema, Class<T> klazz) {
-        Version fromVersion = getTableFromVersion(klazz);
-        Version untilVersion = getTableUntilVersion(klazz);
-        Version schemaVersion = dbSchema.getVersion();
-        checkVersion(schemaVersion, fromVersion, untilVersion);
-    }
-
-    private static void checkVersion(Version schemaVersion, Version fromVersion, Version untilVersion) {
+    static void checkVersion(Version schemaVersion, Version fromVersion, Version untilVersion) {
         if (!fromVersion.equals(Version.NULL) && schemaVersion.compareTo(fromVersion) < 0 || !untilVersion.equals(
                 Version.NULL) && schemaVersion.compareTo(untilVersion) > 0) {
             throw new SchemaVersionMismatchException(schemaVersion, fromVersion, untilVersion);
@@ -257,31 +164,56 @@ public final class TyperUtils {
      */
     public static <T> T getTypedRowWrapper(final DatabaseSchema dbSchema, final Class<T> klazz,
                                            final Row<GenericTableSchema> row) {
-        if (!isValid(dbSchema, klazz)) {
+        if (dbSchema == null) {
             return null;
         }
+        return getTypedRowWrapper(TypedTableMetadata.get(dbSchema, klazz), dbSchema, klazz, row);
+    }
+
+    private static <T> T getTypedRowWrapper(final TypedTableMetadata metadata, final DatabaseSchema dbSchema,
+                                            final Class<T> klazz, final Row<GenericTableSchema> row) {
+        if (!metadata.isValid()) {
+            return null;
+        }
+        GenericTableSchema tableSchema = metadata.getTableSchema();
         if (row != null) {
-            row.setTableSchema(getTableSchema(dbSchema, klazz));
+            if (tableSchema == null) {
+                // Fails as the database schema has no such table
+                tableSchema = getTableSchema(dbSchema, klazz);
+            }
+            row.setTableSchema(tableSchema);
+        }
+        Optional<Constructor<?>> generatedWrapper = GENERATED_WRAPPERS.get(klazz);
+        if (generatedWrapper.isPresent()) {
+            try {
+                return klazz.cast(generatedWrapper.get().newInstance(dbSchema, tableSchema, row));
+            } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+                throw new TyperException("Unable to instantiate the typed row wrapper of " + klazz.getName(), e);
+            }
         }
         return Reflection.newProxy(klazz, new InvocationHandler() {
-            private Object processGetData(Method method) {
-                String columnName = getColumnName(method);
-                checkColumnSchemaVersion(dbSchema, method);
-                if (columnName == null) {
-                    throw new TyperException("Error processing Getter : " + method.getName());
-                }
-                GenericTableSchema tableSchema = getTableSchema(dbSchema, klazz);
-                if (tableSchema == null) {
+            private ColumnSchema<GenericTableSchema, Object> getColumnSchema(
+                    TypedTableMetadata.MethodMetadata methodMetadata) {
+                if (metadata.getTableSchema() == null) {
                     String message =
-                            TableSchemaNotFoundException.createMessage(getTableName(klazz), dbSchema.getName());
+                            TableSchemaNotFoundException.createMessage(metadata.getTableName(), dbSchema.getName());
                     throw new TableSchemaNotFoundException(message);
                 }
-                ColumnSchema<GenericTableSchema, Object> columnSchema =
-                        getColumnSchema(tableSchema, columnName, (Class<Object>) method.getReturnType());
+                ColumnSchema<GenericTableSchema, Object> columnSchema = methodMetadata.getColumnSchema();
                 if (columnSchema == null) {
-                    String message = ColumnSchemaNotFoundException.createMessage(columnName, tableSchema.getName());
+                    String message = ColumnSchemaNotFoundException.createMessage(methodMetadata.getColumnName(),
+                            metadata.getTableSchema().getName());
                     throw new ColumnSchemaNotFoundException(message);
                 }
+                return columnSchema;
+            }
+
+            private Object processGetData(Method method, TypedTableMetadata.MethodMetadata methodMetadata) {
+                methodMetadata.checkVersion();
+                if (methodMetadata.getColumnName() == null) {
+                    throw new TyperException("Error processing Getter : " + method.getName());
+                }
+                ColumnSchema<GenericTableSchema, Object> columnSchema = getColumnSchema(methodMetadata);
                 if (row == null || row.getColumn(columnSchema) == null) {
                     return null;
                 }
@@ -292,24 +224,12 @@ public final class TyperUtils {
                 return row;
             }
 
-            private Object processGetColumn(Method method) {
-                String columnName = getColumnName(method);
-                checkColumnSchemaVersion(dbSchema, method);
-                if (columnName == null) {
+            private Object processGetColumn(Method method, TypedTableMetadata.MethodMetadata methodMetadata) {
+                methodMetadata.checkVersion();
+                if (methodMetadata.getColumnName() == null) {
                     throw new TyperException("Error processing GetColumn : " + method.getName());
                 }
-                GenericTableSchema tableSchema = getTableSchema(dbSchema, klazz);
-                if (tableSchema == null) {
-                    String message =
-                            TableSchemaNotFoundException.createMessage(getTableName(klazz), dbSchema.getName());
-                    throw new TableSchemaNotFoundException(message);
-                }
-                ColumnSchema<GenericTableSchema, Object> columnSchema =
-                        getColumnSchema(tableSchema, columnName, (Class<Object>) method.getReturnType());
-                if (columnSchema == null) {
-                    String message = ColumnSchemaNotFoundException.createMessage(columnName, tableSchema.getName());
-                    throw new ColumnSchemaNotFoundException(message);
-                }
+                ColumnSchema<GenericTableSchema, Object> columnSchema = getColumnSchema(methodMetadata);
                 // When the row is null, that might indicate that the user maybe interested
                 // only in the ColumnSchema and not on the Data.
                 if (row == null) {
@@ -318,29 +238,24 @@ public final class TyperUtils {
                 return row.getColumn(columnSchema);
             }
 
-            private Object processSetData(Object proxy, Method method, Object[] args) {
+            private Object processSetData(Object proxy, Method method, TypedTableMetadata.MethodMetadata methodMetadata,
+                                          Object[] args) {
                 if (args == null || args.length != 1) {
                     throw new TyperException("Setter method : " + method.getName() + " requires 1 argument");
                 }
-                checkColumnSchemaVersion(dbSchema, method);
-                String columnName = getColumnName(method);
+                methodMetadata.checkVersion();
+                String columnName = methodMetadata.getColumnName();
                 if (columnName == null) {
                     throw new TyperException("Unable to locate Column Name for " + method.getName());
                 }
-                GenericTableSchema tableSchema = getTableSchema(dbSchema, klazz);
-                ColumnSchema<GenericTableSchema, Object> columnSchema =
-                        getColumnSchema(tableSchema, columnName, (Class<Object>) args[0].getClass());
                 Column<GenericTableSchema, Object> column =
-                        new Column<>(columnSchema, args[0]);
+                        new Column<>(methodMetadata.getColumnSchema(), args[0]);
                 row.addColumn(columnName, column);
                 return proxy;
             }
 
             private Object processGetTableSchema() {
-                if (dbSchema == null) {
-                    return null;
-                }
-                return getTableSchema(dbSchema, klazz);
+                return metadata.getTableSchema();
             }
 
             private Boolean isHashCodeMethod(Method method, Object[] args) {
@@ -360,17 +275,25 @@ public final class TyperUtils {
 
             @Override
             public Object invoke(Object proxy, Method method, Object[] args) throws Exception {
-                if (isGetTableSchema(method)) {
-                    return processGetTableSchema();
-                } else if (isGetRow(method)) {
-                    return processGetRow();
-                } else if (isSetData(method)) {
-                    return processSetData(proxy, method, args);
-                } else if (isGetData(method)) {
-                    return processGetData(method);
-                } else if (isGetColumn(method)) {
-                    return processGetColumn(method);
-                } else if (isHashCodeMethod(method, args)) {
+                TypedTableMetadata.MethodMetadata methodMetadata = metadata.method(method);
+                MethodType methodType = methodMetadata.getMethodType();
+                if (methodType != null) {
+                    switch (methodType) {
+                        case GETTABLESCHEMA:
+                            return processGetTableSchema();
+                        case GETROW:
+                            return processGetRow();
+                        case SETDATA:
+                            return processSetData(proxy, method, methodMetadata, args);
+                        case GETDATA:
+                            return processGetData(method, methodMetadata);
+                        case GETCOLUMN:
+                            return processGetColumn(method, methodMetadata);
+                        default:
+                            break;
+                    }
+                }
+                if (isHashCodeMethod(method, args)) {
                     return hashCode();
                 } else if (isEqualsMethod(method, args)) {
                     return proxy.getClass().isInstance(args[0]) && this.equals(args[0]);
@@ -414,6 +337,28 @@ public final class TyperUtils {
         );
     }
 
+    /**
+     * Returns the constructor of the typed row wrapper generated for the given interface by
+     * the TypedTableProcessor, if it was.
+     */
+    private static Optional<Constructor<?>> findGeneratedWrapper(Class<?> klazz) {
+        if (!klazz.isInterface() || klazz.getEnclosingClass() != null || klazz.getClassLoader() == null) {
+            return Optional.empty();
+        }
+        try {
+            Class<?> wrapper = Class.forName(klazz.getName() + AbstractTypedRowWrapper.SUFFIX, true,
+                    klazz.getClassLoader());
+            if (klazz.isAssignableFrom(wrapper) && AbstractTypedRowWrapper.class.isAssignableFrom(wrapper)) {
+                return Optional.of(wrapper.getConstructor(DatabaseSchema.class, GenericTableSchema.class,
+                        Row.class));
+            }
+            LOG.debug("Ignoring {}, which is not a typed row wrapper of {}", wrapper, klazz);
+        } catch (ClassNotFoundException | NoSuchMethodException e) {
+            LOG.debug("No typed row wrapper generated for {}, using a proxy", klazz, e);
+        }
+        return Optional.empty();
+    }
+
     /**
      * This method extracts all row updates of Class&lt;T&gt; klazz from a TableUpdates
      * that correspond to insertion or updates of rows of type klazz.
@@ -432,12 +377,13 @@ public final class TyperUtils {
         Preconditions.checkNotNull(updates);
         Preconditions.checkNotNull(dbSchema);
         Map<UUID,T> result = new HashMap<>();
+        TypedTableMetadata metadata = TypedTableMetadata.get(dbSchema, klazz);
         Map<UUID,TableUpdate<GenericTableSchema>.RowUpdate<GenericTableSchema>> rowUpdates =
-                extractRowUpdates(klazz,updates,dbSchema);
+                extractRowUpdates(metadata, dbSchema, klazz, updates);
         for (TableUpdate<GenericTableSchema>.RowUpdate<GenericTableSchema> rowUpdate : rowUpdates.values()) {
             if (rowUpdate != null && rowUpdate.getNew() != null) {
                 Row<GenericTableSchema> row = rowUpdate.getNew();
-                result.put(rowUpdate.getUuid(),TyperUtils.getTypedRowWrapper(dbSchema,klazz,row));
+                result.put(rowUpdate.getUuid(), getTypedRowWrapper(metadata, dbSchema, klazz, row));
             }
         }
         return result;
@@ -461,12 +407,13 @@ public final class TyperUtils {
         Preconditions.checkNotNull(updates);
         Preconditions.checkNotNull(dbSchema);
         Map<UUID,T> result = new HashMap<>();
+        TypedTableMetadata metadata = TypedTableMetadata.get(dbSchema, klazz);
         Map<UUID,TableUpdate<GenericTableSchema>.RowUpdate<GenericTableSchema>> rowUpdates =
-                extractRowUpdates(klazz,updates,dbSchema);
+                extractRowUpdates(metadata, dbSchema, klazz, updates);
         for (TableUpdate<GenericTableSchema>.RowUpdate<GenericTableSchema> rowUpdate : rowUpdates.values()) {
             if (rowUpdate != null && rowUpdate.getOld() != null) {
                 Row<GenericTableSchema> row = rowUpdate.getOld();
-                result.put(rowUpdate.getUuid(),TyperUtils.getTypedRowWrapper(dbSchema,klazz,row));
+                result.put(rowUpdate.getUuid(), getTypedRowWrapper(metadata, dbSchema, klazz, row));
             }
         }
         return result;
@@ -490,12 +437,13 @@ public final class TyperUtils {
         Preconditions.checkNotNull(updates);
         Preconditions.checkNotNull(dbSchema);
         Map<UUID,T> result = new HashMap<>();
+        TypedTableMetadata metadata = TypedTableMetadata.get(dbSchema, klazz);
         Map<UUID,TableUpdate<GenericTableSchema>.RowUpdate<GenericTableSchema>> rowUpdates =
-                extractRowUpdates(klazz,updates,dbSchema);
+                extractRowUpdates(metadata, dbSchema, klazz, updates);
         for (TableUpdate<GenericTableSchema>.RowUpdate<GenericTableSchema> rowUpdate : rowUpdates.values()) {
             if (rowUpdate != null && rowUpdate.getNew() == null && rowUpdate.getOld() != null) {
                 Row<GenericTableSchema> row = rowUpdate.getOld();
-                result.put(rowUpdate.getUuid(),TyperUtils.getTypedRowWrapper(dbSchema,klazz,row));
+                result.put(rowUpdate.getUuid(), getTypedRowWrapper(metadata, dbSchema, klazz, row));
             }
         }
         return result;
@@ -521,16 +469,24 @@ public final class TyperUtils {
         Preconditions.checkNotNull(klazz);
         Preconditions.checkNotNull(updates);
         Preconditions.checkNotNull(dbSchema);
-        Map<UUID, TableUpdate<GenericTableSchema>.RowUpdate<GenericTableSchema>> result =
-                new HashMap<>();
-        TableUpdate<GenericTableSchema> update = updates.getUpdate(TyperUtils.getTableSchema(dbSchema, klazz));
+        return extractRowUpdates(TypedTableMetadata.get(dbSchema, klazz), dbSchema, klazz, updates);
+    }
+
+    private static Map<UUID, TableUpdate<GenericTableSchema>.RowUpdate<GenericTableSchema>> extractRowUpdates(
+            TypedTableMetadata metadata, DatabaseSchema dbSchema, Class<?> klazz, TableUpdates updates) {
+        GenericTableSchema tableSchema = metadata.getTableSchema();
+        if (tableSchema == null) {
+            // Fails as the database schema has no such table
+            tableSchema = getTableSchema(dbSchema, klazz);
+        }
+        TableUpdate<GenericTableSchema> update = updates.getUpdate(tableSchema);
         if (update != null) {
             Map<UUID, TableUpdate<GenericTableSchema>.RowUpdate<GenericTableSchema>> rows = update.getRows();
             if (rows != null) {
-                result = rows;
+                return rows;
             }
         }
-        return result;
+        return new HashMap<>();
     }
 
 }
@@ -0,0 +1,179 @@
+/*
+ * Copyright © 2018 Red Hat, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.ovsdb.lib.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.reflect.Reflection;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Test;
+import org.opendaylight.ovsdb.lib.message.OvsdbRPC;
+
+/**
+ * Test class for {@link LockManager}, against a stand-in OVSDB server queueing the lock requests of its
+ * sessions as ovsdb-server does.
+ */
+public class LockManagerTest {
+
+    private static final String LOCK = "shard-1";
+
+    private final StandInServer server = new StandInServer();
+    private final Session first = new Session();
+    private final Session second = new Session();
+
+    @After
+    public void tearDown() {
+        server.executor.shutdownNow();
+    }
+
+    @Test
+    public void testLock() throws Exception {
+        assertTrue(first.lockManager.lock(LOCK, first.acquired::incrementAndGet, first.stolen::incrementAndGet)
+                .get());
+        assertFalse(second.lockManager.lock(LOCK, second.acquired::incrementAndGet, second.stolen::incrementAndGet)
+                .get());
+        assertEquals(1, first.acquired.get());
+        assertEquals(0, second.acquired.get());
+
+        // The waiting session is notified once the lock is released
+        assertTrue(first.lockManager.unlock(LOCK).get());
+        server.flush();
+        assertFalse(first.lockManager.isOwned(LOCK));
+        assertTrue(second.lockManager.isOwned(LOCK));
+        assertEquals(1, second.acquired.get());
+    }
+
+    @Test
+    public void testSteal() throws Exception {
+        first.lockManager.lock(LOCK, first.acquired::incrementAndGet, first.stolen::incrementAndGet).get();
+        assertTrue(second.lockManager.steal(LOCK).get());
+        server.flush();
+        assertEquals(1, first.stolen.get());
+        assertFalse(first.lockManager.isOwned(LOCK));
+        assertTrue(second.lockManager.isOwned(LOCK));
+
+        // The lock goes back to the session it was stolen from when the thief releases it
+        second.lockManager.unlock(LOCK).get();
+        server.flush();
+        assertEquals(2, first.acquired.get());
+        assertTrue(first.lockManager.isOwned(LOCK));
+    }
+
+    @Test
+    public void testStealWaitedFor() throws Exception {
+        first.lockManager.lock(LOCK, first.acquired::incrementAndGet, first.stolen::incrementAndGet).get();
+        second.lockManager.lock(LOCK, second.acquired::incrementAndGet, second.stolen::incrementAndGet).get();
+        assertTrue(second.lockManager.steal(LOCK).get());
+        server.flush();
+        assertEquals(1, second.acquired.get());
+        assertEquals(1, first.stolen.get());
+        // Stealing an owned lock does not reach the server
+        assertTrue(second.lockManager.steal(LOCK).get());
+        assertEquals(1, second.acquired.get());
+    }
+
+    @Test
+    public void testDuplicateLock() throws Exception {
+        first.lockManager.lock(LOCK, first.acquired::incrementAndGet, first.stolen::incrementAndGet).get();
+        ListenableFuture<Boolean> duplicate = first.lockManager.lock(LOCK, first.acquired::incrementAndGet,
+                first.stolen::incrementAndGet);
+        try {
+            duplicate.get();
+            throw new AssertionError("The duplicate lock should have failed");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        assertTrue(first.lockManager.isOwned(LOCK));
+        // Unlocking a lock which is not requested is rejected by the server
+        assertFalse(second.lockManager.unlock(LOCK).get());
+    }
+
+    private final class Session {
+        final AtomicInteger acquired = new AtomicInteger();
+        final AtomicInteger stolen = new AtomicInteger();
+        final LockManager lockManager = new LockManager(server.connect(this));
+    }
+
+    /**
+     * Handles the lock requests of its sessions in order on a single thread, replying to a request before
+     * sending the notifications it causes. A rejected request gets a null result, as a JSON-RPC error does.
+     */
+    private static final class StandInServer {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        // The sessions waiting for each lock, the owner first
+        private final Map<String, Deque<Session>> waiters = new HashMap<>();
+
+        @SuppressWarnings("unchecked")
+        OvsdbRPC connect(Session session) {
+            return Reflection.newProxy(OvsdbRPC.class, (proxy, method, args) -> {
+                String lockId = ((List<String>) args[0]).get(0);
+                SettableFuture<Object> reply = SettableFuture.create();
+                executor.execute(() -> {
+                    Deque<Session> queue = waiters.computeIfAbsent(lockId, id -> new ArrayDeque<>());
+                    Session owner = queue.peekFirst();
+                    switch (method.getName()) {
+                        case "lock":
+                            if (queue.contains(session)) {
+                                reply.set(null);
+                                return;
+                            }
+                            queue.addLast(session);
+                            reply.set(Collections.singletonMap("locked", owner == null));
+                            return;
+                        case "steal":
+                            if (queue.contains(session)) {
+                                reply.set(null);
+                                return;
+                            }
+                            queue.addFirst(session);
+                            reply.set(Collections.singletonMap("locked", true));
+                            if (owner != null) {
+                                owner.lockManager.stolen(Collections.singletonList(lockId));
+                            }
+                            return;
+                        case "unlock":
+                            if (!queue.remove(session)) {
+                                reply.set(null);
+                                return;
+                            }
+                            reply.set(Collections.emptyMap());
+                            if (owner == session && !queue.isEmpty()) {
+                                queue.peekFirst().lockManager.locked(Collections.singletonList(lockId));
+                            }
+                            return;
+                        default:
+                            reply.setException(new UnsupportedOperationException(method.getName()));
+                    }
+                });
+                return reply;
+            });
+        }
+
+        /**
+         * Waits for the requests received so far, and the notifications they cause, to be handled.
+         */
+        void flush() throws Exception {
+            executor.submit(() -> { }).get();
+        }
+    }
+}
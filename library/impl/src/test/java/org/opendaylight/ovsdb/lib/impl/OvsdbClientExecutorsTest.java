@@ -0,0 +1,88 @@
+/*
+ * Copyright © 2018 Red Hat, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.ovsdb.lib.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class OvsdbClientExecutorsTest {
+
+    /**
+     * Test that the tasks of one client run in submission order and never concurrently, while many clients
+     * share a bounded number of threads.
+     */
+    @Test
+    public void testSerialExecution() throws Exception {
+        final int clients = 50;
+        final int tasks = 200;
+        long executedBefore = OvsdbClientExecutors.getExecutedTasks();
+        CountDownLatch done = new CountDownLatch(clients * tasks);
+        List<List<Integer>> order = new ArrayList<>();
+        AtomicInteger violations = new AtomicInteger();
+
+        for (int c = 0; c < clients; c++) {
+            Executor executor = OvsdbClientExecutors.newSerialExecutor();
+            List<Integer> clientOrder = Collections.synchronizedList(new ArrayList<>());
+            AtomicInteger running = new AtomicInteger();
+            order.add(clientOrder);
+            for (int t = 0; t < tasks; t++) {
+                final int task = t;
+                executor.execute(() -> {
+                    if (running.incrementAndGet() != 1) {
+                        violations.incrementAndGet();
+                    }
+                    clientOrder.add(task);
+                    running.decrementAndGet();
+                    done.countDown();
+                });
+            }
+        }
+
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        assertEquals(0, violations.get());
+        for (List<Integer> clientOrder : order) {
+            for (int t = 0; t < tasks; t++) {
+                assertEquals(t, (int) clientOrder.get(t));
+            }
+        }
+        assertTrue(OvsdbClientExecutors.getActiveThreads() <= Runtime.getRuntime().availableProcessors() * 2);
+        // the counters are updated once the task returns, give the last ones a moment
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (OvsdbClientExecutors.getExecutedTasks() < executedBefore + clients * tasks
+                && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(executedBefore + clients * tasks, OvsdbClientExecutors.getExecutedTasks());
+        assertEquals(0, OvsdbClientExecutors.getQueueDepth());
+    }
+
+    /**
+     * Test that the clients created after the worker threads are shut down, as when the service is restarted,
+     * and the ones created before, still get their tasks run.
+     */
+    @Test
+    public void testRestart() throws Exception {
+        Executor before = OvsdbClientExecutors.newSerialExecutor();
+        OvsdbClientExecutors.close();
+        assertEquals(0, OvsdbClientExecutors.getActiveThreads());
+
+        CountDownLatch done = new CountDownLatch(2);
+        OvsdbClientExecutors.newSerialExecutor().execute(done::countDown);
+        before.execute(done::countDown);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+    }
+}
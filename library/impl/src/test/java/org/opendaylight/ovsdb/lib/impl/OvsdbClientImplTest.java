@@ -0,0 +1,396 @@
+/*
+ * Copyright © 2018 Red Hat, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.ovsdb.lib.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.util.concurrent.GenericFutureListener;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.opendaylight.ovsdb.lib.MonitorCallBack;
+import org.opendaylight.ovsdb.lib.MonitorHandle;
+import org.opendaylight.ovsdb.lib.OvsdbConnectionInfo.ConnectionType;
+import org.opendaylight.ovsdb.lib.OvsdbConnectionInfo.SocketConnectionType;
+import org.opendaylight.ovsdb.lib.error.JsonRpcErrorException;
+import org.opendaylight.ovsdb.lib.jsonrpc.Params;
+import org.opendaylight.ovsdb.lib.message.MonitorRequest;
+import org.opendaylight.ovsdb.lib.message.MonitorRequestBuilder;
+import org.opendaylight.ovsdb.lib.message.OvsdbRPC;
+import org.opendaylight.ovsdb.lib.message.TableUpdate;
+import org.opendaylight.ovsdb.lib.message.TableUpdates;
+import org.opendaylight.ovsdb.lib.message.TransactBuilder;
+import org.opendaylight.ovsdb.lib.message.UpdateNotification;
+import org.opendaylight.ovsdb.lib.notation.Condition;
+import org.opendaylight.ovsdb.lib.notation.Function;
+import org.opendaylight.ovsdb.lib.notation.OvsdbMap;
+import org.opendaylight.ovsdb.lib.notation.Row;
+import org.opendaylight.ovsdb.lib.notation.UUID;
+import org.opendaylight.ovsdb.lib.operations.Operation;
+import org.opendaylight.ovsdb.lib.operations.Select;
+import org.opendaylight.ovsdb.lib.schema.ColumnSchema;
+import org.opendaylight.ovsdb.lib.schema.DatabaseSchema;
+import org.opendaylight.ovsdb.lib.schema.GenericTableSchema;
+
+public class OvsdbClientImplTest {
+
+    private static final String DATABASE = "Open_vSwitch";
+    private static final UUID BRIDGE1 = new UUID("1b8a1b3e-5b4c-4d0e-8f0b-5c0e7f3a3d01");
+    private static final UUID BRIDGE2 = new UUID("1b8a1b3e-5b4c-4d0e-8f0b-5c0e7f3a3d02");
+    private static final UUID BRIDGE3 = new UUID("1b8a1b3e-5b4c-4d0e-8f0b-5c0e7f3a3d03");
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private JsonNode schemaJson;
+
+    @Before
+    public void setUp() throws Exception {
+        schemaJson = mapper.readTree(OvsdbClientImplTest.class.getResourceAsStream(
+                "/org/opendaylight/ovsdb/lib/schema/test_schema.json")).get("result");
+    }
+
+    /**
+     * Test that the rows of a monitor_cond_since are kept when the connection closes and that the monitor
+     * of the next connection to the same switch only asks for, and applies, the changes since then, reporting
+     * the current rows along with the deleted ones.
+     */
+    @Test
+    public void testMonitorCondSinceResync() throws Exception {
+        OvsdbRPC rpc = newRpc();
+        Channel channel = newChannel();
+        OvsdbClientImpl client = newClient(rpc, channel);
+        DatabaseSchema dbSchema = client.getSchema(DATABASE).get();
+        GenericTableSchema bridge = dbSchema.table("Bridge", GenericTableSchema.class);
+        ColumnSchema<GenericTableSchema, String> name = bridge.column("name", String.class);
+        List<MonitorRequest> requests = Collections.singletonList(
+                new MonitorRequestBuilder<>(bridge).addColumn(name).build());
+
+        when(rpc.monitor_cond_since(any(Params.class))).thenReturn(Futures.immediateFuture(mapper.readTree(
+                "[false,\"txn1\",{\"Bridge\":{\"" + BRIDGE1 + "\":{\"initial\":{\"name\":\"br0\"}},\""
+                        + BRIDGE3 + "\":{\"initial\":{\"name\":\"br3\"}}}}]")));
+        AtomicReference<TableUpdates> notified = new AtomicReference<>();
+        TableUpdates initial = client.monitor(dbSchema, requests, newCallBack(notified));
+        assertEquals("br0", initial.getUpdate(bridge).getNew(BRIDGE1).getColumn(name).getData());
+
+        ArgumentCaptor<OvsdbRPC.Callback> callback = ArgumentCaptor.forClass(OvsdbRPC.Callback.class);
+        verify(rpc).registerCallback(callback.capture());
+        UpdateNotification update3 = new UpdateNotification();
+        ArgumentCaptor<Params> params = ArgumentCaptor.forClass(Params.class);
+        verify(rpc).monitor_cond_since(params.capture());
+        update3.setContext(params.getValue().params().get(1));
+        update3.setLastTransactionId("txn2");
+        update3.setUpdates(mapper.readTree("{\"Bridge\":{\"" + BRIDGE1 + "\":{\"modify\":{\"name\":\"br1\"}}}}"));
+        callback.getValue().update3(channel, update3);
+        assertEquals("br1", notified.get().getUpdate(bridge).getNew(BRIDGE1).getColumn(name).getData());
+        assertEquals("br0", notified.get().getUpdate(bridge).getOld(BRIDGE1).getColumn(name).getData());
+        closeChannel(channel);
+
+        // The switch reconnects
+        OvsdbRPC rpc2 = newRpc();
+        answerProbes(rpc2, BRIDGE1, BRIDGE2);
+        OvsdbClientImpl client2 = newClient(rpc2, newChannel());
+        DatabaseSchema dbSchema2 = client2.getSchema(DATABASE).get();
+        when(rpc2.monitor_cond_since(any(Params.class))).thenReturn(Futures.immediateFuture(mapper.readTree(
+                "[true,\"txn3\",{\"Bridge\":{\"" + BRIDGE2 + "\":{\"insert\":{\"name\":\"br2\"}},\""
+                        + BRIDGE3 + "\":{\"delete\":null}}}]")));
+        TableUpdates resynced = client2.monitor(dbSchema2, requests, newCallBack(notified));
+
+        ArgumentCaptor<Params> params2 = ArgumentCaptor.forClass(Params.class);
+        verify(rpc2).monitor_cond_since(params2.capture());
+        assertEquals("txn2", params2.getValue().params().get(3));
+        TableUpdate<GenericTableSchema> bridges = resynced.getUpdate(bridge);
+        assertEquals(3, bridges.getRows().size());
+        assertEquals("br1", bridges.getNew(BRIDGE1).getColumn(name).getData());
+        assertEquals("br2", bridges.getNew(BRIDGE2).getColumn(name).getData());
+        // The row deleted while disconnected is reported as deleted
+        assertNull(bridges.getNew(BRIDGE3));
+        assertEquals("br3", bridges.getOld(BRIDGE3).getColumn(name).getData());
+    }
+
+    /**
+     * Test that the state left by a switch is not handed to another switch connecting from the same address,
+     * which gets a full dump, and remains for the switch which left it.
+     */
+    @Test
+    public void testMonitorCondSinceSharedAddress() throws Exception {
+        OvsdbRPC rpc = newRpc();
+        Channel channel = newChannel();
+        OvsdbClientImpl client = newClient(rpc, channel);
+        DatabaseSchema dbSchema = client.getSchema(DATABASE).get();
+        GenericTableSchema port = dbSchema.table("Port", GenericTableSchema.class);
+        List<MonitorRequest> requests = Collections.singletonList(
+                new MonitorRequestBuilder<>(port).addColumn("name").build());
+        when(rpc.monitor_cond_since(any(Params.class))).thenReturn(Futures.immediateFuture(mapper.readTree(
+                "[false,\"txn1\",{\"Port\":{\"" + BRIDGE1 + "\":{\"initial\":{\"name\":\"p1\"}}}}]")));
+        client.monitor(dbSchema, requests, newCallBack(new AtomicReference<>()));
+        closeChannel(channel);
+
+        // Another switch behind the same address
+        OvsdbRPC rpc2 = newRpc();
+        answerProbes(rpc2, BRIDGE2);
+        OvsdbClientImpl client2 = newClient(rpc2, newChannel());
+        DatabaseSchema dbSchema2 = client2.getSchema(DATABASE).get();
+        when(rpc2.monitor_cond_since(any(Params.class))).thenReturn(Futures.immediateFuture(mapper.readTree(
+                "[false,\"txn5\",{\"Port\":{\"" + BRIDGE2 + "\":{\"initial\":{\"name\":\"p2\"}}}}]")));
+        client2.monitor(dbSchema2, requests, newCallBack(new AtomicReference<>()));
+        ArgumentCaptor<Params> params2 = ArgumentCaptor.forClass(Params.class);
+        verify(rpc2).monitor_cond_since(params2.capture());
+        assertEquals(MonitorResyncCache.NO_TRANSACTION, params2.getValue().params().get(3));
+
+        // The first switch reconnects
+        OvsdbRPC rpc3 = newRpc();
+        answerProbes(rpc3, BRIDGE1);
+        OvsdbClientImpl client3 = newClient(rpc3, newChannel());
+        DatabaseSchema dbSchema3 = client3.getSchema(DATABASE).get();
+        when(rpc3.monitor_cond_since(any(Params.class))).thenReturn(Futures.immediateFuture(mapper.readTree(
+                "[true,\"txn2\",{}]")));
+        TableUpdates resynced = client3.monitor(dbSchema3, requests, newCallBack(new AtomicReference<>()));
+        ArgumentCaptor<Params> params3 = ArgumentCaptor.forClass(Params.class);
+        verify(rpc3).monitor_cond_since(params3.capture());
+        assertEquals("txn1", params3.getValue().params().get(3));
+        assertEquals(1, resynced.getUpdate(port).getRows().size());
+        assertNotNull(resynced.getUpdate(port).getNew(BRIDGE1));
+    }
+
+    /**
+     * Test that once a monitor_cond is replicated, the update2 diffs are applied to the rows of the replica,
+     * which then holds the new rows.
+     */
+    @Test
+    public void testUpdate2AgainstReplica() throws Exception {
+        OvsdbRPC rpc = newRpc();
+        Channel channel = newChannel();
+        OvsdbClientImpl client = newClient(rpc, channel);
+        client.setReplicating(true);
+        DatabaseSchema dbSchema = client.getSchema(DATABASE).get();
+        GenericTableSchema bridge = dbSchema.table("Bridge", GenericTableSchema.class);
+        ColumnSchema<GenericTableSchema, String> name = bridge.column("name", String.class);
+        ColumnSchema<GenericTableSchema, Set> failMode = bridge.column("fail_mode", Set.class);
+        List<MonitorRequest> requests = Collections.singletonList(
+                new MonitorRequestBuilder<>(bridge).addColumn(name).addColumn(failMode).build());
+        when(rpc.monitor_cond_since(any(Params.class))).thenReturn(Futures.immediateFailedFuture(
+                unknownMethod("monitor_cond_since")));
+        when(rpc.monitor_cond(any(Params.class))).thenReturn(Futures.immediateFuture(mapper.readTree(
+                "{\"Bridge\":{\"" + BRIDGE1 + "\":{\"initial\":{\"name\":\"br0\",\"fail_mode\":\"secure\"}}}}")));
+        AtomicReference<TableUpdates> notified = new AtomicReference<>();
+        MonitorHandle handle = new MonitorHandle("monid");
+        client.monitor(dbSchema, requests, handle, newCallBack(notified));
+
+        ArgumentCaptor<OvsdbRPC.Callback> callback = ArgumentCaptor.forClass(OvsdbRPC.Callback.class);
+        verify(rpc).registerCallback(callback.capture());
+        UpdateNotification update2 = new UpdateNotification();
+        update2.setContext("monid");
+        update2.setUpdates(mapper.readTree("{\"Bridge\":{\"" + BRIDGE1 + "\":{\"modify\":{\"name\":\"br1\"}}}}"));
+        callback.getValue().update2(channel, update2);
+
+        Row<GenericTableSchema> updated = notified.get().getUpdate(bridge).getNew(BRIDGE1);
+        assertEquals("br1", updated.getColumn(name).getData());
+        assertEquals(Collections.singleton("secure"), updated.getColumn(failMode).getData());
+        Row<GenericTableSchema> replicated = client.getReplica(DATABASE).getRow(bridge, BRIDGE1);
+        assertEquals("br1", replicated.getColumn(name).getData());
+        assertEquals(Collections.singleton("secure"), replicated.getColumn(failMode).getData());
+    }
+
+    /**
+     * Test that the conditions of a monitor_cond are sent with the monitor and changed through a
+     * monitor_cond_change of the same monitor, a table without conditions then matching all its rows.
+     */
+    @Test
+    public void testChangeMonitorConditions() throws Exception {
+        OvsdbRPC rpc = newRpc();
+        OvsdbClientImpl client = newClient(rpc, newChannel());
+        DatabaseSchema dbSchema = client.getSchema(DATABASE).get();
+        GenericTableSchema bridge = dbSchema.table("Bridge", GenericTableSchema.class);
+        GenericTableSchema port = dbSchema.table("Port", GenericTableSchema.class);
+        Condition owned = new Condition("external_ids", Function.INCLUDES,
+                OvsdbMap.fromMap(Collections.singletonMap("owner", "odl")));
+        List<MonitorRequest> requests = Arrays.asList(
+                new MonitorRequestBuilder<>(bridge).addColumn("name").addCondition(owned).build(),
+                new MonitorRequestBuilder<>(port).addColumn("name").build());
+
+        when(rpc.monitor_cond_since(any(Params.class))).thenReturn(Futures.immediateFailedFuture(
+                unknownMethod("monitor_cond_since")));
+        when(rpc.monitor_cond(any(Params.class))).thenReturn(Futures.immediateFuture(mapper.readTree("{}")));
+        MonitorHandle handle = new MonitorHandle("monid");
+        client.monitor(dbSchema, requests, handle, newCallBack(new AtomicReference<>()));
+        ArgumentCaptor<Params> monitorParams = ArgumentCaptor.forClass(Params.class);
+        verify(rpc).monitor_cond(monitorParams.capture());
+        assertEquals(mapper.readTree("[[\"external_ids\",\"includes\",[\"map\",[[\"owner\",\"odl\"]]]]]"),
+                mapper.valueToTree(monitorParams.getValue().params()).get(2).get("Bridge").get("where"));
+
+        when(rpc.monitor_cond_change(any(Params.class))).thenReturn(Futures.immediateFuture(mapper.readTree("{}")));
+        MonitorRequest allBridges = new MonitorRequest("Bridge");
+        MonitorRequest ownedPorts = new MonitorRequest("Port");
+        ownedPorts.setWhere(Collections.singletonList(owned));
+        client.changeMonitorConditions(handle, Arrays.asList(allBridges, ownedPorts)).get();
+
+        ArgumentCaptor<Params> changeParams = ArgumentCaptor.forClass(Params.class);
+        verify(rpc).monitor_cond_change(changeParams.capture());
+        assertEquals(mapper.readTree("[\"monid\",\"monid\",{"
+                        + "\"Bridge\":[{\"where\":[true]}],"
+                        + "\"Port\":[{\"where\":[[\"external_ids\",\"includes\",[\"map\",[[\"owner\",\"odl\"]]]]]}]}]"),
+                mapper.valueToTree(changeParams.getValue().params()));
+    }
+
+    /**
+     * Test that monitorAsync does not wait for the server, falling back from monitor_cond_since to monitor_cond
+     * then to monitor as the replies come, and that concurrent getSchema calls share a single get_schema.
+     */
+    @Test
+    public void testMonitorAsync() throws Exception {
+        OvsdbRPC rpc = mock(OvsdbRPC.class);
+        SettableFuture<JsonNode> schemaReply = SettableFuture.create();
+        when(rpc.get_schema(any(List.class))).thenReturn(schemaReply);
+        OvsdbClientImpl client = newClient(rpc, newChannel());
+        ListenableFuture<DatabaseSchema> schema = client.getSchema(DATABASE);
+        assertSame(schema, client.getSchema(DATABASE));
+        schemaReply.set(schemaJson);
+        DatabaseSchema dbSchema = schema.get();
+        verify(rpc).get_schema(any(List.class));
+        assertSame(dbSchema, client.getSchema(DATABASE).get());
+
+        SettableFuture<JsonNode> monitorCondSinceReply = SettableFuture.create();
+        SettableFuture<JsonNode> monitorCondReply = SettableFuture.create();
+        SettableFuture<JsonNode> monitorReply = SettableFuture.create();
+        when(rpc.monitor_cond_since(any(Params.class))).thenReturn(monitorCondSinceReply);
+        when(rpc.monitor_cond(any(Params.class))).thenReturn(monitorCondReply);
+        when(rpc.monitor(any(Params.class))).thenReturn(monitorReply);
+        GenericTableSchema bridge = dbSchema.table("Bridge", GenericTableSchema.class);
+        ColumnSchema<GenericTableSchema, String> name = bridge.column("name", String.class);
+        List<MonitorRequest> requests = Collections.singletonList(
+                new MonitorRequestBuilder<>(bridge).addColumn(name).build());
+        ListenableFuture<TableUpdates> monitor = client.monitorAsync(dbSchema, requests,
+                newCallBack(new AtomicReference<>()));
+        assertFalse(monitor.isDone());
+        monitorCondSinceReply.setException(unknownMethod("monitor_cond_since"));
+        assertFalse(monitor.isDone());
+        monitorCondReply.setException(unknownMethod("monitor_cond"));
+        assertFalse(monitor.isDone());
+        monitorReply.set(mapper.readTree("{\"Bridge\":{\"" + BRIDGE1 + "\":{\"new\":{\"name\":\"br0\"}}}}"));
+        assertEquals("br0", monitor.get().getUpdate(bridge).getNew(BRIDGE1).getColumn(name).getData());
+    }
+
+    /**
+     * Test that a monitor_cond the server rejects, such as for a bad condition, fails that monitor only, the
+     * next monitors still being conditional.
+     */
+    @Test
+    public void testRejectedMonitorCondition() throws Exception {
+        OvsdbRPC rpc = newRpc();
+        OvsdbClientImpl client = newClient(rpc, newChannel());
+        DatabaseSchema dbSchema = client.getSchema(DATABASE).get();
+        GenericTableSchema bridge = dbSchema.table("Bridge", GenericTableSchema.class);
+        List<MonitorRequest> requests = Collections.singletonList(
+                new MonitorRequestBuilder<>(bridge).addColumn("name").build());
+        when(rpc.monitor_cond_since(any(Params.class))).thenReturn(Futures.immediateFailedFuture(
+                unknownMethod("monitor_cond_since")));
+        JsonRpcErrorException rejected = new JsonRpcErrorException("monitor_cond",
+                mapper.readTree("{\"error\":\"syntax error\",\"details\":\"bad condition\"}"));
+        when(rpc.monitor_cond(any(Params.class))).thenReturn(Futures.immediateFailedFuture(rejected));
+
+        try {
+            client.monitorAsync(dbSchema, requests, newCallBack(new AtomicReference<>())).get();
+            throw new AssertionError("The monitor should have failed");
+        } catch (ExecutionException e) {
+            assertSame(rejected, e.getCause());
+        }
+        verify(rpc, never()).monitor(any(Params.class));
+
+        when(rpc.monitor_cond(any(Params.class))).thenReturn(Futures.immediateFuture(mapper.readTree("{}")));
+        assertNotNull(client.monitorAsync(dbSchema, requests, newCallBack(new AtomicReference<>())).get());
+        verify(rpc, times(2)).monitor_cond(any(Params.class));
+        verify(rpc, never()).monitor(any(Params.class));
+    }
+
+    /**
+     * Makes the server answer the selects of monitor state probes with the rows it holds among the given ones.
+     */
+    private void answerProbes(OvsdbRPC rpc, UUID... uuids) {
+        List<UUID> held = Arrays.asList(uuids);
+        when(rpc.transact(any(TransactBuilder.class))).thenAnswer(invocation -> {
+            List<JsonNode> results = new ArrayList<>();
+            for (Operation operation : ((TransactBuilder) invocation.getArguments()[0]).getRequests()) {
+                Object probed = ((Select<?>) operation).getWhere().get(0).getValue();
+                results.add(mapper.readTree(held.contains(probed)
+                        ? "{\"rows\":[{\"_uuid\":[\"uuid\",\"" + probed + "\"]}]}" : "{\"rows\":[]}"));
+            }
+            return Futures.immediateFuture(results);
+        });
+    }
+
+    private JsonRpcErrorException unknownMethod(String method) {
+        return new JsonRpcErrorException(method, mapper.getNodeFactory().textNode("unknown method"));
+    }
+
+    private OvsdbRPC newRpc() {
+        OvsdbRPC rpc = mock(OvsdbRPC.class);
+        when(rpc.get_schema(any(List.class))).thenReturn(Futures.immediateFuture(schemaJson));
+        return rpc;
+    }
+
+    private static Channel newChannel() {
+        Channel channel = mock(Channel.class);
+        ChannelFuture closeFuture = mock(ChannelFuture.class);
+        when(channel.closeFuture()).thenReturn(closeFuture);
+        when(channel.remoteAddress()).thenReturn(new InetSocketAddress(InetAddress.getLoopbackAddress(), 40000));
+        return channel;
+    }
+
+    private static OvsdbClientImpl newClient(OvsdbRPC rpc, Channel channel) {
+        OvsdbClientImpl client = new OvsdbClientImpl(rpc, channel, ConnectionType.PASSIVE,
+                SocketConnectionType.NON_SSL);
+        client.setConditionalMonitoring(true);
+        return client;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void closeChannel(Channel channel) throws Exception {
+        ArgumentCaptor<GenericFutureListener> listener = ArgumentCaptor.forClass(GenericFutureListener.class);
+        verify(channel.closeFuture()).addListener(listener.capture());
+        listener.getValue().operationComplete(channel.closeFuture());
+    }
+
+    private static MonitorCallBack newCallBack(AtomicReference<TableUpdates> notified) {
+        return new MonitorCallBack() {
+            @Override
+            public void update(TableUpdates result, DatabaseSchema dbSchema) {
+                assertNotNull(dbSchema);
+                notified.set(result);
+            }
+
+            @Override
+            public void exception(Throwable throwable) {
+            }
+        };
+    }
+}
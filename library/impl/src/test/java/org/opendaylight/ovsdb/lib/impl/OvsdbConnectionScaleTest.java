@@ -0,0 +1,105 @@
+/*
+ * Copyright © 2018 Red Hat, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.ovsdb.lib.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.group.ChannelGroup;
+import io.netty.channel.group.DefaultChannelGroup;
+import io.netty.util.concurrent.GlobalEventExecutor;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Opens a number of loopback connections through the configured transport and reports the connection
+ * latency, the number of threads and the heap they cost. The number of connections defaults to 200 and
+ * can be raised with -Dovsdb.scale.connections, the transport is picked with -Dovsdb.scale.transport.
+ */
+public class OvsdbConnectionScaleTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(OvsdbConnectionScaleTest.class);
+
+    private final int connections = Integer.getInteger("ovsdb.scale.connections", 200);
+    private OvsdbTransport transport;
+    private EventLoopGroup bossGroup;
+    private ChannelGroup channels;
+
+    @Before
+    public void setUp() {
+        transport = OvsdbTransport.create(System.getProperty("ovsdb.scale.transport", OvsdbTransport.AUTO), 4);
+        bossGroup = transport.newBossGroup();
+        channels = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        channels.close().await(10, TimeUnit.SECONDS);
+        bossGroup.shutdownGracefully();
+        transport.close();
+    }
+
+    @Test
+    public void testConnections() throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        int threadsBefore = threads.getThreadCount();
+        long heapBefore = memory.getHeapMemoryUsage().getUsed();
+
+        CountDownLatch accepted = new CountDownLatch(connections);
+        Channel server = new ServerBootstrap()
+                .group(bossGroup, transport.getWorkerGroup())
+                .channel(transport.getServerChannelClass())
+                .childHandler(new ChannelInboundHandlerAdapter() {
+                    @Override
+                    public void channelActive(ChannelHandlerContext ctx) {
+                        channels.add(ctx.channel());
+                        accepted.countDown();
+                    }
+                })
+                .bind(InetAddress.getLoopbackAddress(), 0).sync().channel();
+        channels.add(server);
+        int port = ((InetSocketAddress) server.localAddress()).getPort();
+
+        Bootstrap bootstrap = new Bootstrap()
+                .group(transport.getWorkerGroup())
+                .channel(transport.getChannelClass())
+                .handler(new ChannelInboundHandlerAdapter());
+        long maxConnectNanos = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < connections; i++) {
+            long connectStart = System.nanoTime();
+            channels.add(bootstrap.connect(InetAddress.getLoopbackAddress(), port).sync().channel());
+            maxConnectNanos = Math.max(maxConnectNanos, System.nanoTime() - connectStart);
+        }
+        assertTrue(accepted.await(30, TimeUnit.SECONDS));
+        long elapsed = System.nanoTime() - start;
+
+        assertEquals(2 * connections + 1, channels.size());
+        LOG.info("{} transport: {} connections in {} ms (max {} us), {} additional threads, {} KiB heap",
+                transport.getType(), connections, TimeUnit.NANOSECONDS.toMillis(elapsed),
+                TimeUnit.NANOSECONDS.toMicros(maxConnectNanos), threads.getThreadCount() - threadsBefore,
+                (memory.getHeapMemoryUsage().getUsed() - heapBefore) / 1024);
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright © 2018 Red Hat, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.ovsdb.lib.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Test;
+import org.opendaylight.ovsdb.lib.notation.Version;
+import org.opendaylight.ovsdb.lib.operations.Comment;
+import org.opendaylight.ovsdb.lib.operations.Operation;
+import org.opendaylight.ovsdb.lib.operations.OperationResult;
+import org.opendaylight.ovsdb.lib.schema.DatabaseSchema;
+
+/**
+ * Test class for {@link TransactCoalescer}.
+ */
+public class TransactCoalescerTest {
+
+    private static final DatabaseSchema DB_SCHEMA = new DatabaseSchema("Open_vSwitch", Version.NULL,
+            Collections.emptyMap());
+    private static final String FAILING = "failing";
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final List<List<Operation>> sent = Collections.synchronizedList(new ArrayList<>());
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void testMerge() throws Exception {
+        TransactCoalescer coalescer = new TransactCoalescer(this::reply, scheduler, TimeUnit.SECONDS.toMicros(1));
+        ListenableFuture<List<OperationResult>> first = coalescer.transact(DB_SCHEMA, comments("a", "b"));
+        ListenableFuture<List<OperationResult>> second = coalescer.transact(DB_SCHEMA, comments("c"));
+        assertFalse(first.isDone());
+
+        assertEquals(Arrays.asList("a", "b"), details(first.get()));
+        assertEquals(Collections.singletonList("c"), details(second.get()));
+        assertEquals(1, sent.size());
+        assertEquals(3, sent.get(0).size());
+    }
+
+    @Test
+    public void testFailureIsolation() throws Exception {
+        TransactCoalescer coalescer = new TransactCoalescer(this::reply, scheduler, 1000);
+        ListenableFuture<List<OperationResult>> first = coalescer.transact(DB_SCHEMA, comments("a"));
+        ListenableFuture<List<OperationResult>> failing = coalescer.transact(DB_SCHEMA, comments(FAILING, "b"));
+        ListenableFuture<List<OperationResult>> third = coalescer.transact(DB_SCHEMA, comments("c"));
+
+        assertEquals(Collections.singletonList("a"), details(first.get()));
+        assertEquals(FAILING, failing.get().get(0).getError());
+        assertNull(failing.get().get(1).getError());
+        assertEquals(Collections.singletonList("c"), details(third.get()));
+        // The merged transaction, then each transaction on its own
+        assertEquals(4, sent.size());
+    }
+
+    @Test
+    public void testFallbackOrder() throws Exception {
+        List<SettableFuture<List<OperationResult>>> replies = Collections.synchronizedList(new ArrayList<>());
+        TransactCoalescer coalescer = new TransactCoalescer((dbSchema, operations) -> {
+            sent.add(operations);
+            SettableFuture<List<OperationResult>> reply = SettableFuture.create();
+            replies.add(reply);
+            return reply;
+        }, scheduler, 1000);
+        coalescer.transact(DB_SCHEMA, comments("a"));
+        coalescer.transact(DB_SCHEMA, comments(FAILING));
+        awaitWindow();
+        ListenableFuture<List<OperationResult>> later = coalescer.transact(DB_SCHEMA, comments("b"));
+        awaitWindow();
+        // The later window waits for the result of the merged transaction
+        assertEquals(1, sent.size());
+
+        replies.get(0).set(results(sent.get(0)));
+        // The failed transactions are sent again before the later window
+        assertEquals(4, sent.size());
+        assertEquals(Collections.singletonList("a"), commentsOf(sent.get(1)));
+        assertEquals(Collections.singletonList(FAILING), commentsOf(sent.get(2)));
+        assertEquals(Collections.singletonList("b"), commentsOf(sent.get(3)));
+        replies.get(3).set(results(sent.get(3)));
+        assertEquals(Collections.singletonList("b"), details(later.get()));
+    }
+
+    @Test
+    public void testRequestFailure() throws Exception {
+        IOException failure = new IOException("disconnected");
+        TransactCoalescer coalescer = new TransactCoalescer((dbSchema, operations) -> {
+            sent.add(operations);
+            return Futures.immediateFailedFuture(failure);
+        }, scheduler, 1000);
+        List<ListenableFuture<List<OperationResult>>> results = Arrays.asList(
+                coalescer.transact(DB_SCHEMA, comments("a")), coalescer.transact(DB_SCHEMA, comments("b")));
+        for (ListenableFuture<List<OperationResult>> result : results) {
+            try {
+                result.get();
+                throw new AssertionError("The transaction should have failed");
+            } catch (ExecutionException e) {
+                assertSame(failure, e.getCause());
+            }
+        }
+        assertEquals(1, sent.size());
+    }
+
+    /**
+     * Replies to a transaction with a result per operation holding the comment of the operation in its
+     * details, or an error if the comment is {@link #FAILING}, the next operations then not being run.
+     */
+    private ListenableFuture<List<OperationResult>> reply(DatabaseSchema dbSchema, List<Operation> operations) {
+        sent.add(operations);
+        return Futures.immediateFuture(results(operations));
+    }
+
+    private static List<OperationResult> results(List<Operation> operations) {
+        List<OperationResult> results = new ArrayList<>();
+        boolean failed = false;
+        for (Operation operation : operations) {
+            OperationResult result = new OperationResult();
+            String comment = ((Comment) operation).getComment();
+            if (!failed) {
+                if (FAILING.equals(comment)) {
+                    result.setError(comment);
+                    failed = true;
+                } else {
+                    result.setDetails(comment);
+                }
+            }
+            results.add(result);
+        }
+        return results;
+    }
+
+    private static List<Operation> comments(String... comments) {
+        List<Operation> operations = new ArrayList<>();
+        for (String comment : comments) {
+            operations.add(new Comment(comment));
+        }
+        return operations;
+    }
+
+    /**
+     * Waits for the windows open so far to end.
+     */
+    private void awaitWindow() throws Exception {
+        scheduler.schedule(() -> { }, 2, TimeUnit.MILLISECONDS).get();
+    }
+
+    private static List<String> commentsOf(List<Operation> operations) {
+        List<String> comments = new ArrayList<>();
+        for (Operation operation : operations) {
+            comments.add(((Comment) operation).getComment());
+        }
+        return comments;
+    }
+
+    private static List<String> details(List<OperationResult> results) {
+        List<String> details = new ArrayList<>();
+        for (OperationResult result : results) {
+            assertNull(result.getError());
+            details.add(result.getDetails());
+        }
+        return details;
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright © 2018 Red Hat, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.ovsdb.lib.jsonrpc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.CharsetUtil;
+import java.util.Collections;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.ovsdb.lib.message.OvsdbRPC;
+
+public class JsonRpcEncoderTest {
+
+    ObjectMapper mapper;
+    EmbeddedChannel ch;
+
+    @Before
+    public void setUp() {
+        mapper = new ObjectMapper().setSerializationInclusion(Include.NON_NULL);
+        ch = new EmbeddedChannel(new JsonRpcEncoder(mapper));
+    }
+
+    /**
+     * Test that a request is serialized straight into the outbound buffer.
+     */
+    @Test
+    public void testEncodeRequest() throws Exception {
+        JsonRpc10Request request = new JsonRpc10Request("1");
+        request.setMethod("list_dbs");
+        request.setParams(Collections.emptyList());
+        ch.writeOutbound(request);
+
+        JsonNode encoded = readOutbound();
+        assertEquals("1", encoded.get("id").asText());
+        assertEquals("list_dbs", encoded.get("method").asText());
+        assertEquals(0, encoded.get("params").size());
+        ch.finish();
+    }
+
+    /**
+     * Test that requests issued within one event loop iteration are written with a single flush.
+     */
+    @Test
+    public void testRequestsShareFlush() throws Exception {
+        JsonRpcEndpoint endpoint = new JsonRpcEndpoint(mapper, ch);
+        OvsdbRPC rpc = endpoint.getClient(ch, OvsdbRPC.class);
+        rpc.echo();
+        rpc.echo();
+        rpc.list_dbs();
+        assertNull(ch.readOutbound());
+
+        ch.runPendingTasks();
+        assertEquals("echo", readOutbound().get("method").asText());
+        assertEquals("echo", readOutbound().get("method").asText());
+        assertEquals("list_dbs", readOutbound().get("method").asText());
+        assertEquals(3, endpoint.getWrittenMessages());
+        assertEquals(1, endpoint.getFlushes());
+        assertEquals(3.0, endpoint.getMessagesPerFlush(), 0);
+        ch.finish();
+    }
+
+    private JsonNode readOutbound() throws Exception {
+        ByteBuf buf = ch.readOutbound();
+        try {
+            return mapper.readTree(buf.toString(CharsetUtil.UTF_8));
+        } finally {
+            buf.release();
+        }
+    }
+}
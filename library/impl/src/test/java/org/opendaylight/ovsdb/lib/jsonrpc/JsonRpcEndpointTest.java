@@ -0,0 +1,194 @@
+/*
+ * Copyright © 2018 Red Hat, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.ovsdb.lib.jsonrpc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.util.concurrent.ListenableFuture;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.CharsetUtil;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.ovsdb.lib.error.JsonRpcErrorException;
+import org.opendaylight.ovsdb.lib.message.OvsdbRPC;
+import org.opendaylight.ovsdb.lib.message.UpdateNotification;
+
+public class JsonRpcEndpointTest {
+
+    ObjectMapper mapper;
+    EmbeddedChannel ch;
+    JsonRpcEndpoint endpoint;
+    OvsdbRPC rpc;
+
+    @Before
+    public void setUp() {
+        mapper = new ObjectMapper();
+        ch = new EmbeddedChannel(new JsonRpcEncoder(mapper));
+        endpoint = new JsonRpcEndpoint(mapper, ch);
+        rpc = endpoint.getClient(ch, OvsdbRPC.class);
+    }
+
+    @After
+    public void tearDown() {
+        JsonRpcTimeouts.setMethodTimeout("echo", 0);
+        ch.finishAndReleaseAll();
+    }
+
+    /**
+     * Test that a request without a response is cancelled once its method deadline expires and that
+     * the expiry is accounted for, while a request that does get its response is left alone.
+     */
+    @Test
+    public void testRequestTimeout() throws Exception {
+        JsonRpcTimeouts.setMethodTimeout("echo", 50);
+        long expiredBefore = JsonRpcTimeouts.getExpiredRequests().getOrDefault("echo", 0L);
+
+        ListenableFuture<List<String>> unanswered = rpc.echo();
+        ListenableFuture<List<String>> answered = rpc.list_dbs();
+        String answeredId = endpoint.getMethodContext().entrySet().stream()
+                .filter(entry -> entry.getValue().getMethod().getName().equals("list_dbs"))
+                .findFirst().get().getKey();
+        endpoint.processResult(mapper.readTree("{\"id\":\"" + answeredId + "\",\"result\":[\"db\"],\"error\":null}"));
+
+        try {
+            unanswered.get(5, TimeUnit.SECONDS);
+        } catch (CancellationException e) {
+            // expected
+        }
+        assertTrue(unanswered.isCancelled());
+        assertFalse(answered.isCancelled());
+        assertEquals("db", answered.get().get(0));
+        assertTrue(endpoint.getMethodContext().isEmpty());
+        assertEquals(1, endpoint.getExpiredRequests());
+        assertEquals(expiredBefore + 1, (long) JsonRpcTimeouts.getExpiredRequests().get("echo"));
+    }
+
+    /**
+     * Test that deadlines are still tracked once the timer was closed, as when the library is restarted.
+     */
+    @Test
+    public void testRequestTimeoutAfterClose() throws Exception {
+        JsonRpcTimeouts.close();
+        JsonRpcTimeouts.setMethodTimeout("echo", 50);
+        ListenableFuture<List<String>> unanswered = rpc.echo();
+        try {
+            unanswered.get(5, TimeUnit.SECONDS);
+        } catch (CancellationException e) {
+            // expected
+        }
+        assertTrue(unanswered.isCancelled());
+    }
+
+    /**
+     * Test that in numeric id mode requests carry increasing JSON numbers as ids and that responses are
+     * matched on them.
+     */
+    @Test
+    public void testNumericIds() throws Exception {
+        endpoint = new JsonRpcEndpoint(mapper, ch, true);
+        rpc = endpoint.getClient(ch, OvsdbRPC.class);
+        ListenableFuture<List<String>> first = rpc.echo();
+        ListenableFuture<List<String>> second = rpc.list_dbs();
+        ch.runPendingTasks();
+
+        JsonNode firstRequest = readOutbound();
+        JsonNode secondRequest = readOutbound();
+        assertTrue(firstRequest.get("id").isIntegralNumber());
+        assertEquals(firstRequest.get("id").longValue() + 1, secondRequest.get("id").longValue());
+        assertEquals(2, endpoint.getMethodContext().size());
+
+        endpoint.processResult(mapper.readTree("{\"id\":" + secondRequest.get("id") + ",\"result\":[\"db\"]}"));
+        assertEquals("db", second.get().get(0));
+        assertFalse(first.isDone());
+        assertEquals(1, endpoint.getMethodContext().size());
+    }
+
+    /**
+     * Test that the error answering a method reporting its errors fails its future, while the other methods get
+     * a null result.
+     */
+    @Test
+    public void testErrorReporting() throws Exception {
+        endpoint = new JsonRpcEndpoint(mapper, ch, true);
+        rpc = endpoint.getClient(ch, OvsdbRPC.class);
+        ListenableFuture<JsonNode> monitorCond = rpc.monitor_cond(Collections::emptyList);
+        ListenableFuture<List<String>> listDbs = rpc.list_dbs();
+        ch.runPendingTasks();
+
+        JsonNode monitorCondRequest = readOutbound();
+        JsonNode listDbsRequest = readOutbound();
+        endpoint.processResult(mapper.readTree("{\"id\":" + monitorCondRequest.get("id")
+                + ",\"result\":null,\"error\":\"unknown method\"}"));
+        endpoint.processResult(mapper.readTree("{\"id\":" + listDbsRequest.get("id")
+                + ",\"result\":null,\"error\":\"unknown method\"}"));
+        try {
+            monitorCond.get();
+            throw new AssertionError("monitor_cond should have failed");
+        } catch (ExecutionException e) {
+            assertTrue(((JsonRpcErrorException) e.getCause()).isUnknownMethod());
+        }
+        assertNull(listDbs.get());
+    }
+
+    /**
+     * Test that notifications reach the registered callback through its precomputed dispatch table.
+     */
+    @Test
+    public void testCallbackDispatch() throws Exception {
+        AtomicInteger locked = new AtomicInteger();
+        AtomicInteger updates = new AtomicInteger();
+        rpc.registerCallback(new OvsdbRPC.Callback() {
+            @Override
+            public void update(Object context, UpdateNotification updateNotification) {
+                assertEquals("monid", updateNotification.getContext());
+                updates.incrementAndGet();
+            }
+
+            @Override
+            public void locked(Object context, List<String> ids) {
+                assertEquals("lock0", ids.get(0));
+                locked.incrementAndGet();
+            }
+
+            @Override
+            public void stolen(Object context, List<String> ids) {
+            }
+        });
+        JsonNode lockedJson = mapper.readTree("{\"id\":null,\"method\":\"locked\",\"params\":[\"lock0\"]}");
+        JsonNode updateJson = mapper.readTree("{\"id\":null,\"method\":\"update\",\"params\":[\"monid\",{}]}");
+
+        endpoint.processRequest(ch, lockedJson);
+        endpoint.processRequest(ch, lockedJson);
+        endpoint.processRequest(ch, updateJson);
+
+        assertEquals(2, locked.get());
+        assertEquals(1, updates.get());
+    }
+
+    private JsonNode readOutbound() throws Exception {
+        ByteBuf buf = ch.readOutbound();
+        try {
+            return mapper.readTree(buf.toString(CharsetUtil.UTF_8));
+        } finally {
+            buf.release();
+        }
+    }
+}
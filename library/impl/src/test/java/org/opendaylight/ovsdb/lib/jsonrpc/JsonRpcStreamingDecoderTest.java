@@ -0,0 +1,171 @@
+/*
+ * Copyright © 2018 Red Hat, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.ovsdb.lib.jsonrpc;
+
+import static io.netty.buffer.Unpooled.copiedBuffer;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.io.Resources;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.DecoderException;
+import io.netty.util.CharsetUtil;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+public class JsonRpcStreamingDecoderTest {
+
+    static final String PREAMBLE = "                    ";
+    static final String PARTIAL_START = "{\"foo\":";
+    static final String PARTIAL_END = "{\"bar\":\"baz\"}}";
+
+    String testJson;
+    String prettyTestJson;
+    String monitorJson;
+
+    JsonRpcStreamingDecoder decoder;
+    EmbeddedChannel ch;
+
+    @Before
+    public void setUp() throws Exception {
+        decoder = new JsonRpcStreamingDecoder(1000);
+        ch = new EmbeddedChannel(decoder);
+
+        URL testJsonUrl = Resources.getResource(JsonRpcDecoderTest.class, "test.json");
+        testJson = Resources.toString(testJsonUrl, StandardCharsets.UTF_8);
+        URL prettyTestJsoUrl = Resources.getResource(JsonRpcDecoderTest.class, "pretty-test.json");
+        prettyTestJson = Resources.toString(prettyTestJsoUrl, StandardCharsets.UTF_8);
+        URL monitorJsonUrl = Resources.getResource(JsonRpcStreamingDecoderTest.class,
+                "/org/opendaylight/ovsdb/lib/message/monitor_response1.json");
+        monitorJson = Resources.toString(monitorJsonUrl, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Test decoding the Stringified Json text in test.json to
+     * individual Json node objects.
+     */
+    @Test
+    public void testDecode() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            ch.writeInbound(copiedBuffer(testJson, CharsetUtil.UTF_8));
+        }
+        ch.readInbound();
+        assertEquals(10, decoder.getRecordsRead());
+        ch.finish();
+    }
+
+    /**
+     * Test decoding the Stringified Json text in pretty-test.json to
+     * individual Json node objects.
+     */
+    @Test
+    public void testDecodePrettyJson() throws Exception {
+        ch.writeInbound(copiedBuffer(prettyTestJson, CharsetUtil.UTF_8));
+        ch.readInbound();
+        assertEquals(1, decoder.getRecordsRead());
+        ch.finish();
+    }
+
+    /**
+     * Test decoding the Stringified Json text with large spaces to
+     * individual Json node objects.
+     */
+    @Test
+    public void testDecodeSkipSpaces() throws Exception {
+        ch.writeInbound(copiedBuffer(PREAMBLE + testJson + PREAMBLE + testJson, CharsetUtil.UTF_8));
+        ch.readInbound();
+        assertEquals(2, decoder.getRecordsRead());
+        ch.finish();
+    }
+
+    /**
+     * Test whether phased decoding is allowed by writing Json string over
+     * two separate iterations, and checking if the decoder collates the
+     * record appropriately.
+     */
+    @Test
+    public void testDecodePartial() throws Exception {
+        ch.writeInbound(copiedBuffer(PARTIAL_START, CharsetUtil.UTF_8));
+        assertNull(ch.readInbound());
+        ch.writeInbound(copiedBuffer(PARTIAL_END, CharsetUtil.UTF_8));
+        JsonNode node = ch.readInbound();
+        assertEquals("baz", node.get("foo").get("bar").asText());
+        assertEquals(1, decoder.getRecordsRead());
+        ch.finish();
+    }
+
+    /**
+     * Test that a record delivered one byte at a time, with tokens split at every
+     * possible boundary, decodes to the same tree as the brace-counting decoder.
+     */
+    @Test
+    public void testDecodeByteByByte() throws Exception {
+        byte[] bytes = monitorJson.getBytes(StandardCharsets.UTF_8);
+        for (byte value : bytes) {
+            ch.writeInbound(copiedBuffer(new byte[] {value}));
+        }
+        JsonNode streamed = ch.readInbound();
+        assertEquals(decodeAll(new JsonRpcDecoder(100000), monitorJson, 1).get(0), streamed);
+        ch.finish();
+    }
+
+    /**
+     * Test whether decoder throws appropriate DecoderException when
+     * passing a Json string using an unsupported (i.e., UTF-16)
+     * character set.
+     */
+    @Test(expected = DecoderException.class)
+    public void testDecodeInvalidEncoding() throws Exception {
+        ch.writeInbound(copiedBuffer(testJson, CharsetUtil.UTF_16));
+        ch.finish();
+    }
+
+    /**
+     * Compare the streaming decoder against the brace-counting decoder on a stream of
+     * monitor replies split across segments: both must produce identical trees.
+     */
+    @Test
+    public void testCompareWithBraceCountingDecoder() throws Exception {
+        final int records = 50;
+        StringBuilder stream = new StringBuilder();
+        for (int i = 0; i < records; i++) {
+            stream.append(monitorJson);
+        }
+        String payload = stream.toString();
+
+        assertEquals(decodeAll(new JsonRpcDecoder(Integer.MAX_VALUE), payload, records),
+                decodeAll(new JsonRpcStreamingDecoder(Integer.MAX_VALUE), payload, records));
+    }
+
+    /**
+     * Feeds the payload in 1500 byte segments, as it would typically arrive from the socket.
+     */
+    private static List<JsonNode> decodeAll(ChannelHandler decoder, String payload, int expected) {
+        EmbeddedChannel channel = new EmbeddedChannel(decoder);
+        ByteBuf bytes = copiedBuffer(payload, CharsetUtil.UTF_8);
+        while (bytes.isReadable()) {
+            channel.writeInbound(bytes.readRetainedSlice(Math.min(1500, bytes.readableBytes())));
+        }
+        bytes.release();
+        List<JsonNode> nodes = new ArrayList<>(expected);
+        JsonNode node;
+        while ((node = channel.readInbound()) != null) {
+            nodes.add(node);
+        }
+        channel.finish();
+        assertEquals(expected, nodes.size());
+        return nodes;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright © 2018 Red Hat, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.ovsdb.lib.notation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableMap;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+import org.opendaylight.ovsdb.lib.schema.ColumnType;
+
+/**
+ * Test class for {@link ImmutableOvsdbMap}.
+ */
+public class ImmutableOvsdbMapTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    public void testVariants() {
+        assertSame(OvsdbMap.immutableCopyOf(Collections.emptyMap()), OvsdbMap.immutableCopyOf(new HashMap<>()));
+        assertEquals("Singleton", OvsdbMap.immutableCopyOf(ImmutableMap.of("a", "1")).getClass().getSimpleName());
+        assertEquals("Small", OvsdbMap.immutableCopyOf(ImmutableMap.of("a", "1", "b", "2")).getClass()
+                .getSimpleName());
+        assertEquals("Hash", OvsdbMap.immutableCopyOf(pairs(ImmutableOvsdbSet.SMALL_SIZE + 1)).getClass()
+                .getSimpleName());
+    }
+
+    @Test
+    public void testEquality() {
+        for (int size : new int[] {0, 1, 3, ImmutableOvsdbSet.SMALL_SIZE + 1}) {
+            Map<String, String> pairs = pairs(size);
+            OvsdbMap<String, String> map = OvsdbMap.immutableCopyOf(pairs);
+            OvsdbMap<String, String> mutable = OvsdbMap.fromMap(pairs);
+            assertEquals(mutable, map);
+            assertEquals(map, mutable);
+            assertEquals(pairs, map);
+            assertEquals(map, ImmutableMap.copyOf(pairs));
+            assertEquals(mutable.hashCode(), map.hashCode());
+            assertEquals(size, map.size());
+            assertEquals(pairs.keySet(), map.keySet());
+            assertEquals(pairs.entrySet(), map.entrySet());
+            for (Map.Entry<String, String> pair : pairs.entrySet()) {
+                assertTrue(map.containsKey(pair.getKey()));
+                assertTrue(map.containsValue(pair.getValue()));
+                assertEquals(pair.getValue(), map.get(pair.getKey()));
+            }
+            assertFalse(map.containsKey("z"));
+            assertNull(map.get("z"));
+            assertNotEquals(map, OvsdbMap.immutableCopyOf(Collections.singletonMap("z", "0")));
+        }
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testImmutable() {
+        OvsdbMap.immutableCopyOf(ImmutableMap.of("a", "1", "b", "2")).put("c", "3");
+    }
+
+    @Test
+    public void testDecoded() throws IOException {
+        ColumnType.KeyValuedColumnType type = new ColumnType.KeyValuedColumnType().fromJsonNode(
+                mapper.readTree("{\"key\": \"string\", \"value\": \"string\", \"min\": 0, \"max\": \"unlimited\"}"));
+        Object value = type.valueFromJson(mapper.readTree("[\"map\", [[\"a\", \"1\"], [\"b\", \"2\"]]]"));
+        assertTrue(value instanceof ImmutableOvsdbMap);
+        assertEquals(ImmutableMap.of("a", "1", "b", "2"), value);
+        assertEquals("[\"map\",[[\"a\",\"1\"],[\"b\",\"2\"]]]", mapper.writeValueAsString(value));
+
+        Object applied = type.applyDiff(value, OvsdbMap.immutableCopyOf(ImmutableMap.of("a", "1", "b", "3")));
+        assertTrue(applied instanceof ImmutableOvsdbMap);
+        assertEquals(ImmutableMap.of("b", "3"), applied);
+    }
+
+    private static Map<String, String> pairs(int size) {
+        Map<String, String> pairs = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            pairs.put("key" + i, "value" + i);
+        }
+        return pairs;
+    }
+}
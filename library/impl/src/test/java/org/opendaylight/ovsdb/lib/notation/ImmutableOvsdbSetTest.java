@@ -0,0 +1,101 @@
+/*
+ * Copyright © 2018 Red Hat, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.ovsdb.lib.notation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableSet;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.Test;
+import org.opendaylight.ovsdb.lib.schema.ColumnType;
+
+/**
+ * Test class for {@link ImmutableOvsdbSet}.
+ */
+public class ImmutableOvsdbSetTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    public void testVariants() {
+        assertSame(OvsdbSet.immutableCopyOf(Collections.emptySet()), OvsdbSet.immutableCopyOf(new ArrayList<>()));
+        assertEquals("Singleton", OvsdbSet.immutableCopyOf(Arrays.asList("a", "a")).getClass().getSimpleName());
+        assertEquals("Small", OvsdbSet.immutableCopyOf(Arrays.asList("a", "b", "a")).getClass().getSimpleName());
+
+        List<Integer> elements = new ArrayList<>();
+        for (int i = 0; i <= ImmutableOvsdbSet.SMALL_SIZE; i++) {
+            elements.add(i);
+        }
+        assertEquals("Hash", OvsdbSet.immutableCopyOf(elements).getClass().getSimpleName());
+        elements.add(0);
+        assertEquals(ImmutableOvsdbSet.SMALL_SIZE + 1, OvsdbSet.immutableCopyOf(elements).size());
+    }
+
+    @Test
+    public void testEquality() {
+        for (List<String> elements : Arrays.asList(Collections.<String>emptyList(), Arrays.asList("a"),
+                Arrays.asList("a", "b", "c"), Arrays.asList("a", "b", "c", "d", "e", "f", "g", "h", "i", "j"))) {
+            OvsdbSet<String> set = OvsdbSet.immutableCopyOf(elements);
+            OvsdbSet<String> mutable = new OvsdbSet<>(new HashSet<>(elements));
+            assertEquals(mutable, set);
+            assertEquals(set, mutable);
+            assertEquals(new HashSet<>(elements), set);
+            assertEquals(set, ImmutableSet.copyOf(elements));
+            assertEquals(mutable.hashCode(), set.hashCode());
+            assertEquals(elements.size(), set.size());
+            assertEquals(elements.isEmpty(), set.isEmpty());
+            for (String element : elements) {
+                assertTrue(set.contains(element));
+            }
+            assertFalse(set.contains("z"));
+            assertTrue(set.containsAll(elements));
+            assertEquals(new HashSet<>(elements), new HashSet<>(Arrays.asList(set.toArray(new String[0]))));
+            assertNotEquals(set, OvsdbSet.immutableCopyOf(Collections.singleton("z")));
+        }
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testImmutable() {
+        OvsdbSet.immutableCopyOf(Collections.singleton("a")).add("b");
+    }
+
+    @Test
+    public void testNullElement() {
+        Set<Object> set = OvsdbSet.immutableCopyOf(Arrays.asList(null, "a"));
+        assertTrue(set.contains(null));
+        assertEquals(new HashSet<>(Arrays.asList(null, "a")), set);
+    }
+
+    @Test
+    public void testDecoded() throws IOException {
+        ColumnType.AtomicColumnType type = new ColumnType.AtomicColumnType().fromJsonNode(
+                mapper.readTree("{\"key\": \"string\", \"min\": 0, \"max\": \"unlimited\"}"));
+        Object value = type.valueFromJson(mapper.readTree("[\"set\", [\"a\", \"b\"]]"));
+        assertTrue(value instanceof ImmutableOvsdbSet);
+        assertEquals(ImmutableSet.of("a", "b"), value);
+        assertSame(OvsdbSet.immutableCopyOf(Collections.emptySet()),
+                type.valueFromJson(mapper.readTree("[\"set\", []]")));
+        assertEquals("[\"set\",[\"a\",\"b\"]]", mapper.writeValueAsString(value));
+
+        Object applied = type.applyDiff(value, OvsdbSet.immutableCopyOf(ImmutableSet.of("b", "c")));
+        assertTrue(applied instanceof ImmutableOvsdbSet);
+        assertEquals(ImmutableSet.of("a", "c"), applied);
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright © 2018 Red Hat, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.ovsdb.lib.notation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.ovsdb.lib.schema.ColumnSchema;
+import org.opendaylight.ovsdb.lib.schema.GenericTableSchema;
+
+/**
+ * Test class for {@link Row}.
+ */
+public class RowTest {
+
+    private static final String TABLE = "{\"columns\": {"
+            + "\"name\": {\"type\": \"string\"},"
+            + "\"tag\": {\"type\": \"integer\"},"
+            + "\"enabled\": {\"type\": \"boolean\"},"
+            + "\"ports\": {\"type\": {\"key\": \"uuid\", \"min\": 0, \"max\": \"unlimited\"}},"
+            + "\"external_ids\": {\"type\": {\"key\": \"string\", \"value\": \"string\", \"min\": 0, "
+            + "\"max\": \"unlimited\"}},"
+            + "\"mac\": {\"type\": \"string\"}}}";
+    private static final String ROW = "{\"name\": \"br0\", \"tag\": 42, \"enabled\": true,"
+            + " \"ports\": [\"set\", [[\"uuid\", \"2f3c2bd8-8f8f-4d60-a7bb-3bb9e3d0a3a3\"]]],"
+            + " \"external_ids\": [\"map\", [[\"iface-id\", \"tap0\"]]], \"mac\": \"00:00:5e:00:53:01\"}";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private GenericTableSchema tableSchema;
+
+    @Before
+    public void setUp() throws IOException {
+        tableSchema = new GenericTableSchema().fromJson("Bridge", mapper.readTree(TABLE));
+        tableSchema.populateInternallyGeneratedColumns();
+    }
+
+    @Test
+    public void testOrdinals() {
+        assertEquals(8, tableSchema.getColumnCount());
+        for (String columnName : tableSchema.getColumns()) {
+            ColumnSchema<GenericTableSchema, ?> column = tableSchema.column(columnName);
+            assertSame(column, tableSchema.columnAt(column.getOrdinal()));
+        }
+        assertNull(tableSchema.columnAt(-1));
+        assertNull(tableSchema.columnAt(8));
+
+        // A view of the table shares its ordinals
+        GenericTableSchema view = new GenericTableSchema(tableSchema);
+        assertEquals(8, view.getColumnCount());
+        assertSame(tableSchema.column("name"), view.columnAt(tableSchema.column("name").getOrdinal()));
+    }
+
+    @Test
+    public void testColumns() throws IOException {
+        Row<GenericTableSchema> row = tableSchema.createRow((ObjectNode) mapper.readTree(ROW));
+        ColumnSchema<GenericTableSchema, String> name = tableSchema.column("name", String.class);
+        ColumnSchema<GenericTableSchema, Long> tag = tableSchema.column("tag", Long.class);
+
+        assertEquals("br0", row.getColumn(name).getData());
+        assertSame(name, row.getColumn(name).getSchema());
+        assertEquals(Long.valueOf(42), row.getColumn(tag).getData());
+        assertEquals(Boolean.TRUE, row.getColumn(tableSchema.column("enabled", Boolean.class)).getData());
+        assertNull(row.getColumn(tableSchema.column("_uuid", UUID.class)));
+        assertEquals(6, row.getColumns().size());
+
+        // Looked up by name, like the columns were before they had ordinals
+        assertEquals("br0", row.getColumn(new ColumnSchema<>("name", name.getType())).getData());
+
+        row.addColumn("name", new Column<>(name, "br1"));
+        row.addColumn(tag, null);
+        assertEquals("br1", row.getColumn(name).getData());
+        assertNotNull(row.getColumn(tag));
+        assertNull(row.getColumn(tag).getData());
+        assertEquals(6, row.getColumns().size());
+    }
+
+    @Test
+    public void testColumnsOutsideOfTheSchema() {
+        ColumnSchema<GenericTableSchema, String> hidden = new ColumnSchema<>("hidden", tableSchema.column("name")
+                .getType());
+        Row<GenericTableSchema> row = new Row<>();
+        row.addColumn("name", new Column<>(tableSchema.column("name", String.class), "br0"));
+        row.addColumn("hidden", new Column<>(hidden, "value"));
+        assertEquals("br0", row.getColumn(tableSchema.column("name", String.class)).getData());
+
+        row.setTableSchema(tableSchema);
+        assertEquals("br0", row.getColumn(tableSchema.column("name", String.class)).getData());
+        assertEquals("value", row.getColumn(hidden).getData());
+        assertEquals(2, row.getColumns().size());
+    }
+
+    @Test
+    public void testCopy() throws IOException {
+        Row<GenericTableSchema> row = tableSchema.createRow((ObjectNode) mapper.readTree(ROW));
+        Row<GenericTableSchema> copy = new Row<>(row);
+        assertEquals(row, copy);
+
+        copy.addColumn(tableSchema.column("name", String.class), "br1");
+        assertEquals("br0", row.getColumn(tableSchema.column("name", String.class)).getData());
+        assertNotEquals(row, copy);
+    }
+
+    @Test
+    public void testEqualsAndHashCode() throws IOException {
+        Row<GenericTableSchema> row = tableSchema.createRow((ObjectNode) mapper.readTree(ROW));
+        Row<GenericTableSchema> sameRow = new Row<>(tableSchema, new ArrayList<>(row.getColumns()));
+        Row<GenericTableSchema> rowWithoutSchema = new Row<>();
+        Map<String, Column<GenericTableSchema, ?>> columns = new HashMap<>();
+        for (Column<GenericTableSchema, ?> column : row.getColumns()) {
+            rowWithoutSchema.addColumn(column.getSchema().getName(), column);
+            columns.put(column.getSchema().getName(), column);
+        }
+
+        assertEquals(row, sameRow);
+        assertEquals(row, rowWithoutSchema);
+        assertEquals(rowWithoutSchema, row);
+        // Rows hash as their columns by name did
+        assertEquals(31 + columns.hashCode(), row.hashCode());
+        assertEquals(row.hashCode(), rowWithoutSchema.hashCode());
+        assertNotEquals(row, new Row<>(tableSchema));
+    }
+
+    /**
+     * A row only retains an array of the data of its columns, which it shares with the other rows of its table.
+     */
+    @Test
+    public void testFootprint() throws IOException {
+        Row<GenericTableSchema> row = tableSchema.createRow((ObjectNode) mapper.readTree(ROW));
+        Set<Object> shared = Collections.newSetFromMap(new IdentityHashMap<>());
+        shared.add(tableSchema);
+        for (Column<GenericTableSchema, ?> column : row.getColumns()) {
+            shared.add(column.getSchema());
+            shared.add(column.getData());
+        }
+
+        List<Object> retained = retained(row, shared);
+        assertEquals(2, retained.size());
+        assertSame(row, retained.get(0));
+        assertEquals(tableSchema.getColumnCount(), Array.getLength(retained.get(1)));
+
+        // The data of a row without table schema is held in columns, which the row gets rid of with the schema
+        Row<GenericTableSchema> rowWithoutSchema = new Row<>();
+        for (Column<GenericTableSchema, ?> column : row.getColumns()) {
+            rowWithoutSchema.addColumn(column.getSchema().getName(), column);
+        }
+        rowWithoutSchema.setTableSchema(tableSchema);
+        assertEquals(2, retained(rowWithoutSchema, shared).size());
+    }
+
+    /**
+     * Returns the objects reachable from the given one, besides the shared ones.
+     */
+    private static List<Object> retained(Object root, Set<Object> shared) {
+        Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<Object> retained = new ArrayList<>();
+        List<Object> pending = new ArrayList<>();
+        pending.add(root);
+        while (!pending.isEmpty()) {
+            Object object = pending.remove(0);
+            if (object == null || shared.contains(object) || !visited.add(object)) {
+                continue;
+            }
+            retained.add(object);
+            Class<?> type = object.getClass();
+            if (type.isArray()) {
+                if (!type.getComponentType().isPrimitive()) {
+                    for (int i = 0; i < Array.getLength(object); i++) {
+                        pending.add(Array.get(object, i));
+                    }
+                }
+                continue;
+            }
+            for (; type != null && type.getName().startsWith("org.opendaylight."); type = type.getSuperclass()) {
+                for (Field field : type.getDeclaredFields()) {
+                    if (!Modifier.isStatic(field.getModifiers()) && !field.getType().isPrimitive()) {
+                        field.setAccessible(true);
+                        try {
+                            pending.add(field.get(object));
+                        } catch (IllegalAccessException e) {
+                            throw new IllegalStateException(e);
+                        }
+                    }
+                }
+            }
+        }
+        return retained;
+    }
+}
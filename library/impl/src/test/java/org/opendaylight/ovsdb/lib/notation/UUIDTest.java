@@ -0,0 +1,117 @@
+/*
+ * Copyright © 2018 Red Hat, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.ovsdb.lib.notation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.Interners;
+import java.io.IOException;
+import org.junit.Test;
+import org.opendaylight.ovsdb.lib.notation.json.UUIDInterningParser;
+
+/**
+ * Test class for {@link UUID}.
+ */
+public class UUIDTest {
+
+    private static final String VALUE = "2f3c2bd8-8f8f-4d60-a7bb-3bb9e3d0a3a3";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    public void testCanonical() {
+        UUID uuid = new UUID(VALUE);
+        java.util.UUID expected = java.util.UUID.fromString(VALUE);
+        assertTrue(uuid.isCanonical());
+        assertFalse(uuid.isNamed());
+        assertEquals(expected.getMostSignificantBits(), uuid.getMostSignificantBits());
+        assertEquals(expected.getLeastSignificantBits(), uuid.getLeastSignificantBits());
+        assertEquals(VALUE, uuid.toString());
+        assertEquals(uuid, new UUID(expected.getMostSignificantBits(), expected.getLeastSignificantBits()));
+        assertEquals(uuid.hashCode(), new UUID(VALUE).hashCode());
+
+        char[] chars = ("[\"" + VALUE + "\"]").toCharArray();
+        assertEquals(uuid, UUID.fromChars(chars, 2, VALUE.length()));
+    }
+
+    @Test
+    public void testText() {
+        UUID named = new UUID("row1");
+        assertFalse(named.isCanonical());
+        assertTrue(named.isNamed());
+        assertEquals("row1", named.toString());
+        assertEquals(named, UUID.fromChars("row1".toCharArray(), 0, 4));
+
+        // Other forms of uuids keep their text, and are only equal to the UUIDs with the same text
+        UUID upperCase = new UUID(VALUE.toUpperCase());
+        assertFalse(upperCase.isCanonical());
+        assertFalse(upperCase.isNamed());
+        assertEquals(VALUE.toUpperCase(), upperCase.toString());
+        assertNotEquals(new UUID(VALUE), upperCase);
+        assertEquals(upperCase, UUID.fromChars(VALUE.toUpperCase().toCharArray(), 0, VALUE.length()));
+        assertFalse(new UUID("1-2-3-4-5").isNamed());
+        assertTrue(new UUID("1-2-3-4").isNamed());
+        assertTrue(new UUID("1-2-3-4-").isNamed());
+
+        assertNull(new UUID((String) null).toString());
+        assertEquals(new UUID((String) null), new UUID((String) null));
+        assertNotEquals(new UUID(""), new UUID((String) null));
+    }
+
+    @Test
+    public void testSerialization() throws IOException {
+        assertEquals("[\"uuid\",\"" + VALUE + "\"]", mapper.writeValueAsString(new UUID(VALUE)));
+        assertEquals("[\"named-uuid\",\"row1\"]", mapper.writeValueAsString(new UUID("row1")));
+    }
+
+    @Test
+    public void testInterning() throws IOException {
+        String json = "[\"" + VALUE + "\", \"" + VALUE + "\"]";
+        try (JsonParser parser = new UUIDInterningParser(mapper.getFactory().createParser(json),
+                Interners.newWeakInterner())) {
+            assertEquals(JsonToken.START_ARRAY, parser.nextToken());
+            parser.nextToken();
+            UUID first = UUIDInterningParser.getUUID(parser);
+            parser.nextToken();
+            assertSame(first, UUIDInterningParser.getUUID(parser));
+            assertEquals(new UUID(VALUE), first);
+        }
+
+        try (JsonParser parser = mapper.getFactory().createParser(json)) {
+            parser.nextToken();
+            parser.nextToken();
+            UUID first = UUIDInterningParser.getUUID(parser);
+            parser.nextToken();
+            UUID second = UUIDInterningParser.getUUID(parser);
+            assertEquals(first, second);
+            assertNotSame(first, second);
+        }
+
+        // A parser over a tree has no text buffer
+        try (JsonParser parser = new UUIDInterningParser(mapper.readTree(json).traverse(),
+                Interners.newWeakInterner())) {
+            parser.nextToken();
+            parser.nextToken();
+            UUID first = UUIDInterningParser.getUUID(parser);
+            parser.nextToken();
+            assertSame(first, UUIDInterningParser.getUUID(parser));
+            assertTrue(first.isCanonical());
+            assertEquals(new UUID(VALUE), first);
+        }
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright © 2018 Red Hat, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.ovsdb.lib.replica;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.ovsdb.lib.message.MonitorRequest;
+import org.opendaylight.ovsdb.lib.message.MonitorRequestBuilder;
+import org.opendaylight.ovsdb.lib.message.TableUpdates;
+import org.opendaylight.ovsdb.lib.notation.Condition;
+import org.opendaylight.ovsdb.lib.notation.Function;
+import org.opendaylight.ovsdb.lib.notation.OvsdbMap;
+import org.opendaylight.ovsdb.lib.notation.OvsdbSet;
+import org.opendaylight.ovsdb.lib.notation.Row;
+import org.opendaylight.ovsdb.lib.notation.UUID;
+import org.opendaylight.ovsdb.lib.schema.ColumnSchema;
+import org.opendaylight.ovsdb.lib.schema.DatabaseSchema;
+import org.opendaylight.ovsdb.lib.schema.GenericTableSchema;
+import org.opendaylight.ovsdb.lib.schema.TableIndex;
+
+public class DatabaseReplicaTest {
+
+    private static final String BRIDGE1 = "1b8a1b3e-5b4c-4d0e-8f0b-5c0e7f3a3d01";
+    private static final String BRIDGE2 = "1b8a1b3e-5b4c-4d0e-8f0b-5c0e7f3a3d02";
+    private static final String PORT1 = "2b8a1b3e-5b4c-4d0e-8f0b-5c0e7f3a3d01";
+    private static final String PORT2 = "2b8a1b3e-5b4c-4d0e-8f0b-5c0e7f3a3d02";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private DatabaseSchema schema;
+    private GenericTableSchema bridge;
+    private DatabaseReplica replica;
+
+    @Before
+    public void setUp() throws IOException {
+        schema = DatabaseSchema.fromJson("Open_vSwitch", mapper.readTree(DatabaseReplicaTest.class
+                .getResourceAsStream("/org/opendaylight/ovsdb/lib/schema/test_schema.json")).get("result"));
+        schema.populateInternallyGeneratedColumns();
+        bridge = schema.table("Bridge", GenericTableSchema.class);
+        replica = replica(TableIndex.unique("name", "name"));
+    }
+
+    /**
+     * Test that the replica follows inserts, modifications and deletions, and that its selects, indexed or
+     * not, return the rows a select operation would, with their _uuid column.
+     */
+    @Test
+    public void testReplicaUpdates() throws IOException {
+        assertTrue(replica.hasTable("Bridge"));
+        assertFalse(replica.hasTable("Port"));
+        assertFalse(replica.hasTable("Unknown"));
+        ColumnSchema<GenericTableSchema, String> name = bridge.column("name", String.class);
+        ColumnSchema<GenericTableSchema, UUID> uuid = bridge.column("_uuid", UUID.class);
+
+        replica.update(updates("{\"Bridge\":{"
+                + "\"" + BRIDGE1 + "\":{\"new\":{\"name\":\"br-int\",\"stp_enable\":false,"
+                + "\"external_ids\":[\"map\",[[\"opendaylight-iid\",\"br1\"]]],"
+                + "\"ports\":[\"set\",[[\"uuid\",\"" + PORT1 + "\"]]]}},"
+                + "\"" + BRIDGE2 + "\":{\"new\":{\"name\":\"br-ex\",\"stp_enable\":false,"
+                + "\"external_ids\":[\"map\",[]],\"ports\":[\"set\",[]]}}},"
+                + "\"Port\":{\"" + PORT1 + "\":{\"new\":{\"name\":\"tap0\"}}}}"));
+        assertEquals(2, replica.getRows(bridge).size());
+        Row<GenericTableSchema> row = replica.getRow(bridge, new UUID(BRIDGE1));
+        assertEquals("br-int", row.getColumn(name).getData());
+        assertEquals(new UUID(BRIDGE1), row.getColumn(uuid).getData());
+
+        List<Condition> byName = Collections.singletonList(name.opEqual("br-ex"));
+        assertEquals(new UUID(BRIDGE2), replica.select(bridge, byName).get(0).getColumn(uuid).getData());
+        assertEquals(1, replica.select(bridge, Arrays.asList(name.opEqual("br-int"),
+                new Condition("stp_enable", Function.EQUALS, false))).size());
+        assertEquals(1, replica.select(bridge, Collections.singletonList(new Condition("external_ids",
+                Function.INCLUDES, OvsdbMap.fromMap(Collections.singletonMap("opendaylight-iid", "br1"))))).size());
+        assertEquals(1, replica.select(bridge, Collections.singletonList(new Condition("ports",
+                Function.EQUALS, new UUID(PORT1)))).size());
+        assertEquals(1, replica.select(bridge, Collections.singletonList(new Condition("ports",
+                Function.INCLUDES, OvsdbSet.fromSet(Collections.singleton(new UUID(PORT1)))))).size());
+        assertEquals(new UUID(BRIDGE1), replica.select(bridge, Collections.singletonList(
+                new Condition("_uuid", Function.EQUALS, new UUID(BRIDGE1)))).get(0).getColumn(uuid).getData());
+
+        // A rename moves the row in the index, a deletion removes it
+        replica.update(updates("{\"Bridge\":{"
+                + "\"" + BRIDGE1 + "\":{\"old\":{\"name\":\"br-int\"},\"new\":{\"name\":\"br-tun\",\"stp_enable\":false,"
+                + "\"external_ids\":[\"map\",[]],\"ports\":[\"set\",[]]}},"
+                + "\"" + BRIDGE2 + "\":{\"old\":{\"name\":\"br-ex\"}}}}"));
+        assertEquals(1, replica.getRows(bridge).size());
+        assertNull(replica.getRow(bridge, new UUID(BRIDGE2)));
+        assertTrue(replica.select(bridge, byName).isEmpty());
+        assertTrue(replica.select(bridge, Collections.singletonList(name.opEqual("br-int"))).isEmpty());
+        assertEquals(1, replica.select(bridge, Collections.singletonList(name.opEqual("br-tun"))).size());
+    }
+
+    /**
+     * Test that a table replicated with the reply to its monitor request holds its initial rows as soon as it is
+     * visible.
+     */
+    @Test
+    public void testAddTablesWithInitialRows() throws IOException {
+        DatabaseReplica monitored = new DatabaseReplica(schema);
+        Map<String, MonitorRequest> requests = new LinkedHashMap<>();
+        requests.put("Bridge", new MonitorRequest("Bridge"));
+        requests.put("Port", new MonitorRequest("Port"));
+        monitored.addTables(requests, updates("{\"Bridge\":{"
+                + "\"" + BRIDGE1 + "\":{\"new\":{\"name\":\"br-int\"}}}}"));
+        assertTrue(monitored.hasTable("Bridge"));
+        assertTrue(monitored.hasTable("Port"));
+        assertEquals(1, monitored.getRows(bridge).size());
+        assertNotNull(monitored.getRow(bridge, new UUID(BRIDGE1)));
+    }
+
+    /**
+     * Test that the declared unique, multi-valued, map-key and composite indexes follow the updates, and yield
+     * the rows indexed under the looked up values.
+     */
+    @Test
+    public void testIndexLookups() throws IOException {
+        ColumnSchema<GenericTableSchema, UUID> uuid = bridge.column("_uuid", UUID.class);
+        replica = replica(TableIndex.unique("name", "name"), TableIndex.multiValued("ports", "ports"),
+                TableIndex.uniqueMapKey("iid", "external_ids", "opendaylight-iid"),
+                TableIndex.multiValued("stp-datapath", "stp_enable", "datapath_type"));
+
+        replica.update(updates("{\"Bridge\":{"
+                + "\"" + BRIDGE1 + "\":{\"new\":{\"name\":\"br-int\",\"stp_enable\":false,"
+                + "\"datapath_type\":\"netdev\",\"external_ids\":[\"map\",[[\"opendaylight-iid\",\"br1\"]]],"
+                + "\"ports\":[\"set\",[[\"uuid\",\"" + PORT1 + "\"],[\"uuid\",\"" + PORT2 + "\"]]]}},"
+                + "\"" + BRIDGE2 + "\":{\"new\":{\"name\":\"br-ex\",\"stp_enable\":false,"
+                + "\"datapath_type\":\"netdev\",\"external_ids\":[\"map\",[]],\"ports\":[\"set\",[]]}}}}"));
+        assertEquals(new UUID(BRIDGE2), replica.lookup(bridge, "name", "br-ex").get(0).getColumn(uuid).getData());
+        assertTrue(replica.lookup(bridge, "name", "br-tun").isEmpty());
+        assertEquals(new UUID(BRIDGE1), replica.lookup(bridge, "ports", new UUID(PORT2)).get(0)
+                .getColumn(uuid).getData());
+        assertEquals(new UUID(BRIDGE1), replica.lookup(bridge, "iid", "br1").get(0).getColumn(uuid).getData());
+        assertEquals(2, replica.lookup(bridge, "stp-datapath", false, "netdev").size());
+        assertTrue(replica.lookup(bridge, "stp-datapath", true, "netdev").isEmpty());
+
+        // The selects constraining the columns of a composite index go through it
+        assertEquals(1, replica.select(bridge, Arrays.asList(new Condition("datapath_type", Function.EQUALS,
+                "netdev"), new Condition("stp_enable", Function.EQUALS, false),
+                new Condition("name", Function.NOT_EQUALS, "br-ex"))).size());
+
+        // Swapping names within an update keeps the unique index consistent, whatever the order of the rows
+        replica.update(updates("{\"Bridge\":{"
+                + "\"" + BRIDGE1 + "\":{\"new\":{\"name\":\"br-ex\",\"stp_enable\":false,"
+                + "\"datapath_type\":\"system\",\"external_ids\":[\"map\",[]],"
+                + "\"ports\":[\"set\",[[\"uuid\",\"" + PORT1 + "\"]]]}},"
+                + "\"" + BRIDGE2 + "\":{\"new\":{\"name\":\"br-int\",\"stp_enable\":false,"
+                + "\"datapath_type\":\"netdev\",\"external_ids\":[\"map\",[]],\"ports\":[\"set\",[]]}}}}"));
+        assertEquals(new UUID(BRIDGE1), replica.lookup(bridge, "name", "br-ex").get(0).getColumn(uuid).getData());
+        assertEquals(new UUID(BRIDGE2), replica.lookup(bridge, "name", "br-int").get(0).getColumn(uuid).getData());
+        assertTrue(replica.lookup(bridge, "ports", new UUID(PORT2)).isEmpty());
+        assertTrue(replica.lookup(bridge, "iid", "br1").isEmpty());
+        assertEquals(1, replica.lookup(bridge, "stp-datapath", false, "netdev").size());
+
+        replica.update(updates("{\"Bridge\":{\"" + BRIDGE1 + "\":{\"old\":{\"name\":\"br-ex\"}}}}"));
+        assertTrue(replica.lookup(bridge, "name", "br-ex").isEmpty());
+        assertTrue(replica.lookup(bridge, "ports", new UUID(PORT1)).isEmpty());
+        assertNull(replica.lookup(schema.table("Port", GenericTableSchema.class), "name", "tap0"));
+    }
+
+    /**
+     * Test that the indexes belong to the replica declaring them, not to the table schema its connection shares
+     * with the other connections.
+     */
+    @Test
+    public void testIndexesPerReplica() throws IOException {
+        DatabaseReplica other = new DatabaseReplica(schema);
+        other.addTables(Collections.singletonList("Bridge"));
+        other.update(updates("{\"Bridge\":{\"" + BRIDGE1 + "\":{\"new\":{\"name\":\"br-int\"}}}}"));
+        try {
+            other.lookup(bridge, "name", "br-int");
+            throw new AssertionError("The index should not be declared on the other replica");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        assertEquals(1, other.select(bridge, Collections.singletonList(new Condition("name", Function.EQUALS,
+                "br-int"))).size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownIndexColumn() {
+        new MonitorRequestBuilder<>(bridge).addIndex(TableIndex.unique("unknown", "unknown"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLookupUndeclaredIndex() {
+        replica.lookup(bridge, "fail_mode", "secure");
+    }
+
+    /**
+     * Returns a replica of the Bridge table declaring the given indexes, and of an unknown table.
+     */
+    private DatabaseReplica replica(TableIndex... indexes) {
+        Map<String, MonitorRequest> requests = new LinkedHashMap<>();
+        requests.put("Bridge", new MonitorRequestBuilder<>(bridge).addIndexes(Arrays.asList(indexes)).build());
+        requests.put("Unknown", new MonitorRequest("Unknown"));
+        DatabaseReplica newReplica = new DatabaseReplica(schema);
+        newReplica.addTables(requests, null);
+        return newReplica;
+    }
+
+    private TableUpdates updates(String json) throws IOException {
+        try (JsonParser parser = mapper.readTree(json).traverse(mapper)) {
+            parser.nextToken();
+            return schema.updatesFromJson(parser);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright © 2018 Red Hat, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.ovsdb.lib.schema;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import org.junit.Test;
+import org.opendaylight.ovsdb.lib.error.ParsingException;
+import org.opendaylight.ovsdb.lib.notation.Version;
+
+/**
+ * Test class for {@link DatabaseSchemaRegistry}.
+ */
+public class DatabaseSchemaRegistryTest {
+
+    private static final String TABLES = "\"tables\": {\"Bridge\": {\"columns\": {\"name\": {\"type\": \"string\"}}}}";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    public void testShared() throws IOException {
+        DatabaseSchema dbSchema = DatabaseSchemaRegistry.fromJson("Test", schema("7.15.1", "1234 5678"));
+        assertTrue(dbSchema.isShared());
+        assertNotNull(dbSchema.table("Bridge", GenericTableSchema.class).column("_uuid"));
+        assertSame(dbSchema, DatabaseSchemaRegistry.fromJson("Test", schema("7.15.1", "1234 5678")));
+
+        assertNotSame(dbSchema, DatabaseSchemaRegistry.fromJson("Test", schema("7.15.1", "4321 5678")));
+        assertNotSame(dbSchema, DatabaseSchemaRegistry.fromJson("Test", schema("7.16.0", "1234 5678")));
+        assertNotSame(dbSchema, DatabaseSchemaRegistry.fromJson("Other", schema("7.15.1", "1234 5678")));
+    }
+
+    @Test
+    public void testWithoutChecksum() throws IOException {
+        JsonNode json = mapper.readTree("{\"version\": \"7.15.1\", " + TABLES + "}");
+        DatabaseSchema dbSchema = DatabaseSchemaRegistry.fromJson("Test", json);
+        assertFalse(dbSchema.isShared());
+        assertNotNull(dbSchema.table("Bridge", GenericTableSchema.class).column("_uuid"));
+        assertNotSame(dbSchema, DatabaseSchemaRegistry.fromJson("Test", json));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testSharedSchemaIsImmutable() throws IOException {
+        DatabaseSchemaRegistry.fromJson("Test", schema("7.15.1", "1234 5678")).setVersion(Version.NULL);
+    }
+
+    @Test(expected = ParsingException.class)
+    public void testInvalidSchema() throws IOException {
+        DatabaseSchemaRegistry.fromJson("Test", mapper.readTree("{\"version\": \"7.15.1\", \"cksum\": \"1 2\"}"));
+    }
+
+    private JsonNode schema(String version, String cksum) throws IOException {
+        return mapper.readTree("{\"version\": \"" + version + "\", \"cksum\": \"" + cksum + "\", " + TABLES + "}");
+    }
+}
@@ -9,12 +9,26 @@ package org.opendaylight.ovsdb.lib.schema;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Sets;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
 import org.junit.Test;
+import org.opendaylight.ovsdb.lib.message.TableUpdate;
+import org.opendaylight.ovsdb.lib.message.TableUpdates;
+import org.opendaylight.ovsdb.lib.notation.Column;
+import org.opendaylight.ovsdb.lib.notation.Row;
+import org.opendaylight.ovsdb.lib.notation.UUID;
 import org.opendaylight.ovsdb.lib.notation.Version;
 
 public class OvsdbSchemaTest {
@@ -36,4 +50,117 @@ public class OvsdbSchemaTest {
         assertNotNull(schema);
         assertEquals(Version.fromString("6.12.0"), schema.getVersion());
     }
+
+    /**
+     * Test that binding the rows of monitor_response1.json straight from the token stream
+     * yields the same updates as binding them from the JsonNode tree.
+     */
+    @Test
+    public void testUpdatesFromParser() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        DatabaseSchema schema = DatabaseSchema.fromJson("Open_vSwitch",
+                mapper.readTree(OvsdbSchemaTest.class.getResourceAsStream("test_schema.json")).get("result"));
+        schema.populateInternallyGeneratedColumns();
+        JsonNode updatesJson = mapper.readTree(OvsdbSchemaTest.class.getResourceAsStream(
+                "/org/opendaylight/ovsdb/lib/message/monitor_response1.json"));
+
+        JsonParser parser = updatesJson.traverse(mapper);
+        parser.nextToken();
+        TableUpdates streamed = schema.updatesFromJson(parser);
+
+        assertEquals(updatesJson.size(), streamed.getUpdates().size());
+        for (Iterator<Map.Entry<String, JsonNode>> iter = updatesJson.fields(); iter.hasNext(); ) {
+            Map.Entry<String, JsonNode> entry = iter.next();
+            TableUpdate<GenericTableSchema> expected = schema.table(entry.getKey(), GenericTableSchema.class)
+                    .updatesFromJson(entry.getValue());
+            TableUpdate<GenericTableSchema> actual = streamed.getUpdates().get(entry.getKey());
+            assertEquals(expected.getRows().keySet(), actual.getRows().keySet());
+            for (UUID uuid : expected.getRows().keySet()) {
+                assertEquals(columnData(expected.getOld(uuid)), columnData(actual.getOld(uuid)));
+                assertEquals(columnData(expected.getNew(uuid)), columnData(actual.getNew(uuid)));
+            }
+        }
+
+        GenericTableSchema bridge = schema.table("Bridge", GenericTableSchema.class);
+        Row<GenericTableSchema> br0 = streamed.getUpdate(bridge).getNew(
+                new UUID("788de61c-0e4f-43d8-a068-259e75aabbba"));
+        assertEquals("br0", br0.getColumn(bridge.column("name", String.class)).getData());
+        assertEquals(Sets.newHashSet(new UUID("f6018e7a-7ca5-4e72-a744-a9b434f47011"),
+                new UUID("fe3c89fd-2ff3-44d8-9f27-f9c7ac2a693d")),
+                br0.getColumn(bridge.multiValuedColumn("ports", UUID.class)).getData());
+    }
+
+    /**
+     * Returns the data of the columns of a row by column name, null for no row.
+     */
+    private static Map<String, Object> columnData(Row<GenericTableSchema> row) {
+        if (row == null) {
+            return null;
+        }
+        Map<String, Object> data = new HashMap<>();
+        for (Column<GenericTableSchema, ?> column : row.getColumns()) {
+            data.put(column.getSchema().getName(), column.getData());
+        }
+        return data;
+    }
+
+    /**
+     * Test that the column diffs of update2 modifications are applied to the cached rows: set elements
+     * are toggled, map pairs added, replaced or removed and scalars replaced.
+     */
+    @Test
+    public void testUpdates2FromParser() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        DatabaseSchema schema = DatabaseSchema.fromJson("Open_vSwitch",
+                mapper.readTree(OvsdbSchemaTest.class.getResourceAsStream("test_schema.json")).get("result"));
+        schema.populateInternallyGeneratedColumns();
+        GenericTableSchema bridge = schema.table("Bridge", GenericTableSchema.class);
+        ColumnSchema<GenericTableSchema, Set<UUID>> ports = bridge.multiValuedColumn("ports", UUID.class);
+        ColumnSchema<GenericTableSchema, Map<String, String>> externalIds = bridge.multiValuedColumn("external_ids",
+                String.class, String.class);
+        ColumnSchema<GenericTableSchema, Boolean> stpEnable = bridge.column("stp_enable", Boolean.class);
+        ColumnSchema<GenericTableSchema, String> name = bridge.column("name", String.class);
+        UUID bridgeUuid = new UUID("1b8a1b3e-5b4c-4d0e-8f0b-5c0e7f3a3d01");
+        UUID port1 = new UUID("2c8a1b3e-5b4c-4d0e-8f0b-5c0e7f3a3d01");
+        UUID port2 = new UUID("2c8a1b3e-5b4c-4d0e-8f0b-5c0e7f3a3d02");
+        UUID port3 = new UUID("2c8a1b3e-5b4c-4d0e-8f0b-5c0e7f3a3d03");
+        Map<String, Map<UUID, Row>> rows = new HashMap<>();
+
+        TableUpdates initial = updates2(schema, rows, mapper, "{\"Bridge\":{\"" + bridgeUuid + "\":{\"initial\":"
+                + "{\"name\":\"br0\",\"stp_enable\":false,"
+                + "\"ports\":[\"set\",[[\"uuid\",\"" + port1 + "\"],[\"uuid\",\"" + port2 + "\"]]],"
+                + "\"external_ids\":[\"map\",[[\"k1\",\"v1\"],[\"k2\",\"v2\"]]]}}}}");
+        assertNull(initial.getUpdate(bridge).getOld(bridgeUuid));
+        assertEquals(Sets.newHashSet(port1, port2), initial.getUpdate(bridge).getNew(bridgeUuid)
+                .getColumn(ports).getData());
+
+        TableUpdates modified = updates2(schema, rows, mapper, "{\"Bridge\":{\"" + bridgeUuid + "\":{\"modify\":"
+                + "{\"stp_enable\":true,"
+                + "\"ports\":[\"set\",[[\"uuid\",\"" + port2 + "\"],[\"uuid\",\"" + port3 + "\"]]],"
+                + "\"external_ids\":[\"map\",[[\"k1\",\"v1\"],[\"k2\",\"x\"],[\"k3\",\"v3\"]]]}}}}");
+        Row<GenericTableSchema> oldRow = modified.getUpdate(bridge).getOld(bridgeUuid);
+        Row<GenericTableSchema> newRow = modified.getUpdate(bridge).getNew(bridgeUuid);
+        assertEquals(Sets.newHashSet(port1, port3), newRow.getColumn(ports).getData());
+        assertEquals(ImmutableMap.of("k2", "x", "k3", "v3"), newRow.getColumn(externalIds).getData());
+        assertEquals(true, newRow.getColumn(stpEnable).getData());
+        assertEquals("br0", newRow.getColumn(name).getData());
+        assertEquals(Sets.newHashSet(port1, port2), oldRow.getColumn(ports).getData());
+        assertEquals(false, oldRow.getColumn(stpEnable).getData());
+        assertNull(oldRow.getColumn(name));
+        assertEquals(newRow, rows.get("Bridge").get(bridgeUuid));
+
+        TableUpdates deleted = updates2(schema, rows, mapper,
+                "{\"Bridge\":{\"" + bridgeUuid + "\":{\"delete\":null}}}");
+        assertEquals(newRow, deleted.getUpdate(bridge).getOld(bridgeUuid));
+        assertNull(deleted.getUpdate(bridge).getNew(bridgeUuid));
+        assertTrue(rows.get("Bridge").isEmpty());
+    }
+
+    private static TableUpdates updates2(DatabaseSchema schema, Map<String, Map<UUID, Row>> rows,
+            ObjectMapper mapper, String json) throws IOException {
+        try (JsonParser parser = mapper.getFactory().createParser(json)) {
+            parser.nextToken();
+            return schema.updates2FromJson(parser, rows);
+        }
+    }
 }
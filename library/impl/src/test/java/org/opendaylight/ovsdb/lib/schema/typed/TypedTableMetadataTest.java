@@ -0,0 +1,109 @@
+/*
+ * Copyright © 2018 Red Hat, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.ovsdb.lib.schema.typed;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.ovsdb.lib.error.SchemaVersionMismatchException;
+import org.opendaylight.ovsdb.lib.notation.Version;
+import org.opendaylight.ovsdb.lib.schema.DatabaseSchema;
+import org.opendaylight.ovsdb.lib.schema.GenericTableSchema;
+
+/**
+ * Test class for {@link TypedTableMetadata}.
+ */
+public class TypedTableMetadataTest {
+
+    private static final String SCHEMA = "{\"version\": \"1.5.0\", \"tables\": {\"Test\": {\"columns\": {"
+            + "\"name\": {\"type\": \"string\"}, \"since\": {\"type\": \"string\"}}}}}";
+
+    @TypedTable(name = "Test", database = "Open_vSwitch", fromVersion = "1.0.0")
+    private interface TestTable extends TypedBaseTable<GenericTableSchema> {
+        @TypedColumn(name = "name", method = MethodType.GETDATA, fromVersion = "1.0.0")
+        String getName();
+
+        @TypedColumn(name = "name", method = MethodType.SETDATA, fromVersion = "1.0.0")
+        void setName(String name);
+
+        @TypedColumn(name = "since", method = MethodType.GETDATA, fromVersion = "2.0.0")
+        String getSince();
+    }
+
+    @TypedTable(name = "Test", database = "hardware_vtep")
+    private interface OtherDatabaseTable {
+    }
+
+    private DatabaseSchema dbSchema;
+
+    @Before
+    public void setUp() throws IOException {
+        dbSchema = DatabaseSchema.fromJson("Open_vSwitch", new ObjectMapper().readTree(SCHEMA));
+    }
+
+    @Test
+    public void testResolvedOnce() throws NoSuchMethodException {
+        TypedTableMetadata metadata = TypedTableMetadata.get(dbSchema, TestTable.class);
+        assertSame(metadata, TypedTableMetadata.get(dbSchema, TestTable.class));
+        assertTrue(metadata.isValid());
+        assertSame(dbSchema.table("Test", GenericTableSchema.class), metadata.getTableSchema());
+
+        TypedTableMetadata.MethodMetadata getName = metadata.method(TestTable.class.getMethod("getName"));
+        assertSame(getName, metadata.method(TestTable.class.getMethod("getName")));
+        assertEquals(MethodType.GETDATA, getName.getMethodType());
+        assertEquals("name", getName.getColumnName());
+        assertSame(metadata.getTableSchema().column("name"), getName.getColumnSchema());
+        getName.checkVersion();
+
+        assertNull(metadata.method(Object.class.getMethod("hashCode")).getMethodType());
+    }
+
+    @Test
+    public void testResolvedAgainOnSchemaChange() throws IOException {
+        TypedTableMetadata metadata = TypedTableMetadata.get(dbSchema, TestTable.class);
+        DatabaseSchema otherSchema = DatabaseSchema.fromJson("Open_vSwitch", new ObjectMapper().readTree(SCHEMA));
+        assertNotSame(metadata, TypedTableMetadata.get(otherSchema, TestTable.class));
+
+        dbSchema.setVersion(Version.fromString("0.9.0"));
+        assertNotSame(metadata, TypedTableMetadata.get(dbSchema, TestTable.class));
+    }
+
+    @Test
+    public void testOtherDatabase() {
+        assertFalse(TypedTableMetadata.get(dbSchema, OtherDatabaseTable.class).isValid());
+        assertNull(TyperUtils.getTypedRowWrapper(dbSchema, OtherDatabaseTable.class));
+    }
+
+    @Test
+    public void testProxy() {
+        TestTable row = TyperUtils.getTypedRowWrapper(dbSchema, TestTable.class);
+        row.setName("test");
+        assertEquals("test", row.getName());
+        assertEquals(row, TyperUtils.getTypedRowWrapper(dbSchema, TestTable.class, row.getRow()));
+    }
+
+    @Test(expected = SchemaVersionMismatchException.class)
+    public void testColumnVersionMismatch() {
+        TyperUtils.getTypedRowWrapper(dbSchema, TestTable.class).getSince();
+    }
+
+    @Test(expected = SchemaVersionMismatchException.class)
+    public void testTableVersionMismatch() {
+        dbSchema.setVersion(Version.fromString("0.9.0"));
+        TyperUtils.getTypedRowWrapper(dbSchema, TestTable.class);
+    }
+}
@@ -0,0 +1,264 @@
+/*
+ * Copyright © 2018 Red Hat, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.ovsdb.lib.schema.typed.processor;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import org.opendaylight.ovsdb.lib.error.TyperException;
+import org.opendaylight.ovsdb.lib.error.UnsupportedMethodException;
+import org.opendaylight.ovsdb.lib.schema.typed.AbstractTypedRowWrapper;
+import org.opendaylight.ovsdb.lib.schema.typed.MethodType;
+import org.opendaylight.ovsdb.lib.schema.typed.TypedColumn;
+import org.opendaylight.ovsdb.lib.schema.typed.TypedMethod;
+import org.opendaylight.ovsdb.lib.schema.typed.TypedTable;
+import org.opendaylight.ovsdb.lib.schema.typed.TyperUtils;
+
+/**
+ * Annotation processor generating, for each {@link TypedTable} interface, a concrete typed row wrapper named after
+ * the interface with a {@value AbstractTypedRowWrapper#SUFFIX} suffix. {@link TyperUtils#getTypedRowWrapper}
+ * instantiates the generated class instead of building a {@link java.lang.reflect.Proxy}, whose invocation handler
+ * resolves the annotations, the column names and the kind of the called method on every call.
+ *
+ * <p>The methods are resolved as the proxy resolves them, from their {@link TypedColumn} annotation or, failing
+ * that, from their name. Interfaces which are nested or generic are left to the proxy.
+ *
+ * <p>The processor is only needed at build time: modules holding typed tables add this artifact to the annotation
+ * processor path of their compiler configuration, it is not a dependency of the library nor of the schema bundles.
+ */
+@SupportedAnnotationTypes("org.opendaylight.ovsdb.lib.schema.typed.TypedTable")
+public class TypedTableProcessor extends AbstractProcessor {
+
+    private static final String GET_STARTS_WITH = "get";
+    private static final String SET_STARTS_WITH = "set";
+    private static final String GETCOLUMN_ENDS_WITH = "Column";
+    private static final String GETROW_ENDS_WITH = "Row";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(TypedTable.class)) {
+            if (element.getKind() != ElementKind.INTERFACE) {
+                continue;
+            }
+            TypeElement typeElement = (TypeElement) element;
+            if (typeElement.getNestingKind() != NestingKind.TOP_LEVEL || !typeElement.getTypeParameters().isEmpty()) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+                        "No typed row wrapper generated for nested or generic interface", typeElement);
+                continue;
+            }
+            try {
+                generate(typeElement);
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "Unable to generate the typed row wrapper: " + e.getMessage(), typeElement);
+            }
+        }
+        return false;
+    }
+
+    private void generate(TypeElement typeElement) throws IOException {
+        String packageName = ((PackageElement) typeElement.getEnclosingElement()).getQualifiedName().toString();
+        String interfaceName = typeElement.getSimpleName().toString();
+        String className = interfaceName + AbstractTypedRowWrapper.SUFFIX;
+        DeclaredType declaredType = (DeclaredType) typeElement.asType();
+
+        List<String> descriptors = new ArrayList<>();
+        StringBuilder methods = new StringBuilder();
+        for (ExecutableElement method : ElementFilter.methodsIn(
+                processingEnv.getElementUtils().getAllMembers(typeElement))) {
+            if (!method.getModifiers().contains(Modifier.ABSTRACT) || isObjectMethod(method)) {
+                continue;
+            }
+            ExecutableType type = (ExecutableType) processingEnv.getTypeUtils().asMemberOf(declaredType, method);
+            methods.append(generateMethod(method, type, descriptors));
+        }
+
+        Writer writer = processingEnv.getFiler().createSourceFile(packageName + "." + className, typeElement)
+                .openWriter();
+        try (PrintWriter out = new PrintWriter(writer)) {
+            out.println("package " + packageName + ";");
+            out.println();
+            out.println("/**");
+            out.println(" * Typed row wrapper of {@link " + interfaceName + "}, generated by "
+                    + TypedTableProcessor.class.getSimpleName() + ".");
+            out.println(" */");
+            out.println("@SuppressWarnings({\"unchecked\", \"rawtypes\"})");
+            out.println("public final class " + className + " extends "
+                    + AbstractTypedRowWrapper.class.getName() + " implements " + interfaceName + " {");
+            out.println();
+            for (int i = 0; i < descriptors.size(); i++) {
+                out.println("    private static final " + TypedMethod.class.getName() + " METHOD_" + i
+                        + " = " + descriptors.get(i) + ";");
+            }
+            out.println();
+            out.println("    public " + className + "(org.opendaylight.ovsdb.lib.schema.DatabaseSchema dbSchema,");
+            out.println("            org.opendaylight.ovsdb.lib.schema.GenericTableSchema tableSchema,");
+            out.println("            org.opendaylight.ovsdb.lib.notation.Row<"
+                    + "org.opendaylight.ovsdb.lib.schema.GenericTableSchema> row) {");
+            out.println("        super(dbSchema, " + interfaceName + ".class, tableSchema, row);");
+            out.println("    }");
+            out.print(methods);
+            out.println("}");
+        }
+    }
+
+    private String generateMethod(ExecutableElement method, ExecutableType type, List<String> descriptors) {
+        String name = method.getSimpleName().toString();
+        TypeMirror returnType = type.getReturnType();
+        boolean isVoid = returnType.getKind() == TypeKind.VOID;
+
+        StringBuilder signature = new StringBuilder();
+        List<? extends TypeMirror> parameterTypes = type.getParameterTypes();
+        for (int i = 0; i < parameterTypes.size(); i++) {
+            if (i > 0) {
+                signature.append(", ");
+            }
+            signature.append(parameterTypes.get(i)).append(" arg").append(i);
+        }
+
+        StringBuilder body = new StringBuilder();
+        MethodType methodType = getMethodType(method);
+        String descriptor = null;
+        if (methodType == MethodType.GETDATA || methodType == MethodType.GETCOLUMN
+                || methodType == MethodType.SETDATA) {
+            descriptor = "METHOD_" + descriptors.size();
+            descriptors.add(descriptor(method, methodType));
+        }
+        String returned;
+        if (methodType == null) {
+            body.append("        throw new ").append(UnsupportedMethodException.class.getName())
+                    .append("(\"Method not supported ").append(name).append("\");\n");
+            returned = null;
+        } else {
+            switch (methodType) {
+                case GETTABLESCHEMA:
+                    returned = "typedTableSchema()";
+                    break;
+                case GETROW:
+                    returned = "typedRow()";
+                    break;
+                case GETDATA:
+                    returned = "typedData(" + descriptor + ")";
+                    break;
+                case GETCOLUMN:
+                    returned = "typedColumn(" + descriptor + ")";
+                    break;
+                case SETDATA:
+                default:
+                    if (parameterTypes.size() != 1) {
+                        body.append("        throw new ").append(TyperException.class.getName())
+                                .append("(\"Setter method : ").append(name).append(" requires 1 argument\");\n");
+                        returned = null;
+                    } else {
+                        body.append("        typedSetData(").append(descriptor).append(", arg0);\n");
+                        returned = isVoid ? null : "this";
+                    }
+                    break;
+            }
+        }
+        if (returned != null) {
+            if (isVoid) {
+                body.append("        ").append(returned).append(";\n");
+            } else {
+                body.append("        return (").append(returnType).append(") (java.lang.Object) ").append(returned)
+                        .append(";\n");
+            }
+        }
+
+        return "\n    @Override\n    public " + returnType + " " + name + "(" + signature + ") {\n" + body
+                + "    }\n";
+    }
+
+    private static String descriptor(ExecutableElement method, MethodType methodType) {
+        TypedColumn typedColumn = method.getAnnotation(TypedColumn.class);
+        String fromVersion = null;
+        String untilVersion = null;
+        if (typedColumn != null) {
+            fromVersion = quote(typedColumn.fromVersion());
+            untilVersion = quote(typedColumn.untilVersion());
+        }
+        return "new " + TypedMethod.class.getName() + "(" + quote(method.getSimpleName().toString()) + ", "
+                + quote(getColumnName(method, methodType)) + ", " + fromVersion + ", " + untilVersion + ")";
+    }
+
+    private static String quote(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    /**
+     * Resolves the kind of a method as {@link TyperUtils} does, or returns null for an unsupported method.
+     */
+    private static MethodType getMethodType(ExecutableElement method) {
+        TypedColumn typedColumn = method.getAnnotation(TypedColumn.class);
+        if (typedColumn != null) {
+            return typedColumn.method();
+        }
+        String name = method.getSimpleName().toString();
+        if (name.startsWith(GET_STARTS_WITH) && name.endsWith(GETROW_ENDS_WITH)) {
+            return MethodType.GETROW;
+        } else if (name.startsWith(SET_STARTS_WITH)) {
+            return MethodType.SETDATA;
+        } else if (name.startsWith(GET_STARTS_WITH) && !name.endsWith(GETCOLUMN_ENDS_WITH)) {
+            return MethodType.GETDATA;
+        } else if (name.startsWith(GET_STARTS_WITH) && name.endsWith(GETCOLUMN_ENDS_WITH)) {
+            return MethodType.GETCOLUMN;
+        }
+        return null;
+    }
+
+    /**
+     * Resolves the column name of a method as {@link TyperUtils} does.
+     */
+    private static String getColumnName(ExecutableElement method, MethodType methodType) {
+        TypedColumn typedColumn = method.getAnnotation(TypedColumn.class);
+        if (typedColumn != null) {
+            return typedColumn.name();
+        }
+        String name = method.getSimpleName().toString();
+        int index = GET_STARTS_WITH.length();
+        if (methodType == MethodType.GETCOLUMN) {
+            return name.substring(index, name.indexOf(GETCOLUMN_ENDS_WITH, index)).toLowerCase(Locale.ROOT);
+        }
+        return name.substring(index).toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isObjectMethod(ExecutableElement method) {
+        String name = method.getSimpleName().toString();
+        int parameters = method.getParameters().size();
+        return ((TypeElement) method.getEnclosingElement()).getQualifiedName().contentEquals("java.lang.Object")
+                || parameters == 0 && (name.equals("hashCode") || name.equals("toString"))
+                || parameters == 1 && name.equals("equals");
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright © 2018 Red Hat, Inc. and others. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.ovsdb.schema.openvswitch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableSet;
+import java.io.IOException;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.ovsdb.lib.error.SchemaVersionMismatchException;
+import org.opendaylight.ovsdb.lib.notation.Row;
+import org.opendaylight.ovsdb.lib.notation.UUID;
+import org.opendaylight.ovsdb.lib.schema.DatabaseSchema;
+import org.opendaylight.ovsdb.lib.schema.GenericTableSchema;
+import org.opendaylight.ovsdb.lib.schema.typed.TyperUtils;
+
+public class TypedRowWrapperTest {
+
+    private static final String SCHEMA = "{\"version\": \"6.0.0\", \"tables\": {\"Port\": {\"columns\": {"
+            + "\"name\": {\"type\": \"string\"},"
+            + "\"interfaces\": {\"type\": {\"key\": {\"type\": \"uuid\"}, \"min\": 1, \"max\": \"unlimited\"}},"
+            + "\"vlan_mode\": {\"type\": {\"key\": {\"type\": \"string\"}, \"min\": 0, \"max\": 1}}}}}}";
+
+    private DatabaseSchema dbSchema;
+
+    @Before
+    public void setUp() throws IOException {
+        dbSchema = DatabaseSchema.fromJson("Open_vSwitch", new ObjectMapper().readTree(SCHEMA));
+    }
+
+    @Test
+    public void testGeneratedWrapper() {
+        Port port = TyperUtils.getTypedRowWrapper(dbSchema, Port.class);
+        assertTrue(port instanceof PortTypedRow);
+
+        port.setName("eth0");
+        UUID uuid = new UUID("2f3c2bd8-8f8f-4d60-a7bb-3bb9e3d0a3a3");
+        port.setInterfaces(ImmutableSet.of(uuid));
+        assertEquals("eth0", port.getName());
+        assertEquals("eth0", port.getNameColumn().getData());
+        assertEquals(ImmutableSet.of(uuid), port.getInterfacesColumn().getData());
+        assertSame(dbSchema.table("Port", GenericTableSchema.class), port.getSchema());
+    }
+
+    @Test(expected = SchemaVersionMismatchException.class)
+    public void testVersionMismatch() {
+        TyperUtils.getTypedRowWrapper(dbSchema, Port.class).setVlanMode(ImmutableSet.of("trunk"));
+    }
+
+    @Test
+    public void testRowEquality() {
+        Port port = TyperUtils.getTypedRowWrapper(dbSchema, Port.class);
+        port.setName("eth0");
+        Row<GenericTableSchema> row = port.getRow();
+        assertEquals(port, TyperUtils.getTypedRowWrapper(dbSchema, Port.class, row));
+        assertEquals(port.hashCode(), row.hashCode());
+        assertNotEquals(port, TyperUtils.getTypedRowWrapper(dbSchema, Port.class));
+    }
+}
@@ -9,17 +9,26 @@ package org.opendaylight.ovsdb.southbound;
 
 import static org.opendaylight.ovsdb.lib.operations.Operations.op;
 
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.annotation.Nonnull;
 
@@ -37,12 +46,16 @@ import org.opendaylight.ovsdb.lib.message.MonitorRequest;
 import org.opendaylight.ovsdb.lib.message.MonitorRequestBuilder;
 import org.opendaylight.ovsdb.lib.message.MonitorSelect;
 import org.opendaylight.ovsdb.lib.message.TableUpdates;
+import org.opendaylight.ovsdb.lib.notation.Condition;
+import org.opendaylight.ovsdb.lib.notation.Function;
 import org.opendaylight.ovsdb.lib.notation.Mutator;
+import org.opendaylight.ovsdb.lib.notation.OvsdbMap;
 import org.opendaylight.ovsdb.lib.notation.Row;
 import org.opendaylight.ovsdb.lib.operations.Mutate;
 import org.opendaylight.ovsdb.lib.operations.Operation;
 import org.opendaylight.ovsdb.lib.operations.OperationResult;
 import org.opendaylight.ovsdb.lib.operations.TransactionBuilder;
+import org.opendaylight.ovsdb.lib.replica.DatabaseReplica;
 import org.opendaylight.ovsdb.lib.schema.DatabaseSchema;
 import org.opendaylight.ovsdb.lib.schema.GenericTableSchema;
 import org.opendaylight.ovsdb.lib.schema.TableSchema;
@@ -70,16 +83,28 @@ import org.slf4j.LoggerFactory;
 
 public class OvsdbConnectionInstance {
     private static final Logger LOG = LoggerFactory.getLogger(OvsdbConnectionInstance.class);
+    private static final String EXTERNAL_IDS_COLUMN = "external_ids";
+    // How long a command waits for the schema of a new connection
+    private static final long TRANSACT_INVOKERS_TIMEOUT_SECONDS = 30;
     private final OvsdbClient client;
     private ConnectionInfo connectionInfo;
     private final TransactionInvoker txInvoker;
-    private Map<DatabaseSchema,TransactInvoker> transactInvokers;
-    private MonitorCallBack callback;
+    // Set once the schema is fetched, the commands issued before then wait for it
+    private volatile Map<DatabaseSchema,TransactInvoker> transactInvokers;
+    private final SettableFuture<Map<DatabaseSchema,TransactInvoker>> transactInvokersCreated =
+            SettableFuture.create();
+    private final AtomicBoolean transactInvokersRequested = new AtomicBoolean();
+    private volatile MonitorCallBack callback;
+    // Completed once the monitor is established and its initial rows handed to the callback
+    private volatile SettableFuture<Void> monitored = SettableFuture.create();
     private InstanceIdentifier<Node> instanceIdentifier;
     private volatile boolean hasDeviceOwnership = false;
     private Entity connectedEntity;
     private EntityOwnershipCandidateRegistration deviceOwnershipCandidateRegistration;
     private OvsdbNodeAugmentation initialCreateData = null;
+    private volatile MonitorHandle monitorHandle;
+    // External ids the monitored rows of the filtered tables must carry, all rows when empty
+    private static volatile Map<String, String> monitoredExternalIds = Collections.emptyMap();
 
     OvsdbConnectionInstance(ConnectionInfo key, OvsdbClient client, TransactionInvoker txInvoker,
                             InstanceIdentifier<Node> iid) {
@@ -101,7 +126,7 @@ public class OvsdbConnectionInstance {
     public void transact(TransactCommand command, BridgeOperationalState state,
             AsyncDataChangeEvent<InstanceIdentifier<?>, DataObject> events,
             InstanceIdentifierCodec instanceIdentifierCodec) {
-        for (TransactInvoker transactInvoker : transactInvokers.values()) {
+        for (TransactInvoker transactInvoker : getTransactInvokers()) {
             transactInvoker.invoke(command, state, events, instanceIdentifierCodec);
         }
     }
@@ -116,7 +141,7 @@ public class OvsdbConnectionInstance {
      */
     public void transact(TransactCommand command, BridgeOperationalState state,
             Collection<DataTreeModification<Node>> modifications, InstanceIdentifierCodec instanceIdentifierCodec) {
-        for (TransactInvoker transactInvoker : transactInvokers.values()) {
+        for (TransactInvoker transactInvoker : getTransactInvokers()) {
             transactInvoker.invoke(command, state, modifications, instanceIdentifierCodec);
         }
     }
@@ -126,39 +151,91 @@ public class OvsdbConnectionInstance {
         return client.transact(dbSchema, operations);
     }
 
-    public void registerCallbacks(InstanceIdentifierCodec instanceIdentifierCodec) {
+    /**
+     * Returns the transact invokers. A data change handled while the Open_vSwitch schema is still being fetched
+     * waits for it, up to {@link #TRANSACT_INVOKERS_TIMEOUT_SECONDS}, instead of being dropped right away.
+     */
+    private Collection<TransactInvoker> getTransactInvokers() {
+        Map<DatabaseSchema,TransactInvoker> invokers = transactInvokers;
+        if (invokers != null) {
+            return invokers.values();
+        }
+        if (!transactInvokersRequested.get()) {
+            LOG.warn("No transact invokers created for {}, dropping the command", connectionInfo);
+            return Collections.emptyList();
+        }
+        try {
+            return transactInvokersCreated.get(TRANSACT_INVOKERS_TIMEOUT_SECONDS, TimeUnit.SECONDS).values();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOG.warn("Interrupted waiting for the transact invokers of {}, dropping the command", connectionInfo);
+        } catch (ExecutionException e) {
+            LOG.warn("No transact invokers for {}, dropping the command", connectionInfo, e);
+        } catch (TimeoutException e) {
+            LOG.warn("Schema of {} still not fetched after {} seconds, dropping the command", connectionInfo,
+                    TRANSACT_INVOKERS_TIMEOUT_SECONDS);
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * Registers the monitor callbacks, once.
+     *
+     * @return a future completing once the monitor is established and its initial rows handed to the callback
+     */
+    public ListenableFuture<Void> registerCallbacks(InstanceIdentifierCodec instanceIdentifierCodec) {
         if (this.callback == null) {
-            if (this.initialCreateData != null) {
-                this.updateConnectionAttributes(instanceIdentifierCodec);
-            }
+            String database = SouthboundConstants.OPEN_V_SWITCH;
+            SettableFuture<Void> registered = SettableFuture.create();
+            monitored = registered;
+            // Set right away so that the callbacks are only registered once, reset if the schema cannot be fetched
+            callback = new OvsdbMonitorCallback(instanceIdentifierCodec, this, txInvoker);
+            Futures.addCallback(getSchema(database), new FutureCallback<DatabaseSchema>() {
+                @Override
+                public void onSuccess(DatabaseSchema dbSchema) {
+                    if (dbSchema != null) {
+                        if (initialCreateData != null) {
+                            updateConnectionAttributes(instanceIdentifierCodec, dbSchema);
+                        }
+                        LOG.info("Monitoring database: {}", database);
+                        monitorTables(database, dbSchema);
+                    } else {
+                        LOG.info("No database {} found on {}", database, connectionInfo);
+                        callback = null;
+                        registered.setException(new IllegalStateException("No database " + database));
+                    }
+                }
 
-            try {
-                String database = SouthboundConstants.OPEN_V_SWITCH;
-                DatabaseSchema dbSchema = getSchema(database).get();
-                if (dbSchema != null) {
-                    LOG.info("Monitoring database: {}", database);
-                    callback = new OvsdbMonitorCallback(instanceIdentifierCodec, this, txInvoker);
-                    monitorTables(database, dbSchema);
-                } else {
-                    LOG.info("No database {} found on {}", database, connectionInfo);
+                @Override
+                public void onFailure(Throwable throwable) {
+                    LOG.warn("Exception attempting to registerCallbacks {}: ", connectionInfo, throwable);
+                    callback = null;
+                    registered.setException(throwable);
                 }
-            } catch (InterruptedException | ExecutionException e) {
-                LOG.warn("Exception attempting to registerCallbacks {}: ", connectionInfo, e);
-            }
+            }, MoreExecutors.directExecutor());
         }
+        return monitored;
     }
 
     public void createTransactInvokers() {
-        if (transactInvokers == null) {
-            try {
-                transactInvokers = new HashMap<>();
-                DatabaseSchema dbSchema = getSchema(SouthboundConstants.OPEN_V_SWITCH).get();
-                if (dbSchema != null) {
-                    transactInvokers.put(dbSchema, new TransactInvokerImpl(this,dbSchema));
+        if (transactInvokers == null && transactInvokersRequested.compareAndSet(false, true)) {
+            Futures.addCallback(getSchema(SouthboundConstants.OPEN_V_SWITCH), new FutureCallback<DatabaseSchema>() {
+                @Override
+                public void onSuccess(DatabaseSchema dbSchema) {
+                    Map<DatabaseSchema,TransactInvoker> invokers = new ConcurrentHashMap<>();
+                    if (dbSchema != null) {
+                        invokers.put(dbSchema, new TransactInvokerImpl(OvsdbConnectionInstance.this, dbSchema));
+                    }
+                    transactInvokers = invokers;
+                    transactInvokersCreated.set(invokers);
                 }
-            } catch (InterruptedException | ExecutionException e) {
-                LOG.warn("Exception attempting to createTransactionInvokers {}", connectionInfo, e);
-            }
+
+                @Override
+                public void onFailure(Throwable throwable) {
+                    LOG.warn("Exception attempting to createTransactionInvokers {}", connectionInfo, throwable);
+                    transactInvokersCreated.setException(throwable);
+                }
+            }, MoreExecutors.directExecutor());
         }
     }
 
@@ -177,64 +254,84 @@ public class OvsdbConnectionInstance {
                         LOG.info("Southbound NOT monitoring columns {} in table {}", skipColumns, tableName);
                         columns.removeAll(skipColumns);
                     }
-                    monitorRequests.add(new MonitorRequestBuilder<>(tableSchema)
+                    MonitorRequestBuilder<GenericTableSchema> builder = new MonitorRequestBuilder<>(tableSchema)
                             .addColumns(columns)
-                            .with(new MonitorSelect(true, true, true, true)).build());
+                            .with(new MonitorSelect(true, true, true, true))
+                            .addIndexes(SouthboundConstants.REPLICA_INDEXES.get(tableName));
+                    List<Condition> conditions = externalIdConditions(tableName);
+                    if (conditions != null) {
+                        LOG.info("Southbound monitoring rows of table {} with external ids {}", tableName,
+                                monitoredExternalIds);
+                        builder.addConditions(conditions);
+                    }
+                    monitorRequests.add(builder.build());
                 }
             }
-            this.callback.update(monitor(dbSchema, monitorRequests, callback), dbSchema);
+            MonitorHandle handle = new MonitorHandle(UUID.randomUUID().toString());
+            this.monitorHandle = handle;
+            Futures.addCallback(monitorAsync(dbSchema, monitorRequests, handle, callback),
+                new FutureCallback<TableUpdates>() {
+                    @Override
+                    public void onSuccess(TableUpdates updates) {
+                        callback.update(updates, dbSchema);
+                        monitored.set(null);
+                    }
+
+                    @Override
+                    public void onFailure(Throwable throwable) {
+                        LOG.warn("Failed to monitor {} on {}", database, connectionInfo, throwable);
+                        monitored.setException(throwable);
+                    }
+                }, MoreExecutors.directExecutor());
         } else {
             LOG.warn("No tables for schema {} for database {} for key {}",dbSchema,database,connectionInfo);
+            monitored.setException(new IllegalStateException("No tables in database " + database));
         }
     }
 
-    private void updateConnectionAttributes(InstanceIdentifierCodec instanceIdentifierCodec) {
+    private void updateConnectionAttributes(InstanceIdentifierCodec instanceIdentifierCodec,
+            DatabaseSchema dbSchema) {
         LOG.debug("Update attributes of ovsdb node ip: {} port: {}",
                     this.initialCreateData.getConnectionInfo().getRemoteIp(),
                     this.initialCreateData.getConnectionInfo().getRemotePort());
-        for (Map.Entry<DatabaseSchema,TransactInvoker> entry: transactInvokers.entrySet()) {
+        TransactionBuilder transaction = new TransactionBuilder(this.client, dbSchema);
 
-            TransactionBuilder transaction = new TransactionBuilder(this.client, entry.getKey());
+        // OpenVSwitchPart
+        OpenVSwitch ovs = TyperUtils.getTypedRowWrapper(transaction.getDatabaseSchema(), OpenVSwitch.class);
 
-            // OpenVSwitchPart
-            OpenVSwitch ovs = TyperUtils.getTypedRowWrapper(transaction.getDatabaseSchema(), OpenVSwitch.class);
+        List<OpenvswitchExternalIds> externalIds = this.initialCreateData.getOpenvswitchExternalIds();
 
-            List<OpenvswitchExternalIds> externalIds = this.initialCreateData.getOpenvswitchExternalIds();
+        stampInstanceIdentifier(transaction, this.instanceIdentifier.firstIdentifierOf(Node.class),
+                instanceIdentifierCodec);
 
-            stampInstanceIdentifier(transaction, this.instanceIdentifier.firstIdentifierOf(Node.class),
-                    instanceIdentifierCodec);
+        try {
+            ovs.setExternalIds(
+                    YangUtils.convertYangKeyValueListToMap(externalIds, OpenvswitchExternalIds::getExternalIdKey,
+                            OpenvswitchExternalIds::getExternalIdValue));
+            Mutate<GenericTableSchema> mutate = op.mutate(ovs)
+                        .addMutation(ovs.getExternalIdsColumn().getSchema(),
+                            Mutator.INSERT,
+                            ovs.getExternalIdsColumn().getData());
+            transaction.add(mutate);
+        } catch (NullPointerException e) {
+            LOG.warn("Incomplete OVSDB Node external IDs", e);
+        }
 
+        List<OpenvswitchOtherConfigs> otherConfigs = this.initialCreateData.getOpenvswitchOtherConfigs();
+        if (otherConfigs != null) {
             try {
-                ovs.setExternalIds(
-                        YangUtils.convertYangKeyValueListToMap(externalIds, OpenvswitchExternalIds::getExternalIdKey,
-                                OpenvswitchExternalIds::getExternalIdValue));
-                Mutate<GenericTableSchema> mutate = op.mutate(ovs)
-                            .addMutation(ovs.getExternalIdsColumn().getSchema(),
-                                Mutator.INSERT,
-                                ovs.getExternalIdsColumn().getData());
-                transaction.add(mutate);
+                ovs.setOtherConfig(YangUtils.convertYangKeyValueListToMap(otherConfigs,
+                        OpenvswitchOtherConfigs::getOtherConfigKey,
+                        OpenvswitchOtherConfigs::getOtherConfigValue));
+                transaction.add(op.mutate(ovs).addMutation(ovs.getOtherConfigColumn().getSchema(),
+                    Mutator.INSERT,
+                    ovs.getOtherConfigColumn().getData()));
             } catch (NullPointerException e) {
-                LOG.warn("Incomplete OVSDB Node external IDs", e);
+                LOG.warn("Incomplete OVSDB Node other_config", e);
             }
-
-
-
-            List<OpenvswitchOtherConfigs> otherConfigs = this.initialCreateData.getOpenvswitchOtherConfigs();
-            if (otherConfigs != null) {
-                try {
-                    ovs.setOtherConfig(YangUtils.convertYangKeyValueListToMap(otherConfigs,
-                            OpenvswitchOtherConfigs::getOtherConfigKey,
-                            OpenvswitchOtherConfigs::getOtherConfigValue));
-                    transaction.add(op.mutate(ovs).addMutation(ovs.getOtherConfigColumn().getSchema(),
-                        Mutator.INSERT,
-                        ovs.getOtherConfigColumn().getData()));
-                } catch (NullPointerException e) {
-                    LOG.warn("Incomplete OVSDB Node other_config", e);
-                }
-            }
-
-            invoke(transaction);
         }
+
+        invoke(transaction);
     }
 
     private void stampInstanceIdentifier(TransactionBuilder transaction,InstanceIdentifier<Node> iid,
@@ -249,17 +346,80 @@ public class OvsdbConnectionInstance {
         ListenableFuture<List<OperationResult>> result = txBuilder.execute();
         LOG.debug("invoke: tb: {}", txBuilder);
         if (txBuilder.getOperations().size() > 0) {
-            try {
-                List<OperationResult> got = result.get();
-                LOG.debug("OVSDB transaction result: {}", got);
-            } catch (InterruptedException | ExecutionException e) {
-                LOG.warn("Transact execution exception: ", e);
-            }
+            Futures.addCallback(result, new FutureCallback<List<OperationResult>>() {
+                @Override
+                public void onSuccess(List<OperationResult> got) {
+                    LOG.debug("OVSDB transaction result: {}", got);
+                }
+
+                @Override
+                public void onFailure(Throwable throwable) {
+                    LOG.warn("Transact execution exception: ", throwable);
+                }
+            }, MoreExecutors.directExecutor());
             LOG.trace("invoke exit tb: {}", txBuilder);
         }
     }
 
 
+    /**
+     * Applies the current external id filter to the monitor of the switch. The switch then reports the rows
+     * leaving the filter as deleted and the ones entering it as inserted.
+     */
+    public void updateMonitorConditions() {
+        MonitorHandle handle = this.monitorHandle;
+        if (handle == null) {
+            return;
+        }
+        List<MonitorRequest> monitorRequests = new ArrayList<>();
+        for (String tableName : SouthboundConstants.EXTERNAL_ID_FILTERED_TABLE) {
+            MonitorRequest monitorRequest = new MonitorRequest(tableName);
+            monitorRequest.setWhere(externalIdConditions(tableName));
+            monitorRequests.add(monitorRequest);
+        }
+        Futures.addCallback(client.changeMonitorConditions(handle, monitorRequests), new FutureCallback<Void>() {
+            @Override
+            public void onSuccess(Void result) {
+                LOG.info("Southbound monitoring rows with external ids {} on {}", monitoredExternalIds,
+                        connectionInfo);
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+                LOG.warn("Unable to change the monitor conditions of {}", connectionInfo, throwable);
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+    /**
+     * Sets the external ids the monitored rows of the Bridge and Port tables must carry, so that on shared
+     * hosts the switch only sends the rows owned by this controller. Only honoured by switches supporting
+     * monitor_cond, and when the library is configured to use it.
+     *
+     * @param externalIds external ids to match, all rows are monitored when empty
+     */
+    static void setMonitoredExternalIds(Map<String, String> externalIds) {
+        monitoredExternalIds = ImmutableMap.copyOf(externalIds);
+    }
+
+    /**
+     * Returns the external ids the monitored rows of the Bridge and Port tables must carry, empty when all rows
+     * are monitored.
+     */
+    public static Map<String, String> getMonitoredExternalIds() {
+        return monitoredExternalIds;
+    }
+
+    private static List<Condition> externalIdConditions(String tableName) {
+        Map<String, String> externalIds = monitoredExternalIds;
+        if (externalIds.isEmpty() || !SouthboundConstants.EXTERNAL_ID_FILTERED_TABLE.contains(tableName)) {
+            return null;
+        }
+        // OVSDB conditions cannot test the presence of a key, the rows must include all the pairs
+        return Collections.singletonList(new Condition(EXTERNAL_IDS_COLUMN,
+                Function.INCLUDES, OvsdbMap.fromMap(externalIds)));
+    }
+
     public ListenableFuture<List<String>> getDatabases() {
         return client.getDatabases();
     }
@@ -268,6 +428,15 @@ public class OvsdbConnectionInstance {
         return client.getSchema(database);
     }
 
+    public DatabaseReplica getReplica(String database) {
+        return client.getReplica(database);
+    }
+
+    public <E extends TableSchema<E>> List<Row<E>> lookup(DatabaseSchema dbSchema, TableSchema<E> tableSchema,
+                                                          String indexName, Object... values) {
+        return client.lookup(dbSchema, tableSchema, indexName, values);
+    }
+
     public TransactionBuilder transactBuilder(DatabaseSchema dbSchema) {
         return client.transactBuilder(dbSchema);
     }
@@ -275,7 +444,7 @@ public class OvsdbConnectionInstance {
     public <E extends TableSchema<E>> TableUpdates monitor(
             DatabaseSchema schema, List<MonitorRequest> monitorRequests,
             MonitorHandle monitorHandle, MonitorCallBack callbackArgument) {
-        return null;
+        return client.monitor(schema, monitorRequests, monitorHandle, callbackArgument);
     }
 
     public <E extends TableSchema<E>> TableUpdates monitor(
@@ -284,10 +453,20 @@ public class OvsdbConnectionInstance {
         return client.monitor(schema, monitorRequests, callbackArgument);
     }
 
+    public ListenableFuture<TableUpdates> monitorAsync(
+            DatabaseSchema schema, List<MonitorRequest> monitorRequests,
+            MonitorHandle monitorHandle, MonitorCallBack callbackArgument) {
+        return client.monitorAsync(schema, monitorRequests, monitorHandle, callbackArgument);
+    }
+
     public void cancelMonitor(MonitorHandle handler) {
         client.cancelMonitor(handler);
     }
 
+    public ListenableFuture<Void> cancelMonitorAsync(MonitorHandle handler) {
+        return client.cancelMonitorAsync(handler);
+    }
+
     public void lock(String lockId, LockAquisitionCallback lockedCallBack,
             LockStolenCallback stolenCallback) {
         client.lock(lockId, lockedCallBack, stolenCallback);
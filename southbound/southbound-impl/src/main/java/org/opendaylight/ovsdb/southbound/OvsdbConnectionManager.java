@@ -41,9 +41,11 @@ import org.opendaylight.controller.md.sal.common.api.data.ReadFailedException;
 import org.opendaylight.ovsdb.lib.OvsdbClient;
 import org.opendaylight.ovsdb.lib.OvsdbConnection;
 import org.opendaylight.ovsdb.lib.OvsdbConnectionListener;
+import org.opendaylight.ovsdb.lib.notation.Row;
 import org.opendaylight.ovsdb.lib.operations.Operation;
 import org.opendaylight.ovsdb.lib.operations.OperationResult;
 import org.opendaylight.ovsdb.lib.operations.Select;
+import org.opendaylight.ovsdb.lib.replica.DatabaseReplica;
 import org.opendaylight.ovsdb.lib.schema.DatabaseSchema;
 import org.opendaylight.ovsdb.lib.schema.GenericTableSchema;
 import org.opendaylight.ovsdb.lib.schema.typed.TyperUtils;
@@ -253,6 +255,15 @@ public class OvsdbConnectionManager implements OvsdbConnectionListener, AutoClos
         }
     }
 
+    /**
+     * Applies the current external id filter to the monitors of all the connected switches.
+     */
+    public void updateMonitorConditions() {
+        for (OvsdbConnectionInstance client: clients.values()) {
+            client.updateMonitorConditions();
+        }
+    }
+
     private void putConnectionInstance(ConnectionInfo key,OvsdbConnectionInstance instance) {
         ConnectionInfo connectionInfo = SouthboundMapper.suppressLocalIpPort(key);
         clients.put(connectionInfo, instance);
@@ -416,10 +427,21 @@ public class OvsdbConnectionManager implements OvsdbConnectionListener, AutoClos
                     ovsdbConnectionInstance.getConnectionInfo());
 
             //*this* instance of southbound plugin is owner of the device,
-            //so register for monitor callbacks
-            ovsdbConnectionInstance.registerCallbacks(instanceIdentifierCodec);
+            //so register for monitor callbacks, and reconcile the bridges once the
+            //initial rows of the monitor are on their way to the operational store
+            Futures.addCallback(ovsdbConnectionInstance.registerCallbacks(instanceIdentifierCodec),
+                new FutureCallback<Void>() {
+                    @Override
+                    public void onSuccess(Void result) {
+                        reconcileBridgeConfigurations(ovsdbConnectionInstance);
+                    }
 
-            reconcileBridgeConfigurations(ovsdbConnectionInstance);
+                    @Override
+                    public void onFailure(Throwable throwable) {
+                        LOG.warn("Not reconciling the bridges of {} which could not be monitored",
+                                ovsdbConnectionInstance.getConnectionInfo(), throwable);
+                    }
+                }, MoreExecutors.directExecutor());
         } else {
             //You were owner of the device, but now you are not. With the current ownership
             //grant mechanism, this scenario should not occur. Because this scenario will occur
@@ -476,6 +498,15 @@ public class OvsdbConnectionManager implements OvsdbConnectionListener, AutoClos
         if (dbSchema != null) {
             GenericTableSchema openVSwitchSchema = TyperUtils.getTableSchema(dbSchema, OpenVSwitch.class);
 
+            // Once the database is monitored, the row is read from the replica kept by the library
+            DatabaseReplica replica = connectionInstance.getReplica(OvsdbSchemaContants.DATABASE_NAME);
+            if (replica != null) {
+                List<Row<GenericTableSchema>> rows = replica.getRows(openVSwitchSchema);
+                if (!rows.isEmpty()) {
+                    return TyperUtils.getTypedRowWrapper(dbSchema, OpenVSwitch.class, rows.get(0));
+                }
+            }
+
             List<String> openVSwitchTableColumn = new ArrayList<>();
             openVSwitchTableColumn.addAll(openVSwitchSchema.getColumns());
             Select<GenericTableSchema> selectOperation = op.select(openVSwitchSchema);
@@ -9,6 +9,7 @@ package org.opendaylight.ovsdb.southbound;
 
 import com.google.common.collect.ImmutableBiMap;
 import com.google.common.collect.ImmutableCollection;
+import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import java.util.ArrayList;
@@ -16,6 +17,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
+import org.opendaylight.ovsdb.lib.schema.TableIndex;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Uri;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.ovsdb.rev150105.DatapathTypeBase;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.ovsdb.rev150105.DatapathTypeNetdev;
@@ -152,6 +154,20 @@ public interface SouthboundConstants {
             .add("Flow_Sample_Collector_Set")
             .build();
 
+    // Tables whose rows can be filtered on their external ids, see SouthboundProvider::setMonitorExternalIds().
+    // The rows of the other tables referring to filtered out rows, such as their interfaces, are ignored.
+    ImmutableCollection<String> EXTERNAL_ID_FILTERED_TABLE = ImmutableSet.of("Bridge", "Port");
+
+    // Secondary indexes of the replicated tables, see OvsdbConnectionInstance::monitorTables(), looked up by
+    // OvsdbPortUpdateCommand
+    String NAME_INDEX = "name";
+    String BRIDGE_PORTS_INDEX = "ports";
+    ImmutableListMultimap<String, TableIndex> REPLICA_INDEXES
+            = new ImmutableListMultimap.Builder<String, TableIndex>()
+            .put("Bridge", TableIndex.multiValued(BRIDGE_PORTS_INDEX, "ports"))
+            .put("Port", TableIndex.unique(NAME_INDEX, "name"))
+            .build();
+
     //Note: _version is an internal column of ovsdb schema, that gets updated
     //with every change in the row of the table.
     // The "Manager" entry needs to be a modifiable list, SouthboundProvider::setSkipManagerStatus() modifies it
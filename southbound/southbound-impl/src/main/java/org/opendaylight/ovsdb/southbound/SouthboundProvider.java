@@ -8,9 +8,11 @@
 package org.opendaylight.ovsdb.southbound;
 
 import com.google.common.base.Optional;
+import com.google.common.base.Splitter;
 import com.google.common.util.concurrent.CheckedFuture;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -31,6 +33,7 @@ import org.opendaylight.controller.md.sal.common.api.data.ReadFailedException;
 import org.opendaylight.mdsal.binding.dom.codec.api.BindingNormalizedNodeSerializer;
 import org.opendaylight.mdsal.dom.api.DOMSchemaService;
 import org.opendaylight.ovsdb.lib.OvsdbConnection;
+import org.opendaylight.ovsdb.southbound.ovsdb.transact.TransactInvokerImpl;
 import org.opendaylight.ovsdb.southbound.transactions.md.TransactionInvoker;
 import org.opendaylight.ovsdb.southbound.transactions.md.TransactionInvokerImpl;
 import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.NetworkTopology;
@@ -63,6 +66,8 @@ public class SouthboundProvider implements ClusteredDataTreeChangeListener<Topol
     private final OvsdbConnection ovsdbConnection;
     private final InstanceIdentifierCodec instanceIdentifierCodec;
     private static final String SKIP_MONITORING_MANAGER_STATUS_PARAM = "skip-monitoring-manager-status";
+    private static final String MONITOR_EXTERNAL_IDS_PARAM = "monitor-external-ids";
+    private static final String MAX_INFLIGHT_TRANSACTIONS_PARAM = "max-inflight-transactions";
     private final AtomicBoolean registered = new AtomicBoolean(false);
     private ListenerRegistration<SouthboundProvider> operTopologyRegistration;
 
@@ -204,7 +209,13 @@ public class SouthboundProvider implements ClusteredDataTreeChangeListener<Topol
             for (Map.Entry<String, Object> paramEntry : configParameters.entrySet()) {
                 if (paramEntry.getKey().equalsIgnoreCase(SKIP_MONITORING_MANAGER_STATUS_PARAM)) {
                     setSkipMonitoringManagerStatus(Boolean.parseBoolean((String)paramEntry.getValue()));
-                    break;
+                } else if (paramEntry.getKey().equalsIgnoreCase(MONITOR_EXTERNAL_IDS_PARAM)) {
+                    setMonitorExternalIds((String)paramEntry.getValue());
+                    if (cm != null) {
+                        cm.updateMonitorConditions();
+                    }
+                } else if (paramEntry.getKey().equalsIgnoreCase(MAX_INFLIGHT_TRANSACTIONS_PARAM)) {
+                    setMaxInflightTransactions(Integer.parseInt((String)paramEntry.getValue()));
                 }
             }
         }
@@ -218,4 +229,24 @@ public class SouthboundProvider implements ClusteredDataTreeChangeListener<Topol
             SouthboundConstants.SKIP_COLUMN_FROM_TABLE.get("Manager").remove("status");
         }
     }
+
+    /**
+     * Sets the external ids, as comma separated key=value pairs, the Bridge and Port rows must carry to be
+     * monitored. An empty value monitors all the rows.
+     */
+    public void setMonitorExternalIds(String externalIds) {
+        LOG.debug("monitorExternalIds set to {}", externalIds);
+        Map<String, String> parsed = externalIds == null || externalIds.trim().isEmpty() ? Collections.emptyMap()
+                : Splitter.on(',').trimResults().omitEmptyStrings().withKeyValueSeparator('=').split(externalIds);
+        OvsdbConnectionInstance.setMonitoredExternalIds(parsed);
+    }
+
+    /**
+     * Sets the maximum number of transactions sent to a switch without their results, beyond which the
+     * configuration changes wait for the switch to catch up.
+     */
+    public void setMaxInflightTransactions(int maxInflight) {
+        LOG.debug("maxInflightTransactions set to {}", maxInflight);
+        TransactInvokerImpl.setMaxInFlightTransactions(maxInflight);
+    }
 }
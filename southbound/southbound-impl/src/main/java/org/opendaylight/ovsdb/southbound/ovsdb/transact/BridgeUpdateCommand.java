@@ -138,6 +138,8 @@ public class BridgeUpdateCommand implements TransactCommand {
         } catch (NullPointerException e) {
             LOG.warn("Incomplete bridge external Id", e);
         }
+        // Keep the bridge monitored
+        externalIdMap.putAll(TransactUtils.monitoredExternalIds(bridge.getSchema().getName()));
         bridge.setExternalIds(externalIdMap);
     }
 
@@ -159,6 +161,10 @@ public class BridgeUpdateCommand implements TransactCommand {
         Port port = TyperUtils.getTypedRowWrapper(transaction.getDatabaseSchema(), Port.class);
         port.setName(ovsdbManagedNode.getBridgeName().getValue());
         port.setInterfaces(Collections.singleton(TransactUtils.extractNamedUuid(interfaceInsert)));
+        Map<String, String> monitoredExternalIds = TransactUtils.monitoredExternalIds(port.getSchema().getName());
+        if (!monitoredExternalIds.isEmpty()) {
+            port.setExternalIds(monitoredExternalIds);
+        }
         transaction.add(op.insert(port).withId(portNamedUuid));
         bridge.setPorts(Collections.singleton(new UUID(portNamedUuid)));
     }
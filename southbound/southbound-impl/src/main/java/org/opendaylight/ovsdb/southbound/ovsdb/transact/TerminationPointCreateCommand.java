@@ -275,15 +275,21 @@ public class TerminationPointCreateCommand implements TransactCommand {
             final OvsdbTerminationPointAugmentation terminationPoint,
             final Port port) {
 
+        Map<String, String> externalIds = new HashMap<>();
         List<PortExternalIds> portExternalIds = terminationPoint.getPortExternalIds();
         if (portExternalIds != null && !portExternalIds.isEmpty()) {
             try {
-                port.setExternalIds(YangUtils.convertYangKeyValueListToMap(portExternalIds,
+                externalIds.putAll(YangUtils.convertYangKeyValueListToMap(portExternalIds,
                         PortExternalIds::getExternalIdKey, PortExternalIds::getExternalIdValue));
             } catch (NullPointerException e) {
                 LOG.warn("Incomplete OVSDB port external_ids", e);
             }
         }
+        // Keep the port monitored
+        externalIds.putAll(TransactUtils.monitoredExternalIds(port.getSchema().getName()));
+        if (!externalIds.isEmpty()) {
+            port.setExternalIds(externalIds);
+        }
     }
 
     private void createPortVlanTag(
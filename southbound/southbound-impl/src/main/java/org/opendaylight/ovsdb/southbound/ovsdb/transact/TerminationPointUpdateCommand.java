@@ -341,8 +341,11 @@ public class TerminationPointUpdateCommand implements TransactCommand {
         List<PortExternalIds> portExternalIds = terminationPoint.getPortExternalIds();
         if (portExternalIds != null && !portExternalIds.isEmpty()) {
             try {
-                port.setExternalIds(YangUtils.convertYangKeyValueListToMap(portExternalIds,
-                        PortExternalIds::getExternalIdKey, PortExternalIds::getExternalIdValue));
+                Map<String, String> externalIds = new HashMap<>(YangUtils.convertYangKeyValueListToMap(
+                        portExternalIds, PortExternalIds::getExternalIdKey, PortExternalIds::getExternalIdValue));
+                // The external ids are replaced, keep the port monitored
+                externalIds.putAll(TransactUtils.monitoredExternalIds(port.getSchema().getName()));
+                port.setExternalIds(externalIds);
             } catch (NullPointerException e) {
                 LOG.warn("Incomplete OVSDB port external_ids", e);
             }
@@ -7,11 +7,14 @@
  */
 package org.opendaylight.ovsdb.southbound.ovsdb.transact;
 
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
 import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.CancellationException;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
 
 import org.opendaylight.controller.md.sal.binding.api.DataTreeModification;
 import org.opendaylight.controller.md.sal.common.api.data.AsyncDataChangeEvent;
@@ -26,14 +29,34 @@ import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Sends the transactions of a connection without waiting for their results, up to a maximum number of
+ * transactions in flight: beyond it the caller, usually the MD-SAL listener, waits for the device to catch up.
+ * As the OVSDB server processes the requests of a connection in order, the transactions still apply in the
+ * order they are invoked.
+ */
 public class TransactInvokerImpl implements TransactInvoker {
     private static final Logger LOG = LoggerFactory.getLogger(TransactInvokerImpl.class);
+    private static final int DEFAULT_MAX_IN_FLIGHT_TRANSACTIONS = 16;
+
+    private static volatile int maxInFlightTransactions = DEFAULT_MAX_IN_FLIGHT_TRANSACTIONS;
+
     private OvsdbConnectionInstance connectionInstance;
     private DatabaseSchema dbSchema;
+    private final Semaphore inFlight;
 
     public TransactInvokerImpl(OvsdbConnectionInstance connectionInstance, DatabaseSchema dbSchema) {
         this.connectionInstance = connectionInstance;
         this.dbSchema = dbSchema;
+        this.inFlight = new Semaphore(maxInFlightTransactions);
+    }
+
+    /**
+     * Sets the maximum number of transactions in flight on a connection, applied to the connections established
+     * afterwards.
+     */
+    public static void setMaxInFlightTransactions(int maxInFlight) {
+        maxInFlightTransactions = maxInFlight > 0 ? maxInFlight : DEFAULT_MAX_IN_FLIGHT_TRANSACTIONS;
     }
 
     @Override
@@ -54,20 +77,38 @@ public class TransactInvokerImpl implements TransactInvoker {
     }
 
     private void invoke(TransactCommand command, TransactionBuilder tb) {
-        ListenableFuture<List<OperationResult>> result = tb.execute();
+        if (tb.getOperations().isEmpty()) {
+            tb.execute();
+            LOG.debug("invoke: command: {}, tb: {}", command, tb);
+            return;
+        }
+        inFlight.acquireUninterruptibly();
+        ListenableFuture<List<OperationResult>> result;
+        try {
+            result = tb.execute();
+        } catch (RuntimeException e) {
+            inFlight.release();
+            throw e;
+        }
         LOG.debug("invoke: command: {}, tb: {}", command, tb);
-        if (tb.getOperations().size() > 0) {
-            try {
-                if (!result.isCancelled()) {
-                    List<OperationResult> got = result.get();
-                    LOG.debug("OVSDB transaction result: {}", got);
-                } else {
+        Futures.addCallback(result, new FutureCallback<List<OperationResult>>() {
+            @Override
+            public void onSuccess(List<OperationResult> got) {
+                inFlight.release();
+                LOG.debug("OVSDB transaction result: {}", got);
+                LOG.trace("invoke exit command: {}, tb: {}", command, tb);
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+                inFlight.release();
+                if (throwable instanceof CancellationException) {
                     LOG.debug("Operation task cancelled for transaction : {}", tb);
+                } else {
+                    LOG.warn("Transact execution exception: ", throwable);
                 }
-            } catch (InterruptedException | ExecutionException | CancellationException e) {
-                LOG.warn("Transact execution exception: ", e);
+                LOG.trace("invoke exit command: {}, tb: {}", command, tb);
             }
-            LOG.trace("invoke exit command: {}, tb: {}", command, tb);
-        }
+        }, MoreExecutors.directExecutor());
     }
 }
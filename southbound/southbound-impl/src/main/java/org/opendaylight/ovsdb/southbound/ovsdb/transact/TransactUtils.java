@@ -10,7 +10,6 @@ package org.opendaylight.ovsdb.southbound.ovsdb.transact;
 import static org.opendaylight.ovsdb.lib.operations.Operations.op;
 
 import com.google.common.base.Predicates;
-import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -39,6 +38,7 @@ import org.opendaylight.ovsdb.lib.schema.ColumnSchema;
 import org.opendaylight.ovsdb.lib.schema.GenericTableSchema;
 import org.opendaylight.ovsdb.lib.schema.TableSchema;
 import org.opendaylight.ovsdb.southbound.InstanceIdentifierCodec;
+import org.opendaylight.ovsdb.southbound.OvsdbConnectionInstance;
 import org.opendaylight.ovsdb.southbound.SouthboundConstants;
 import org.opendaylight.ovsdb.southbound.SouthboundMapper;
 import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.Node;
@@ -436,15 +436,16 @@ public class TransactUtils {
     public static <T extends TableSchema<T>> Mutate<T> stampInstanceIdentifierMutation(TransactionBuilder transaction,
             InstanceIdentifier<?> iid, TableSchema<T> tableSchema, ColumnSchema<T, Map<String, String>> columnSchema,
             InstanceIdentifierCodec instanceIdentifierCodec) {
-        Map<String,String> externalIdsMap = ImmutableMap.of(SouthboundConstants.IID_EXTERNAL_ID_KEY,
-                instanceIdentifierCodec.serialize(iid));
+        Map<String,String> externalIdsMap = new HashMap<>(monitoredExternalIds(tableSchema.getName()));
+        externalIdsMap.put(SouthboundConstants.IID_EXTERNAL_ID_KEY, instanceIdentifierCodec.serialize(iid));
         Mutate<T> mutate = op.mutate(tableSchema)
                 .addMutation(columnSchema,
                     Mutator.INSERT,
                     externalIdsMap);
+        // Inserting an existing key leaves its value unchanged, the stamped keys are deleted first
         Mutation deleteIidMutation = new Mutation(columnSchema.getName(),
                 Mutator.DELETE,
-                OvsdbSet.fromSet(Collections.singleton(SouthboundConstants.IID_EXTERNAL_ID_KEY)));
+                OvsdbSet.fromSet(new HashSet<>(externalIdsMap.keySet())));
         List<Mutation> mutations = new ArrayList<>();
         mutations.add(deleteIidMutation);
         mutations.addAll(mutate.getMutations());
@@ -452,6 +453,21 @@ public class TransactUtils {
         return mutate;
     }
 
+    /**
+     * Returns the external ids the rows of the given table must carry to be monitored, see
+     * {@link OvsdbConnectionInstance#getMonitoredExternalIds()}. The rows created or stamped by the southbound
+     * carry them, otherwise they would be filtered out of the operational topology.
+     *
+     * @param tableName The table name.
+     * @return The external ids, empty if the rows of the table are not filtered.
+     */
+    public static Map<String, String> monitoredExternalIds(String tableName) {
+        if (tableName == null || !SouthboundConstants.EXTERNAL_ID_FILTERED_TABLE.contains(tableName)) {
+            return Collections.emptyMap();
+        }
+        return OvsdbConnectionInstance.getMonitoredExternalIds();
+    }
+
     /**
      * This method builds a string by concatenating the 2 character
      * hexadecimal representation of each byte from the input byte array.
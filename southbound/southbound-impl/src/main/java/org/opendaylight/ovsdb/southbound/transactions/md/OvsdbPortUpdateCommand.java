@@ -25,7 +25,9 @@ import org.opendaylight.ovsdb.lib.error.ColumnSchemaNotFoundException;
 import org.opendaylight.ovsdb.lib.error.SchemaVersionMismatchException;
 import org.opendaylight.ovsdb.lib.message.TableUpdates;
 import org.opendaylight.ovsdb.lib.notation.Column;
+import org.opendaylight.ovsdb.lib.notation.Row;
 import org.opendaylight.ovsdb.lib.notation.UUID;
+import org.opendaylight.ovsdb.lib.replica.DatabaseReplica;
 import org.opendaylight.ovsdb.lib.schema.DatabaseSchema;
 import org.opendaylight.ovsdb.lib.schema.GenericTableSchema;
 import org.opendaylight.ovsdb.lib.schema.typed.TyperUtils;
@@ -160,7 +162,14 @@ public class OvsdbPortUpdateCommand extends AbstractTransactionCommand {
         for (Entry<UUID, Interface> interfaceUpdate : interfaceUpdatedRows.entrySet()) {
             String interfaceName = null;
             interfaceName = interfaceUpdatedRows.get(interfaceUpdate.getKey()).getNameColumn().getData();
-            Optional<InstanceIdentifier<Node>> bridgeIid = getTerminationPointBridge(transaction, node, interfaceName);
+            Optional<InstanceIdentifier<Node>> bridgeIid = getReplicatedTerminationPointBridge(interfaceName);
+            if (!bridgeIid.isPresent()) {
+                if (isPortReplicaFiltered()) {
+                    LOG.debug("Ignoring interface {}, its port is not monitored", interfaceName);
+                    continue;
+                }
+                bridgeIid = getTerminationPointBridge(transaction, node, interfaceName);
+            }
             if (bridgeIid.isPresent()) {
                 TerminationPointKey tpKey = new TerminationPointKey(new TpId(interfaceName));
                 TerminationPointBuilder tpBuilder = new TerminationPointBuilder();
@@ -227,7 +236,50 @@ public class OvsdbPortUpdateCommand extends AbstractTransactionCommand {
                                 this.bridgeUpdatedRows.get(bridgeUuid)));
             }
         }
-        return Optional.absent();
+        return getReplicatedBridge(portUuid);
+    }
+
+    /**
+     * Looks the bridge of a port up in the replica of the switch tables, when one is kept, through the index of
+     * the bridges on their ports.
+     */
+    private Optional<InstanceIdentifier<Node>> getReplicatedBridge(UUID portUuid) {
+        DatabaseSchema dbSchema = getDbSchema();
+        List<Row<GenericTableSchema>> bridgeRows = getOvsdbConnectionInstance().lookup(dbSchema,
+                TyperUtils.getTableSchema(dbSchema, Bridge.class), SouthboundConstants.BRIDGE_PORTS_INDEX, portUuid);
+        if (bridgeRows == null || bridgeRows.isEmpty()) {
+            return Optional.absent();
+        }
+        Bridge bridge = TyperUtils.getTypedRowWrapper(dbSchema, Bridge.class, bridgeRows.get(0));
+        return Optional.of(SouthboundMapper.createInstanceIdentifier(instanceIdentifierCodec,
+                getOvsdbConnectionInstance(), bridge));
+    }
+
+    /**
+     * Looks the bridge of a termination point up in the replica of the switch tables, when one is kept, without
+     * reading the bridges from the datastore.
+     */
+    private Optional<InstanceIdentifier<Node>> getReplicatedTerminationPointBridge(String tpName) {
+        DatabaseSchema dbSchema = getDbSchema();
+        List<Row<GenericTableSchema>> portRows = getOvsdbConnectionInstance().lookup(dbSchema,
+                TyperUtils.getTableSchema(dbSchema, Port.class), SouthboundConstants.NAME_INDEX, tpName);
+        if (portRows == null || portRows.isEmpty()) {
+            return Optional.absent();
+        }
+        return getReplicatedBridge(TyperUtils.getTypedRowWrapper(dbSchema, Port.class, portRows.get(0)).getUuid());
+    }
+
+    /**
+     * Tells whether the replica of the switch tables holds the monitored ports, but only those carrying the
+     * monitored external ids. The Interface table is not filtered: an interface whose port is not in the replica
+     * belongs to a port which is not monitored, and has no termination point.
+     */
+    private boolean isPortReplicaFiltered() {
+        if (OvsdbConnectionInstance.getMonitoredExternalIds().isEmpty()) {
+            return false;
+        }
+        DatabaseReplica replica = getOvsdbConnectionInstance().getReplica(getDbSchema().getName());
+        return replica != null && replica.hasTable(TyperUtils.getTableSchema(getDbSchema(), Port.class).getName());
     }
 
     @SuppressWarnings("unchecked")
@@ -22,6 +22,7 @@ import static org.mockito.Mockito.when;
 import static org.powermock.api.support.membermodification.MemberMatcher.field;
 import static org.powermock.api.support.membermodification.MemberModifier.suppress;
 
+import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -125,10 +126,8 @@ public class OvsdbConnectionInstanceTest {
         doReturn(listenableFuture).when(ovsdbConnectionInstance).getDatabases();
         when(listenableFuture.get()).thenReturn(databases);
 
-        ListenableFuture<DatabaseSchema> listenableDbSchema = mock(ListenableFuture.class);
         DatabaseSchema dbSchema = mock(DatabaseSchema.class);
-        doReturn(listenableDbSchema).when(ovsdbConnectionInstance).getSchema(anyString());
-        when(listenableDbSchema.get()).thenReturn(dbSchema);
+        doReturn(Futures.immediateFuture(dbSchema)).when(ovsdbConnectionInstance).getSchema(anyString());
 
         suppress(MemberMatcher.method(OvsdbConnectionInstance.class, "monitorTables", String.class,
                 DatabaseSchema.class));
@@ -149,10 +148,8 @@ public class OvsdbConnectionInstanceTest {
         // transactInvokers null case
         MemberModifier.field(OvsdbConnectionInstance.class, "transactInvokers").set(ovsdbConnectionInstance , null);
 
-        ListenableFuture<DatabaseSchema> listenableDbSchema = mock(ListenableFuture.class);
         DatabaseSchema dbSchema = mock(DatabaseSchema.class);
-        doReturn(listenableDbSchema).when(ovsdbConnectionInstance).getSchema(anyString());
-        when(listenableDbSchema.get()).thenReturn(dbSchema);
+        doReturn(Futures.immediateFuture(dbSchema)).when(ovsdbConnectionInstance).getSchema(anyString());
 
         ovsdbConnectionInstance.createTransactInvokers();
         verify(ovsdbConnectionInstance).getSchema(anyString());
@@ -180,18 +177,21 @@ public class OvsdbConnectionInstanceTest {
         columns.add("_version");
         columns.add("statistics");
         when(tableSchema.getColumns()).thenReturn(columns);
+        when(tableSchema.hasColumn(anyString())).thenReturn(true);
 
-        suppress(MemberMatcher.method(OvsdbConnectionInstance.class, "monitor", DatabaseSchema.class, List.class,
-                MonitorCallBack.class));
+        suppress(MemberMatcher.method(OvsdbConnectionInstance.class, "monitorAsync", DatabaseSchema.class,
+                List.class, MonitorHandle.class, MonitorCallBack.class));
         TableUpdates tableUpdates = mock(TableUpdates.class);
-        when(ovsdbConnectionInstance.monitor(any(DatabaseSchema.class), any(List.class), any(MonitorCallBack.class)))
-                .thenReturn(tableUpdates);
+        when(ovsdbConnectionInstance.monitorAsync(any(DatabaseSchema.class), any(List.class),
+                any(MonitorHandle.class), any(MonitorCallBack.class)))
+                .thenReturn(Futures.immediateFuture(tableUpdates));
         MemberModifier.field(OvsdbConnectionInstance.class, "callback").set(ovsdbConnectionInstance, callback);
         doNothing().when(callback).update(any(TableUpdates.class), any(DatabaseSchema.class));
 
         Whitebox.invokeMethod(ovsdbConnectionInstance, "monitorTables", "database", dbSchema);
         PowerMockito.verifyPrivate(ovsdbConnectionInstance, times(1)).invoke("monitorTables", anyString(),
                 any(DatabaseSchema.class));
+        verify(callback).update(tableUpdates, dbSchema);
     }
 
     @SuppressWarnings({ "unchecked" })
@@ -21,6 +21,7 @@ import static org.powermock.api.support.membermodification.MemberModifier.suppre
 
 import com.google.common.base.Optional;
 import com.google.common.util.concurrent.CheckedFuture;
+import com.google.common.util.concurrent.Futures;
 import java.net.InetAddress;
 import java.util.Collections;
 import java.util.List;
@@ -105,7 +106,7 @@ public class OvsdbConnectionManagerTest {
         suppress(MemberMatcher.method(OvsdbConnectionManager.class, "connectedButCallBacksNotRegistered",
                 OvsdbClient.class));
         when(ovsdbConnManager.connectedButCallBacksNotRegistered(any(OvsdbClient.class))).thenReturn(client);
-        doNothing().when(client).registerCallbacks(any());
+        when(client.registerCallbacks(any())).thenReturn(Futures.immediateFuture(null));
 
         //TODO: Write unit tests for EntityOwnershipService
         when(client.getInstanceIdentifier()).thenReturn(mock(InstanceIdentifier.class));
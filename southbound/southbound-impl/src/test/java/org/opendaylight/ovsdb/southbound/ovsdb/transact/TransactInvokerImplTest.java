@@ -15,9 +15,10 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
-import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Semaphore;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -67,15 +68,21 @@ public class TransactInvokerImplTest {
         doNothing().when(command).execute(any(TransactionBuilder.class), any(BridgeOperationalState.class),
                 any(AsyncDataChangeEvent.class), any(InstanceIdentifierCodec.class));
 
-        ListenableFuture<List<OperationResult>> result = mock(ListenableFuture.class);
+        SettableFuture<List<OperationResult>> result = SettableFuture.create();
         when(tb.execute()).thenReturn(result);
         List<Operation> operation = new ArrayList<>();
         operation.add(mock(Operation.class));
         when(tb.getOperations()).thenReturn(operation);
-        List<OperationResult> got = new ArrayList<>();
-        when(result.get()).thenReturn(got);
+        Semaphore inFlight = (Semaphore) Whitebox.getInternalState(transactInvokerImpl, "inFlight");
+        int permits = inFlight.availablePermits();
+
+        // The invoker does not wait for the result, but holds a permit until it comes
         transactInvokerImpl.invoke(command, mock(BridgeOperationalState.class), mock(AsyncDataChangeEvent.class),
                 mock(InstanceIdentifierCodec.class));
-        verify(result).get();
+        verify(tb).execute();
+        assertEquals(permits - 1, inFlight.availablePermits());
+
+        result.set(new ArrayList<>());
+        assertEquals(permits, inFlight.availablePermits());
     }
 }
@@ -24,6 +24,7 @@ import static org.powermock.api.support.membermodification.MemberModifier.suppre
 import com.google.common.base.Optional;
 import com.google.common.util.concurrent.CheckedFuture;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -41,6 +42,7 @@ import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.controller.md.sal.common.api.data.ReadFailedException;
 import org.opendaylight.ovsdb.lib.message.TableUpdates;
 import org.opendaylight.ovsdb.lib.notation.Column;
+import org.opendaylight.ovsdb.lib.notation.Row;
 import org.opendaylight.ovsdb.lib.notation.UUID;
 import org.opendaylight.ovsdb.lib.schema.DatabaseSchema;
 import org.opendaylight.ovsdb.lib.schema.GenericTableSchema;
@@ -240,6 +242,8 @@ public class OvsdbPortUpdateCommandTest {
         when(interfaceUpdate.getNameColumn()).thenReturn(interfaceColumn);
         when(interfaceColumn.getData()).thenReturn(INTERFACE_NAME);
 
+        PowerMockito.doReturn(Optional.absent()).when(ovsdbPortUpdateCommand, "getReplicatedTerminationPointBridge",
+                anyString());
         PowerMockito.doReturn(bridgeIid).when(ovsdbPortUpdateCommand, "getTerminationPointBridge",
                 any(ReadWriteTransaction.class), any(Node.class), anyString());
         PowerMockito.when(SouthboundMapper.createManagedNodeId(any(InstanceIdentifier.class))).thenReturn(bridgeId);
@@ -347,6 +351,37 @@ public class OvsdbPortUpdateCommandTest {
         assertEquals(testResult, Whitebox.invokeMethod(ovsdbPortUpdateCommand, "getTerminationPointBridge", portUuid));
     }
 
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testGetTerminationPointBridgeFromReplica() throws Exception {
+        field(OvsdbPortUpdateCommand.class, "bridgeUpdatedRows").set(ovsdbPortUpdateCommand, new HashMap<>());
+        DatabaseSchema dbSchema = mock(DatabaseSchema.class);
+        when(ovsdbPortUpdateCommand.getDbSchema()).thenReturn(dbSchema);
+        OvsdbConnectionInstance ovsdbConnectionInstance = mock(OvsdbConnectionInstance.class);
+        when(ovsdbPortUpdateCommand.getOvsdbConnectionInstance()).thenReturn(ovsdbConnectionInstance);
+
+        PowerMockito.mockStatic(TyperUtils.class);
+        GenericTableSchema bridgeSchema = mock(GenericTableSchema.class);
+        PowerMockito.when(TyperUtils.getTableSchema(dbSchema, Bridge.class)).thenReturn(bridgeSchema);
+        UUID portUuid = mock(UUID.class);
+        Row<GenericTableSchema> bridgeRow = mock(Row.class);
+        when(ovsdbConnectionInstance.lookup(dbSchema, bridgeSchema, SouthboundConstants.BRIDGE_PORTS_INDEX,
+                portUuid)).thenReturn(Collections.singletonList(bridgeRow));
+        Bridge bridge = mock(Bridge.class);
+        PowerMockito.when(TyperUtils.getTypedRowWrapper(dbSchema, Bridge.class, bridgeRow)).thenReturn(bridge);
+
+        PowerMockito.mockStatic(SouthboundMapper.class);
+        InstanceIdentifier<Node> nodeIid = mock(InstanceIdentifier.class);
+        PowerMockito.when(SouthboundMapper.createInstanceIdentifier(any(InstanceIdentifierCodec.class),
+                eq(ovsdbConnectionInstance), eq(bridge))).thenReturn(nodeIid);
+
+        assertEquals(Optional.of(nodeIid),
+                Whitebox.invokeMethod(ovsdbPortUpdateCommand, "getTerminationPointBridge", portUuid));
+        // Without a replica, the bridge is not found
+        assertEquals(Optional.absent(),
+                Whitebox.invokeMethod(ovsdbPortUpdateCommand, "getTerminationPointBridge", mock(UUID.class)));
+    }
+
     @SuppressWarnings("unchecked")
     @Test
     public void testGetTerminationPointBridge1() throws Exception {